@@ -0,0 +1,51 @@
+package br.com.king.flick_business.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.king.flick_business.DemoApplication;
+import br.com.king.flick_business.gerador.GeradorDados;
+
+/**
+ * Sobe a aplicação (sem servidor web) no perfil {@code benchmark} e popula o
+ * banco H2 com o {@link GeradorDados}. Volumes ajustáveis por propriedade de
+ * sistema: {@code flick.benchmark.products}, {@code flick.benchmark.clientes},
+ * {@code flick.benchmark.vendas} e {@code flick.benchmark.dias}; as demais
+ * distribuições seguem os padrões de {@code flick.gerador.*}.
+ */
+final class AplicacaoBenchmark {
+
+  static final int PRODUCTS = Integer.getInteger("flick.benchmark.products", 500);
+  static final int CLIENTES = Integer.getInteger("flick.benchmark.clientes", 200);
+  static final int VENDAS = Integer.getInteger("flick.benchmark.vendas", 50_000);
+  static final int DIAS = Integer.getInteger("flick.benchmark.dias", 365);
+
+  private AplicacaoBenchmark() {
+  }
+
+  static ConfigurableApplicationContext iniciar(String... propriedades) {
+    List<String> todas = new ArrayList<>(List.of(
+        "flick.gerador.periodo=" + DIAS + "d",
+        "flick.gerador.vendas-por-dia=" + Math.max(1, VENDAS / DIAS),
+        "flick.gerador.products=" + PRODUCTS,
+        "flick.gerador.clientes=" + CLIENTES,
+        "flick.gerador.lote=1000"));
+    todas.addAll(List.of(propriedades));
+
+    // Como argumentos de linha de comando: valem mais que application.properties
+    // (properties() só define padrões, que o arquivo sobrescreve)
+    ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DemoApplication.class)
+        .profiles("benchmark")
+        .web(WebApplicationType.NONE)
+        .run(todas.stream().map(propriedade -> "--" + propriedade).toArray(String[]::new));
+    contexto.getBean(GeradorDados.class).gerar();
+    // registrarVenda baixa estoque a cada iteração: o benchmark não pode esgotá-lo
+    contexto.getBean(JdbcTemplate.class).update("UPDATE products SET quantidade_estoque = 1000000000");
+    return contexto;
+  }
+}
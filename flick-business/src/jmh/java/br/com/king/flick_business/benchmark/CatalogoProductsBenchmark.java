@@ -0,0 +1,80 @@
+package br.com.king.flick_business.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.service.ProductService;
+
+/**
+ * Consultas do caixa pelo catálogo em memória. O gerador grava o barcode
+ * {@code 789} + id com 10 dígitos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogoProductsBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Estado {
+    ConfigurableApplicationContext contexto;
+    ProductService productService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar();
+      productService = contexto.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Consulta {
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    String barcode() {
+      return String.format("789%010d", 1 + random.nextInt(AplicacaoBenchmark.PRODUCTS));
+    }
+  }
+
+  @Benchmark
+  public ProductCatalogoDTO buscarPorBarcode(Estado estado, Consulta consulta) {
+    return estado.productService.buscarPorBarcode(consulta.barcode());
+  }
+
+  @Benchmark
+  public List<ProductCatalogoDTO> buscarPorPrefixo(Estado estado) {
+    return estado.productService.buscarNoCatalogo("product 12", 20);
+  }
+
+  @Benchmark
+  public List<ProductCatalogoDTO> buscarPorTrecho(Estado estado) {
+    return estado.productService.buscarNoCatalogo("duct 3", 20);
+  }
+
+  @Benchmark
+  public List<ProductCatalogoDTO> buscarComErroDeDigitacao(Estado estado) {
+    return estado.productService.buscarNoCatalogo("prodcut 123", 20);
+  }
+}
@@ -0,0 +1,83 @@
+package br.com.king.flick_business.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.king.flick_business.dto.DashboardSummaryDTO;
+import br.com.king.flick_business.service.DashboardService;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardServiceBenchmark {
+
+  public enum Caminho {
+    // Período de dias inteiros: lido de resumo_diario
+    RESUMO_DIARIO,
+    // Termina um segundo antes da meia-noite: varre vendas, itens e expenses
+    BRUTO
+  }
+
+  @State(Scope.Benchmark)
+  public static class Estado {
+    @Param({ "1", "30", "365" })
+    public int dias;
+
+    @Param({ "RESUMO_DIARIO", "BRUTO" })
+    public Caminho caminho;
+
+    @Param({ "SEQUENCIAL", "PARALELO" })
+    public String modo;
+
+    @Param({ "CONSULTAS_SEPARADAS", "PASSADA_UNICA" })
+    public String agregacao;
+
+    ConfigurableApplicationContext contexto;
+    DashboardService dashboardService;
+    ZonedDateTime inicio;
+    ZonedDateTime fim;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar("flick.dashboard.modo=" + modo,
+          "flick.dashboard.agregacao=" + agregacao);
+      dashboardService = contexto.getBean(DashboardService.class);
+
+      ZoneId zona = ZoneId.systemDefault();
+      LocalDate hoje = LocalDate.now(zona);
+      inicio = hoje.minusDays(dias - 1L).atStartOfDay(zona);
+      LocalTime fimDoDia = caminho == Caminho.RESUMO_DIARIO ? LocalTime.MAX : LocalTime.MAX.minusSeconds(1);
+      fim = hoje.atTime(fimDoDia).atZone(zona);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @Benchmark
+  public DashboardSummaryDTO getDashboardSummary(Estado estado) {
+    return estado.dashboardService.getDashboardSummary(estado.inicio, estado.fim);
+  }
+}
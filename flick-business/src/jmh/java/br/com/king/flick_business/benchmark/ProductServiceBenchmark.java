@@ -0,0 +1,61 @@
+package br.com.king.flick_business.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.king.flick_business.dto.ProductListagemDTO;
+import br.com.king.flick_business.service.ProductService;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Estado {
+    // "" = ordem alfabética (padrão da tela de products)
+    @Param({ "", "maisVendido" })
+    public String orderBy;
+
+    ConfigurableApplicationContext contexto;
+    ProductService productService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar();
+      productService = contexto.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @Benchmark
+  public List<ProductListagemDTO> listProducts(Estado estado) {
+    return estado.productService.listProducts(null, null, estado.orderBy, null);
+  }
+
+  @Benchmark
+  public List<ProductListagemDTO> listProductsPorName(Estado estado) {
+    return estado.productService.listProducts("Product 1", null, estado.orderBy, null);
+  }
+}
@@ -0,0 +1,276 @@
+package br.com.king.flick_business.benchmark;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.request.VendaLoteItemRequestDTO;
+import br.com.king.flick_business.dto.response.PageResponse;
+import br.com.king.flick_business.dto.response.VendaLoteResponseDTO;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.FormatoExportacao;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import br.com.king.flick_business.service.EstoqueService;
+import br.com.king.flick_business.service.ExportacaoVendasService;
+import br.com.king.flick_business.service.RegistroVendasAgrupado;
+import br.com.king.flick_business.service.VendaLoteService;
+import br.com.king.flick_business.service.VendaService;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VendaServiceBenchmark {
+
+  private static final FormaPagamento[] FORMAS = { FormaPagamento.DINHEIRO, FormaPagamento.PIX,
+      FormaPagamento.DEBITO, FormaPagamento.CREDITO };
+
+  @State(Scope.Benchmark)
+  public static class Registro {
+    // Custo do logging no caminho quente: WARN silencia, DEBUG liga tudo
+    @Param({ "WARN", "INFO", "DEBUG" })
+    public String nivelLog;
+
+    // SINCRONO: o console escrito na thread da venda pelo mesmo SLF4J (não é o
+    // System.out de antes); ASSINCRONO: a fila do AsyncAppender
+    @Param({ "SINCRONO", "ASSINCRONO" })
+    public String saidaLog;
+
+    ConfigurableApplicationContext contexto;
+    VendaService vendaService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      String nivel = "logging.level.br.com.king.flick_business=" + nivelLog;
+      contexto = saidaLog.equals("SINCRONO")
+          ? AplicacaoBenchmark.iniciar(nivel, "spring.profiles.include=log-sincrono")
+          : AplicacaoBenchmark.iniciar(nivel);
+      vendaService = contexto.getBean(VendaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class RegistroConcorrente {
+    // Uma transação por venda x group commit
+    @Param({ "IMEDIATO", "AGRUPADO" })
+    public RegistroVendasAgrupado.Modo modo;
+
+    ConfigurableApplicationContext contexto;
+    RegistroVendasAgrupado registroVendas;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar("flick.vendas.registro.modo=" + modo);
+      registroVendas = contexto.getBean(RegistroVendasAgrupado.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class EstoqueConcorrente {
+    // Products vendidos em quase toda venda (pão, bebidas)
+    static final int PRODUCTS_QUENTES = 3;
+
+    // Baixa na linha do product x movimentos no livro x contadores em memória
+    @Param({ "COLUNA", "LIVRO", "CONTADORES" })
+    public EstoqueService.Modo estoque;
+
+    ConfigurableApplicationContext contexto;
+    VendaService vendaService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      // CONTADORES: todos os products em memória, nenhuma linha travada pela venda
+      contexto = AplicacaoBenchmark.iniciar("flick.estoque.modo=" + estoque,
+          "flick.estoque.compactacao.intervalo=1s", "flick.estoque.contadores.products=" + LongStream
+              .rangeClosed(1, AplicacaoBenchmark.PRODUCTS).mapToObj(Long::toString).collect(Collectors.joining(",")));
+      vendaService = contexto.getBean(VendaService.class);
+      // Estoque que não acaba no benchmark: todas as vendas baixam. Pelo
+      // EstoqueService, que também abastece os contadores em memória
+      EstoqueService estoqueService = contexto.getBean(EstoqueService.class);
+      LongStream.rangeClosed(1, PRODUCTS_QUENTES).forEach(productId -> estoqueService.movimentar(productId,
+          TipoMovimentoEstoque.REPOSICAO, new BigDecimal("1000000"), "Benchmark"));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Listagem {
+    ConfigurableApplicationContext contexto;
+    VendaService vendaService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar();
+      vendaService = contexto.getBean(VendaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Exportacao {
+    @Param({ "CSV", "NDJSON" })
+    public FormatoExportacao formato;
+
+    ConfigurableApplicationContext contexto;
+    ExportacaoVendasService exportacaoVendasService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar();
+      exportacaoVendasService = contexto.getBean(ExportacaoVendasService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Lote {
+    // Vendas acumuladas por um caixa sem conexão
+    @Param({ "200" })
+    public int vendas;
+
+    ConfigurableApplicationContext contexto;
+    VendaService vendaService;
+    VendaLoteService vendaLoteService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+      contexto = AplicacaoBenchmark.iniciar();
+      vendaService = contexto.getBean(VendaService.class);
+      vendaLoteService = contexto.getBean(VendaLoteService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+      contexto.close();
+    }
+
+    List<VendaLoteItemRequestDTO> novoLote() {
+      List<VendaLoteItemRequestDTO> lote = new ArrayList<>(vendas);
+      for (int i = 0; i < vendas; i++) {
+        lote.add(new VendaLoteItemRequestDTO(UUID.randomUUID().toString(), null, novaVenda()));
+      }
+      return lote;
+    }
+  }
+
+  private static VendaRequestDTO novaVenda() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int tamanhoCesta = 1 + random.nextInt(6);
+    List<ItemVendaRequestDTO> itens = new ArrayList<>(tamanhoCesta);
+    for (int i = 0; i < tamanhoCesta; i++) {
+      long productId = 1 + random.nextInt(AplicacaoBenchmark.PRODUCTS);
+      itens.add(new ItemVendaRequestDTO(productId, BigDecimal.ONE));
+    }
+    return new VendaRequestDTO(null, itens, FORMAS[random.nextInt(FORMAS.length)], null);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public VendaResponseDTO registrarVenda(Registro estado) {
+    return estado.vendaService.registrarVenda(novaVenda());
+  }
+
+  @Benchmark
+  @Threads(16)
+  public VendaResponseDTO registrarVendaConcorrente(RegistroConcorrente estado) {
+    return estado.registroVendas.registrar(novaVenda(), null);
+  }
+
+  // Cada venda leva um dos products quentes e outros da loja
+  @Benchmark
+  @Threads(16)
+  public VendaResponseDTO registrarVendaProductQuente(EstoqueConcorrente estado) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    VendaRequestDTO venda = novaVenda();
+    List<ItemVendaRequestDTO> itens = new ArrayList<>(venda.itens());
+    itens.add(new ItemVendaRequestDTO(1L + random.nextInt(EstoqueConcorrente.PRODUCTS_QUENTES), BigDecimal.ONE));
+    return estado.vendaService.registrarVenda(new VendaRequestDTO(null, itens, venda.formaPagamento(), null));
+  }
+
+  @Benchmark
+  public PageResponse<VendaResponseDTO> listVendasPrimeiraPagina(Listagem estado) {
+    return estado.vendaService.listVendas(null, null, null, null, null, null, 0, 20);
+  }
+
+  @Benchmark
+  public PageResponse<VendaResponseDTO> listVendasPorProduct(Listagem estado) {
+    long productId = 1 + ThreadLocalRandom.current().nextInt(AplicacaoBenchmark.PRODUCTS);
+    return estado.vendaService.listVendas(null, null, null, null, productId, "valorTotal,desc", 0, 20);
+  }
+
+  // Histórico inteiro; com -prof gc, bytes alocados por venda exportada
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long exportarVendas(Exportacao estado) {
+    return estado.exportacaoVendasService.exportar(null, null, null, null, null, estado.formato,
+        OutputStream.nullOutputStream());
+  }
+
+  // Reenvio das vendas de um caixa depois de ficar sem conexão: lote x uma a uma
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public VendaLoteResponseDTO registrarLote(Lote estado) {
+    return estado.vendaLoteService.registrarLote(estado.novoLote());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long registrarUmaAUma(Lote estado) {
+    long ultimaVenda = 0;
+    for (VendaLoteItemRequestDTO item : estado.novoLote()) {
+      ultimaVenda = estado.vendaService.registrarVenda(item.venda(), item.chaveIdempotencia()).id();
+    }
+    return ultimaVenda;
+  }
+}
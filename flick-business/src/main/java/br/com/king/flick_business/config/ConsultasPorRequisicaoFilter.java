@@ -0,0 +1,73 @@
+package br.com.king.flick_business.config;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra quantas instruções SQL cada requisição executou no histograma
+ * {@value #METRICA}, com os mesmos tags de {@code http.server.requests}
+ * (method, uri, status). Um endpoint cujo número de consultas cresce com o
+ * tamanho da resposta é um N+1; requisições acima de
+ * {@code flick.metricas.consultas-alerta} também geram um WARN.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+  public static final String METRICA = "flick.http.consultas";
+
+  private final MeterRegistry meterRegistry;
+  private final int limiteAlerta;
+
+  public ConsultasPorRequisicaoFilter(MeterRegistry meterRegistry,
+      @Value("${flick.metricas.consultas-alerta:50}") int limiteAlerta) {
+    this.meterRegistry = meterRegistry;
+    this.limiteAlerta = limiteAlerta;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    AtomicInteger contagem = ContadorConsultas.iniciar();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      ContadorConsultas.usar(null);
+      registrar(request, response, contagem.get());
+    }
+  }
+
+  private void registrar(HttpServletRequest request, HttpServletResponse response, int consultas) {
+    Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+    DistributionSummary.builder(METRICA)
+        .description("Instruções SQL executadas por requisição")
+        .baseUnit("consultas")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .tag("status", String.valueOf(response.getStatus()))
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(consultas);
+
+    if (consultas > limiteAlerta) {
+      log.warn("{} {} executou {} instruções SQL (alerta acima de {})", request.getMethod(), uri, consultas,
+          limiteAlerta);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package br.com.king.flick_business.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instruções SQL preparadas pelo Hibernate na requisição corrente
+ * (registrado como {@code hibernate.session_factory.statement_inspector} em
+ * {@link MetricasConfig}). A contagem fica em uma {@link ThreadLocal}; quem
+ * distribui trabalho para outras threads (consultas paralelas do dashboard)
+ * repassa {@link #atual()} com {@link #usar(AtomicInteger)}.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+  private static final ThreadLocal<AtomicInteger> ATUAL = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    AtomicInteger contagem = ATUAL.get();
+    if (contagem != null) {
+      contagem.incrementAndGet();
+    }
+    return sql;
+  }
+
+  /**
+   * Começa uma nova contagem na thread atual.
+   */
+  public static AtomicInteger iniciar() {
+    AtomicInteger contagem = new AtomicInteger();
+    ATUAL.set(contagem);
+    return contagem;
+  }
+
+  /**
+   * Contagem em andamento na thread atual, ou null fora de uma requisição.
+   */
+  public static AtomicInteger atual() {
+    return ATUAL.get();
+  }
+
+  /**
+   * Soma as instruções da thread atual a uma contagem iniciada em outra; null
+   * encerra a contagem da thread.
+   */
+  public static void usar(AtomicInteger contagem) {
+    if (contagem == null) {
+      ATUAL.remove();
+    } else {
+      ATUAL.set(contagem);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package br.com.king.flick_business.config;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Associa um ID de correlação a cada requisição e o publica no MDC, para que
+ * todas as linhas de log da requisição possam ser agrupadas mesmo sendo escritas
+ * de forma assíncrona. Reaproveita o header {@value #HEADER} enviado pelo
+ * cliente (quando válido) e o devolve na resposta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+  public static final String HEADER = "X-Correlation-Id";
+  public static final String MDC_KEY = "correlationId";
+
+  // Evita que valores arbitrários do cliente (quebras de linha, textos enormes)
+  // sejam injetados nos logs
+  private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String correlationId = request.getHeader(HEADER);
+    if (correlationId == null || !ID_VALIDO.matcher(correlationId).matches()) {
+      correlationId = UUID.randomUUID().toString();
+    }
+
+    MDC.put(MDC_KEY, correlationId);
+    response.setHeader(HEADER, correlationId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package br.com.king.flick_business.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas expostas em {@code /actuator/prometheus}. Endpoints HTTP, pool
+ * Hikari, repositórios Spring Data e estatísticas do Hibernate vêm da
+ * autoconfiguração do Actuator; aqui ficam o {@code @Timed} dos services
+ * ({@code flick.servico}, com tags class e method) e a contagem de consultas
+ * por requisição.
+ */
+@Configuration
+public class MetricasConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer contadorConsultasCustomizer() {
+    return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorConsultas());
+  }
+}
@@ -45,8 +45,6 @@ public class ClienteController {
       @RequestParam(name = "devedores", required = false) Boolean devedores,
       @RequestParam(name = "orderBy", required = false) String orderBy,
       @RequestParam(name = "nameContains", required = false) String nameContains) {
-    System.out.println("LOG: ClienteController - apenasActives: " + apenasActives + ", devedores: " + devedores
-        + ", orderBy: " + orderBy + ", nameContains: " + nameContains);
     List<ClienteResponseDTO> clientes = clienteService.listTodos(
         apenasActives,
         devedores,
@@ -55,6 +53,14 @@ public class ClienteController {
     return ResponseEntity.ok(clientes);
   }
 
+  // Buscar clientes ativos por name, trecho do name ou name parecido (type-ahead)
+  @GetMapping("/busca")
+  public ResponseEntity<List<ClienteResponseDTO>> buscarClientesPorName(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "20") int limite) {
+    return ResponseEntity.ok(clienteService.buscarPorName(q, Math.min(limite, 100)));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<ClienteResponseDTO> buscarClientePorId(@PathVariable Long id) {
     ClienteResponseDTO cliente = clienteService.buscarPorId(id);
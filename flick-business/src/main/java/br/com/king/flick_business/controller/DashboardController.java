@@ -1,27 +1,41 @@
 package br.com.king.flick_business.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.ZonedDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.king.flick_business.dto.DashboardCacheEstatisticasDTO;
 import br.com.king.flick_business.dto.DashboardSummaryDTO;
+import br.com.king.flick_business.service.DashboardCache;
 import br.com.king.flick_business.service.DashboardService;
+import br.com.king.flick_business.service.ResumoDiarioService;
 
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
   private final DashboardService dashboardService;
+  private final ResumoDiarioService resumoDiarioService;
+  private final DashboardCache dashboardCache;
 
-  public DashboardController(DashboardService dashboardService) {
+  public DashboardController(DashboardService dashboardService, ResumoDiarioService resumoDiarioService,
+      DashboardCache dashboardCache) {
     this.dashboardService = dashboardService;
+    this.resumoDiarioService = resumoDiarioService;
+    this.dashboardCache = dashboardCache;
   }
 
   @GetMapping("/summary")
@@ -32,8 +46,39 @@ public class DashboardController {
     ZonedDateTime start = startDate.atStartOfDay(java.time.ZoneId.systemDefault());
     ZonedDateTime end = endDate.atTime(LocalTime.MAX).atZone(java.time.ZoneId.systemDefault());
 
-    DashboardSummaryDTO summary = dashboardService.getDashboardSummary(start, end);
-    return ResponseEntity.ok(summary);
+    Map<String, Duration> tempos = new LinkedHashMap<>();
+    DashboardSummaryDTO summary = dashboardService.getDashboardSummary(start, end, tempos);
+    return ResponseEntity.ok().header("Server-Timing", serverTiming(tempos)).body(summary);
+  }
+
+  // Tempo de cada consulta agregada, visível no DevTools do navegador
+  private static String serverTiming(Map<String, Duration> tempos) {
+    return tempos.entrySet().stream()
+        .map(tempo -> String.format(Locale.ROOT, "%s;dur=%.1f", tempo.getKey(), tempo.getValue().toNanos() / 1e6))
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Recalcula o resumo diário que alimenta o dashboard a partir das vendas e
+   * expenses do período (ex.: após migrar um banco existente).
+   */
+  @PostMapping("/resumo-diario/reconstruir")
+  public ResponseEntity<Void> reconstruirResumoDiario(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+    resumoDiarioService.reconstruir(startDate, endDate);
+    return ResponseEntity.noContent().build();
   }
 
+  @GetMapping("/cache/estatisticas")
+  public ResponseEntity<DashboardCacheEstatisticasDTO> getEstatisticasCache() {
+    return ResponseEntity.ok(dashboardCache.estatisticas());
+  }
+
+  // Descarta todos os resumos em cache (ex.: após corrigir dados direto no banco)
+  @DeleteMapping("/cache")
+  public ResponseEntity<Void> limparCache() {
+    dashboardCache.limpar();
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -1,8 +1,11 @@
 package br.com.king.flick_business.controller;
 
 import java.net.URI;
+import java.time.ZonedDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,8 +19,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.dto.ProductListagemDTO;
 import br.com.king.flick_business.dto.ProductRequestDTO;
 import br.com.king.flick_business.dto.ProductResponseDTO;
+import br.com.king.flick_business.dto.request.MovimentoEstoqueRequestDTO;
+import br.com.king.flick_business.dto.response.MovimentoEstoqueResponseDTO;
+import br.com.king.flick_business.dto.response.PageResponse;
+import br.com.king.flick_business.dto.response.SaldoEstoqueDTO;
+import br.com.king.flick_business.enums.JanelaVendas;
+import br.com.king.flick_business.service.EstoqueService;
 import br.com.king.flick_business.service.ProductService;
 import jakarta.validation.Valid;
 
@@ -26,9 +37,11 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class ProductController {
   private final ProductService productService;
+  private final EstoqueService estoqueService;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService, EstoqueService estoqueService) {
     this.productService = productService;
+    this.estoqueService = estoqueService;
   }
 
   // Criar Product
@@ -42,17 +55,30 @@ public class ProductController {
 
   // List Products
   @GetMapping
-  public ResponseEntity<List<ProductResponseDTO>> listProducts(
+  public ResponseEntity<List<ProductListagemDTO>> listProducts(
       @RequestParam(required = false) String name,
       @RequestParam(required = false) Long categoryId,
-      @RequestParam(required = false) String orderBy) {
-    System.out
-        .println("BACKEND CONTROLLER: Recebidos parâmetros - name: [" + name + "], categoryId: [" + categoryId + "]");
-    // Passe o categoryId para o serviço
-    List<ProductResponseDTO> products = productService.listProducts(name, categoryId, orderBy);
+      @RequestParam(required = false) String orderBy,
+      @RequestParam(required = false) JanelaVendas janelaVendas) {
+    // Passe o categoryId para o serviço; janelaVendas só vale para maisVendido/menosVendido
+    List<ProductListagemDTO> products = productService.listProducts(name, categoryId, orderBy, janelaVendas);
     return ResponseEntity.ok(products);
   }
 
+  // Buscar Product active por código de barras (caixa)
+  @GetMapping("/barcode/{barcode}")
+  public ResponseEntity<ProductCatalogoDTO> buscarProductPorBarcode(@PathVariable String barcode) {
+    return ResponseEntity.ok(productService.buscarPorBarcode(barcode));
+  }
+
+  // Buscar Products ativos por name, trecho do name ou name parecido (caixa)
+  @GetMapping("/catalogo")
+  public ResponseEntity<List<ProductCatalogoDTO>> buscarNoCatalogo(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "20") int limite) {
+    return ResponseEntity.ok(productService.buscarNoCatalogo(q, Math.min(limite, 100)));
+  }
+
   // Buscar Product por ID
   @GetMapping("/{id}")
   public ResponseEntity<ProductResponseDTO> buscarProductPorId(@PathVariable Long id) {
@@ -76,6 +102,30 @@ public class ProductController {
     return ResponseEntity.created(uri).body(productCopiadoDTO);
   }
 
+  // Estoque do product agora ou em uma data passada
+  @GetMapping("/{id}/estoque")
+  public ResponseEntity<SaldoEstoqueDTO> consultarEstoque(@PathVariable Long id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime data) {
+    return ResponseEntity.ok(estoqueService.consultarEstoque(id, data));
+  }
+
+  // Movimentos de estoque do product, mais recentes primeiro
+  @GetMapping("/{id}/estoque/movimentos")
+  public ResponseEntity<PageResponse<MovimentoEstoqueResponseDTO>> listarMovimentosEstoque(@PathVariable Long id,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(estoqueService.listarMovimentos(id, page, Math.min(size, 100)));
+  }
+
+  // Ajuste ou reposição de estoque
+  @PostMapping("/{id}/estoque/movimentos")
+  public ResponseEntity<MovimentoEstoqueResponseDTO> movimentarEstoque(@PathVariable Long id,
+      @Valid @RequestBody MovimentoEstoqueRequestDTO requestDTO) {
+    MovimentoEstoqueResponseDTO movimento = estoqueService.movimentar(id, requestDTO.tipo(),
+        requestDTO.quantidade(), requestDTO.observacao());
+    return ResponseEntity.status(HttpStatus.CREATED).body(movimento);
+  }
+
   // Delete Product
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
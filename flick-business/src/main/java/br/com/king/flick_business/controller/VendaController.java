@@ -1,17 +1,21 @@
 package br.com.king.flick_business.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -20,9 +24,18 @@ import org.springframework.web.util.UriComponentsBuilder;
 import br.com.king.flick_business.dto.response.TotalPorFormaPagamentoDTO;
 import br.com.king.flick_business.dto.VendaRequestDTO;
 import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.VendaLoteRequestDTO;
+import br.com.king.flick_business.dto.response.CursorResponse;
 import br.com.king.flick_business.dto.response.PageResponse;
+import br.com.king.flick_business.dto.response.VendaLoteResponseDTO;
+import br.com.king.flick_business.enums.FormatoExportacao;
+import br.com.king.flick_business.service.ExportacaoVendasService;
+import br.com.king.flick_business.service.IdempotenciaVendas;
+import br.com.king.flick_business.service.RegistroVendasAgrupado;
+import br.com.king.flick_business.service.VendaLoteService;
 import br.com.king.flick_business.service.VendaService;
 import br.com.king.flick_business.dto.response.GroupsummaryDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -30,32 +43,53 @@ import jakarta.validation.Valid;
 public class VendaController {
   // Serviço responsável pelas operações de venda
   private final VendaService vendaService;
+  private final ExportacaoVendasService exportacaoVendasService;
+  private final VendaLoteService vendaLoteService;
+  private final RegistroVendasAgrupado registroVendas;
 
-  // Construtor para injeção de dependência do serviço de venda
-  public VendaController(VendaService vendaService) {
+  // Construtor para injeção de dependência dos serviços de venda
+  public VendaController(VendaService vendaService, ExportacaoVendasService exportacaoVendasService,
+      VendaLoteService vendaLoteService, RegistroVendasAgrupado registroVendas) {
     this.vendaService = vendaService;
-    System.out.println("LOG: VendaController.<init> - VendaController inicializado com VendaService");
+    this.exportacaoVendasService = exportacaoVendasService;
+    this.vendaLoteService = vendaLoteService;
+    this.registroVendas = registroVendas;
   }
 
   /**
    * Endpoint para registrar uma nova venda.
    * 
-   * @param requestDTO Dados da venda a ser registrada.
-   * @param uriBuilder Utilitário para construir a URI do recurso criado.
+   * @param requestDTO        Dados da venda a ser registrada.
+   * @param chaveIdempotencia Chave única da venda, gerada pelo caixa; repetir o
+   *                          POST com a mesma chave devolve a venda já
+   *                          registrada.
+   * @param uriBuilder        Utilitário para construir a URI do recurso criado.
    * @return ResponseEntity com os dados da venda registrada.
    */
   @PostMapping
   public ResponseEntity<VendaResponseDTO> registrarVenda(
       @Valid @RequestBody VendaRequestDTO requestDTO,
+      @RequestHeader(name = IdempotenciaVendas.CABECALHO, required = false) String chaveIdempotencia,
       UriComponentsBuilder uriBuilder) {
-    System.out.println("LOG: VendaController.registrarVenda - Iniciando registro de venda: " + requestDTO);
-    VendaResponseDTO vendaSalva = vendaService.registrarVenda(requestDTO);
-    System.out.println("LOG: VendaController.registrarVenda - Venda registrada com sucesso: " + vendaSalva);
+    VendaResponseDTO vendaSalva = registroVendas.registrar(requestDTO, chaveIdempotencia);
     URI uri = uriBuilder.path("/api/vendas/{id}").buildAndExpand(vendaSalva.id()).toUri();
-    System.out.println("LOG: VendaController.registrarVenda - URI do recurso criado: " + uri);
     return ResponseEntity.created(uri).body(vendaSalva);
   }
 
+  /**
+   * Endpoint para registrar de uma vez as vendas feitas por um caixa sem
+   * conexão. Cada venda é aceita ou recusada sozinha; a resposta traz o
+   * resultado de cada uma, na ordem enviada.
+   * 
+   * @param requestDTO Vendas do lote, com chave de idempotência e data de cada
+   *                   uma.
+   * @return ResponseEntity com o resultado de cada venda.
+   */
+  @PostMapping("/lote")
+  public ResponseEntity<VendaLoteResponseDTO> registrarLote(@Valid @RequestBody VendaLoteRequestDTO requestDTO) {
+    return ResponseEntity.ok(vendaLoteService.registrarLote(requestDTO.vendas()));
+  }
+
   /**
    * Endpoint para list vendas com filtros opcionais.
    * 
@@ -76,9 +110,6 @@ public class VendaController {
       @RequestParam(required = false) String orderBy,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "8") int size) {
-    System.out.println("LOG: VendaController.listVendas - Listando vendas com filtros - inicio: " + inicio + ", fim: "
-        + fim + ", clienteId: " + clienteId + ", formaPagamento: " + formaPagamento);
-    System.out.println("PAGINATION: VendaController.listVendas - " + page + " : " + size);
     PageResponse<VendaResponseDTO> paginatedResponse = vendaService.listVendas(
         inicio,
         fim,
@@ -88,11 +119,65 @@ public class VendaController {
         orderBy,
         page,
         size);
-    System.out.println(
-        "LOG: VendaController.listVendas - Quantidade de vendas encontradas: " + paginatedResponse.getSize());
     return ResponseEntity.ok(paginatedResponse);
   }
 
+  /**
+   * Endpoint para list vendas por cursor (rolagem infinita). Aceita os mesmos
+   * filtros e ordenações de {@link #listVendas}, mas não informa total nem número
+   * de páginas.
+   * 
+   * @param cursor Token nextCursor da resposta anterior (omitir na primeira
+   *               página)
+   * @param size   Quantidade de vendas por página
+   * @return Vendas da página e o cursor da próxima.
+   */
+  @GetMapping("/scroll")
+  public ResponseEntity<CursorResponse<VendaResponseDTO>> scrollVendas(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime inicio,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime fim,
+      @RequestParam(required = false) Long clienteId,
+      @RequestParam(required = false) String formaPagamento,
+      @RequestParam(required = false) Long productId,
+      @RequestParam(required = false) String orderBy,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "8") int size) {
+    CursorResponse<VendaResponseDTO> response = vendaService.scrollVendas(
+        inicio,
+        fim,
+        clienteId,
+        formaPagamento,
+        productId,
+        orderBy,
+        cursor,
+        size);
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Endpoint para exportar vendas com seus itens, com os mesmos filtros de
+   * {@link #listVendas}. O arquivo é escrito na resposta à medida que as linhas
+   * são lidas do banco, sem paginação nem limite de tamanho.
+   * 
+   * @param formato CSV (uma linha por item) ou NDJSON (um objeto por venda)
+   * @param response Resposta em que o arquivo é escrito.
+   */
+  @GetMapping("/exportacao")
+  public void exportarVendas(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime inicio,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime fim,
+      @RequestParam(required = false) Long clienteId,
+      @RequestParam(required = false) String formaPagamento,
+      @RequestParam(required = false) Long productId,
+      @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+      HttpServletResponse response) throws IOException {
+    response.setContentType(formato.getTipoConteudo() + ";charset=UTF-8");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename("vendas." + formato.getExtensao()).build().toString());
+    exportacaoVendasService.exportar(inicio, fim, clienteId, formaPagamento, productId, formato,
+        response.getOutputStream());
+  }
+
   @GetMapping("/summary-by-group")
   public ResponseEntity<List<GroupsummaryDTO>> getVendassummary(
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime inicio,
@@ -133,15 +218,12 @@ public class VendaController {
    */
   @GetMapping("/{id}")
   public ResponseEntity<VendaResponseDTO> buscarVendaPorId(@PathVariable Long id) {
-    System.out.println("LOG: VendaController.buscarVendaPorId - Buscando venda por ID: " + id);
     VendaResponseDTO venda = vendaService.buscarVendaPorId(id);
-    System.out.println("LOG: VendaController.buscarVendaPorId - Venda encontrada: " + venda);
     return ResponseEntity.ok(venda);
   }
 
   @DeleteMapping("/{id}/permanente")
   public ResponseEntity<Void> deleteVendaFisicamente(@PathVariable Long id) {
-    System.out.println("LOG: VendaController.deleteVendaFisicamente - Recebida requisição de deleção de ID: " + id);
     vendaService.deleteVendaFisicamente(id);
     return ResponseEntity.noContent().build();
   }
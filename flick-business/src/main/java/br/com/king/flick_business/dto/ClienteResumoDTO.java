@@ -0,0 +1,4 @@
+package br.com.king.flick_business.dto;
+
+public record ClienteResumoDTO(Long id, String name) {
+}
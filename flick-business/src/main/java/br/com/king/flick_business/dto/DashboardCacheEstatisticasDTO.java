@@ -0,0 +1,11 @@
+package br.com.king.flick_business.dto;
+
+public record DashboardCacheEstatisticasDTO(
+    boolean habilitado,
+    long tamanho,
+    long acertos,
+    long falhas,
+    double taxaAcerto,
+    long remocoesPorCapacidade, // Tamanho máximo ou expiração
+    long invalidacoes) { // Por alteração de vendas/expenses
+}
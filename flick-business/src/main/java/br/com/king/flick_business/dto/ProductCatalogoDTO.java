@@ -0,0 +1,23 @@
+package br.com.king.flick_business.dto;
+
+import java.math.BigDecimal;
+
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.UnitOfSale;
+
+/**
+ * Product active como visto pelo caixa (catálogo em memória). Não inclui o
+ * estoque, que muda a cada venda e é conferido no banco ao registrá-la.
+ */
+public record ProductCatalogoDTO(
+    Long id,
+    String name,
+    String barcode,
+    BigDecimal salePrice,
+    UnitOfSale unitOfSale) {
+
+  public ProductCatalogoDTO(Product product) {
+    this(product.getId(), product.getName(), product.getBarcode(), product.getSalePrice(),
+        product.getUnitOfSale());
+  }
+}
@@ -0,0 +1,43 @@
+package br.com.king.flick_business.dto;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import br.com.king.flick_business.enums.TipoPessoa;
+import br.com.king.flick_business.enums.UnitOfSale;
+
+/**
+ * Linha da listagem de products ({@code GET /api/products}), montada direto da
+ * consulta (projeção): só as colunas exibidas, sem nenhuma entidade
+ * gerenciada, proxy ou snapshot de dirty checking. O JSON é o mesmo de
+ * {@link ProductResponseDTO}: category e provider com todos os campos que as
+ * entidades serializavam ({@link CategoryDTO}, {@link ProviderDTO}).
+ */
+public record ProductListagemDTO(
+    Long id,
+    String name,
+    String description,
+    String barcode,
+    BigDecimal stockQuantity,
+    BigDecimal salePrice,
+    BigDecimal costPrice,
+    UnitOfSale unitOfSale,
+    boolean active,
+    CategoryDTO category,
+    ProviderDTO provider,
+    ZonedDateTime createdAt,
+    ZonedDateTime updatedAt) {
+
+  // Construtor usado pela projeção (colunas planas, associações por LEFT JOIN)
+  public ProductListagemDTO(Long id, String name, String description, String barcode, BigDecimal stockQuantity,
+      BigDecimal salePrice, BigDecimal costPrice, UnitOfSale unitOfSale, boolean active, Long categoryId,
+      String categoryName, Long providerId, String providerName, TipoPessoa providerTipoPessoa,
+      String providerCnpjCpf, String providerTelefone, String providerEmail, String providerNotas,
+      ZonedDateTime createdAt, ZonedDateTime updatedAt) {
+    this(id, name, description, barcode, stockQuantity, salePrice, costPrice, unitOfSale, active,
+        categoryId != null ? new CategoryDTO(categoryId, categoryName) : null,
+        providerId != null ? new ProviderDTO(providerId, providerName, providerTipoPessoa, providerCnpjCpf,
+            providerTelefone, providerEmail, providerNotas) : null,
+        createdAt, updatedAt);
+  }
+}
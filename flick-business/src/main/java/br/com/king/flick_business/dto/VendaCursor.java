@@ -0,0 +1,81 @@
+package br.com.king.flick_business.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.exception.BusinessException;
+
+/**
+ * Posição de continuação da listagem de vendas por cursor (keyset): a chave de
+ * ordenação e o ID da última venda entregue. Trafega para o cliente como token
+ * opaco (Base64 URL-safe) e deve ser devolvido sem alterações.
+ *
+ * @param campo   Campo de ordenação (dataVenda, valorTotal ou cliente.name)
+ * @param direcao Direção da ordenação
+ * @param id      ID da última venda entregue (desempate)
+ * @param valor   Valor da chave de ordenação da última venda
+ */
+public record VendaCursor(String campo, Sort.Direction direcao, Long id, Object valor) {
+  private static final String SEPARADOR = "|";
+
+  /**
+   * Monta o cursor que continua a listagem logo após a venda informada.
+   */
+  public static VendaCursor apos(Venda venda, Sort.Order ordem) {
+    Object valor = switch (ordem.getProperty()) {
+      case "dataVenda" -> venda.getDataVenda();
+      case "valorTotal" -> venda.getValorTotal();
+      // Vendas sem cliente são ordenadas como name vazio
+      case "cliente.name" -> venda.getCliente() != null ? venda.getCliente().getName() : "";
+      default -> throw new IllegalArgumentException("Ordenação sem suporte a cursor: " + ordem.getProperty());
+    };
+    return new VendaCursor(ordem.getProperty(), ordem.getDirection(), venda.getId(), valor);
+  }
+
+  public String encode() {
+    String valorTexto = valor instanceof ZonedDateTime data
+        ? data.format(DateTimeFormatter.ISO_ZONED_DATE_TIME)
+        : valor.toString();
+    // O valor vai por último: o name do cliente pode conter o separador
+    String token = String.join(SEPARADOR, campo, direcao.name(), id.toString(), valorTexto);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Lê um token gerado por {@link #encode()}, validando que ele pertence à
+   * ordenação solicitada.
+   *
+   * @throws BusinessException se o token estiver corrompido ou tiver sido gerado
+   *                           para outra ordenação
+   */
+  public static VendaCursor decode(String token, Sort.Order ordemEsperada) {
+    try {
+      String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+          .split("\\" + SEPARADOR, 4);
+      if (partes.length != 4) {
+        throw new BusinessException("Cursor inválido.");
+      }
+      String campo = partes[0];
+      Sort.Direction direcao = Sort.Direction.valueOf(partes[1]);
+      if (!campo.equals(ordemEsperada.getProperty()) || direcao != ordemEsperada.getDirection()) {
+        throw new BusinessException("Cursor gerado para outra ordenação. Reinicie a listagem.");
+      }
+      Object valor = switch (campo) {
+        case "dataVenda" -> ZonedDateTime.parse(partes[3], DateTimeFormatter.ISO_ZONED_DATE_TIME);
+        case "valorTotal" -> new BigDecimal(partes[3]);
+        case "cliente.name" -> partes[3];
+        default -> throw new BusinessException("Cursor inválido.");
+      };
+      return new VendaCursor(campo, direcao, Long.valueOf(partes[2]), valor);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BusinessException("Cursor inválido.");
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package br.com.king.flick_business.dto.request;
+
+import java.math.BigDecimal;
+
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// Ajuste (positivo ou negativo) ou reposição (positiva) do estoque de um product
+public record MovimentoEstoqueRequestDTO(
+        @NotNull(message = "O tipo do movimento é obrigatório") TipoMovimentoEstoque tipo,
+
+        @NotNull(message = "A quantidade é obrigatória") @Digits(integer = 10, fraction = 3, message = "Formato inválido") BigDecimal quantidade,
+
+        @Size(max = 200, message = "A observação deve ter no máximo 200 caracteres") String observacao) {
+}
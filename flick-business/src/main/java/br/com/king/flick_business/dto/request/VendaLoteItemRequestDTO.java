@@ -0,0 +1,20 @@
+package br.com.king.flick_business.dto.request;
+
+import java.time.ZonedDateTime;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+
+/**
+ * Venda feita pelo caixa sem conexão, enviada depois no registro em lote.
+ */
+public record VendaLoteItemRequestDTO(
+        // Mesmo papel do cabeçalho Idempotency-Key do POST /api/vendas
+        String chaveIdempotencia,
+
+        @PastOrPresent(message = "A data da venda não pode estar no futuro") ZonedDateTime dataVenda,
+
+        @NotNull(message = "A venda não pode ser nula") @Valid VendaRequestDTO venda) {
+}
@@ -0,0 +1,11 @@
+package br.com.king.flick_business.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+
+// Cada venda é validada à parte: uma venda inválida é recusada sozinha, sem
+// derrubar o lote
+public record VendaLoteRequestDTO(
+        @NotEmpty(message = "A lista de vendas não pode ser vazia") List<VendaLoteItemRequestDTO> vendas) {
+}
@@ -0,0 +1,14 @@
+package br.com.king.flick_business.dto.response;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor. Não traz total de registros: a próxima
+ * página é pedida com {@code nextCursor}, que é nulo na última página.
+ */
+public record CursorResponse<T>(
+    List<T> content,
+    int size,
+    String nextCursor,
+    boolean hasNext) {
+}
@@ -0,0 +1,28 @@
+package br.com.king.flick_business.dto.response;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import br.com.king.flick_business.entity.MovimentoEstoque;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+
+public record MovimentoEstoqueResponseDTO(
+    Long id,
+    Long productId,
+    TipoMovimentoEstoque tipo,
+    BigDecimal quantidade,
+    ZonedDateTime dataMovimento,
+    Long vendaId,
+    String observacao) {
+
+  public MovimentoEstoqueResponseDTO(MovimentoEstoque movimento) {
+    this(
+        movimento.getId(),
+        movimento.getProductId(),
+        movimento.getTipo(),
+        movimento.getQuantidade(),
+        movimento.getDataMovimento(),
+        movimento.getVendaId(),
+        movimento.getObservacao());
+  }
+}
@@ -0,0 +1,24 @@
+package br.com.king.flick_business.dto.response;
+
+/**
+ * Resultado de uma venda do lote, na posição em que foi enviada.
+ *
+ * @param vendaId ID da venda registrada (ou já registrada com a mesma chave);
+ *                nulo se recusada
+ * @param erro    Motivo da recusa; nulo se registrada
+ */
+public record ResultadoVendaLoteDTO(
+        int indice,
+        String chaveIdempotencia,
+        boolean registrada,
+        Long vendaId,
+        String erro) {
+
+    public static ResultadoVendaLoteDTO registrada(int indice, String chaveIdempotencia, Long vendaId) {
+        return new ResultadoVendaLoteDTO(indice, chaveIdempotencia, true, vendaId, null);
+    }
+
+    public static ResultadoVendaLoteDTO recusada(int indice, String chaveIdempotencia, String erro) {
+        return new ResultadoVendaLoteDTO(indice, chaveIdempotencia, false, null, erro);
+    }
+}
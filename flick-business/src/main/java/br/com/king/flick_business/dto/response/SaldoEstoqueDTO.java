@@ -0,0 +1,11 @@
+package br.com.king.flick_business.dto.response;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+// Estoque de um product em uma data
+public record SaldoEstoqueDTO(
+    Long productId,
+    ZonedDateTime data,
+    BigDecimal quantidade) {
+}
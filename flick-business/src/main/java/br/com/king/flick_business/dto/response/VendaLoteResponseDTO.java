@@ -0,0 +1,15 @@
+package br.com.king.flick_business.dto.response;
+
+import java.util.List;
+
+public record VendaLoteResponseDTO(
+        int registradas,
+        int recusadas,
+        List<ResultadoVendaLoteDTO> resultados) {
+
+    public VendaLoteResponseDTO(List<ResultadoVendaLoteDTO> resultados) {
+        this((int) resultados.stream().filter(ResultadoVendaLoteDTO::registrada).count(),
+                (int) resultados.stream().filter(resultado -> !resultado.registrada()).count(),
+                resultados);
+    }
+}
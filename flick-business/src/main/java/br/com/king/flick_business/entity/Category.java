@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotBlank;
@@ -24,7 +25,8 @@ import lombok.Builder;
 @Builder
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorys_seq")
+    @SequenceGenerator(name = "categorys_seq", sequenceName = "categorys_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name da category não pode estar em branco")
@@ -0,0 +1,42 @@
+package br.com.king.flick_business.entity;
+
+import java.time.ZonedDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chave de idempotência enviada pelo caixa ao registrar uma venda (ver
+ * IdempotenciaVendas). Guarda só a impressão digital da requisição e o ID da
+ * venda, sem FK, para que a venda possa ser apagada.
+ */
+@Entity
+@Table(name = "chaves_idempotencia_venda", indexes = {
+    @Index(name = "idx_chaves_idempotencia_criado_em", columnList = "criado_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChaveIdempotenciaVenda {
+  @Id
+  @Column(length = 100)
+  private String chave;
+
+  @Column(name = "impressao_digital", nullable = false)
+  private long impressaoDigital;
+
+  // Preenchido na mesma transação que reserva a chave
+  @Column(name = "venda_id")
+  private Long vendaId;
+
+  @Column(name = "criado_em", nullable = false)
+  private ZonedDateTime criadoEm;
+}
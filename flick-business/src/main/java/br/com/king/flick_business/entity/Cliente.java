@@ -11,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
@@ -32,7 +33,8 @@ public class Cliente {
 
   // Chave Primaria
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+  @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
   private Long id;
   // Name
   @NotBlank(message = "O name é obrigatório.")
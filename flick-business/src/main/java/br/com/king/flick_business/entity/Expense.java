@@ -14,6 +14,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
@@ -49,7 +50,8 @@ public class Expense {
    * @UpdateTimestamp - Data de atualização da expense (METADADOS)
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+  @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
   private Long id;
 
   // Name da expense
@@ -1,6 +1,7 @@
 package br.com.king.flick_business.entity;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.DecimalMin;
@@ -29,7 +31,8 @@ import lombok.NoArgsConstructor;
 public class ItemVenda {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_venda_seq")
+  @SequenceGenerator(name = "itens_venda_seq", sequenceName = "itens_venda_seq", allocationSize = 50)
   private Long id;
 
   // -- INFORMADO -- //
@@ -62,7 +65,8 @@ public class ItemVenda {
   @Transient
   public BigDecimal getValorTotalItem() {
     if (quantidade != null && precoUnitarioVenda != null) {
-      return quantidade.multiply(precoUnitarioVenda);
+      // Valor monetário: 2 casas, como valor_total da venda e o saldo do cliente
+      return quantidade.multiply(precoUnitarioVenda).setScale(2, RoundingMode.HALF_UP);
     }
     return BigDecimal.ZERO;
   }
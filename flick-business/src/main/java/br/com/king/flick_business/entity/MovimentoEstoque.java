@@ -0,0 +1,70 @@
+package br.com.king.flick_business.entity;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Movimento do livro de estoque (append-only): quantidade com sinal que entrou
+ * (positiva) ou saiu (negativa) do estoque de um product. Guarda apenas os IDs
+ * do product e da venda (sem FK) para que o histórico não dependa do cadastro
+ * nem de vendas apagadas.
+ *
+ * <p>
+ * {@code compactado} indica que o movimento já está somado em
+ * {@code products.quantidade_estoque}; os pendentes são somados pela
+ * compactação (ver EstoqueService).
+ */
+@Entity
+@Table(name = "movimentos_estoque", indexes = {
+    @Index(name = "idx_movimentos_estoque_product_data", columnList = "product_id, data_movimento"),
+    @Index(name = "idx_movimentos_estoque_pendentes", columnList = "compactado, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimentoEstoque {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentos_estoque_seq")
+  @SequenceGenerator(name = "movimentos_estoque_seq", sequenceName = "movimentos_estoque_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private TipoMovimentoEstoque tipo;
+
+  @Column(nullable = false, precision = 14, scale = 3)
+  private BigDecimal quantidade;
+
+  // Data da venda (vendas) ou do registro (demais movimentos)
+  @Column(name = "data_movimento", nullable = false)
+  private ZonedDateTime dataMovimento;
+
+  @Column(name = "venda_id")
+  private Long vendaId;
+
+  @Column(length = 200)
+  private String observacao;
+
+  @Column(nullable = false)
+  private boolean compactado;
+}
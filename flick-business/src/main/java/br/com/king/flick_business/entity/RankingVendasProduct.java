@@ -0,0 +1,44 @@
+package br.com.king.flick_business.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade vendida de um product desde sempre e nos últimos 30 e 90 dias,
+ * para ordenar a listagem por mais/menos vendidos sem agregar itens_venda (ver
+ * RankingVendasService). Como em ResumoDiarioProduct, guarda só o ID do
+ * product, sem FK.
+ */
+@Entity
+@Table(name = "ranking_vendas_product", indexes = {
+    @Index(name = "idx_ranking_vendas_total", columnList = "quantidade_total, product_id"),
+    @Index(name = "idx_ranking_vendas_30_dias", columnList = "quantidade_30_dias, product_id"),
+    @Index(name = "idx_ranking_vendas_90_dias", columnList = "quantidade_90_dias, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingVendasProduct {
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(name = "quantidade_total", nullable = false, precision = 14, scale = 3)
+  private BigDecimal quantidadeTotal;
+
+  @Column(name = "quantidade_30_dias", nullable = false, precision = 14, scale = 3)
+  private BigDecimal quantidade30Dias;
+
+  @Column(name = "quantidade_90_dias", nullable = false, precision = 14, scale = 3)
+  private BigDecimal quantidade90Dias;
+}
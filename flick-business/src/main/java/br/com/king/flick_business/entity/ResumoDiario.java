@@ -0,0 +1,39 @@
+package br.com.king.flick_business.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de um dia, mantidos incrementalmente a cada venda/expense registrada
+ * ou removida (ver ResumoDiarioService). O dashboard lê estas linhas em vez de
+ * agregar vendas e expenses brutas.
+ */
+@Entity
+@Table(name = "resumo_diario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDiario {
+  @Id
+  @Column(name = "dia")
+  private LocalDate dia;
+
+  @Column(name = "total_vendas", nullable = false, precision = 14, scale = 2)
+  private BigDecimal totalVendas;
+
+  @Column(name = "quantidade_vendas", nullable = false)
+  private Long quantidadeVendas;
+
+  @Column(name = "total_expenses", nullable = false, precision = 14, scale = 2)
+  private BigDecimal totalExpenses;
+}
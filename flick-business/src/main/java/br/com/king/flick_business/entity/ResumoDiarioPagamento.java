@@ -0,0 +1,50 @@
+package br.com.king.flick_business.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import br.com.king.flick_business.enums.FormaPagamento;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total vendido por forma de pagamento em um dia.
+ */
+@Entity
+@Table(name = "resumo_diario_pagamento")
+@IdClass(ResumoDiarioPagamento.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDiarioPagamento {
+  @Id
+  @Column(name = "dia")
+  private LocalDate dia;
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(name = "forma_pagamento", length = 20)
+  private FormaPagamento formaPagamento;
+
+  @Column(name = "total", nullable = false, precision = 14, scale = 2)
+  private BigDecimal total;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Chave implements Serializable {
+    private LocalDate dia;
+    private FormaPagamento formaPagamento;
+  }
+}
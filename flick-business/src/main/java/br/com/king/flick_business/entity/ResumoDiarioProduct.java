@@ -0,0 +1,50 @@
+package br.com.king.flick_business.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade e valor vendidos de um product em um dia. Guarda apenas o ID do
+ * product (sem FK) para que o histórico não dependa do cadastro atual.
+ */
+@Entity
+@Table(name = "resumo_diario_product")
+@IdClass(ResumoDiarioProduct.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDiarioProduct {
+  @Id
+  @Column(name = "dia")
+  private LocalDate dia;
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(name = "quantidade", nullable = false, precision = 14, scale = 3)
+  private BigDecimal quantidade;
+
+  @Column(name = "valor_total", nullable = false, precision = 14, scale = 2)
+  private BigDecimal valorTotal;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Chave implements Serializable {
+    private LocalDate dia;
+    private Long productId;
+  }
+}
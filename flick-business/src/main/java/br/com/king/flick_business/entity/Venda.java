@@ -5,8 +5,6 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.hibernate.annotations.CreationTimestamp;
-
 import br.com.king.flick_business.enums.FormaPagamento;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -17,9 +15,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
@@ -29,14 +30,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "vendas")
+// Índices (chave de ordenação, id) atendem a listagem por cursor sem varrer a tabela
+@Table(name = "vendas", indexes = {
+    @Index(name = "idx_vendas_data_venda_id", columnList = "data_venda, id"),
+    @Index(name = "idx_vendas_valor_total_id", columnList = "valor_total, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Venda {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendas_seq")
+  @SequenceGenerator(name = "vendas_seq", sequenceName = "vendas_seq", allocationSize = 50)
   private Long id;
   // -- CALCULADO -- //
   @NotNull(message = "O valor total é obrigatório")
@@ -75,6 +81,14 @@ public class Venda {
   @NotNull(message = "A data da venda é obrigatória")
   @PastOrPresent(message = "A data da venda não pode ser futura")
   @Column(name = "data_venda", nullable = false, updatable = false)
-  @CreationTimestamp
   private ZonedDateTime dataVenda;
+
+  // Data informada (ex.: importação, dados retroativos) é preservada; só assume
+  // o momento atual quando não vier preenchida
+  @PrePersist
+  void definirDataVenda() {
+    if (dataVenda == null) {
+      dataVenda = ZonedDateTime.now();
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package br.com.king.flick_business.enums;
+
+public enum FormatoExportacao {
+  // Uma linha por item, com os dados da venda repetidos
+  CSV("text/csv", "csv"),
+  // Um objeto JSON por venda, com os itens aninhados
+  NDJSON("application/x-ndjson", "ndjson");
+
+  private final String tipoConteudo;
+  private final String extensao;
+
+  FormatoExportacao(String tipoConteudo, String extensao) {
+    this.tipoConteudo = tipoConteudo;
+    this.extensao = extensao;
+  }
+
+  public String getTipoConteudo() {
+    return tipoConteudo;
+  }
+
+  public String getExtensao() {
+    return extensao;
+  }
+}
@@ -0,0 +1,8 @@
+package br.com.king.flick_business.enums;
+
+// Período das vendas considerado na ordenação por mais/menos vendidos
+public enum JanelaVendas {
+  TOTAL,
+  ULTIMOS_30_DIAS,
+  ULTIMOS_90_DIAS
+}
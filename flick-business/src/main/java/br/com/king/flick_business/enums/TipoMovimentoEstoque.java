@@ -0,0 +1,8 @@
+package br.com.king.flick_business.enums;
+
+public enum TipoMovimentoEstoque {
+  VENDA,
+  ESTORNO_VENDA,
+  AJUSTE,
+  REPOSICAO
+}
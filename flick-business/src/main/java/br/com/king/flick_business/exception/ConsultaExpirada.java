@@ -0,0 +1,14 @@
+package br.com.king.flick_business.exception;
+
+public class ConsultaExpirada extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public ConsultaExpirada(String message) {
+    super(message);
+  }
+
+  public ConsultaExpirada(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -77,6 +77,15 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
   }
 
+  // Consultas que não terminaram dentro do tempo limite
+  @ExceptionHandler(ConsultaExpirada.class)
+  public ResponseEntity<Object> handleConsultaExpiradaException(ConsultaExpirada ex, WebRequest request) {
+    Map<String, Object> body = new HashMap<>();
+    body.put("message", ex.getMessage());
+    body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+    return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   // Exceção genérica
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Object> handleGenericException(Exception ex, WebRequest request) {
@@ -0,0 +1,157 @@
+package br.com.king.flick_business.gerador;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Grava linhas de uma tabela em lotes. No PostgreSQL usa {@code COPY ... FROM
+ * STDIN} (CSV); nos demais bancos, INSERT em lote via JDBC.
+ */
+abstract class EscritorTabela implements AutoCloseable {
+
+  protected final String tabela;
+  protected final String[] colunas;
+  private final int lote;
+  private int pendentes;
+  private long gravadas;
+  private EscritorTabela dependencia;
+
+  private EscritorTabela(String tabela, String[] colunas, int lote) {
+    this.tabela = tabela;
+    this.colunas = colunas;
+    this.lote = lote;
+  }
+
+  static boolean suportaCopy(Connection conexao) throws SQLException {
+    return conexao.isWrapperFor(PGConnection.class);
+  }
+
+  static EscritorTabela para(Connection conexao, int lote, String tabela, String... colunas) throws SQLException {
+    if (suportaCopy(conexao)) {
+      return new Copy(conexao.unwrap(PGConnection.class).getCopyAPI(), tabela, colunas, lote);
+    }
+    return new Jdbc(conexao, tabela, colunas, lote);
+  }
+
+  /**
+   * Descarrega {@code tabela} antes de cada lote deste escritor, para que as
+   * chaves estrangeiras já existam quando as linhas chegarem ao banco.
+   */
+  EscritorTabela depoisDe(EscritorTabela tabela) {
+    this.dependencia = tabela;
+    return this;
+  }
+
+  void adicionar(Object... valores) throws SQLException {
+    escrever(valores);
+    pendentes++;
+    if (pendentes >= lote) {
+      descarregar();
+    }
+  }
+
+  void descarregar() throws SQLException {
+    if (pendentes > 0) {
+      if (dependencia != null) {
+        dependencia.descarregar();
+      }
+      enviar();
+      gravadas += pendentes;
+      pendentes = 0;
+    }
+  }
+
+  long getGravadas() {
+    return gravadas;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    descarregar();
+    liberar();
+  }
+
+  protected abstract void escrever(Object[] valores) throws SQLException;
+
+  protected abstract void enviar() throws SQLException;
+
+  protected void liberar() throws SQLException {
+  }
+
+  private static final class Copy extends EscritorTabela {
+    private final CopyManager copyManager;
+    private final String sql;
+    private final StringBuilder csv = new StringBuilder(1 << 20);
+
+    private Copy(CopyManager copyManager, String tabela, String[] colunas, int lote) {
+      super(tabela, colunas, lote);
+      this.copyManager = copyManager;
+      this.sql = "COPY " + tabela + " (" + String.join(", ", colunas) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    @Override
+    protected void escrever(Object[] valores) {
+      for (int i = 0; i < valores.length; i++) {
+        if (i > 0) {
+          csv.append(',');
+        }
+        Object valor = valores[i];
+        // Campo vazio sem aspas é NULL no CSV do COPY
+        if (valor instanceof String texto) {
+          csv.append('"').append(texto.replace("\"", "\"\"")).append('"');
+        } else if (valor instanceof BigDecimal decimal) {
+          csv.append(decimal.toPlainString());
+        } else if (valor != null) {
+          csv.append(valor);
+        }
+      }
+      csv.append('\n');
+    }
+
+    @Override
+    protected void enviar() throws SQLException {
+      try {
+        copyManager.copyIn(sql, new StringReader(csv.toString()));
+      } catch (IOException e) {
+        throw new SQLException("Falha no COPY de " + tabela, e);
+      }
+      csv.setLength(0);
+    }
+  }
+
+  private static final class Jdbc extends EscritorTabela {
+    private final PreparedStatement insert;
+
+    private Jdbc(Connection conexao, String tabela, String[] colunas, int lote) throws SQLException {
+      super(tabela, colunas, lote);
+      this.insert = conexao.prepareStatement("INSERT INTO " + tabela + " (" + String.join(", ", colunas)
+          + ") VALUES (" + String.join(", ", Collections.nCopies(colunas.length, "?")) + ")");
+    }
+
+    @Override
+    protected void escrever(Object[] valores) throws SQLException {
+      for (int i = 0; i < valores.length; i++) {
+        insert.setObject(i + 1, valores[i]);
+      }
+      insert.addBatch();
+    }
+
+    @Override
+    protected void enviar() throws SQLException {
+      insert.executeBatch();
+    }
+
+    @Override
+    protected void liberar() throws SQLException {
+      insert.close();
+    }
+  }
+}
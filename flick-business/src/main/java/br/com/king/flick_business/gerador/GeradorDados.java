@@ -0,0 +1,479 @@
+package br.com.king.flick_business.gerador;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.TipoExpense;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.service.ResumoDiarioService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Popula o banco com o histórico sintético de uma loja (categorys, products,
+ * clientes, vendas, itens_venda e expenses) para testes de carga e benchmarks
+ * com volumes reais. Parâmetros em {@link GeradorDadosProperties}.
+ *
+ * Distribuições usadas:
+ * <ul>
+ * <li>vendas por dia: média de {@code vendasPorDia} ajustada pelo dia da semana
+ * e pelo crescimento anual, com variação normal;</li>
+ * <li>horário: pesos por hora de funcionamento (7h às 21h), com picos no almoço
+ * e no fim da tarde;</li>
+ * <li>tamanho da cesta: geométrica com média {@code cestaMedia};</li>
+ * <li>popularidade dos products: Zipf com expoente {@code zipfExpoente};</li>
+ * <li>preços e expenses: log-normal.</li>
+ * </ul>
+ *
+ * As linhas vão direto por JDBC, sem Hibernate: {@code COPY} no PostgreSQL e
+ * INSERT em lote nos demais bancos. Cada mês de vendas é gravado em uma
+ * transação; ao final as sequences são reposicionadas e o resumo diário é
+ * reconstruído. A mesma semente sempre gera os mesmos dados.
+ *
+ * <p>
+ * As vendas geradas não passam pelo livro de estoque ({@code movimentos_estoque}
+ * fica vazio): a quantidade gerada de cada product é o seu estoque atual, e o
+ * estoque em uma data passada (atual menos os movimentos posteriores) não
+ * reflete o histórico gerado.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GeradorDadosProperties.class)
+public class GeradorDados {
+  // O mesmo fuso do resumo diário
+  private static final ZoneId ZONA = ZoneId.systemDefault();
+
+  // Segunda a domingo
+  private static final double[] PESO_DIA_SEMANA = { 0.85, 0.90, 0.95, 1.00, 1.20, 1.35, 0.75 };
+  private static final int PRIMEIRA_HORA = 7;
+  private static final double[] ACUMULADO_HORA = acumulado(
+      new double[] { 0.4, 0.7, 0.9, 1.1, 1.3, 1.2, 0.8, 0.7, 0.8, 1.0, 1.3, 1.5, 1.2, 0.7, 0.4 });
+  // Compras no fiado anteriores a esta janela são consideradas quitadas
+  private static final int DIAS_SALDO_FIADO = 60;
+  private static final BigDecimal LIMITE_FIADO = new BigDecimal("1000.00");
+
+  private static final String[] NOMES_EXPENSE = { "Aluguel", "Energia", "Água", "Internet", "Fornecedor",
+      "Manutenção", "Impostos", "Material de limpeza", "Transporte", "Embalagens" };
+  private static final TipoExpense[] TIPOS_EXPENSE = { TipoExpense.EMPRESARIAL, TipoExpense.PESSOAL,
+      TipoExpense.INVESTIMENTO, TipoExpense.OUTROS };
+  private static final double[] ACUMULADO_TIPO_EXPENSE = acumulado(new double[] { 0.80, 0.10, 0.05, 0.05 });
+
+  // Ordem de remoção respeita as chaves estrangeiras
+  private static final String[] TABELAS = { "chaves_idempotencia_venda", "movimentos_estoque", "itens_venda",
+      "vendas", "resumo_diario_product", "ranking_vendas_product", "resumo_diario_pagamento", "resumo_diario",
+      "expenses", "products", "clientes", "categorys" };
+
+  private final DataSource dataSource;
+  private final ResumoDiarioService resumoDiarioService;
+  private final GeradorDadosProperties props;
+
+  public GeradorDados(DataSource dataSource, ResumoDiarioService resumoDiarioService,
+      GeradorDadosProperties props) {
+    this.dataSource = dataSource;
+    this.resumoDiarioService = resumoDiarioService;
+    this.props = props;
+  }
+
+  /**
+   * Linhas gravadas por tabela.
+   */
+  public record Resultado(long categorys, long products, long clientes, long vendas, long itens, long expenses,
+      Duration duracao) {
+
+    public long linhas() {
+      return categorys + products + clientes + vendas + itens + expenses;
+    }
+  }
+
+  // Estado acumulado durante a geração
+  private static final class Geracao {
+    final SplittableRandom random;
+    final LocalDate primeiroDia;
+    final LocalDate ultimoDia;
+    final OffsetDateTime criacao;
+
+    BigDecimal[] precos;
+    boolean[] vendidoPorPeso;
+    int[] productPorRanking;
+    double[] acumuladoZipf;
+    FormaPagamento[] formas;
+    double[] acumuladoFormas;
+
+    BigDecimal[] saldoFiado;
+    OffsetDateTime[] ultimaCompraFiado;
+
+    long vendaId;
+    long itemId;
+    long expenseId;
+
+    Geracao(SplittableRandom random, LocalDate primeiroDia, LocalDate ultimoDia) {
+      this.random = random;
+      this.primeiroDia = primeiroDia;
+      this.ultimoDia = ultimoDia;
+      this.criacao = primeiroDia.atStartOfDay(ZONA).toOffsetDateTime();
+    }
+  }
+
+  public Resultado gerar() {
+    long inicio = System.nanoTime();
+    LocalDate ultimoDia = props.fim();
+    LocalDate primeiroDia = ultimoDia.minus(props.periodo()).plusDays(1);
+    Geracao geracao = new Geracao(new SplittableRandom(props.semente()), primeiroDia, ultimoDia);
+
+    long[] movimento;
+    try (Connection conexao = dataSource.getConnection()) {
+      conexao.setAutoCommit(false);
+      log.info("Gerando dados sintéticos de {} a {} via {}", primeiroDia, ultimoDia,
+          EscritorTabela.suportaCopy(conexao) ? "COPY" : "INSERT em lote");
+      prepararBanco(conexao);
+
+      gerarCategorys(conexao);
+      gerarProducts(conexao, geracao);
+      gerarClientes(conexao, geracao);
+      conexao.commit();
+
+      movimento = gerarMovimento(conexao, geracao);
+      atualizarSaldosFiado(conexao, geracao);
+      reiniciarSequences(conexao, geracao);
+      conexao.commit();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Falha ao gerar dados sintéticos: " + e.getMessage(), e);
+    }
+
+    // Uma transação por mês: períodos longos não seguram uma transação gigante
+    for (LocalDate mes = primeiroDia; !mes.isAfter(ultimoDia); mes = mes.withDayOfMonth(1).plusMonths(1)) {
+      LocalDate fimMes = mes.withDayOfMonth(mes.lengthOfMonth());
+      resumoDiarioService.reconstruir(mes, fimMes.isAfter(ultimoDia) ? ultimoDia : fimMes);
+    }
+
+    Resultado resultado = new Resultado(props.categorys(), props.products(), props.clientes(), movimento[0],
+        movimento[1], movimento[2], Duration.ofNanos(System.nanoTime() - inicio));
+    double segundos = Math.max(resultado.duracao().toMillis(), 1) / 1000.0;
+    log.info("Dados sintéticos gerados em {} s: {} products, {} clientes, {} vendas, {} itens, {} expenses "
+        + "({} linhas/s)", String.format("%.1f", segundos), resultado.products(), resultado.clientes(),
+        resultado.vendas(), resultado.itens(), resultado.expenses(), Math.round(resultado.linhas() / segundos));
+    return resultado;
+  }
+
+  // -- PREPARAÇÃO -- //
+
+  private void prepararBanco(Connection conexao) throws SQLException {
+    try (Statement statement = conexao.createStatement()) {
+      if (!props.limpar()) {
+        for (String tabela : TABELAS) {
+          try (ResultSet rs = statement.executeQuery("SELECT 1 FROM " + tabela + " LIMIT 1")) {
+            if (rs.next()) {
+              throw new IllegalStateException("A tabela " + tabela
+                  + " já possui dados. Use flick.gerador.limpar=true para apagá-los antes de gerar.");
+            }
+          }
+        }
+        return;
+      }
+      if (EscritorTabela.suportaCopy(conexao)) {
+        statement.execute("TRUNCATE TABLE " + String.join(", ", TABELAS));
+      } else {
+        for (String tabela : TABELAS) {
+          statement.execute("DELETE FROM " + tabela);
+        }
+      }
+    }
+    conexao.commit();
+    log.info("Tabelas limpas: {}", String.join(", ", TABELAS));
+  }
+
+  // -- CATÁLOGO E CLIENTES -- //
+
+  private void gerarCategorys(Connection conexao) throws SQLException {
+    try (EscritorTabela categorys = EscritorTabela.para(conexao, props.lote(), "categorys", "id", "name")) {
+      for (int id = 1; id <= props.categorys(); id++) {
+        categorys.adicionar(id, "Categoria " + id);
+      }
+    }
+  }
+
+  private void gerarProducts(Connection conexao, Geracao geracao) throws SQLException {
+    SplittableRandom random = geracao.random;
+    int total = props.products();
+    geracao.precos = new BigDecimal[total + 1];
+    geracao.vendidoPorPeso = new boolean[total + 1];
+
+    try (EscritorTabela products = EscritorTabela.para(conexao, props.lote(), "products", "id", "name",
+        "barcode", "quantidade_estoque", "preco_venda", "preco_custo_unitario", "tipo_unidade_venda", "active",
+        "category_id", "criado_em", "atualizado_em")) {
+      for (int id = 1; id <= total; id++) {
+        boolean peso = random.nextDouble() < 0.10;
+        // Mediana de R$ 8,00; poucos itens passam de R$ 100,00
+        BigDecimal preco = dinheiro(logNormal(random, 8.0, 0.9), 0.50, 999.99);
+        BigDecimal custo = preco.multiply(BigDecimal.valueOf(random.nextDouble(0.55, 0.75)))
+            .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal estoque = peso ? BigDecimal.valueOf(random.nextInt(0, 100_000), 3)
+            : BigDecimal.valueOf(random.nextInt(0, 500));
+        geracao.precos[id] = preco;
+        geracao.vendidoPorPeso[id] = peso;
+        products.adicionar(id, "Product " + id, String.format("789%010d", id), estoque, preco, custo,
+            (peso ? UnitOfSale.PESO : UnitOfSale.UNIDADE).name(), true, 1 + random.nextInt(props.categorys()),
+            geracao.criacao, geracao.criacao);
+      }
+    }
+
+    // Ranking de popularidade embaralhado: o product mais vendido não é o de
+    // menor id
+    int[] ranking = new int[total];
+    for (int i = 0; i < total; i++) {
+      ranking[i] = i + 1;
+    }
+    for (int i = total - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int troca = ranking[i];
+      ranking[i] = ranking[j];
+      ranking[j] = troca;
+    }
+    geracao.productPorRanking = ranking;
+
+    double[] pesosZipf = new double[total];
+    for (int i = 0; i < total; i++) {
+      pesosZipf[i] = 1.0 / Math.pow(i + 1, props.zipfExpoente());
+    }
+    geracao.acumuladoZipf = acumulado(pesosZipf);
+  }
+
+  private void gerarClientes(Connection conexao, Geracao geracao) throws SQLException {
+    int total = props.clientes();
+    geracao.saldoFiado = new BigDecimal[total + 1];
+    geracao.ultimaCompraFiado = new OffsetDateTime[total + 1];
+
+    try (EscritorTabela clientes = EscritorTabela.para(conexao, props.lote(), "clientes", "id", "name", "cpf",
+        "active", "controle_fiado", "limite_fiado", "saldo_devedor", "data_cadastro", "data_atualizacao")) {
+      for (int id = 1; id <= total; id++) {
+        geracao.saldoFiado[id] = BigDecimal.ZERO;
+        clientes.adicionar(id, "Cliente " + id, String.format("%011d", id), true, true, LIMITE_FIADO,
+            BigDecimal.ZERO, geracao.criacao, geracao.criacao);
+      }
+    }
+  }
+
+  // -- VENDAS E EXPENSES -- //
+
+  private long[] gerarMovimento(Connection conexao, Geracao geracao) throws SQLException {
+    Map<FormaPagamento, Double> formasPagamento = props.formasPagamento();
+    geracao.formas = formasPagamento.keySet().toArray(FormaPagamento[]::new);
+    geracao.acumuladoFormas = acumulado(formasPagamento.values().stream().mapToDouble(Double::doubleValue)
+        .toArray());
+
+    try (EscritorTabela vendas = EscritorTabela.para(conexao, props.lote(), "vendas", "id", "data_venda",
+        "valor_total", "forma_pagamento", "id_cliente");
+        EscritorTabela itens = EscritorTabela.para(conexao, props.lote(), "itens_venda", "id", "venda_id",
+            "product_id", "quantidade", "preco_unitario_venda").depoisDe(vendas);
+        EscritorTabela expenses = EscritorTabela.para(conexao, props.lote(), "expenses", "id", "name", "valor",
+            "data_expense", "tipo_expense", "data_criacao", "data_atualizacao")) {
+
+      for (LocalDate dia = geracao.primeiroDia; !dia.isAfter(geracao.ultimoDia); dia = dia.plusDays(1)) {
+        if (dia.getDayOfMonth() == 1 || dia.equals(geracao.primeiroDia)) {
+          gerarExpensesDoMes(expenses, geracao, dia);
+        }
+        gerarVendasDoDia(vendas, itens, geracao, dia);
+
+        if (dia.equals(dia.withDayOfMonth(dia.lengthOfMonth())) || dia.equals(geracao.ultimoDia)) {
+          vendas.descarregar();
+          itens.descarregar();
+          expenses.descarregar();
+          conexao.commit();
+          log.debug("Mês {} gravado: {} vendas até aqui", dia.withDayOfMonth(1), vendas.getGravadas());
+          if (dia.getMonthValue() == 12) {
+            log.info("Ano {} gerado: {} vendas, {} itens", dia.getYear(), vendas.getGravadas(),
+                itens.getGravadas());
+          }
+        }
+      }
+    }
+    return new long[] { geracao.vendaId, geracao.itemId, geracao.expenseId };
+  }
+
+  private void gerarVendasDoDia(EscritorTabela vendas, EscritorTabela itens, Geracao geracao, LocalDate dia)
+      throws SQLException {
+    SplittableRandom random = geracao.random;
+    double anosAteOFim = ChronoUnit.DAYS.between(dia, geracao.ultimoDia) / 365.0;
+    double media = props.vendasPorDia() * PESO_DIA_SEMANA[dia.getDayOfWeek().getValue() - 1]
+        * Math.pow(1 + props.crescimentoAnual(), -anosAteOFim);
+    int quantidadeVendas = (int) Math.max(0, Math.round(media + Math.sqrt(media) * random.nextGaussian()));
+
+    // Ids crescem com o horário, como em um caixa de verdade
+    int[] segundosDoDia = new int[quantidadeVendas];
+    for (int i = 0; i < quantidadeVendas; i++) {
+      int hora = PRIMEIRA_HORA + sortear(ACUMULADO_HORA, random);
+      segundosDoDia[i] = hora * 3600 + random.nextInt(3600);
+    }
+    Arrays.sort(segundosDoDia);
+
+    long inicioDoDia = dia.atStartOfDay(ZONA).toEpochSecond();
+    LocalDate inicioSaldoFiado = geracao.ultimoDia.minusDays(DIAS_SALDO_FIADO);
+    int cestaMaxima = props.cestaMaxima();
+    long[] productIds = new long[cestaMaxima];
+    BigDecimal[] quantidades = new BigDecimal[cestaMaxima];
+
+    for (int segundos : segundosDoDia) {
+      long vendaId = ++geracao.vendaId;
+      OffsetDateTime dataVenda = OffsetDateTime.ofInstant(Instant.ofEpochSecond(inicioDoDia + segundos), ZONA);
+
+      int tamanhoCesta = tamanhoCesta(random);
+      BigDecimal total = BigDecimal.ZERO;
+      for (int i = 0; i < tamanhoCesta; i++) {
+        int productId = geracao.productPorRanking[sortear(geracao.acumuladoZipf, random)];
+        BigDecimal quantidade = geracao.vendidoPorPeso[productId]
+            ? BigDecimal.valueOf(random.nextInt(100, 2_001), 3)
+            : BigDecimal.valueOf(random.nextDouble() < 0.7 ? 1 : random.nextInt(2, 5));
+        productIds[i] = productId;
+        quantidades[i] = quantidade;
+        total = total.add(quantidade.multiply(geracao.precos[productId]));
+      }
+      total = total.setScale(2, RoundingMode.HALF_UP);
+
+      FormaPagamento forma;
+      Integer clienteId = null;
+      if (random.nextDouble() < props.fiado()) {
+        forma = FormaPagamento.FIADO;
+        clienteId = 1 + random.nextInt(props.clientes());
+        if (!dia.isBefore(inicioSaldoFiado)) {
+          geracao.saldoFiado[clienteId] = geracao.saldoFiado[clienteId].add(total);
+        }
+        geracao.ultimaCompraFiado[clienteId] = dataVenda;
+      } else {
+        forma = geracao.formas[sortear(geracao.acumuladoFormas, random)];
+        if (random.nextDouble() < props.vendasComCliente()) {
+          clienteId = 1 + random.nextInt(props.clientes());
+        }
+      }
+
+      vendas.adicionar(vendaId, dataVenda, total, forma.name(), clienteId);
+      for (int i = 0; i < tamanhoCesta; i++) {
+        itens.adicionar(++geracao.itemId, vendaId, productIds[i], quantidades[i],
+            geracao.precos[(int) productIds[i]]);
+      }
+    }
+  }
+
+  private void gerarExpensesDoMes(EscritorTabela expenses, Geracao geracao, LocalDate inicioMes)
+      throws SQLException {
+    SplittableRandom random = geracao.random;
+    LocalDate fimMes = inicioMes.withDayOfMonth(inicioMes.lengthOfMonth());
+    if (fimMes.isAfter(geracao.ultimoDia)) {
+      fimMes = geracao.ultimoDia;
+    }
+    int dias = (int) ChronoUnit.DAYS.between(inicioMes, fimMes) + 1;
+    // Meses incompletos (primeiro e último) recebem expenses proporcionais
+    int quantidade = (int) Math.round(props.expensesPorMes() * dias / (double) inicioMes.lengthOfMonth());
+
+    for (int i = 0; i < quantidade; i++) {
+      OffsetDateTime data = inicioMes.plusDays(random.nextInt(dias))
+          .atTime(8 + random.nextInt(10), random.nextInt(60))
+          .atZone(ZONA).toOffsetDateTime();
+      TipoExpense tipo = TIPOS_EXPENSE[sortear(ACUMULADO_TIPO_EXPENSE, random)];
+      expenses.adicionar(++geracao.expenseId, NOMES_EXPENSE[random.nextInt(NOMES_EXPENSE.length)],
+          dinheiro(logNormal(random, 250.0, 1.0), 10.00, 20_000.00), data, tipo.name(), data, data);
+    }
+  }
+
+  // -- AJUSTES FINAIS -- //
+
+  private void atualizarSaldosFiado(Connection conexao, Geracao geracao) throws SQLException {
+    try (PreparedStatement update = conexao.prepareStatement("UPDATE clientes SET saldo_devedor = ?, "
+        + "limite_fiado = ?, data_ultima_compra_fiado = ? WHERE id = ?")) {
+      int pendentes = 0;
+      for (int id = 1; id <= props.clientes(); id++) {
+        if (geracao.ultimaCompraFiado[id] == null) {
+          continue;
+        }
+        BigDecimal saldo = geracao.saldoFiado[id];
+        // Limite em centenas, sempre acima do saldo gerado
+        BigDecimal limite = saldo.compareTo(LIMITE_FIADO) <= 0 ? LIMITE_FIADO
+            : saldo.divide(BigDecimal.valueOf(100), 0, RoundingMode.CEILING).multiply(BigDecimal.valueOf(100));
+        update.setBigDecimal(1, saldo);
+        update.setBigDecimal(2, limite);
+        update.setObject(3, geracao.ultimaCompraFiado[id]);
+        update.setLong(4, id);
+        update.addBatch();
+        if (++pendentes == props.lote()) {
+          update.executeBatch();
+          pendentes = 0;
+        }
+      }
+      update.executeBatch();
+    }
+  }
+
+  // Sequences pooled (allocationSize = 50): recomeçam além dos ids gerados
+  private void reiniciarSequences(Connection conexao, Geracao geracao) throws SQLException {
+    Map<String, Long> maioresIds = Map.of(
+        "categorys", (long) props.categorys(),
+        "products", (long) props.products(),
+        "clientes", (long) props.clientes(),
+        "vendas", geracao.vendaId,
+        "itens_venda", geracao.itemId,
+        "expenses", geracao.expenseId);
+    try (Statement statement = conexao.createStatement()) {
+      for (Map.Entry<String, Long> tabela : maioresIds.entrySet()) {
+        statement.execute("ALTER SEQUENCE " + tabela.getKey() + "_seq RESTART WITH " + (tabela.getValue() + 51));
+      }
+    }
+  }
+
+  // -- DISTRIBUIÇÕES -- //
+
+  private int tamanhoCesta(SplittableRandom random) {
+    // Geométrica a partir de 1 com média cestaMedia
+    double p = 1.0 / props.cestaMedia();
+    if (p >= 1.0) {
+      return 1;
+    }
+    int tamanho = 1 + (int) (Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+    return Math.min(tamanho, props.cestaMaxima());
+  }
+
+  private static double[] acumulado(double[] pesos) {
+    double[] acumulado = new double[pesos.length];
+    double soma = 0;
+    for (int i = 0; i < pesos.length; i++) {
+      soma += pesos[i];
+      acumulado[i] = soma;
+    }
+    for (int i = 0; i < acumulado.length; i++) {
+      acumulado[i] /= soma;
+    }
+    return acumulado;
+  }
+
+  // Índice sorteado conforme a distribuição acumulada
+  private static int sortear(double[] acumulado, SplittableRandom random) {
+    int indice = Arrays.binarySearch(acumulado, random.nextDouble());
+    indice = indice >= 0 ? indice : -indice - 1;
+    return Math.min(indice, acumulado.length - 1);
+  }
+
+  private static double logNormal(SplittableRandom random, double mediana, double sigma) {
+    return Math.exp(Math.log(mediana) + sigma * random.nextGaussian());
+  }
+
+  private static BigDecimal dinheiro(double valor, double minimo, double maximo) {
+    return BigDecimal.valueOf(Math.min(Math.max(valor, minimo), maximo)).setScale(2, RoundingMode.HALF_UP);
+  }
+}
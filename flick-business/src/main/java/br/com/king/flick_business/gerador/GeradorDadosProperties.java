@@ -0,0 +1,73 @@
+package br.com.king.flick_business.gerador;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import br.com.king.flick_business.enums.FormaPagamento;
+
+/**
+ * Parâmetros do {@link GeradorDados} ({@code flick.gerador.*}).
+ *
+ * @param semente              Semente do gerador aleatório (mesma semente, mesmos
+ *                             dados)
+ * @param periodo              Histórico gerado até {@code fim} (5y, 6m, 30d...)
+ * @param fim                  Último dia gerado (padrão: hoje)
+ * @param vendasPorDia         Média de vendas em um dia útil
+ * @param crescimentoAnual     Crescimento do movimento por ano (0.10 = 10%)
+ * @param products             Quantidade de products no catálogo
+ * @param categorys            Quantidade de categorias
+ * @param clientes             Quantidade de clientes (todos com fiado liberado)
+ * @param zipfExpoente         Expoente da popularidade dos products (Zipf);
+ *                             quanto maior, mais concentrada
+ * @param cestaMedia           Média de itens por venda (distribuição geométrica)
+ * @param cestaMaxima          Máximo de itens por venda
+ * @param fiado                Fração das vendas no fiado
+ * @param vendasComCliente     Fração das demais vendas com cliente identificado
+ * @param formasPagamento      Peso de cada forma de pagamento fora do fiado
+ * @param expensesPorMes       Expenses lançadas por mês
+ * @param lote                 Linhas por lote de COPY/JDBC
+ * @param limpar               Apaga vendas, products, clientes e expenses antes
+ *                             de gerar
+ */
+@ConfigurationProperties("flick.gerador")
+public record GeradorDadosProperties(
+    @DefaultValue("42") long semente,
+    @DefaultValue("5y") Period periodo,
+    LocalDate fim,
+    @DefaultValue("400") int vendasPorDia,
+    @DefaultValue("0.10") double crescimentoAnual,
+    @DefaultValue("2000") int products,
+    @DefaultValue("20") int categorys,
+    @DefaultValue("1000") int clientes,
+    @DefaultValue("1.1") double zipfExpoente,
+    @DefaultValue("3.5") double cestaMedia,
+    @DefaultValue("30") int cestaMaxima,
+    @DefaultValue("0.05") double fiado,
+    @DefaultValue("0.20") double vendasComCliente,
+    Map<FormaPagamento, Double> formasPagamento,
+    @DefaultValue("20") int expensesPorMes,
+    @DefaultValue("5000") int lote,
+    @DefaultValue("false") boolean limpar) {
+
+  public GeradorDadosProperties {
+    if (fim == null) {
+      fim = LocalDate.now();
+    }
+    if (formasPagamento == null || formasPagamento.isEmpty()) {
+      formasPagamento = new EnumMap<>(FormaPagamento.class);
+      formasPagamento.put(FormaPagamento.PIX, 0.40);
+      formasPagamento.put(FormaPagamento.DINHEIRO, 0.25);
+      formasPagamento.put(FormaPagamento.DEBITO, 0.20);
+      formasPagamento.put(FormaPagamento.CREDITO, 0.15);
+    }
+    if (periodo.isNegative() || periodo.isZero() || vendasPorDia < 0 || products < 1 || categorys < 1
+        || clientes < 1 || cestaMedia < 1 || cestaMaxima < 1 || lote < 1) {
+      throw new IllegalArgumentException("Parâmetros inválidos para o gerador de dados: " + this);
+    }
+  }
+}
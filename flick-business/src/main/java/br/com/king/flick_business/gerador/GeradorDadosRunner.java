@@ -0,0 +1,30 @@
+package br.com.king.flick_business.gerador;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executa o {@link GeradorDados} na inicialização do perfil {@code gerador}
+ * (sem servidor web; a aplicação termina ao final da carga):
+ *
+ * <pre>
+ * ./mvnw spring-boot:run -Dspring-boot.run.profiles=gerador \
+ *     -Dspring-boot.run.arguments="--flick.gerador.periodo=5y --flick.gerador.vendas-por-dia=400"
+ * </pre>
+ */
+@Component
+@Profile("gerador")
+public class GeradorDadosRunner implements CommandLineRunner {
+
+  private final GeradorDados geradorDados;
+
+  public GeradorDadosRunner(GeradorDados geradorDados) {
+    this.geradorDados = geradorDados;
+  }
+
+  @Override
+  public void run(String... args) {
+    geradorDados.gerar();
+  }
+}
@@ -5,7 +5,9 @@ import java.time.ZonedDateTime;
 import org.springframework.data.domain.Sort;
 
 import br.com.king.flick_business.enums.FormaPagamento;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class VendaMapper {
 
     public static FormaPagamento parseFormaPagamento(String formaPagamentoString) {
@@ -29,6 +31,8 @@ public class VendaMapper {
         return new ZonedDateTime[] { dataInicio, dataFim };
     }
 
+    // O ID entra como critério de desempate: sem ele, vendas com o mesmo valor de
+    // ordenação podem trocar de página entre uma consulta e outra
     public static Sort buildSort(String orderBy) {
         if (orderBy != null && !orderBy.isBlank()) {
             String[] parts = orderBy.split(",");
@@ -39,14 +43,14 @@ public class VendaMapper {
                 case "dataVenda", "valorTotal", "cliente.name" -> {
                 }
                 default -> {
-                    System.out.println("SERVICE LOG: orderBy não reconhecida: " + property + ". Usando padrão.");
+                    log.debug("orderBy não reconhecida: {}. Usando padrão.", property);
                     property = "dataVenda";
                     direction = Sort.Direction.DESC;
                 }
             }
-            return Sort.by(direction, property);
+            return Sort.by(direction, property).and(Sort.by(direction, "id"));
         }
-        return Sort.by(Sort.Direction.DESC, "dataVenda");
+        return Sort.by(Sort.Direction.DESC, "dataVenda").and(Sort.by(Sort.Direction.DESC, "id"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package br.com.king.flick_business.repository;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.entity.ChaveIdempotenciaVenda;
+
+@Repository
+public interface ChaveIdempotenciaVendaRepository extends JpaRepository<ChaveIdempotenciaVenda, String> {
+
+  // 0 se a chave já existe. Com outra transação gravando a mesma chave, espera
+  // pelo commit (ou rollback) dela antes de decidir
+  @Modifying
+  @Query(value = "INSERT INTO chaves_idempotencia_venda (chave, impressao_digital, criado_em) "
+      + "VALUES (:chave, :impressaoDigital, :criadoEm) ON CONFLICT DO NOTHING", nativeQuery = true)
+  int reservar(@Param("chave") String chave, @Param("impressaoDigital") long impressaoDigital,
+      @Param("criadoEm") ZonedDateTime criadoEm);
+
+  @Modifying
+  @Query("UPDATE ChaveIdempotenciaVenda c SET c.vendaId = :vendaId WHERE c.chave = :chave")
+  int concluir(@Param("chave") String chave, @Param("vendaId") Long vendaId);
+
+  @Modifying
+  @Query("DELETE FROM ChaveIdempotenciaVenda c WHERE c.chave = :chave AND c.criadoEm < :limite")
+  int deleteExpirada(@Param("chave") String chave, @Param("limite") ZonedDateTime limite);
+
+  @Modifying
+  @Query("DELETE FROM ChaveIdempotenciaVenda c WHERE c.criadoEm < :limite")
+  int deleteCriadasAntesDe(@Param("limite") ZonedDateTime limite);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import br.com.king.flick_business.dto.ClienteResumoDTO;
 import br.com.king.flick_business.entity.Cliente;
 
 @Repository
@@ -51,4 +52,33 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
                         @Param("apenasActives") Boolean apenasActives,
                         @Param("isDevedor") Boolean isDevedor,
                         Sort sort);
-}
\ No newline at end of file
+
+        // -- FIADO -- //
+        // Trava a linha do cliente até o fim da transação e devolve o saldo
+        // devedor lido do banco. Chamado depois da baixa de estoque (products,
+        // depois cliente), na venda isolada e no registro em lote
+        @Query(value = "SELECT saldo_devedor FROM clientes WHERE id = :id FOR UPDATE", nativeQuery = true)
+        BigDecimal travarSaldoDevedor(@Param("id") Long id);
+
+        // -- BUSCA POR NAME -- //
+        // Clientes ativos para o índice em memória (CatalogoClientes)
+        @Query("SELECT new br.com.king.flick_business.dto.ClienteResumoDTO(c.id, c.name) FROM Cliente c "
+                        + "WHERE c.active = true")
+        List<ClienteResumoDTO> findResumoAtivos();
+
+        @Query("SELECT new br.com.king.flick_business.dto.ClienteResumoDTO(c.id, c.name) FROM Cliente c "
+                        + "WHERE c.active = true AND c.id = :id")
+        Optional<ClienteResumoDTO> findResumoAtivoById(@Param("id") Long id);
+
+        // pg_trgm (ver BuscaTrigramas e ProductRepository.findIdsPorBuscaTrigramas)
+        @Query(value = "SELECT c.id FROM clientes c WHERE c.active = true "
+                        + "AND (public.flick_normalizar(c.name) LIKE '%' || public.flick_normalizar(:padrao) || '%' "
+                        + "OR public.flick_normalizar(:termo) <% public.flick_normalizar(c.name)) "
+                        + "ORDER BY public.flick_normalizar(c.name) LIKE public.flick_normalizar(:padrao) || '%' DESC, "
+                        + "public.flick_normalizar(c.name) LIKE '%' || public.flick_normalizar(:padrao) || '%' DESC, "
+                        + "word_similarity(public.flick_normalizar(:termo), public.flick_normalizar(c.name)) DESC, "
+                        + "public.flick_normalizar(c.name), c.id "
+                        + "LIMIT :limite", nativeQuery = true)
+        List<Long> findIdsPorBuscaTrigramas(@Param("termo") String termo, @Param("padrao") String padrao,
+                        @Param("limite") int limite);
+}
@@ -36,4 +36,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
         @Query("SELECT COALESCE(SUM(d.valor), 0) FROM Expense d WHERE d.dataExpense BETWEEN :inicio AND :fim")
         BigDecimal sumValorByDataExpenseBetweenDashboard(@Param("inicio") ZonedDateTime inicio,
                         @Param("fim") ZonedDateTime fim);
-}
\ No newline at end of file
+
+        // Linhas brutas para reconstrução do resumo diário
+        // Cada Object[] contém: [dataExpense, valor]
+        @Query("SELECT d.dataExpense, d.valor FROM Expense d WHERE d.dataExpense BETWEEN :inicio AND :fim")
+        List<Object[]> findDadosResumoBetween(@Param("inicio") ZonedDateTime inicio, @Param("fim") ZonedDateTime fim);
+}
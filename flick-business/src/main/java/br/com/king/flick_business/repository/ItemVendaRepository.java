@@ -1,6 +1,6 @@
 package br.com.king.flick_business.repository;
 
-import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -25,5 +25,12 @@ public interface ItemVendaRepository extends JpaRepository<ItemVenda, Long> {
       "GROUP BY iv.product.id, iv.product.name " +
       "ORDER BY qtdTotal DESC, valorTotal DESC " +
       "LIMIT 1")
-  ProductMaisVendidoDTO findProductMaisVendidoBetween(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
-}
\ No newline at end of file
+  ProductMaisVendidoDTO findProductMaisVendidoBetween(@Param("inicio") ZonedDateTime inicio,
+      @Param("fim") ZonedDateTime fim);
+
+  // Linhas brutas para reconstrução do resumo diário
+  // Cada Object[] contém: [dataVenda, productId, quantidade, precoUnitarioVenda]
+  @Query("SELECT v.dataVenda, iv.product.id, iv.quantidade, iv.precoUnitarioVenda "
+      + "FROM ItemVenda iv JOIN iv.venda v WHERE v.dataVenda BETWEEN :inicio AND :fim")
+  List<Object[]> findDadosResumoBetween(@Param("inicio") ZonedDateTime inicio, @Param("fim") ZonedDateTime fim);
+}
@@ -0,0 +1,61 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.entity.MovimentoEstoque;
+
+@Repository
+public interface MovimentoEstoqueRepository extends JpaRepository<MovimentoEstoque, Long> {
+
+  // Estoque atual (coluna + movimentos pendentes) em uma instrução só: uma
+  // compactação concluída no meio não conta os mesmos movimentos duas vezes
+  @Query("SELECT p.id, p.stockQuantity + COALESCE((SELECT SUM(m.quantidade) FROM MovimentoEstoque m "
+      + "WHERE m.productId = p.id AND m.compactado = false), 0) "
+      + "FROM Product p WHERE p.id IN :productIds")
+  List<Object[]> findEstoquesAtuais(@Param("productIds") Collection<Long> productIds);
+
+  // Estoque atual menos tudo o que entrou e saiu depois de :data
+  @Query("SELECT p.stockQuantity + COALESCE((SELECT SUM(m.quantidade) FROM MovimentoEstoque m "
+      + "WHERE m.productId = p.id AND m.compactado = false), 0) "
+      + "- COALESCE((SELECT SUM(d.quantidade) FROM MovimentoEstoque d "
+      + "WHERE d.productId = p.id AND d.dataMovimento > :data), 0) "
+      + "FROM Product p WHERE p.id = :productId")
+  Optional<BigDecimal> findEstoqueEm(@Param("productId") Long productId, @Param("data") ZonedDateTime data);
+
+  // Advisory lock do PostgreSQL até o fim da transação, na forma de duas chaves
+  // (espaço da aplicação, ID do product), que não colide com travas de uma chave
+  // só: serializa as baixas do modo LIVRO sem travar a linha (ver TravaEstoque).
+  // IDs acima do int dividem a chave (só esperam a mais). O CAST externo evita
+  // mapear o retorno void
+  @Query(value = "SELECT CAST(pg_advisory_xact_lock(:espaco, CAST(MOD(:productId, 2147483647) AS integer)) "
+      + "AS text)", nativeQuery = true)
+  String travarProduct(@Param("espaco") int espaco, @Param("productId") Long productId);
+
+  Page<MovimentoEstoque> findByProductIdOrderByDataMovimentoDescIdDesc(Long productId, Pageable pageable);
+
+  // -- COMPACTAÇÃO -- //
+  @Query("SELECT DISTINCT m.productId FROM MovimentoEstoque m WHERE m.compactado = false")
+  List<Long> findProductIdsComPendentes();
+
+  // [id, quantidade] dos movimentos pendentes do product, os mais antigos
+  // primeiro
+  @Query("SELECT m.id, m.quantidade FROM MovimentoEstoque m "
+      + "WHERE m.productId = :productId AND m.compactado = false ORDER BY m.id")
+  List<Object[]> findPendentes(@Param("productId") Long productId, Pageable pageable);
+
+  @Modifying
+  @Query("UPDATE MovimentoEstoque m SET m.compactado = true WHERE m.id IN :ids")
+  int marcarCompactados(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,40 @@
+package br.com.king.flick_business.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.king.flick_business.dto.ProductListagemDTO;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.JanelaVendas;
+
+/**
+ * Fragmento do {@link ProductRepository} para a listagem de products.
+ */
+public interface ProductListagemRepository {
+  /**
+   * Projeta os products que atendem à specification direto em
+   * {@link ProductListagemDTO} (category e provider por LEFT JOIN, só as suas
+   * colunas), sem carregar entidades no contexto de persistência.
+   *
+   * @param spec Filtros da listagem
+   * @param sort Ordenação (propriedades de {@link Product})
+   * @return Linhas da listagem na ordem pedida
+   */
+  List<ProductListagemDTO> findListagem(Specification<Product> spec, Sort sort);
+
+  /**
+   * Mesma projeção de {@link #findListagem}, ordenada pela quantidade vendida na
+   * janela (ranking_vendas_product; products sem vendas contam como zero) e
+   * depois por name.
+   *
+   * @param spec    Filtros da listagem
+   * @param janela  Período das vendas
+   * @param direcao DESC para mais vendidos primeiro, ASC para menos vendidos
+   * @return Linhas da listagem na ordem pedida
+   */
+  List<ProductListagemDTO> findListagemPorVendas(Specification<Product> spec, JanelaVendas janela,
+      Direction direcao);
+}
@@ -0,0 +1,104 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import br.com.king.flick_business.dto.ProductListagemDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Provider;
+import br.com.king.flick_business.entity.RankingVendasProduct;
+import br.com.king.flick_business.enums.JanelaVendas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ProductListagemRepositoryImpl implements ProductListagemRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<ProductListagemDTO> findListagem(Specification<Product> spec, Sort sort) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductListagemDTO> query = cb.createQuery(ProductListagemDTO.class);
+    Root<Product> product = listagem(query, spec, cb);
+    query.orderBy(QueryUtils.toOrders(sort, product, cb));
+
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public List<ProductListagemDTO> findListagemPorVendas(Specification<Product> spec, JanelaVendas janela,
+      Direction direcao) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductListagemDTO> query = cb.createQuery(ProductListagemDTO.class);
+    Root<Product> product = listagem(query, spec, cb);
+    // Sem associação mapeada: join de entidade do Hibernate pelo ID do product
+    JpaEntityJoin<RankingVendasProduct> ranking = ((JpaRoot<Product>) product)
+        .join(RankingVendasProduct.class, SqmJoinType.LEFT);
+    ranking.on(cb.equal(ranking.get("productId"), product.get("id")));
+
+    Expression<BigDecimal> vendidos = cb.coalesce(ranking.get(atributo(janela)), BigDecimal.ZERO);
+    query.orderBy(direcao.isAscending() ? cb.asc(vendidos) : cb.desc(vendidos), cb.asc(product.get("name")),
+        cb.asc(product.get("id")));
+
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  private static String atributo(JanelaVendas janela) {
+    return switch (janela) {
+      case TOTAL -> "quantidadeTotal";
+      case ULTIMOS_30_DIAS -> "quantidade30Dias";
+      case ULTIMOS_90_DIAS -> "quantidade90Dias";
+    };
+  }
+
+  // SELECT da projeção, com category e provider por LEFT JOIN e os filtros da spec
+  private static Root<Product> listagem(CriteriaQuery<ProductListagemDTO> query, Specification<Product> spec,
+      CriteriaBuilder cb) {
+    Root<Product> product = query.from(Product.class);
+    Join<Product, Category> category = product.join("category", JoinType.LEFT);
+    Join<Product, Provider> provider = product.join("provider", JoinType.LEFT);
+
+    query.select(cb.construct(ProductListagemDTO.class,
+        product.get("id"),
+        product.get("name"),
+        product.get("description"),
+        product.get("barcode"),
+        product.get("stockQuantity"),
+        product.get("salePrice"),
+        product.get("costPrice"),
+        product.get("unitOfSale"),
+        product.get("active"),
+        category.get("id"),
+        category.get("name"),
+        provider.get("id"),
+        provider.get("name"),
+        provider.get("tipoPessoa"),
+        provider.get("cnpjCpf"),
+        provider.get("telefone"),
+        provider.get("email"),
+        provider.get("notas"),
+        product.get("createdAt"),
+        product.get("updatedAt")));
+    Predicate filtros = spec.toPredicate(product, query, cb);
+    if (filtros != null) {
+      query.where(filtros);
+    }
+    return product;
+  }
+}
@@ -1,28 +1,27 @@
 package br.com.king.flick_business.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
 import br.com.king.flick_business.entity.Product;
 import br.com.king.flick_business.enums.UnitOfSale;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
-  @Query(value = "SELECT p.* FROM products p " +
-      "LEFT JOIN itens_venda iv ON p.id = iv.product_id " +
-      "WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
-      "AND (:categoryId IS NULL OR p.category_id = :categoryId) " +
-      "GROUP BY p.id " +
-      "ORDER BY COALESCE(SUM(iv.quantidade), 0) DESC, p.name ASC", countQuery = "SELECT count(*) FROM products p " +
-          "WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
-          "AND (:categoryId IS NULL OR p.category_id = :categoryId)", nativeQuery = true)
-  List<Product> findWithFiltersAndSortByVendas(@Param("name") String name,
-      @Param("categoryId") Long categoryId);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+    ProductListagemRepository {
+  // Detalhe do product com category e provider (usados na resposta) no mesmo SELECT
+  @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.provider WHERE p.id = :id")
+  Optional<Product> findByIdWithCategoryAndProvider(@Param("id") Long id);
 
   @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.provider")
   List<Product> findAllWithCategoryAndProvider();
@@ -39,4 +38,58 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
   List<Product> findByUnitOfSale(UnitOfSale UnitOfSale);
 
   List<Product> findByNameStartingWith(String prefixo);
+
+  // -- CATÁLOGO -- //
+  // Products ativos como vistos pelo caixa, para o catálogo em memória
+  @Query("SELECT new br.com.king.flick_business.dto.ProductCatalogoDTO(p.id, p.name, p.barcode, p.salePrice, "
+      + "p.unitOfSale) FROM Product p WHERE p.active = true")
+  List<ProductCatalogoDTO> findCatalogo();
+
+  @Query("SELECT new br.com.king.flick_business.dto.ProductCatalogoDTO(p.id, p.name, p.barcode, p.salePrice, "
+      + "p.unitOfSale) FROM Product p WHERE p.active = true AND p.id = :id")
+  Optional<ProductCatalogoDTO> findCatalogoById(@Param("id") Long id);
+
+  @Query("SELECT new br.com.king.flick_business.dto.ProductCatalogoDTO(p.id, p.name, p.barcode, p.salePrice, "
+      + "p.unitOfSale) FROM Product p WHERE p.active = true AND p.id IN :ids")
+  List<ProductCatalogoDTO> findCatalogoByIdIn(@Param("ids") Collection<Long> ids);
+
+  // -- BUSCA POR NAME (pg_trgm, ver BuscaTrigramas) -- //
+  // Prefixo, depois trecho, depois semelhança (word_similarity); o LIKE e o <%
+  // usam o índice GIN sobre flick_normalizar(name). padrao = termo com % e _
+  // escapados
+  @Query(value = "SELECT p.id FROM products p WHERE p.active = true "
+      + "AND (public.flick_normalizar(p.name) LIKE '%' || public.flick_normalizar(:padrao) || '%' "
+      + "OR public.flick_normalizar(:termo) <% public.flick_normalizar(p.name)) "
+      + "ORDER BY public.flick_normalizar(p.name) LIKE public.flick_normalizar(:padrao) || '%' DESC, "
+      + "public.flick_normalizar(p.name) LIKE '%' || public.flick_normalizar(:padrao) || '%' DESC, "
+      + "word_similarity(public.flick_normalizar(:termo), public.flick_normalizar(p.name)) DESC, "
+      + "public.flick_normalizar(p.name), p.id "
+      + "LIMIT :limite", nativeQuery = true)
+  List<Long> findIdsPorBuscaTrigramas(@Param("termo") String termo, @Param("padrao") String padrao,
+      @Param("limite") int limite);
+
+  // -- ESTOQUE -- //
+  // Baixa condicional e atômica: só subtrai se houver quantidade suficiente.
+  // Retorna o número de linhas afetadas (0 = estoque insuficiente).
+  @Modifying
+  @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantidade "
+      + "WHERE p.id = :id AND p.stockQuantity >= :quantidade")
+  int baixarEstoque(@Param("id") Long id, @Param("quantidade") BigDecimal quantidade);
+
+  // Estorno atômico de estoque, apenas para products com estoque controlado
+  @Modifying
+  @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantidade "
+      + "WHERE p.id = :id AND p.stockQuantity IS NOT NULL")
+  int estornarEstoque(@Param("id") Long id, @Param("quantidade") BigDecimal quantidade);
+
+  // Ajuste manual (positivo ou negativo) que não deixa o estoque negativo
+  @Modifying
+  @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantidade "
+      + "WHERE p.id = :id AND p.stockQuantity + :quantidade >= 0")
+  int ajustarEstoque(@Param("id") Long id, @Param("quantidade") BigDecimal quantidade);
+
+  // Trava a linha do product até o fim da transação (baixas do modo LIVRO fora
+  // do PostgreSQL; ver TravaEstoque)
+  @Query(value = "SELECT id FROM products WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Long> travarLinha(@Param("id") Long id);
 }
@@ -0,0 +1,40 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.entity.RankingVendasProduct;
+
+@Repository
+public interface RankingVendasProductRepository extends JpaRepository<RankingVendasProduct, Long> {
+
+  // Mesmo esquema do resumo diário: linha zerada sob demanda + UPDATE relativo
+  @Modifying
+  @Query(value = "INSERT INTO ranking_vendas_product (product_id, quantidade_total, quantidade_30_dias, "
+      + "quantidade_90_dias) VALUES (:productId, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+  void garantirLinha(@Param("productId") Long productId);
+
+  @Modifying
+  @Query("UPDATE RankingVendasProduct r SET r.quantidadeTotal = r.quantidadeTotal + :total, "
+      + "r.quantidade30Dias = r.quantidade30Dias + :ultimos30Dias, "
+      + "r.quantidade90Dias = r.quantidade90Dias + :ultimos90Dias WHERE r.productId = :productId")
+  int somar(@Param("productId") Long productId, @Param("total") BigDecimal total,
+      @Param("ultimos30Dias") BigDecimal ultimos30Dias, @Param("ultimos90Dias") BigDecimal ultimos90Dias);
+
+  // Recria todas as linhas a partir do resumo diário (depois de deleteAllInBatch)
+  @Modifying
+  @Query(value = "INSERT INTO ranking_vendas_product (product_id, quantidade_total, quantidade_30_dias, "
+      + "quantidade_90_dias) "
+      + "SELECT product_id, SUM(quantidade), "
+      + "SUM(CASE WHEN dia >= :inicio30Dias THEN quantidade ELSE 0 END), "
+      + "SUM(CASE WHEN dia >= :inicio90Dias THEN quantidade ELSE 0 END) "
+      + "FROM resumo_diario_product GROUP BY product_id", nativeQuery = true)
+  int inserirDoResumoDiario(@Param("inicio30Dias") LocalDate inicio30Dias,
+      @Param("inicio90Dias") LocalDate inicio90Dias);
+}
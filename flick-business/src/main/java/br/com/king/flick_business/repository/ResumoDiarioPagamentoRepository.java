@@ -0,0 +1,40 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.entity.ResumoDiarioPagamento;
+import br.com.king.flick_business.enums.FormaPagamento;
+
+@Repository
+public interface ResumoDiarioPagamentoRepository
+    extends JpaRepository<ResumoDiarioPagamento, ResumoDiarioPagamento.Chave> {
+
+  @Modifying
+  @Query(value = "INSERT INTO resumo_diario_pagamento (dia, forma_pagamento, total) "
+      + "VALUES (:dia, :formaPagamento, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+  void garantirLinha(@Param("dia") LocalDate dia, @Param("formaPagamento") String formaPagamento);
+
+  @Modifying
+  @Query("UPDATE ResumoDiarioPagamento r SET r.total = r.total + :valor "
+      + "WHERE r.dia = :dia AND r.formaPagamento = :formaPagamento")
+  int somar(@Param("dia") LocalDate dia, @Param("formaPagamento") FormaPagamento formaPagamento,
+      @Param("valor") BigDecimal valor);
+
+  // Retorna uma lista de Object[]: [FormaPagamento, BigDecimal]
+  @Query("SELECT r.formaPagamento, SUM(r.total) FROM ResumoDiarioPagamento r "
+      + "WHERE r.dia BETWEEN :inicio AND :fim GROUP BY r.formaPagamento")
+  List<Object[]> sumTotalGroupByFormaPagamentoBetween(@Param("inicio") LocalDate inicio,
+      @Param("fim") LocalDate fim);
+
+  @Modifying
+  @Query("DELETE FROM ResumoDiarioPagamento r WHERE r.dia BETWEEN :inicio AND :fim")
+  int deleteByDiaBetween(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
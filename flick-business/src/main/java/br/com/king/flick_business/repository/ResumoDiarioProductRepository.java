@@ -0,0 +1,44 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.dto.ProductMaisVendidoDTO;
+import br.com.king.flick_business.entity.ResumoDiarioProduct;
+
+@Repository
+public interface ResumoDiarioProductRepository
+    extends JpaRepository<ResumoDiarioProduct, ResumoDiarioProduct.Chave> {
+
+  @Modifying
+  @Query(value = "INSERT INTO resumo_diario_product (dia, product_id, quantidade, valor_total) "
+      + "VALUES (:dia, :productId, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+  void garantirLinha(@Param("dia") LocalDate dia, @Param("productId") Long productId);
+
+  @Modifying
+  @Query("UPDATE ResumoDiarioProduct r SET r.quantidade = r.quantidade + :quantidade, "
+      + "r.valorTotal = r.valorTotal + :valor WHERE r.dia = :dia AND r.productId = :productId")
+  int somar(@Param("dia") LocalDate dia, @Param("productId") Long productId,
+      @Param("quantidade") BigDecimal quantidade, @Param("valor") BigDecimal valor);
+
+  @Query("SELECT new br.com.king.flick_business.dto.ProductMaisVendidoDTO(r.productId, p.name, "
+      + "SUM(r.quantidade), SUM(r.valorTotal)) "
+      + "FROM ResumoDiarioProduct r LEFT JOIN Product p ON p.id = r.productId "
+      + "WHERE r.dia BETWEEN :inicio AND :fim "
+      + "GROUP BY r.productId, p.name "
+      + "HAVING SUM(r.quantidade) > 0 "
+      + "ORDER BY SUM(r.quantidade) DESC, SUM(r.valorTotal) DESC "
+      + "LIMIT 1")
+  ProductMaisVendidoDTO findProductMaisVendidoBetween(@Param("inicio") LocalDate inicio,
+      @Param("fim") LocalDate fim);
+
+  @Modifying
+  @Query("DELETE FROM ResumoDiarioProduct r WHERE r.dia BETWEEN :inicio AND :fim")
+  int deleteByDiaBetween(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
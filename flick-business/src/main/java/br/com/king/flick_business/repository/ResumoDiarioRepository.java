@@ -0,0 +1,39 @@
+package br.com.king.flick_business.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.king.flick_business.entity.ResumoDiario;
+
+@Repository
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, LocalDate> {
+  List<ResumoDiario> findByDiaBetweenOrderByDiaAsc(LocalDate inicio, LocalDate fim);
+
+  // Cria a linha zerada do dia se ainda não existir. ON CONFLICT DO NOTHING
+  // espera a transação concorrente que inseriu o mesmo dia em vez de falhar
+  @Modifying
+  @Query(value = "INSERT INTO resumo_diario (dia, total_vendas, quantidade_vendas, total_expenses) "
+      + "VALUES (:dia, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+  void garantirDia(@Param("dia") LocalDate dia);
+
+  @Modifying
+  @Query("UPDATE ResumoDiario r SET r.totalVendas = r.totalVendas + :valor, "
+      + "r.quantidadeVendas = r.quantidadeVendas + :quantidade WHERE r.dia = :dia")
+  int somarVendas(@Param("dia") LocalDate dia, @Param("valor") BigDecimal valor,
+      @Param("quantidade") long quantidade);
+
+  @Modifying
+  @Query("UPDATE ResumoDiario r SET r.totalExpenses = r.totalExpenses + :valor WHERE r.dia = :dia")
+  int somarExpenses(@Param("dia") LocalDate dia, @Param("valor") BigDecimal valor);
+
+  @Modifying
+  @Query("DELETE FROM ResumoDiario r WHERE r.dia BETWEEN :inicio AND :fim")
+  int deleteByDiaBetween(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
@@ -2,11 +2,16 @@ package br.com.king.flick_business.repository;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
-import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,14 +23,16 @@ import br.com.king.flick_business.entity.Venda;
 import br.com.king.flick_business.enums.FormaPagamento;
 
 @Repository
-public interface VendaRepository extends JpaRepository<Venda, Long> {
+public interface VendaRepository extends JpaRepository<Venda, Long>, VendaScrollRepository {
         // Busca vendas de um cliente específico, ordenadas da mais recente para a mais
         // antiga
         List<Venda> findByClienteIdOrderByDataVendaDesc(Long clienteId);
 
         // Busca uma venda pelo ID, incluindo seus itens e o cliente associado (fetch
-        // join)
+        // join). Os products dos itens (e sua category/provider, usadas na resposta)
+        // vêm no mesmo SELECT para não gerar uma consulta por item
         @Query("SELECT DISTINCT v FROM Venda v " + "LEFT JOIN FETCH v.itens i " + "LEFT JOIN FETCH v.cliente c "
+                        + "LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.provider "
                         + "WHERE v.id = :id")
         Optional<Venda> findByIdComItensECliente(Long id);
 
@@ -33,15 +40,50 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
         @Query("SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.cliente c LEFT JOIN FETCH v.itens i")
         List<Venda> findAllWithClienteAndItens(Sort sort);
 
-        // Busca vendas filtrando por período, cliente e forma de pagamento, incluindo
-        // cliente e itens (fetch join)
-        @Query("SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.cliente c LEFT JOIN FETCH v.itens i WHERE "
+        // Busca vendas filtrando por período, cliente, forma de pagamento e product,
+        // paginando no banco em duas fases: primeiro a página de IDs (com filtros e
+        // ordenação), depois cliente e itens apenas das vendas da página. Um fetch
+        // join de coleção junto com Pageable obrigaria o Hibernate a carregar todas as
+        // vendas do filtro e paginar em memória (HHH90003004).
+        default Page<Venda> findVendasComFilters(
+                        ZonedDateTime inicio,
+                        ZonedDateTime fim,
+                        Long clienteId,
+                        FormaPagamento formaPagamento,
+                        Long productId,
+                        Pageable pageable) {
+                Page<Long> paginaIds = findIdsVendasComFilters(inicio, fim, clienteId, formaPagamento, productId,
+                                pageable);
+                if (paginaIds.isEmpty()) {
+                        return paginaIds.map(id -> null);
+                }
+
+                Map<Long, Venda> vendasPorId = findAllComClienteEItensByIdIn(paginaIds.getContent()).stream()
+                                .collect(Collectors.toMap(Venda::getId, Function.identity()));
+                // O IN não preserva a ordem: reaplica a ordem da página de IDs. Uma venda
+                // removida entre as duas fases fica de fora (a página vem menor e o total
+                // ainda a conta)
+                List<Venda> vendas = paginaIds.getContent().stream().map(vendasPorId::get).filter(Objects::nonNull)
+                                .toList();
+                return new PageImpl<>(vendas, pageable, paginaIds.getTotalElements());
+        }
+
+        // Fase 1: página de IDs. O filtro por product usa EXISTS (sem join com itens),
+        // então não há linhas duplicadas e a paginação acontece no SQL. A contagem é
+        // uma query separada, sem join nem ordenação.
+        @Query(value = "SELECT v.id FROM Venda v LEFT JOIN v.cliente c WHERE "
                         + "(v.dataVenda >= :inicio) AND "
                         + "(v.dataVenda <= :fim) AND "
-                        + "(:clienteId IS NULL OR c.id = :clienteId) AND "
+                        + "(:clienteId IS NULL OR v.cliente.id = :clienteId) AND "
                         + "(:formaPagamento IS NULL OR v.formaPagamento = :formaPagamento) AND "
-                        + "(:productId IS NULL OR i.product.id = :productId)")
-        Page<Venda> findVendasComFilters(
+                        + "(:productId IS NULL OR EXISTS (SELECT 1 FROM ItemVenda i WHERE i.venda = v AND i.product.id = :productId))",
+                        countQuery = "SELECT COUNT(v) FROM Venda v WHERE "
+                                        + "(v.dataVenda >= :inicio) AND "
+                                        + "(v.dataVenda <= :fim) AND "
+                                        + "(:clienteId IS NULL OR v.cliente.id = :clienteId) AND "
+                                        + "(:formaPagamento IS NULL OR v.formaPagamento = :formaPagamento) AND "
+                                        + "(:productId IS NULL OR EXISTS (SELECT 1 FROM ItemVenda i WHERE i.venda = v AND i.product.id = :productId))")
+        Page<Long> findIdsVendasComFilters(
                         @Param("inicio") ZonedDateTime inicio,
                         @Param("fim") ZonedDateTime fim,
                         @Param("clienteId") Long clienteId,
@@ -49,6 +91,13 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
                         @Param("productId") Long productId,
                         Pageable pageable);
 
+        // Fase 2: carrega as vendas da página com cliente, itens e products (e suas
+        // category/provider, usadas na resposta) em uma única query
+        @Query("SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.cliente c LEFT JOIN FETCH v.itens i "
+                        + "LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.provider "
+                        + "WHERE v.id IN :ids")
+        List<Venda> findAllComClienteEItensByIdIn(@Param("ids") Collection<Long> ids);
+
         // Retorna uma lista de Object[], onde cada array é [Data (como String), Total
         // (BigDecimal)]
         @Query("SELECT FUNCTION('TO_CHAR', v.dataVenda, 'YYYY-MM-DD'), SUM(v.valorTotal) " +
@@ -91,6 +140,12 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
         // MÉTODOS PARA RELATÓRIOS
         // =========================
 
+        // Linhas brutas para reconstrução do resumo diário
+        // Cada Object[] contém: [dataVenda, formaPagamento, valorTotal]
+        @Query("SELECT v.dataVenda, v.formaPagamento, v.valorTotal FROM Venda v WHERE v.dataVenda BETWEEN :inicio AND :fim")
+        List<Object[]> findDadosResumoBetween(@Param("inicio") ZonedDateTime inicio,
+                        @Param("fim") ZonedDateTime fim);
+
         // Soma o valor total das vendas em um determinado período
         @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.dataVenda BETWEEN :inicio AND :fim")
         BigDecimal sumValorTotalByDataVendaBetween(@Param("inicio") ZonedDateTime inicio,
@@ -117,4 +172,37 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
                         "ORDER BY dias ASC", nativeQuery = true)
         List<Object[]> sumValorTotalGroupByDayBetweenNative(@Param("inicio") ZonedDateTime inicio,
                         @Param("fim") ZonedDateTime fim);
+
+        // Todos os agregados do dashboard em uma única instrução: uma varredura de
+        // vendas agrupada por (dia, forma de pagamento), uma de itens para o product
+        // mais vendido e uma de expenses. Total, quantidade, totais por forma e a
+        // série diária saem das linhas 'V' no Java.
+        // Cada Object[] contém: [tipo, dia, rotulo, productId, quantidade, total]
+        // 'V': dia, forma de pagamento, -, nº de vendas, soma
+        // 'P': -, name do product, id do product, quantidade vendida, valor vendido
+        // 'E': -, -, -, -, soma das expenses (nula se não houver)
+        @Query(value = "WITH vendas_periodo AS ("
+                        + "  SELECT CAST(v.data_venda AS DATE) AS dia, v.forma_pagamento, COUNT(*) AS quantidade, "
+                        + "    SUM(v.valor_total) AS total "
+                        + "  FROM vendas v WHERE v.data_venda BETWEEN :inicio AND :fim "
+                        + "  GROUP BY CAST(v.data_venda AS DATE), v.forma_pagamento), "
+                        + "mais_vendido AS ("
+                        + "  SELECT i.product_id, p.name, SUM(i.quantidade) AS quantidade, "
+                        + "    SUM(i.quantidade * i.preco_unitario_venda) AS total "
+                        + "  FROM itens_venda i JOIN vendas v ON v.id = i.venda_id JOIN products p ON p.id = i.product_id "
+                        + "  WHERE v.data_venda BETWEEN :inicio AND :fim "
+                        + "  GROUP BY i.product_id, p.name "
+                        + "  ORDER BY quantidade DESC, total DESC LIMIT 1), "
+                        + "expenses_periodo AS ("
+                        + "  SELECT SUM(e.valor) AS total FROM expenses e WHERE e.data_expense BETWEEN :inicio AND :fim) "
+                        + "SELECT CAST('V' AS VARCHAR(1)) AS tipo, vp.dia, CAST(vp.forma_pagamento AS VARCHAR(100)) AS rotulo, "
+                        + "  CAST(NULL AS BIGINT) AS product_id, CAST(vp.quantidade AS NUMERIC(19, 3)) AS quantidade, vp.total "
+                        + "FROM vendas_periodo vp "
+                        + "UNION ALL "
+                        + "SELECT 'P', CAST(NULL AS DATE), mv.name, mv.product_id, mv.quantidade, mv.total FROM mais_vendido mv "
+                        + "UNION ALL "
+                        + "SELECT 'E', CAST(NULL AS DATE), CAST(NULL AS VARCHAR(100)), CAST(NULL AS BIGINT), "
+                        + "  CAST(NULL AS NUMERIC(19, 3)), ep.total FROM expenses_periodo ep", nativeQuery = true)
+        List<Object[]> findAgregadosDashboardBetween(@Param("inicio") ZonedDateTime inicio,
+                        @Param("fim") ZonedDateTime fim);
 }
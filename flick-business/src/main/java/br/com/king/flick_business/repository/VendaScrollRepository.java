@@ -0,0 +1,24 @@
+package br.com.king.flick_business.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.king.flick_business.entity.Venda;
+
+/**
+ * Fragmento do {@link VendaRepository} para listagem por cursor (keyset).
+ */
+public interface VendaScrollRepository {
+  /**
+   * Busca os IDs das vendas que atendem à specification, na ordem (chave, id),
+   * sem OFFSET e sem contagem.
+   *
+   * @param spec   Filtros e, a partir da segunda página, a condição do cursor
+   * @param ordem  Chave de ordenação (o ID é sempre o desempate, na mesma direção)
+   * @param limite Quantidade máxima de IDs
+   * @return IDs na ordem da listagem
+   */
+  List<Long> findIdsVendas(Specification<Venda> spec, Sort.Order ordem, int limite);
+}
@@ -0,0 +1,39 @@
+package br.com.king.flick_business.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.repository.spec.VendaSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+class VendaScrollRepositoryImpl implements VendaScrollRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<Long> findIdsVendas(Specification<Venda> spec, Sort.Order ordem, int limite) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Venda> venda = query.from(Venda.class);
+
+    Expression<?> chave = VendaSpecification.chaveOrdenacao(venda, cb, ordem.getProperty());
+    Expression<Long> id = venda.get("id");
+    query.select(id)
+        .where(spec.toPredicate(venda, query, cb))
+        .orderBy(ordem.isAscending()
+            ? List.of(cb.asc(chave), cb.asc(id))
+            : List.of(cb.desc(chave), cb.desc(id)));
+
+    return entityManager.createQuery(query)
+        .setMaxResults(limite)
+        .getResultList();
+  }
+}
@@ -9,11 +9,10 @@ import br.com.king.flick_business.entity.Product;
 import jakarta.persistence.criteria.Predicate;
 
 public class ProductSpecification {
+    // Só os filtros informados viram predicados: "(:name IS NULL OR ...)" faria o
+    // banco avaliar LOWER/LIKE em todas as linhas mesmo sem filtro
     public static Specification<Product> withFilter(String name, Long categoryId) {
         return (root, query, criteriaBuilder) -> {
-            root.fetch("category", jakarta.persistence.criteria.JoinType.LEFT);
-            root.fetch("provider", jakarta.persistence.criteria.JoinType.LEFT);
-            query.distinct(true);
             List<Predicate> predicates = new ArrayList<>();
             if (name != null && !name.trim().isEmpty()) {
                 predicates.add(
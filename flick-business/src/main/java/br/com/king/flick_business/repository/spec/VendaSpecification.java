@@ -0,0 +1,104 @@
+package br.com.king.flick_business.repository.spec;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.king.flick_business.dto.VendaCursor;
+import br.com.king.flick_business.entity.ItemVenda;
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.enums.FormaPagamento;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class VendaSpecification {
+    public static Specification<Venda> withFilter(
+            ZonedDateTime inicio, ZonedDateTime fim, Long clienteId, FormaPagamento formaPagamento, Long productId) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (inicio != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataVenda"), inicio));
+            }
+
+            if (fim != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("dataVenda"), fim));
+            }
+
+            if (clienteId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("cliente").get("id"), clienteId));
+            }
+
+            if (formaPagamento != null) {
+                predicates.add(criteriaBuilder.equal(root.get("formaPagamento"), formaPagamento));
+            }
+
+            if (productId != null) {
+                // EXISTS em vez de join: uma linha por venda
+                Subquery<Long> itens = query.subquery(Long.class);
+                Root<ItemVenda> item = itens.from(ItemVenda.class);
+                itens.select(item.get("id")).where(
+                        criteriaBuilder.equal(item.get("venda"), root),
+                        criteriaBuilder.equal(item.get("product").get("id"), productId));
+                predicates.add(criteriaBuilder.exists(itens));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Vendas que vêm depois do cursor na ordem (chave, id) do próprio cursor.
+     */
+    public static Specification<Venda> aposCursor(VendaCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Comparable<Object>> chave = chaveOrdenacao(root, criteriaBuilder, cursor.campo());
+            @SuppressWarnings("unchecked")
+            Comparable<Object> valor = (Comparable<Object>) cursor.valor();
+            Expression<Long> id = root.get("id");
+
+            if (cursor.direcao() == Sort.Direction.ASC) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(chave, valor),
+                        criteriaBuilder.and(criteriaBuilder.equal(chave, valor),
+                                criteriaBuilder.greaterThan(id, cursor.id())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(chave, valor),
+                    criteriaBuilder.and(criteriaBuilder.equal(chave, valor),
+                            criteriaBuilder.lessThan(id, cursor.id())));
+        };
+    }
+
+    /**
+     * Expressão usada tanto no ORDER BY quanto na comparação do cursor. O name do
+     * cliente vem de um LEFT JOIN com COALESCE, para que vendas sem cliente
+     * tenham uma chave comparável (nulos quebrariam a comparação do keyset).
+     */
+    @SuppressWarnings("unchecked")
+    public static Expression<Comparable<Object>> chaveOrdenacao(Root<Venda> root, CriteriaBuilder criteriaBuilder,
+            String campo) {
+        return switch (campo) {
+            case "dataVenda", "valorTotal" -> root.get(campo);
+            case "cliente.name" -> (Expression<Comparable<Object>>) (Expression<?>) criteriaBuilder.coalesce(
+                    joinCliente(root).<String>get("name"), "");
+            default -> throw new IllegalArgumentException("Ordenação sem suporte a cursor: " + campo);
+        };
+    }
+
+    // Reaproveita o join já criado (ORDER BY e cursor usam a mesma chave)
+    private static Join<Venda, ?> joinCliente(Root<Venda> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("cliente"))
+                .findFirst()
+                .orElseGet(() -> root.join("cliente", JoinType.LEFT));
+    }
+}
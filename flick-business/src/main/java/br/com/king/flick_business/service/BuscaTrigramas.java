@@ -0,0 +1,94 @@
+package br.com.king.flick_business.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decide onde roda a busca por name de products e clientes.
+ *
+ * <p>
+ * No modo {@code BANCO} a busca é uma consulta nativa com pg_trgm sobre os
+ * índices GIN de {@value #SCRIPT}, aplicado na inicialização (depois que o
+ * Hibernate cria o schema). No modo {@code MEMORIA} ela usa os índices de
+ * trigramas em memória ({@link CatalogoProducts}, {@link CatalogoClientes}).
+ * {@code AUTO} (padrão) usa o banco quando ele é PostgreSQL e o script pôde ser
+ * aplicado; caso contrário (H2, falta de permissão para as extensões), a
+ * memória. Até a aplicação terminar de subir, a busca usa a memória.
+ */
+@Slf4j
+@Component
+public class BuscaTrigramas {
+
+  public enum Modo {
+    AUTO, BANCO, MEMORIA
+  }
+
+  static final String SCRIPT = "db/migracao/003_busca_trigramas.sql";
+
+  private final DataSource dataSource;
+  private final Modo modo;
+  private volatile boolean noBanco;
+
+  public BuscaTrigramas(DataSource dataSource, @Value("${flick.busca.modo:AUTO}") Modo modo) {
+    this.dataSource = dataSource;
+    this.modo = modo;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preparar() {
+    if (modo == Modo.MEMORIA) {
+      log.info("Busca por name: índices em memória (flick.busca.modo=MEMORIA)");
+      return;
+    }
+    if (!postgres()) {
+      if (modo == Modo.BANCO) {
+        throw new IllegalStateException("flick.busca.modo=BANCO requer PostgreSQL com pg_trgm");
+      }
+      log.info("Busca por name: índices em memória (banco sem pg_trgm)");
+      return;
+    }
+    try {
+      new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).execute(dataSource);
+      noBanco = true;
+      log.info("Busca por name: pg_trgm no PostgreSQL");
+    } catch (DataAccessException e) {
+      if (modo == Modo.BANCO) {
+        throw e;
+      }
+      log.warn("Não foi possível preparar a busca com pg_trgm ({}); usando índices em memória", SCRIPT, e);
+    }
+  }
+
+  public boolean noBanco() {
+    return noBanco;
+  }
+
+  /**
+   * {@code termo} para uso dentro de um padrão LIKE (escape padrão do
+   * PostgreSQL), sem que % e _ digitados virem curingas.
+   */
+  public static String padraoLike(String termo) {
+    return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private boolean postgres() {
+    try (Connection conexao = dataSource.getConnection()) {
+      return "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName());
+    } catch (SQLException e) {
+      log.warn("Não foi possível identificar o banco; usando índices em memória para a busca", e);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.king.flick_business.dto.ClienteResumoDTO;
+import br.com.king.flick_business.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice em memória dos names dos clientes ativos, para a busca por name
+ * quando o banco não tem pg_trgm (ver {@link BuscaTrigramas}). Guarda só IDs e
+ * names: os dados do cliente (saldo devedor) são lidos do banco pelos IDs
+ * encontrados.
+ *
+ * <p>
+ * Carregado no primeiro acesso; cada {@link ClienteAlterado} relê apenas
+ * aquele cliente, após o commit. Passado {@code flick.catalogo.recarga}, a
+ * próxima busca recarrega tudo antes de responder.
+ */
+@Slf4j
+@Component
+public class CatalogoClientes {
+
+  private final ClienteRepository clienteRepository;
+  private final Duration recarga;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // Serializa leituras do banco + aplicação, como em CatalogoProducts
+  private final Object atualizacao = new Object();
+  private volatile IndiceTrigramas indice;
+  private volatile long carregadoEm;
+
+  public CatalogoClientes(ClienteRepository clienteRepository,
+      @Value("${flick.catalogo.recarga:10m}") Duration recarga) {
+    this.clienteRepository = clienteRepository;
+    this.recarga = recarga;
+  }
+
+  /**
+   * IDs dos clientes ativos cujo name começa com {@code termo}, contém
+   * {@code termo} ou se parece com ele; ver
+   * {@link IndiceTrigramas#buscar(String, int)}.
+   */
+  public List<Long> buscarPorName(String termo, int limite) {
+    IndiceTrigramas atual = indice();
+    lock.readLock().lock();
+    try {
+      return atual.buscar(termo, limite);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoAlterarCliente(ClienteAlterado evento) {
+    synchronized (atualizacao) {
+      if (indice == null) {
+        // Ainda não carregado: a carga completa já trará o cliente
+        return;
+      }
+      Optional<ClienteResumoDTO> cliente = clienteRepository.findResumoAtivoById(evento.clienteId());
+      lock.writeLock().lock();
+      try {
+        indice.remover(evento.clienteId());
+        cliente.ifPresent(c -> indice.adicionar(c.id(), c.name()));
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Relê todos os clientes ativos e troca o índice.
+   */
+  public void recarregar() {
+    synchronized (atualizacao) {
+      IndiceTrigramas novo = new IndiceTrigramas();
+      clienteRepository.findResumoAtivos().forEach(c -> novo.adicionar(c.id(), c.name()));
+      lock.writeLock().lock();
+      try {
+        indice = novo;
+        carregadoEm = System.nanoTime();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      log.debug("Índice de clientes carregado: {} clientes", novo.tamanho());
+    }
+  }
+
+  private IndiceTrigramas indice() {
+    if (indice == null || System.nanoTime() - carregadoEm > recarga.toNanos()) {
+      synchronized (atualizacao) {
+        if (indice == null || System.nanoTime() - carregadoEm > recarga.toNanos()) {
+          recarregar();
+        }
+      }
+    }
+    return indice;
+  }
+}
@@ -0,0 +1,185 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catálogo em memória dos products ativos, para as consultas do caixa (código
+ * de barras e name) sem ida ao banco.
+ *
+ * <p>
+ * Índices: hash por barcode e {@link IndiceTrigramas} para a busca por name
+ * (prefixo, trecho e semelhança, sem diferenciar maiúsculas e acentos). A
+ * carga completa acontece no primeiro acesso; depois, cada
+ * {@link ProductAlterado} relê apenas aquele product, após o commit. A carga
+ * completa é refeita em segundo plano a cada {@code flick.catalogo.recarga},
+ * para cobrir alterações feitas fora da aplicação.
+ */
+@Slf4j
+@Component
+public class CatalogoProducts implements MeterBinder {
+
+  // Estruturas mutáveis, protegidas por lock; trocadas inteiras na carga completa
+  private static final class Indice {
+    final Map<Long, ProductCatalogoDTO> porId = new HashMap<>();
+    final Map<String, ProductCatalogoDTO> porBarcode = new HashMap<>();
+    final IndiceTrigramas names = new IndiceTrigramas();
+
+    void adicionar(ProductCatalogoDTO product) {
+      porId.put(product.id(), product);
+      if (product.barcode() != null && !product.barcode().isBlank()) {
+        porBarcode.put(product.barcode(), product);
+      }
+      names.adicionar(product.id(), product.name());
+    }
+
+    void remover(Long id) {
+      ProductCatalogoDTO product = porId.remove(id);
+      if (product == null) {
+        return;
+      }
+      porBarcode.remove(product.barcode(), product);
+      names.remover(id);
+    }
+  }
+
+  private final ProductRepository productRepository;
+  private final Duration recarga;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // Serializa leituras do banco + aplicação: uma atualização iniciada depois lê
+  // um estado igual ou mais novo que as anteriores
+  private final Object atualizacao = new Object();
+  private final AtomicBoolean recarregando = new AtomicBoolean();
+  private volatile Indice indice;
+  private volatile long carregadoEm;
+
+  public CatalogoProducts(ProductRepository productRepository,
+      @Value("${flick.catalogo.recarga:10m}") Duration recarga) {
+    this.productRepository = productRepository;
+    this.recarga = recarga;
+  }
+
+  public Optional<ProductCatalogoDTO> buscarPorBarcode(String barcode) {
+    Indice atual = indice();
+    lock.readLock().lock();
+    try {
+      return Optional.ofNullable(atual.porBarcode.get(barcode));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Products cujo name começa com {@code termo} (primeiro), contém
+   * {@code termo} ou se parece com ele, ignorando maiúsculas e acentos; ver
+   * {@link IndiceTrigramas#buscar(String, int)}.
+   */
+  public List<ProductCatalogoDTO> buscarPorName(String termo, int limite) {
+    Indice atual = indice();
+    lock.readLock().lock();
+    try {
+      return atual.names.buscar(termo, limite).stream().map(atual.porId::get).toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int tamanho() {
+    Indice atual = indice();
+    lock.readLock().lock();
+    try {
+      return atual.porId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoAlterarProduct(ProductAlterado evento) {
+    synchronized (atualizacao) {
+      if (indice == null) {
+        // Ainda não carregado: a carga completa já trará o product
+        return;
+      }
+      Optional<ProductCatalogoDTO> product = productRepository.findCatalogoById(evento.productId());
+      lock.writeLock().lock();
+      try {
+        indice.remover(evento.productId());
+        product.ifPresent(indice::adicionar);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    log.debug("Catálogo atualizado para o product {}", evento.productId());
+  }
+
+  /**
+   * Relê todos os products ativos e troca o índice.
+   */
+  public void recarregar() {
+    synchronized (atualizacao) {
+      long inicio = System.nanoTime();
+      Indice novo = new Indice();
+      productRepository.findCatalogo().forEach(novo::adicionar);
+      lock.writeLock().lock();
+      try {
+        indice = novo;
+        carregadoEm = System.nanoTime();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      log.info("Catálogo carregado: {} products em {} ms", novo.porId.size(),
+          Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+    }
+  }
+
+  private Indice indice() {
+    Indice atual = indice;
+    if (atual == null) {
+      synchronized (atualizacao) {
+        if (indice == null) {
+          recarregar();
+        }
+        return indice;
+      }
+    }
+    if (System.nanoTime() - carregadoEm > recarga.toNanos() && recarregando.compareAndSet(false, true)) {
+      // Quem consulta continua com o índice atual enquanto a recarga roda
+      Thread.ofVirtual().name("catalogo-recarga").start(() -> {
+        try {
+          recarregar();
+        } catch (RuntimeException e) {
+          log.warn("Falha ao recarregar o catálogo; mantendo o índice atual", e);
+        } finally {
+          recarregando.set(false);
+        }
+      });
+    }
+    return atual;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("flick.catalogo.products", this, catalogo -> catalogo.indice == null ? 0 : catalogo.indice.porId.size())
+        .description("Products ativos no catálogo em memória")
+        .register(registry);
+  }
+}
@@ -5,12 +5,14 @@ import br.com.king.flick_business.entity.Category;
 import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.mapper.CategoryMapper;
 import br.com.king.flick_business.repository.CategoryRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed("flick.servico")
 public class CategoryService {
   private final CategoryRepository categoryRepository;
 
@@ -0,0 +1,8 @@
+package br.com.king.flick_business.service;
+
+/**
+ * Publicado quando o cadastro de um cliente (name ou situação) muda na
+ * transação corrente. Alterações do saldo devedor não publicam este evento.
+ */
+public record ClienteAlterado(Long clienteId) {
+}
@@ -1,8 +1,13 @@
 package br.com.king.flick_business.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,13 +20,26 @@ import br.com.king.flick_business.exception.RecursoNaoDeletavel;
 import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.mapper.ClienteMapper;
 import br.com.king.flick_business.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@Timed("flick.servico")
 public class ClienteService {
   private final ClienteRepository clienteRepository;
-
-  public ClienteService(ClienteRepository clienteRepository) {
+  private final CatalogoClientes catalogoClientes;
+  private final BuscaTrigramas buscaTrigramas;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public ClienteService(ClienteRepository clienteRepository,
+      CatalogoClientes catalogoClientes,
+      BuscaTrigramas buscaTrigramas,
+      ApplicationEventPublisher eventPublisher) {
     this.clienteRepository = clienteRepository;
+    this.catalogoClientes = catalogoClientes;
+    this.buscaTrigramas = buscaTrigramas;
+    this.eventPublisher = eventPublisher;
   }
 
   @Transactional
@@ -30,6 +48,7 @@ public class ClienteService {
 
     Cliente cliente = ClienteMapper.toEntity(requestDTO);
     Cliente clienteSalvo = clienteRepository.save(cliente);
+    eventPublisher.publishEvent(new ClienteAlterado(clienteSalvo.getId()));
 
     return ClienteMapper.toDto(clienteSalvo);
   }
@@ -43,6 +62,7 @@ public class ClienteService {
 
     ClienteMapper.updateEntityFromDTO(requestDTO, clienteExistente);
     Cliente clienteAtualizado = clienteRepository.save(clienteExistente);
+    eventPublisher.publishEvent(new ClienteAlterado(id));
     return ClienteMapper.toDto(clienteAtualizado);
   }
 
@@ -52,9 +72,8 @@ public class ClienteService {
       Boolean devedores,
       String orderBy,
       String nameContains) {
-    System.out
-        .println("LOG: ClienteService.listTodos - apenasActives: " + apenasActivesParam + ", devedores: " + devedores
-            + ", orderBy: " + orderBy + ", nameContains: " + nameContains);
+    log.debug("Listando clientes: apenasActives={}, devedores={}, orderBy={}", apenasActivesParam, devedores,
+        orderBy);
     Sort sort;
     if (orderBy != null && !orderBy.isBlank()) {
       sort = switch (orderBy) {
@@ -76,11 +95,32 @@ public class ClienteService {
 
     List<Cliente> clientes = clienteRepository.findClienteComFilters(
         filtroName, apenasActivesParam, devedores, sort);
-    System.out.println("LOG: ClienteService.listTodos - Clientes encontrados após filtros: " + clientes.size());
     return ClienteMapper.toDtoList(clientes);
 
   }
 
+  /**
+   * Clientes ativos por name (type-ahead): prefixo, trecho e semelhança, sem
+   * diferenciar maiúsculas e acentos. pg_trgm quando disponível, senão o
+   * índice em memória; ver {@link BuscaTrigramas}.
+   */
+  @Transactional(readOnly = true)
+  public List<ClienteResponseDTO> buscarPorName(String termo, int limite) {
+    if (termo == null || termo.isBlank() || limite < 1) {
+      return List.of();
+    }
+    List<Long> ids = buscaTrigramas.noBanco()
+        ? clienteRepository.findIdsPorBuscaTrigramas(termo, BuscaTrigramas.padraoLike(termo), limite)
+        : catalogoClientes.buscarPorName(termo, limite);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Cliente> clientesPorId = clienteRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+    // findAllById não preserva a ordem: reaplica o ranking da busca
+    return ids.stream().map(clientesPorId::get).filter(Objects::nonNull).map(ClienteMapper::toDto).toList();
+  }
+
   @Transactional(readOnly = true)
   public ClienteResponseDTO buscarPorId(Long id) {
     Cliente cliente = clienteRepository.findById(id)
@@ -99,6 +139,7 @@ public class ClienteService {
 
     cliente.setActive(false);
     clienteRepository.save(cliente);
+    eventPublisher.publishEvent(new ClienteAlterado(id));
   }
 
   @Transactional
@@ -107,6 +148,7 @@ public class ClienteService {
       throw new RecursoNaoEncontrado("Product não encontrado com ID: " + id + "para deleção física");
     }
     clienteRepository.deleteById(id);
+    eventPublisher.publishEvent(new ClienteAlterado(id));
     // TODO: Adicionar validações ANTES de delete caso ele esteja associado a uma
     // venda
   }
@@ -131,6 +173,7 @@ public class ClienteService {
 
     cliente.setActive(active);
     Cliente clienteAtualizado = clienteRepository.save(cliente);
+    eventPublisher.publishEvent(new ClienteAlterado(id));
     return ClienteMapper.toDto(clienteAtualizado);
   }
 
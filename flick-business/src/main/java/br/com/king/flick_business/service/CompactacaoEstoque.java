@@ -0,0 +1,96 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compactação do livro de estoque: soma os movimentos pendentes na coluna
+ * {@code products.quantidade_estoque}, product a product, em transações curtas
+ * (ver {@link EstoqueService#compactar}). Roda na inicialização em qualquer
+ * modo, para que o modo COLUNA não ignore pendentes deixados pelo modo LIVRO,
+ * e, nos modos LIVRO e CONTADORES, a cada
+ * {@code flick.estoque.compactacao.intervalo}: no modo CONTADORES é a gravação
+ * em segundo plano (write-behind) do estoque em memória na coluna.
+ */
+@Slf4j
+@Component
+public class CompactacaoEstoque {
+  private final EstoqueService estoqueService;
+  private final MovimentoEstoqueRepository movimentoRepository;
+  private final ContadoresEstoque contadores;
+  private final Duration intervalo;
+  private ScheduledExecutorService agendador;
+
+  public CompactacaoEstoque(EstoqueService estoqueService, MovimentoEstoqueRepository movimentoRepository,
+      ContadoresEstoque contadores, @Value("${flick.estoque.compactacao.intervalo:1m}") Duration intervalo) {
+    this.estoqueService = estoqueService;
+    this.movimentoRepository = movimentoRepository;
+    this.contadores = contadores;
+    this.intervalo = intervalo;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void iniciar() {
+    compactarComTratamento();
+    EstoqueService.Modo modo = estoqueService.getModo();
+    if (modo == EstoqueService.Modo.CONTADORES) {
+      // Os contadores também carregam no primeiro uso; aqui só se adianta a leitura
+      log.info("Estoque: {} products contados em memória", contadores.carregar());
+    }
+    if (modo != EstoqueService.Modo.COLUNA) {
+      agendador = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("flick-compactacao-estoque").daemon().factory());
+      agendador.scheduleWithFixedDelay(this::compactarComTratamento, intervalo.toMillis(), intervalo.toMillis(),
+          TimeUnit.MILLISECONDS);
+      log.info("Estoque: modo {}, compactação a cada {}", modo, intervalo);
+    }
+  }
+
+  /**
+   * Compacta todos os movimentos pendentes.
+   *
+   * @return Quantos movimentos foram somados na coluna
+   */
+  public int compactar() {
+    long inicio = System.nanoTime();
+    int total = 0;
+    for (Long productId : movimentoRepository.findProductIdsComPendentes()) {
+      int compactados;
+      do {
+        compactados = estoqueService.compactar(productId);
+        total += compactados;
+      } while (compactados == EstoqueService.LOTE_COMPACTACAO);
+    }
+    if (total > 0) {
+      log.info("Estoque: {} movimentos compactados em {} ms", total, (System.nanoTime() - inicio) / 1_000_000);
+    }
+    return total;
+  }
+
+  @PreDestroy
+  void encerrar() {
+    if (agendador != null) {
+      agendador.shutdown();
+    }
+  }
+
+  // Uma falha não cancela as próximas execuções agendadas
+  private void compactarComTratamento() {
+    try {
+      compactar();
+    } catch (RuntimeException e) {
+      log.error("Falha ao compactar o livro de estoque", e);
+    }
+  }
+}
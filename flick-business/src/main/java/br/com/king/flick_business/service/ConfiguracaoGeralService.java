@@ -8,8 +8,10 @@ import org.springframework.transaction.annotation.Transactional;
 import br.com.king.flick_business.dto.ConfiguracaoGeralDTO;
 import br.com.king.flick_business.entity.ConfiguracaoGeral;
 import br.com.king.flick_business.repository.ConfiguracaoGeralRepository;
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("flick.servico")
 public class ConfiguracaoGeralService {
   private final ConfiguracaoGeralRepository configuracaoRepository;
 
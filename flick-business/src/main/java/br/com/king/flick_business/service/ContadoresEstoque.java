@@ -0,0 +1,183 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estoque dos products mais vendidos em memória, para o modo
+ * {@code CONTADORES} do {@link EstoqueService}: a venda confere e baixa o
+ * estoque com compare-and-set, sem ir ao banco e sem travar a linha do
+ * product; o livro de estoque recebe o movimento na transação da venda e a
+ * {@link CompactacaoEstoque} o soma na coluna depois.
+ *
+ * <p>
+ * Quantidades em milésimos (a escala de {@code quantidade_estoque}). Baixas
+ * valem na hora e voltam se a transação for desfeita; entradas só valem após o
+ * commit, para que nenhuma venda use estoque que pode não existir. Cada
+ * contador é carregado do banco (coluna mais movimentos pendentes) no primeiro
+ * uso: depois de uma queda, o estoque volta exato do livro, gravado junto com
+ * as vendas. Os contadores são do processo: o modo vale para uma instância só
+ * da aplicação.
+ *
+ * <p>
+ * Um product configurado sem estoque controlado (quantidade nula) não ganha
+ * contador e segue o modo COLUNA; um que ainda não existe é conferido de novo
+ * no próximo uso.
+ */
+@Slf4j
+@Component
+public class ContadoresEstoque {
+  private final MovimentoEstoqueRepository movimentoRepository;
+  private final Set<Long> productIds;
+  private final Map<Long, AtomicLong> contadores = new ConcurrentHashMap<>();
+  // Configurados com quantidade nula: nunca contados neste processo
+  private final Set<Long> semEstoque = ConcurrentHashMap.newKeySet();
+
+  public ContadoresEstoque(MovimentoEstoqueRepository movimentoRepository,
+      @Value("${flick.estoque.contadores.products:}") Set<Long> productIds) {
+    this.movimentoRepository = movimentoRepository;
+    this.productIds = Set.copyOf(productIds);
+  }
+
+  /**
+   * @return true se o estoque do product é contado em memória: configurado,
+   *         existente e com quantidade informada
+   */
+  public boolean controla(Long productId) {
+    return productIds.contains(productId) && contador(productId) != null;
+  }
+
+  /**
+   * Carrega de uma vez os contadores ainda não usados, avisando dos products
+   * configurados que não existem ou não têm estoque controlado.
+   *
+   * @return Quantos products estão em memória
+   */
+  public int carregar() {
+    if (productIds.isEmpty()) {
+      return 0;
+    }
+    Set<Long> encontrados = new HashSet<>();
+    for (Object[] linha : movimentoRepository.findEstoquesAtuais(productIds)) {
+      Long productId = (Long) linha[0];
+      encontrados.add(productId);
+      if (linha[1] == null) {
+        semEstoqueControlado(productId);
+      } else {
+        contadores.putIfAbsent(productId, new AtomicLong(milesimos((BigDecimal) linha[1])));
+      }
+    }
+    productIds.stream()
+        .filter(productId -> !encontrados.contains(productId))
+        .sorted()
+        .forEach(productId -> log.warn("flick.estoque.contadores.products: product {} não existe; "
+            + "fica no modo COLUNA até ser cadastrado", productId));
+    return contadores.size();
+  }
+
+  public BigDecimal estoque(Long productId) {
+    return BigDecimal.valueOf(contador(productId).get(), 3);
+  }
+
+  /**
+   * Baixa {@code quantidade} se houver estoque suficiente. A baixa volta ao
+   * contador se a transação atual for desfeita.
+   *
+   * @return false se o estoque não for suficiente (nada é baixado)
+   */
+  public boolean baixar(Long productId, BigDecimal quantidade) {
+    AtomicLong contador = contador(productId);
+    long baixa = milesimos(quantidade);
+    long atual;
+    do {
+      atual = contador.get();
+      if (atual < baixa) {
+        return false;
+      }
+    } while (!contador.compareAndSet(atual, atual - baixa));
+    aoDesfazer(() -> contador.addAndGet(baixa));
+    return true;
+  }
+
+  /**
+   * Soma {@code quantidade} sem conferir o estoque: entradas após o commit,
+   * saídas na hora (voltam se a transação for desfeita).
+   */
+  public void somar(Long productId, BigDecimal quantidade) {
+    AtomicLong contador = contador(productId);
+    long soma = milesimos(quantidade);
+    if (soma > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          contador.addAndGet(soma);
+        }
+      });
+      return;
+    }
+    contador.addAndGet(soma);
+    if (soma < 0) {
+      aoDesfazer(() -> contador.addAndGet(-soma));
+    }
+  }
+
+  // Nulo se o product não existe ou não tem estoque controlado (nada fica no
+  // mapa: o que não existe é procurado de novo no próximo uso)
+  private AtomicLong contador(Long productId) {
+    if (semEstoque.contains(productId)) {
+      return null;
+    }
+    return contadores.computeIfAbsent(productId, id -> {
+      List<Object[]> linhas = movimentoRepository.findEstoquesAtuais(Set.of(id));
+      if (linhas.isEmpty()) {
+        return null;
+      }
+      BigDecimal estoque = (BigDecimal) linhas.get(0)[1];
+      if (estoque == null) {
+        semEstoqueControlado(id);
+        return null;
+      }
+      log.debug("Contador de estoque do product {} carregado: {}", id, estoque);
+      return new AtomicLong(milesimos(estoque));
+    });
+  }
+
+  private void semEstoqueControlado(Long productId) {
+    if (semEstoque.add(productId)) {
+      log.warn("flick.estoque.contadores.products: product {} sem estoque controlado (quantidade nula); "
+          + "segue o modo COLUNA", productId);
+    }
+  }
+
+  private static void aoDesfazer(Runnable desfazer) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          desfazer.run();
+        }
+      }
+    });
+  }
+
+  private static long milesimos(BigDecimal quantidade) {
+    return quantidade.setScale(3, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+  }
+}
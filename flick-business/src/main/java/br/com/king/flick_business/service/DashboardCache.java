@@ -0,0 +1,123 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import br.com.king.flick_business.dto.DashboardCacheEstatisticasDTO;
+import br.com.king.flick_business.dto.DashboardSummaryDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache dos resumos do dashboard por período de dias inteiros.
+ *
+ * <p>
+ * Entradas são invalidadas depois do commit de qualquer transação que altere
+ * vendas ou expenses, e só as que cobrem algum dos dias alterados. Um contador
+ * de geração impede que um resumo calculado antes do commit (com dados já
+ * desatualizados) seja gravado depois da invalidação.
+ *
+ * <p>
+ * Como {@link MeterBinder}, publica as métricas {@code cache.*} do Caffeine
+ * (tag {@code cache=dashboard}) e o contador de invalidações.
+ */
+@Slf4j
+@Component
+public class DashboardCache implements MeterBinder {
+
+  public record Chave(LocalDate inicio, LocalDate fim, ZoneId zona) {
+  }
+
+  private final boolean habilitado;
+  private final Cache<Chave, DashboardSummaryDTO> cache;
+  private final AtomicLong geracao = new AtomicLong();
+  private final LongAdder invalidacoes = new LongAdder();
+
+  public DashboardCache(@Value("${flick.dashboard.cache.habilitado:true}") boolean habilitado,
+      @Value("${flick.dashboard.cache.tamanho-maximo:256}") long tamanhoMaximo,
+      @Value("${flick.dashboard.cache.expiracao:10m}") Duration expiracao) {
+    this.habilitado = habilitado;
+    // A expiração cobre alterações feitas fora da aplicação (ex.: direto no banco)
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(tamanhoMaximo)
+        .expireAfterWrite(expiracao)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Devolve o resumo em cache ou calcula com {@code calculo} e guarda o
+   * resultado. Chamadas concorrentes para a mesma chave podem calcular em
+   * paralelo; a última a terminar prevalece.
+   */
+  public DashboardSummaryDTO obter(Chave chave, Supplier<DashboardSummaryDTO> calculo) {
+    if (!habilitado) {
+      return calculo.get();
+    }
+
+    DashboardSummaryDTO summary = cache.getIfPresent(chave);
+    if (summary != null) {
+      return summary;
+    }
+
+    long geracaoInicial = geracao.get();
+    summary = calculo.get();
+    if (geracao.get() == geracaoInicial) {
+      cache.put(chave, summary);
+      // Uma invalidação pode ter varrido o cache entre a conferência e o put
+      if (geracao.get() != geracaoInicial) {
+        cache.invalidate(chave);
+      }
+    }
+    return summary;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoAlterarDias(DiasResumoAlterados evento) {
+    geracao.incrementAndGet();
+    cache.asMap().keySet().removeIf(chave -> {
+      boolean afetada = evento.sobrepoe(chave.inicio(), chave.fim());
+      if (afetada) {
+        invalidacoes.increment();
+      }
+      return afetada;
+    });
+    log.debug("Cache do dashboard invalidado para {} a {}", evento.inicio(), evento.fim());
+  }
+
+  public void limpar() {
+    geracao.incrementAndGet();
+    invalidacoes.add(cache.estimatedSize());
+    cache.invalidateAll();
+  }
+
+  public DashboardCacheEstatisticasDTO estatisticas() {
+    CacheStats stats = cache.stats();
+    return new DashboardCacheEstatisticasDTO(habilitado, cache.estimatedSize(), stats.hitCount(),
+        stats.missCount(), stats.hitRate(), stats.evictionCount(), invalidacoes.sum());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "dashboard");
+    FunctionCounter.builder("flick.dashboard.cache.invalidacoes", invalidacoes, LongAdder::sum)
+        .description("Entradas removidas por alterações em vendas/expenses")
+        .register(registry);
+  }
+}
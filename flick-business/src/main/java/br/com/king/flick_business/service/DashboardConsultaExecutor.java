@@ -0,0 +1,166 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.king.flick_business.config.ContadorConsultas;
+import br.com.king.flick_business.exception.ConsultaExpirada;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa as consultas agregadas do dashboard.
+ *
+ * <p>
+ * No modo {@code SEQUENCIAL} (padrão) todas rodam uma após a outra em uma
+ * única transação somente leitura. No modo {@code PARALELO} cada consulta roda
+ * em uma virtual thread com transação (e conexão) somente leitura própria; um
+ * semáforo global limita quantas ocupam o pool ao mesmo tempo, e quem chama não
+ * segura conexão enquanto espera. Nos dois modos o tempo de cada consulta é
+ * medido e o lote inteiro respeita {@code flick.dashboard.timeout}.
+ */
+@Slf4j
+@Component
+public class DashboardConsultaExecutor {
+
+  public enum Modo {
+    SEQUENCIAL, PARALELO
+  }
+
+  private final Modo modo;
+  private final Duration timeout;
+  private final Semaphore conexoes;
+  private final TransactionTemplate somenteLeitura;
+  private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+  public DashboardConsultaExecutor(PlatformTransactionManager transactionManager,
+      @Value("${flick.dashboard.modo:SEQUENCIAL}") Modo modo,
+      @Value("${flick.dashboard.max-consultas-simultaneas:4}") int maxConsultasSimultaneas,
+      @Value("${flick.dashboard.timeout:5s}") Duration timeout) {
+    this.modo = modo;
+    this.timeout = timeout;
+    this.conexoes = new Semaphore(maxConsultasSimultaneas, true);
+    this.somenteLeitura = new TransactionTemplate(transactionManager);
+    this.somenteLeitura.setReadOnly(true);
+    // Timeout da transação vira query timeout nas consultas do Spring Data,
+    // então o banco também desiste em vez de seguir trabalhando para ninguém
+    this.somenteLeitura.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    log.info("Consultas do dashboard: modo={} maxSimultaneas={} timeout={}", modo, maxConsultasSimultaneas, timeout);
+  }
+
+  public Modo getModo() {
+    return modo;
+  }
+
+  /**
+   * Monta um resultado a partir de consultas submetidas ao {@link Lote}. Os
+   * tempos de cada consulta são registrados em {@code tempos} na ordem em que
+   * terminam.
+   */
+  public <T> T executar(Map<String, Duration> tempos, Function<Lote, T> montagem) {
+    if (modo == Modo.PARALELO) {
+      return montagem.apply(new Lote(tempos));
+    }
+    return somenteLeitura.execute(status -> montagem.apply(new Lote(tempos)));
+  }
+
+  @PreDestroy
+  void encerrar() {
+    virtualThreads.shutdownNow();
+  }
+
+  public final class Lote {
+    private final Map<String, Duration> tempos;
+    private final List<Future<?>> pendentes = new ArrayList<>();
+    private final long inicioNanos = System.nanoTime();
+
+    private Lote(Map<String, Duration> tempos) {
+      // Escrito pelas virtual threads, lido por quem chama depois de aguardar()
+      this.tempos = Collections.synchronizedMap(tempos);
+    }
+
+    public <T> Future<T> submeter(String nome, Supplier<T> consulta) {
+      if (modo == Modo.SEQUENCIAL) {
+        return CompletableFuture.completedFuture(medir(nome, consulta));
+      }
+
+      Map<String, String> mdc = MDC.getCopyOfContextMap();
+      AtomicInteger consultas = ContadorConsultas.atual();
+      Future<T> futuro = virtualThreads.submit(() -> {
+        if (mdc != null) {
+          MDC.setContextMap(mdc);
+        }
+        ContadorConsultas.usar(consultas);
+        conexoes.acquire();
+        try {
+          return somenteLeitura.execute(status -> medir(nome, consulta));
+        } finally {
+          conexoes.release();
+          MDC.clear();
+          ContadorConsultas.usar(null);
+        }
+      });
+      pendentes.add(futuro);
+      return futuro;
+    }
+
+    /**
+     * Espera todas as consultas submetidas. Se alguma falhar ou o prazo acabar,
+     * as demais são canceladas.
+     */
+    public void aguardar() {
+      long prazo = inicioNanos + timeout.toNanos();
+      try {
+        for (Future<?> futuro : pendentes) {
+          futuro.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+      } catch (TimeoutException e) {
+        cancelarPendentes();
+        throw new ConsultaExpirada("Consultas do dashboard excederam " + timeout.toMillis() + " ms", e);
+      } catch (InterruptedException e) {
+        cancelarPendentes();
+        Thread.currentThread().interrupt();
+        throw new ConsultaExpirada("Consultas do dashboard interrompidas", e);
+      } catch (ExecutionException e) {
+        cancelarPendentes();
+        if (e.getCause() instanceof RuntimeException runtime) {
+          throw runtime;
+        }
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    private void cancelarPendentes() {
+      pendentes.forEach(futuro -> futuro.cancel(true));
+    }
+
+    private <T> T medir(String nome, Supplier<T> consulta) {
+      long inicio = System.nanoTime();
+      try {
+        return consulta.get();
+      } finally {
+        tempos.put(nome, Duration.ofNanos(System.nanoTime() - inicio));
+      }
+    }
+  }
+}
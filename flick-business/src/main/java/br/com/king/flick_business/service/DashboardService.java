@@ -3,49 +3,240 @@ package br.com.king.flick_business.service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.Date;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List; // Para alternativa do product mais vendido
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import br.com.king.flick_business.dto.DashboardSummaryDTO; // Para divisão do ticket médio
 import br.com.king.flick_business.dto.DataPointDTO; // Para converter resultado da query nativa
 import br.com.king.flick_business.dto.ProductMaisVendidoDTO;
+import br.com.king.flick_business.entity.ResumoDiario;
 import br.com.king.flick_business.enums.FormaPagamento;
 import br.com.king.flick_business.repository.ExpenseRepository; // Importar ArrayList
 import br.com.king.flick_business.repository.ItemVendaRepository; // Usar EnumMap para performance
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
 import br.com.king.flick_business.repository.VendaRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@Timed("flick.servico")
 public class DashboardService {
+
+  // Como o período bruto (não coberto pelo resumo diário) é agregado
+  public enum Agregacao {
+    CONSULTAS_SEPARADAS, PASSADA_UNICA
+  }
+
   private final VendaRepository vendaRepository;
   private final ExpenseRepository expenseRepository;
   private final ItemVendaRepository itemVendaRepository;
+  private final ResumoDiarioRepository resumoDiarioRepository;
+  private final ResumoDiarioPagamentoRepository resumoPagamentoRepository;
+  private final ResumoDiarioProductRepository resumoProductRepository;
+  private final DashboardConsultaExecutor consultaExecutor;
+  private final Agregacao agregacao;
+  private final DashboardCache dashboardCache;
 
   public DashboardService(VendaRepository vendaRepository, ExpenseRepository expenseRepository,
-      ItemVendaRepository itemVendaRepository) {
+      ItemVendaRepository itemVendaRepository, ResumoDiarioRepository resumoDiarioRepository,
+      ResumoDiarioPagamentoRepository resumoPagamentoRepository,
+      ResumoDiarioProductRepository resumoProductRepository, DashboardConsultaExecutor consultaExecutor,
+      @Value("${flick.dashboard.agregacao:CONSULTAS_SEPARADAS}") Agregacao agregacao,
+      DashboardCache dashboardCache) {
     this.vendaRepository = vendaRepository;
     this.expenseRepository = expenseRepository;
     this.itemVendaRepository = itemVendaRepository;
+    this.resumoDiarioRepository = resumoDiarioRepository;
+    this.resumoPagamentoRepository = resumoPagamentoRepository;
+    this.resumoProductRepository = resumoProductRepository;
+    this.consultaExecutor = consultaExecutor;
+    this.agregacao = agregacao;
+    this.dashboardCache = dashboardCache;
   }
 
-  @Transactional(readOnly = true)
   public DashboardSummaryDTO getDashboardSummary(ZonedDateTime inicio, ZonedDateTime fim) {
-    BigDecimal totalVendasBruto = vendaRepository.sumValorTotalByDataVendaBetween(inicio, fim);
-    Long quantidadeVendas = vendaRepository.countVendasByDataVendaBetween(inicio, fim);
-    List<Object[]> vendasPorFormaPgtoRaw = vendaRepository.sumValorTotalGroupByFormaPagamentoBetween(inicio, fim);
-    BigDecimal totalExpenses = expenseRepository.sumValorByDataExpenseBetween(inicio, fim);
-    ProductMaisVendidoDTO productMaisVendido = itemVendaRepository.findProductMaisVendidoBetween(inicio.toLocalDate(),
-        fim.toLocalDate());
-    List<Object[]> vendasDiariasRaw = vendaRepository.sumValorTotalGroupByDayBetweenNative(inicio, fim);
-
-    // Processar dados e calcular métricas
+    return getDashboardSummary(inicio, fim, new LinkedHashMap<>());
+  }
+
+  /**
+   * Monta o resumo do dashboard. Períodos de dias inteiros (o caso do
+   * DashboardController) passam pelo {@link DashboardCache} e são lidos do
+   * resumo diário: uma linha por dia em vez de varrer vendas, itens e expenses.
+   * Outros períodos consultam as tabelas brutas, em seis consultas ou em uma só
+   * ({@code flick.dashboard.agregacao}). As consultas rodam pelo
+   * {@link DashboardConsultaExecutor} (em sequência ou em paralelo, conforme
+   * {@code flick.dashboard.modo}) e o tempo de cada uma é registrado em
+   * {@code tempos}.
+   */
+  public DashboardSummaryDTO getDashboardSummary(ZonedDateTime inicio, ZonedDateTime fim,
+      Map<String, Duration> tempos) {
+    DashboardSummaryDTO summary;
+    if (ResumoDiarioService.cobreDiasInteiros(inicio, fim)) {
+      LocalDate diaInicio = ResumoDiarioService.diaDe(inicio);
+      LocalDate diaFim = ResumoDiarioService.diaDe(fim);
+      long inicioNanos = System.nanoTime();
+      AtomicBoolean calculado = new AtomicBoolean();
+      summary = dashboardCache.obter(new DashboardCache.Chave(diaInicio, diaFim, inicio.getZone()), () -> {
+        calculado.set(true);
+        return consultaExecutor.executar(tempos,
+            lote -> getDashboardSummaryPorResumoDiario(lote, diaInicio, diaFim));
+      });
+      if (!calculado.get()) {
+        tempos.put("cache", Duration.ofNanos(System.nanoTime() - inicioNanos));
+      }
+    } else {
+      summary = consultaExecutor.executar(tempos, lote -> agregacao == Agregacao.PASSADA_UNICA
+          ? getDashboardSummaryPassadaUnica(lote, inicio, fim)
+          : getDashboardSummaryBruto(lote, inicio, fim));
+    }
+    log.debug("Dashboard modo={} tempos={}", consultaExecutor.getModo(), tempos);
+    return summary;
+  }
+
+  private DashboardSummaryDTO getDashboardSummaryBruto(DashboardConsultaExecutor.Lote lote, ZonedDateTime inicio,
+      ZonedDateTime fim) {
+    Future<BigDecimal> totalVendasBruto = lote.submeter("vendas_total",
+        () -> vendaRepository.sumValorTotalByDataVendaBetween(inicio, fim));
+    Future<Long> quantidadeVendas = lote.submeter("vendas_quantidade",
+        () -> vendaRepository.countVendasByDataVendaBetween(inicio, fim));
+    Future<List<Object[]>> vendasPorFormaPgtoRaw = lote.submeter("vendas_por_forma_pagamento",
+        () -> vendaRepository.sumValorTotalGroupByFormaPagamentoBetween(inicio, fim));
+    Future<BigDecimal> totalExpenses = lote.submeter("expenses_total",
+        () -> expenseRepository.sumValorByDataExpenseBetween(inicio, fim));
+    Future<ProductMaisVendidoDTO> productMaisVendido = lote.submeter("product_mais_vendido",
+        () -> itemVendaRepository.findProductMaisVendidoBetween(inicio, fim));
+    Future<List<Object[]>> vendasDiariasRaw = lote.submeter("vendas_diarias",
+        () -> vendaRepository.sumValorTotalGroupByDayBetweenNative(inicio, fim));
+    lote.aguardar();
+
+    List<DataPointDTO> graficoVendasDiarias = new ArrayList<>();
+    for (Object[] row : vendasDiariasRaw.resultNow()) {
+      LocalDate dia = paraLocalDate(row[0]);
+      if (dia == null) {
+        continue;
+      }
+
+      BigDecimal valor = (BigDecimal) row[1];
+      if (valor != null) {
+        graficoVendasDiarias.add(new DataPointDTO(dia, valor));
+      }
+    }
+
+    return montarSummary(totalVendasBruto.resultNow(), quantidadeVendas.resultNow(),
+        vendasPorFormaPgtoRaw.resultNow(), totalExpenses.resultNow(), productMaisVendido.resultNow(),
+        graficoVendasDiarias);
+  }
+
+  private DashboardSummaryDTO getDashboardSummaryPassadaUnica(DashboardConsultaExecutor.Lote lote,
+      ZonedDateTime inicio, ZonedDateTime fim) {
+    Future<List<Object[]>> agregados = lote.submeter("agregados_passada_unica",
+        () -> vendaRepository.findAgregadosDashboardBetween(inicio, fim));
+    lote.aguardar();
+
+    BigDecimal totalVendasBruto = BigDecimal.ZERO;
+    long quantidadeVendas = 0;
+    BigDecimal totalExpenses = null;
+    ProductMaisVendidoDTO productMaisVendido = null;
+    Map<FormaPagamento, BigDecimal> totaisPorForma = new EnumMap<>(FormaPagamento.class);
+    Map<LocalDate, BigDecimal> totaisPorDia = new TreeMap<>();
+    for (Object[] row : agregados.resultNow()) {
+      switch (String.valueOf(row[0])) {
+        case "V" -> {
+          BigDecimal total = (BigDecimal) row[5];
+          totalVendasBruto = totalVendasBruto.add(total);
+          quantidadeVendas += ((Number) row[4]).longValue();
+          totaisPorForma.merge(FormaPagamento.valueOf((String) row[2]), total, BigDecimal::add);
+          LocalDate dia = paraLocalDate(row[1]);
+          if (dia != null) {
+            totaisPorDia.merge(dia, total, BigDecimal::add);
+          }
+        }
+        case "P" -> productMaisVendido = new ProductMaisVendidoDTO(((Number) row[3]).longValue(), (String) row[2],
+            (BigDecimal) row[4], (BigDecimal) row[5]);
+        case "E" -> totalExpenses = (BigDecimal) row[5];
+        default -> log.warn("Tipo de linha inesperado no agregado do dashboard: {}", row[0]);
+      }
+    }
+
+    List<Object[]> vendasPorFormaPgtoRaw = new ArrayList<>();
+    totaisPorForma.forEach((forma, total) -> vendasPorFormaPgtoRaw.add(new Object[] { forma, total }));
+    List<DataPointDTO> graficoVendasDiarias = new ArrayList<>();
+    totaisPorDia.forEach((dia, total) -> graficoVendasDiarias.add(new DataPointDTO(dia, total)));
+
+    return montarSummary(totalVendasBruto, quantidadeVendas, vendasPorFormaPgtoRaw, totalExpenses,
+        productMaisVendido, graficoVendasDiarias);
+  }
+
+  private DashboardSummaryDTO getDashboardSummaryPorResumoDiario(DashboardConsultaExecutor.Lote lote,
+      LocalDate inicio, LocalDate fim) {
+    Future<List<ResumoDiario>> dias = lote.submeter("resumo_dias",
+        () -> resumoDiarioRepository.findByDiaBetweenOrderByDiaAsc(inicio, fim));
+    Future<List<Object[]>> vendasPorFormaPgtoRaw = lote.submeter("resumo_por_forma_pagamento",
+        () -> resumoPagamentoRepository.sumTotalGroupByFormaPagamentoBetween(inicio, fim));
+    Future<ProductMaisVendidoDTO> productMaisVendido = lote.submeter("resumo_product_mais_vendido",
+        () -> resumoProductRepository.findProductMaisVendidoBetween(inicio, fim));
+    lote.aguardar();
+
+    BigDecimal totalVendasBruto = BigDecimal.ZERO;
+    long quantidadeVendas = 0;
+    BigDecimal totalExpenses = BigDecimal.ZERO;
+    List<DataPointDTO> graficoVendasDiarias = new ArrayList<>();
+    for (ResumoDiario dia : dias.resultNow()) {
+      totalVendasBruto = totalVendasBruto.add(dia.getTotalVendas());
+      quantidadeVendas += dia.getQuantidadeVendas();
+      totalExpenses = totalExpenses.add(dia.getTotalExpenses());
+      // Dias só com expenses (ou com todas as vendas removidas) ficam fora do gráfico
+      if (dia.getQuantidadeVendas() > 0) {
+        graficoVendasDiarias.add(new DataPointDTO(dia.getDia(), dia.getTotalVendas()));
+      }
+    }
+
+    return montarSummary(totalVendasBruto, quantidadeVendas, vendasPorFormaPgtoRaw.resultNow(), totalExpenses,
+        productMaisVendido.resultNow(), graficoVendasDiarias);
+  }
+
+  // O driver devolve DATE como java.sql.Date ou LocalDate, conforme o banco
+  private static LocalDate paraLocalDate(Object valor) {
+    switch (valor) {
+      case Date date -> {
+        return date.toLocalDate();
+      }
+      case LocalDate localDate -> {
+        return localDate;
+      }
+      case null -> {
+        return null;
+      }
+      default -> {
+        log.warn("Formato de data inesperado: {}", valor.getClass());
+        return null;
+      }
+    }
+  }
+
+  // Processa os totais e calcula as métricas derivadas
+  private DashboardSummaryDTO montarSummary(BigDecimal totalVendasBruto, Long quantidadeVendas,
+      List<Object[]> vendasPorFormaPgtoRaw, BigDecimal totalExpenses, ProductMaisVendidoDTO productMaisVendido,
+      List<DataPointDTO> graficoVendasDiarias) {
+    if (totalExpenses == null) {
+      totalExpenses = BigDecimal.ZERO;
+    }
     BigDecimal lucroBrutoEstimado = totalVendasBruto.subtract(totalExpenses);
 
     BigDecimal ticketMedio = BigDecimal.ZERO;
@@ -65,33 +256,15 @@ public class DashboardService {
       totalVendasPorFormaPagamento.putIfAbsent(forma, BigDecimal.ZERO);
     }
 
-    List<DataPointDTO> graficoVendasDiarias = new ArrayList<>();
-    for (Object[] row : vendasDiariasRaw) {
-      LocalDate dia;
-      switch (row[0]) {
-        case Date date -> dia = date.toLocalDate();
-        case LocalDate localDate -> dia = localDate;
-        default -> {
-          System.err.println("Formato de data inesperado: " + row[0].getClass());
-          continue;
-        }
-      }
-
-      BigDecimal valor = (BigDecimal) row[1];
-      if (valor != null) {
-        graficoVendasDiarias.add(new DataPointDTO(dia, valor));
-      }
-    }
-
-    // DTO
+    // DTO (imutável: pode ser compartilhado pelo DashboardCache)
     return new DashboardSummaryDTO(
         totalVendasBruto,
-        totalVendasPorFormaPagamento,
+        Collections.unmodifiableMap(totalVendasPorFormaPagamento),
         totalExpenses,
         lucroBrutoEstimado,
         ticketMedio,
         quantidadeVendas,
         productMaisVendido,
-        graficoVendasDiarias);
+        Collections.unmodifiableList(graficoVendasDiarias));
   }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package br.com.king.flick_business.service;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado quando vendas ou expenses dos dias {@code inicio} a {@code fim}
+ * (inclusive) mudam na transação corrente.
+ */
+public record DiasResumoAlterados(LocalDate inicio, LocalDate fim) {
+
+  public boolean sobrepoe(LocalDate outroInicio, LocalDate outroFim) {
+    return !outroFim.isBefore(inicio) && !outroInicio.isAfter(fim);
+  }
+}
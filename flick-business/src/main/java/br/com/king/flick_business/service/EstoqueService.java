@@ -0,0 +1,464 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.king.flick_business.dto.response.MovimentoEstoqueResponseDTO;
+import br.com.king.flick_business.dto.response.PageResponse;
+import br.com.king.flick_business.dto.response.SaldoEstoqueDTO;
+import br.com.king.flick_business.entity.ItemVenda;
+import br.com.king.flick_business.entity.MovimentoEstoque;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estoque dos products e o livro de movimentos ({@link MovimentoEstoque}), que
+ * registra cada entrada e saída: venda, estorno de venda, ajuste e reposição.
+ *
+ * <p>
+ * No modo {@code COLUNA} (padrão) cada movimento também atualiza
+ * {@code products.quantidade_estoque} na hora, com UPDATE condicional, e entra
+ * no livro já compactado. No modo {@code LIVRO} vendas, estornos e ajustes só
+ * acrescentam movimentos pendentes, sem UPDATE na linha do product: o estoque
+ * atual é a coluna (o último snapshot) mais os pendentes, e a
+ * {@link CompactacaoEstoque} soma os pendentes na coluna periodicamente. Nesse
+ * modo a baixa trava o product ({@link TravaEstoque}: no PostgreSQL um advisory
+ * lock, que não bloqueia a linha) antes de conferir o estoque, e vendas
+ * simultâneas das últimas unidades não o deixam negativo. Por isso este modo
+ * ainda não é um livro "só de acréscimos, sem disputa": as vendas do mesmo
+ * product continuam serializadas, agora pela trava em vez da linha, e nos
+ * benchmarks ele não ganhou do COLUNA (a disputa maior é por resumo_diario).
+ *
+ * <p>
+ * No modo {@code CONTADORES} os products de
+ * {@code flick.estoque.contadores.products} (os mais vendidos) têm o estoque
+ * conferido e baixado em memória pelos {@link ContadoresEstoque}, sem ir ao
+ * banco e sem oversell; os movimentos deles ficam pendentes no livro, como no
+ * modo LIVRO, e a compactação os leva à coluna em segundo plano. Os demais
+ * products seguem o modo COLUNA. Nos benchmarks este modo ficou dentro do ruído
+ * do COLUNA: a venda ainda grava o movimento e o resumo diário, e não ficou
+ * mais rápida só por tirar o UPDATE de estoque.
+ *
+ * <p>
+ * Em qualquer modo, o estoque em uma data é o atual menos os movimentos
+ * posteriores a ela.
+ */
+@Slf4j
+@Service
+@Timed("flick.servico")
+public class EstoqueService {
+  // Movimentos somados na coluna por transação de compactação
+  static final int LOTE_COMPACTACAO = 1000;
+
+  public enum Modo {
+    COLUNA, LIVRO, CONTADORES
+  }
+
+  private final ProductRepository productRepository;
+  private final MovimentoEstoqueRepository movimentoRepository;
+  private final ContadoresEstoque contadores;
+  private final TravaEstoque trava;
+  private final Modo modo;
+
+  public EstoqueService(ProductRepository productRepository, MovimentoEstoqueRepository movimentoRepository,
+      ContadoresEstoque contadores, TravaEstoque trava, @Value("${flick.estoque.modo:COLUNA}") Modo modo) {
+    this.productRepository = productRepository;
+    this.movimentoRepository = movimentoRepository;
+    this.contadores = contadores;
+    this.trava = trava;
+    this.modo = modo;
+  }
+
+  public Modo getModo() {
+    return modo;
+  }
+
+  /**
+   * Indica se o product tem estoque controlado (quantidade informada e maior que
+   * zero). Products sem estoque controlado são vendidos sem baixa.
+   *
+   * @param estoqueAtual Estoque atual do product (ver {@link #estoqueAtual})
+   * @return true se o estoque deve ser baixado na venda
+   */
+  public static boolean possuiEstoqueControlado(BigDecimal estoqueAtual) {
+    return estoqueAtual != null && estoqueAtual.compareTo(BigDecimal.ZERO) > 0;
+  }
+
+  /**
+   * Estoque atual do product já lido: o de {@code estoques}, se houver, senão a
+   * coluna do product.
+   *
+   * @param estoques Resultado de {@link #estoquesAtuais}
+   */
+  public static BigDecimal estoqueAtual(Product product, Map<Long, BigDecimal> estoques) {
+    BigDecimal estoque = estoques.get(product.getId());
+    return estoque != null ? estoque : product.getStockQuantity();
+  }
+
+  /**
+   * No modo LIVRO, o estoque atual (coluna mais movimentos pendentes) dos
+   * products, em uma consulta. No modo COLUNA a coluna do product lido já é o
+   * estoque atual: o mapa vem vazio, sem ida ao banco. No modo CONTADORES, o
+   * estoque em memória dos products contados, também sem ida ao banco.
+   *
+   * @param productIds IDs dos products
+   * @return Mapa idProduct -> estoque atual (products inexistentes ficam de fora)
+   */
+  public Map<Long, BigDecimal> estoquesAtuais(Collection<Long> productIds) {
+    if (modo == Modo.COLUNA || productIds.isEmpty()) {
+      return Map.of();
+    }
+    if (modo == Modo.LIVRO) {
+      return lerEstoques(productIds);
+    }
+    Map<Long, BigDecimal> estoques = new HashMap<>();
+    productIds.stream()
+        .filter(contadores::controla)
+        .forEach(productId -> estoques.put(productId, contadores.estoque(productId)));
+    return estoques;
+  }
+
+  /**
+   * Baixa o estoque dos itens de uma venda e registra as saídas no livro. No
+   * modo COLUNA, com UPDATE condicional no banco, sem ler-subtrair-gravar em
+   * Java: vendas concorrentes do mesmo product nunca perdem baixas e o estoque
+   * nunca fica negativo. No modo LIVRO, conferindo o estoque atual lido do
+   * livro depois de travar os products. Products contados em memória são
+   * baixados no contador (a baixa volta se a transação for desfeita).
+   *
+   * Os itens são processados em ordem de ID do product para que transações
+   * concorrentes travem as linhas sempre na mesma ordem (evita deadlock).
+   *
+   * @param itens Itens da venda (um por product), já gravada
+   * @throws RecursoNaoEncontrado se algum product não tiver estoque suficiente;
+   *                              a transação da venda é revertida por inteiro
+   */
+  @Transactional
+  public void baixarEstoque(List<ItemVenda> itens) {
+    Map<Long, BigDecimal> estoquesLidos = estoquesAtuais(
+        itens.stream().map(item -> item.getProduct().getId()).toList());
+    List<ItemVenda> controlados = itens.stream()
+        .filter(item -> possuiEstoqueControlado(estoqueAtual(item.getProduct(), estoquesLidos)))
+        .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+        .toList();
+    // LIVRO: só o estoque lido com o product travado vale para a conferência
+    Map<Long, BigDecimal> estoques = modo == Modo.LIVRO && !controlados.isEmpty()
+        ? travarELer(controlados.stream().map(item -> item.getProduct().getId()).toList())
+        : estoquesLidos;
+    List<MovimentoEstoque> baixas = new ArrayList<>();
+    controlados.forEach(item -> {
+      Product product = item.getProduct();
+      if (!baixar(product.getId(), item.getQuantidade(), estoques)) {
+        log.debug("Baixa recusada: estoque insuficiente (concorrência) para product {}, solicitado={}",
+            product.getId(), item.getQuantidade());
+        throw new RecursoNaoEncontrado("Estoque insuficiente para o product: " + product.getName()
+            + ". Solicitado: " + item.getQuantidade());
+      }
+      baixas.add(baixaDaVenda(item.getVenda(), product.getId(), item.getQuantidade()));
+    });
+    gravar(baixas);
+  }
+
+  /**
+   * Como {@link #baixarEstoque(List)}, para as baixas já conferidas de várias
+   * vendas (registro em lote): uma baixa por product, com as quantidades
+   * somadas, em ordem de ID.
+   *
+   * @param baixas Saídas das vendas, de {@link #baixaDaVenda} (só products com
+   *               estoque controlado)
+   * @throws RecursoNaoEncontrado se algum product não tiver mais estoque
+   *                              suficiente
+   */
+  @Transactional
+  public void registrarBaixas(List<MovimentoEstoque> baixas) {
+    Map<Long, BigDecimal> quantidadesPorProduct = new TreeMap<>();
+    baixas.forEach(baixa -> quantidadesPorProduct.merge(baixa.getProductId(), baixa.getQuantidade().negate(),
+        BigDecimal::add));
+    Map<Long, BigDecimal> estoques = modo == Modo.LIVRO && !quantidadesPorProduct.isEmpty()
+        ? travarELer(quantidadesPorProduct.keySet())
+        : estoquesAtuais(quantidadesPorProduct.keySet());
+    quantidadesPorProduct.forEach((productId, quantidade) -> {
+      if (!baixar(productId, quantidade, estoques)) {
+        log.debug("Baixa em lote recusada: estoque insuficiente (concorrência) para product {}, solicitado={}",
+            productId, quantidade);
+        throw new RecursoNaoEncontrado("Estoque insuficiente para o product " + productId
+            + ". Solicitado: " + quantidade);
+      }
+    });
+    gravar(baixas);
+  }
+
+  /**
+   * Devolve ao estoque as quantidades dos itens de uma venda removida. No modo
+   * COLUNA, products sem estoque controlado (quantidade nula) são ignorados pelo
+   * próprio UPDATE. Contadores em memória recebem a devolução após o commit.
+   *
+   * @param itens Itens da venda removida
+   */
+  @Transactional
+  public void estornarEstoque(List<ItemVenda> itens) {
+    ZonedDateTime agora = ZonedDateTime.now();
+    List<MovimentoEstoque> estornos = new ArrayList<>();
+    itens.stream()
+        .filter(item -> item.getProduct() != null)
+        .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+        .forEach(item -> {
+          Long productId = item.getProduct().getId();
+          if (contando(productId)) {
+            contadores.somar(productId, item.getQuantidade());
+          } else if (modo != Modo.LIVRO) {
+            productRepository.estornarEstoque(productId, item.getQuantidade());
+          }
+          estornos.add(MovimentoEstoque.builder()
+              .productId(productId)
+              .tipo(TipoMovimentoEstoque.ESTORNO_VENDA)
+              .quantidade(item.getQuantidade())
+              .dataMovimento(agora)
+              .vendaId(item.getVenda().getId())
+              .build());
+        });
+    gravar(estornos);
+  }
+
+  /**
+   * Registra um ajuste (contagem, perda, quebra: positivo ou negativo) ou uma
+   * reposição (positiva) no estoque do product.
+   *
+   * @return Movimento registrado
+   * @throws RecursoNaoEncontrado se o product não existir
+   * @throws BusinessException    se o tipo for de venda, a quantidade não servir
+   *                              para o tipo ou o estoque ficar negativo
+   */
+  @Transactional
+  public MovimentoEstoqueResponseDTO movimentar(Long productId, TipoMovimentoEstoque tipo, BigDecimal quantidade,
+      String observacao) {
+    if (tipo != TipoMovimentoEstoque.AJUSTE && tipo != TipoMovimentoEstoque.REPOSICAO) {
+      throw new BusinessException("Movimentos de venda são registrados pela própria venda.");
+    }
+    if (tipo == TipoMovimentoEstoque.REPOSICAO && quantidade.signum() <= 0) {
+      throw new BusinessException("A quantidade da reposição deve ser maior que zero.");
+    }
+    if (quantidade.signum() == 0) {
+      throw new BusinessException("A quantidade do ajuste não pode ser zero.");
+    }
+    if (!productRepository.existsById(productId)) {
+      throw new RecursoNaoEncontrado("Product não encontrado com ID: " + productId);
+    }
+
+    boolean aplicado;
+    if (contando(productId) && quantidade.signum() > 0) {
+      contadores.somar(productId, quantidade);
+      aplicado = true;
+    } else if (contando(productId)) {
+      aplicado = contadores.baixar(productId, quantidade.negate());
+    } else if (modo == Modo.LIVRO) {
+      aplicado = travarELer(List.of(productId)).get(productId).add(quantidade).signum() >= 0;
+    } else {
+      aplicado = productRepository.ajustarEstoque(productId, quantidade) > 0;
+    }
+    if (!aplicado) {
+      throw new BusinessException("O ajuste deixaria negativo o estoque do product " + productId + ".");
+    }
+    MovimentoEstoque movimento = MovimentoEstoque.builder()
+        .productId(productId)
+        .tipo(tipo)
+        .quantidade(quantidade)
+        .dataMovimento(ZonedDateTime.now())
+        .observacao(observacao)
+        .build();
+    gravar(List.of(movimento));
+    log.info("Estoque do product {}: {} de {}", productId, tipo, quantidade);
+    return new MovimentoEstoqueResponseDTO(movimento);
+  }
+
+  /**
+   * Registra no livro o estoque com que o product foi cadastrado (já na coluna).
+   *
+   * @param product Product recém-gravado
+   */
+  @Transactional
+  public void registrarEstoqueInicial(Product product) {
+    if (possuiEstoqueControlado(product.getStockQuantity())) {
+      MovimentoEstoque inicial = ajusteDeCadastro(product, product.getStockQuantity());
+      inicial.setCompactado(true);
+      movimentoRepository.save(inicial);
+    }
+  }
+
+  /**
+   * Leva ao livro, como ajuste, a quantidade informada na edição do product. No
+   * modo LIVRO (e para products contados em memória) a coluna continua sendo o
+   * snapshot da compactação: a mesma quantidade da coluna não mexe no estoque, e
+   * outra vira um ajuste do estoque atual até ela.
+   *
+   * @param product         Product com a quantidade informada, ainda não gravado
+   * @param estoqueAnterior Quantidade da coluna antes da edição
+   */
+  @Transactional
+  public void registrarEdicao(Product product, BigDecimal estoqueAnterior) {
+    BigDecimal informado = product.getStockQuantity();
+    if (informado == null || estoqueAnterior == null || informado.compareTo(estoqueAnterior) == 0) {
+      return;
+    }
+    if (!noLivro(product.getId())) {
+      gravar(List.of(ajusteDeCadastro(product, informado.subtract(estoqueAnterior))));
+      return;
+    }
+    // Antes da leitura, que grava o product pendente no contexto
+    product.setStockQuantity(estoqueAnterior);
+    boolean contando = contando(product.getId());
+    BigDecimal atual = contando ? contadores.estoque(product.getId())
+        : lerEstoques(List.of(product.getId())).get(product.getId());
+    BigDecimal diferenca = informado.subtract(atual);
+    if (diferenca.signum() != 0) {
+      if (contando) {
+        contadores.somar(product.getId(), diferenca);
+      }
+      gravar(List.of(ajusteDeCadastro(product, diferenca)));
+    }
+  }
+
+  /**
+   * Estoque do product em uma data: o atual menos o que entrou e saiu depois.
+   * Antes do primeiro movimento do product, vale o estoque que ele já tinha.
+   *
+   * @param data Data/hora da consulta; nula para o momento atual
+   * @throws RecursoNaoEncontrado se o product não existir
+   */
+  @Transactional(readOnly = true)
+  public SaldoEstoqueDTO consultarEstoque(Long productId, ZonedDateTime data) {
+    ZonedDateTime momento = data != null ? data : ZonedDateTime.now();
+    BigDecimal quantidade = movimentoRepository.findEstoqueEm(productId, momento)
+        .orElseThrow(() -> new RecursoNaoEncontrado("Product não encontrado com ID: " + productId));
+    return new SaldoEstoqueDTO(productId, momento, quantidade);
+  }
+
+  /**
+   * Movimentos do product, do mais recente ao mais antigo.
+   *
+   * @throws RecursoNaoEncontrado se o product não existir
+   */
+  @Transactional(readOnly = true)
+  public PageResponse<MovimentoEstoqueResponseDTO> listarMovimentos(Long productId, int page, int size) {
+    if (!productRepository.existsById(productId)) {
+      throw new RecursoNaoEncontrado("Product não encontrado com ID: " + productId);
+    }
+    return new PageResponse<>(movimentoRepository
+        .findByProductIdOrderByDataMovimentoDescIdDesc(productId, PageRequest.of(page, size))
+        .map(MovimentoEstoqueResponseDTO::new));
+  }
+
+  /**
+   * Soma na coluna do product até {@link #LOTE_COMPACTACAO} movimentos
+   * pendentes, os mais antigos primeiro, e os marca como compactados. Os lidos
+   * são marcados por ID: um movimento confirmado no meio fica para a próxima.
+   *
+   * @return Quantos movimentos foram compactados
+   */
+  @Transactional
+  public int compactar(Long productId) {
+    List<Object[]> pendentes = movimentoRepository.findPendentes(productId, PageRequest.of(0, LOTE_COMPACTACAO));
+    if (pendentes.isEmpty()) {
+      return 0;
+    }
+    BigDecimal soma = BigDecimal.ZERO;
+    List<Long> ids = new ArrayList<>(pendentes.size());
+    for (Object[] pendente : pendentes) {
+      ids.add((Long) pendente[0]);
+      soma = soma.add((BigDecimal) pendente[1]);
+    }
+    // Soma relativa e sem condição: o livro já aceitou os movimentos
+    productRepository.estornarEstoque(productId, soma);
+    movimentoRepository.marcarCompactados(ids);
+    log.debug("Estoque do product {}: {} movimentos compactados, soma={}", productId, ids.size(), soma);
+    return ids.size();
+  }
+
+  /**
+   * Saída do estoque de um product por uma venda já gravada (com ID), para
+   * {@link #registrarBaixas}.
+   */
+  static MovimentoEstoque baixaDaVenda(Venda venda, Long productId, BigDecimal quantidade) {
+    return MovimentoEstoque.builder()
+        .productId(productId)
+        .tipo(TipoMovimentoEstoque.VENDA)
+        .quantidade(quantidade.negate())
+        .dataMovimento(venda.getDataVenda())
+        .vendaId(venda.getId())
+        .build();
+  }
+
+  private static MovimentoEstoque ajusteDeCadastro(Product product, BigDecimal quantidade) {
+    return MovimentoEstoque.builder()
+        .productId(product.getId())
+        .tipo(TipoMovimentoEstoque.AJUSTE)
+        .quantidade(quantidade)
+        .dataMovimento(ZonedDateTime.now())
+        .observacao("Cadastro do product")
+        .build();
+  }
+
+  // Contado em memória: compare-and-set no contador; LIVRO: confere contra o
+  // estoque lido do livro; COLUNA: UPDATE condicional
+  private boolean baixar(Long productId, BigDecimal quantidade, Map<Long, BigDecimal> estoques) {
+    if (contando(productId)) {
+      return contadores.baixar(productId, quantidade);
+    }
+    if (modo == Modo.LIVRO) {
+      BigDecimal estoque = estoques.get(productId);
+      return estoque != null && estoque.compareTo(quantidade) >= 0;
+    }
+    return productRepository.baixarEstoque(productId, quantidade) > 0;
+  }
+
+  private boolean contando(Long productId) {
+    return modo == Modo.CONTADORES && contadores.controla(productId);
+  }
+
+  // O movimento fica pendente no livro, sem mexer na coluna do product
+  private boolean noLivro(Long productId) {
+    return modo == Modo.LIVRO || contando(productId);
+  }
+
+  // Trava antes de ler: quem travou antes já confirmou as suas baixas
+  private Map<Long, BigDecimal> travarELer(Collection<Long> productIds) {
+    trava.travar(productIds);
+    return lerEstoques(productIds);
+  }
+
+  private Map<Long, BigDecimal> lerEstoques(Collection<Long> productIds) {
+    Map<Long, BigDecimal> estoques = new HashMap<>();
+    for (Object[] linha : movimentoRepository.findEstoquesAtuais(productIds)) {
+      estoques.put((Long) linha[0], (BigDecimal) linha[1]);
+    }
+    return estoques;
+  }
+
+  // Compactado: o movimento já está somado na coluna
+  private void gravar(List<MovimentoEstoque> movimentos) {
+    if (movimentos.isEmpty()) {
+      return;
+    }
+    movimentos.forEach(movimento -> movimento.setCompactado(!noLivro(movimento.getProductId())));
+    movimentoRepository.saveAll(movimentos);
+  }
+}
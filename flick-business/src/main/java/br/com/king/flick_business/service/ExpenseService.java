@@ -19,15 +19,21 @@ import br.com.king.flick_business.exception.BusinessException;
 import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.repository.ExpenseRepository;
 import br.com.king.flick_business.repository.spec.ExpenseSpecification;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@Timed("flick.servico")
 public class ExpenseService {
   // Injeção do repositório de expenses
   private final ExpenseRepository expenseRepository;
+  private final ResumoDiarioService resumoDiarioService;
 
   // Construtor para injeção de dependência
-  public ExpenseService(ExpenseRepository expenseRepository) {
+  public ExpenseService(ExpenseRepository expenseRepository, ResumoDiarioService resumoDiarioService) {
     this.expenseRepository = expenseRepository;
+    this.resumoDiarioService = resumoDiarioService;
   }
 
   /**
@@ -38,11 +44,11 @@ public class ExpenseService {
    */
   @Transactional
   public ExpenseResponseDTO salvarExpense(ExpenseRequestDTO dto) {
-    System.out.println("LOG: ExpenseService.salvarExpense - Iniciando salvamento de expense");
     Expense expense = mapDtoToEntity(dto);
 
     Expense expenseSalva = expenseRepository.save(expense);
-    System.out.println("LOG: ExpenseService.salvarExpense - Expense salva com ID: " + expenseSalva.getId());
+    resumoDiarioService.registrarExpense(expenseSalva);
+    log.info("Expense {} salva", expenseSalva.getId());
     return new ExpenseResponseDTO(expenseSalva);
   }
 
@@ -55,13 +61,15 @@ public class ExpenseService {
    */
   @Transactional
   public ExpenseResponseDTO atualizarExpense(Long id, ExpenseRequestDTO dto) {
-    System.out.println("LOG: ExpenseService.atualizarExpense - Buscando expense para atualizar, ID: " + id);
     Expense expenseExistente = expenseRepository.findById(id)
         .orElseThrow(() -> new RecursoNaoEncontrado("Expense não encontrada com o ID: " + id));
 
+    // Retira do resumo diário com a data/valor antigos e soma com os novos
+    resumoDiarioService.estornarExpense(expenseExistente);
     updateEntityFromDto(dto, expenseExistente);
     Expense expenseAtualizada = expenseRepository.save(expenseExistente);
-    System.out.println("LOG: ExpenseService.atualizarExpense - Expense atualizada com sucesso, ID: " + id);
+    resumoDiarioService.registrarExpense(expenseAtualizada);
+    log.info("Expense {} atualizada", id);
 
     return new ExpenseResponseDTO(expenseAtualizada);
   }
@@ -77,15 +85,12 @@ public class ExpenseService {
   @Transactional(readOnly = true)
   public List<ExpenseResponseDTO> listExpenses(ZonedDateTime start, ZonedDateTime end, String tipoExpenseString,
       String name) {
-    System.out.println("LOG: ExpenseService.listExpenses - Iniciando listagem de expenses");
-
     TipoExpense tipoFilter = null;
     if (tipoExpenseString != null && !tipoExpenseString.isEmpty()) {
       try {
         tipoFilter = TipoExpense.valueOf(tipoExpenseString.toUpperCase());
       } catch (IllegalArgumentException e) {
-        System.err.println(
-            "LOG: ExpenseService.listExpenses - Tipo de expense inválido recebido no filtro: " + tipoExpenseString);
+        log.debug("Tipo de expense inválido recebido no filtro: {}", tipoExpenseString);
         throw new BusinessException("Tipo de expense inválido: " + tipoExpenseString);
       }
     }
@@ -108,8 +113,6 @@ public class ExpenseService {
    */
   @Transactional(readOnly = true)
   public BigDecimal calcTotalExpensesPerPeriod(LocalDateTime begin, LocalDateTime end) {
-    System.out.println("LOG: ExpenseService.calcTotalExpensesPerPeriod - Calculating...");
-
     LocalDateTime currentMonthBegin = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
     LocalDateTime currentMonthEnd = currentMonthBegin.plusMonths(1).minusNanos(1);
 
@@ -132,7 +135,6 @@ public class ExpenseService {
    */
   @Transactional(readOnly = true)
   public ExpenseResponseDTO buscarExpensePorId(Long id) {
-    System.out.println("LOG: ExpenseService.buscarExpensePorId - Buscando expense por ID: " + id);
     Expense expense = expenseRepository.findById(id)
         .orElseThrow(() -> new RecursoNaoEncontrado("Expense não encontrada com o ID: " + id));
 
@@ -146,11 +148,11 @@ public class ExpenseService {
    */
   @Transactional
   public void deleteExpense(Long id) {
-    System.out.println("LOG: ExpenseService.deleteExpense - Buscando expense para delete, ID: " + id);
     Expense expense = expenseRepository.findById(id)
         .orElseThrow(() -> new RecursoNaoEncontrado("Expense não encontrada com o ID: " + id));
     expenseRepository.delete(expense);
-    System.out.println("LOG: ExpenseService.deleteExpense - Expense deletada com sucesso, ID: " + id);
+    resumoDiarioService.estornarExpense(expense);
+    log.info("Expense {} deletada", id);
   }
 
   // =======================
@@ -164,7 +166,6 @@ public class ExpenseService {
    * @return Entidade Expense
    */
   private Expense mapDtoToEntity(ExpenseRequestDTO dto) {
-    System.out.println("LOG: ExpenseService.mapDtoToEntity - Convertendo DTO para entidade");
     return Expense.builder()
         .name(dto.name())
         .valor(dto.valor())
@@ -180,7 +181,6 @@ public class ExpenseService {
    * @param entity Entidade a ser atualizada
    */
   private void updateEntityFromDto(ExpenseRequestDTO dto, Expense entity) {
-    System.out.println("LOG: ExpenseService.updateEntityFromDto - Atualizando entidade com dados do DTO");
     entity.setName(dto.name());
     entity.setValor(dto.valor());
     entity.setDataExpense(dto.dataExpense());
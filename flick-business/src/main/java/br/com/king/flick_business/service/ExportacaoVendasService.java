@@ -0,0 +1,317 @@
+package br.com.king.flick_business.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.FormatoExportacao;
+import br.com.king.flick_business.mapper.VendaMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exporta vendas com seus itens (histórico para a contabilidade) direto de um
+ * cursor JDBC para a saída, sem carregar entidades nem a lista inteira: a
+ * memória usada não depende da quantidade de vendas.
+ *
+ * <p>
+ * A consulta roda em uma transação somente leitura com
+ * {@code flick.exportacao.fetch-size}: no PostgreSQL, só assim o driver usa um
+ * cursor no servidor e busca as linhas em blocos, em vez de trazer o resultado
+ * inteiro na primeira leitura. As linhas vêm ordenadas por (data_venda, id da
+ * venda, id do item), então os itens de cada venda chegam juntos.
+ */
+@Slf4j
+@Service
+@Timed("flick.servico")
+public class ExportacaoVendasService {
+
+  static final String[] COLUNAS_CSV = { "venda_id", "data_venda", "cliente_id", "cliente", "forma_pagamento",
+      "valor_total", "observacoes", "item_id", "product_id", "product", "quantidade", "preco_unitario_venda",
+      "valor_total_item" };
+
+  private static final String CONSULTA = "SELECT v.id AS venda_id, v.data_venda, v.valor_total, "
+      + "v.forma_pagamento, v.observacoes, c.id AS cliente_id, c.name AS cliente_name, i.id AS item_id, "
+      + "i.quantidade, i.preco_unitario_venda, p.id AS product_id, p.name AS product_name "
+      + "FROM vendas v "
+      + "LEFT JOIN clientes c ON c.id = v.id_cliente "
+      + "LEFT JOIN itens_venda i ON i.venda_id = v.id "
+      + "LEFT JOIN products p ON p.id = i.product_id "
+      + "WHERE v.data_venda BETWEEN :inicio AND :fim";
+
+  private final NamedParameterJdbcTemplate jdbc;
+  private final ObjectMapper objectMapper;
+
+  public ExportacaoVendasService(DataSource dataSource, ObjectMapper objectMapper,
+      @Value("${flick.exportacao.fetch-size:1000}") int fetchSize) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(fetchSize);
+    this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Escreve em {@code saida} as vendas que atendem aos filtros (os mesmos da
+   * listagem de vendas), no formato pedido. A saída não é fechada.
+   *
+   * @return Quantidade de vendas exportadas
+   */
+  @Transactional(readOnly = true)
+  public long exportar(
+      ZonedDateTime inicio,
+      ZonedDateTime fim,
+      Long clienteId,
+      String formaPagamentoString,
+      Long productId,
+      FormatoExportacao formato,
+      OutputStream saida) {
+    FormaPagamento formaPagamentoFilter = VendaMapper.parseFormaPagamento(formaPagamentoString);
+    ZonedDateTime[] range = VendaMapper.buildDataRange(inicio, fim);
+
+    StringBuilder sql = new StringBuilder(CONSULTA);
+    MapSqlParameterSource parametros = new MapSqlParameterSource()
+        .addValue("inicio", range[0].toOffsetDateTime())
+        .addValue("fim", range[1].toOffsetDateTime());
+    if (clienteId != null) {
+      sql.append(" AND v.id_cliente = :clienteId");
+      parametros.addValue("clienteId", clienteId);
+    }
+    if (formaPagamentoFilter != null) {
+      sql.append(" AND v.forma_pagamento = :formaPagamento");
+      parametros.addValue("formaPagamento", formaPagamentoFilter.name());
+    }
+    if (productId != null) {
+      // A venda sai inteira, com todos os itens, como na listagem
+      sql.append(" AND EXISTS (SELECT 1 FROM itens_venda f")
+          .append(" WHERE f.venda_id = v.id AND f.product_id = :productId)");
+      parametros.addValue("productId", productId);
+    }
+    sql.append(" ORDER BY v.data_venda, v.id, i.id");
+
+    long inicioExportacao = System.nanoTime();
+    try (Escritor escritor = formato == FormatoExportacao.NDJSON
+        ? new EscritorNdjson(saida)
+        : new EscritorCsv(saida)) {
+      jdbc.query(sql.toString(), parametros, (RowCallbackHandler) rs -> escritor.linha(rs));
+      escritor.terminar();
+      log.info("Exportação {}: {} vendas em {} ms", formato, escritor.vendas,
+          (System.nanoTime() - inicioExportacao) / 1_000_000);
+      return escritor.vendas;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao escrever a exportação de vendas", e);
+    }
+  }
+
+  // Mesmo arredondamento de ItemVenda.getValorTotalItem()
+  private static BigDecimal valorTotalItem(BigDecimal quantidade, BigDecimal precoUnitario) {
+    return quantidade.multiply(precoUnitario).setScale(2, RoundingMode.HALF_UP);
+  }
+
+  private abstract static class Escritor implements AutoCloseable {
+    long vendas;
+    private Long vendaAtual;
+
+    void linha(ResultSet rs) throws SQLException {
+      long vendaId = rs.getLong("venda_id");
+      try {
+        if (vendaAtual == null || vendaAtual != vendaId) {
+          if (vendaAtual != null) {
+            fimVenda();
+          }
+          vendaAtual = vendaId;
+          vendas++;
+          inicioVenda(rs);
+        }
+        item(rs);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void terminar() throws IOException {
+      if (vendaAtual != null) {
+        fimVenda();
+      }
+    }
+
+    abstract void inicioVenda(ResultSet rs) throws SQLException, IOException;
+
+    // Chamado também para venda sem itens (colunas do item nulas)
+    abstract void item(ResultSet rs) throws SQLException, IOException;
+
+    abstract void fimVenda() throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+  }
+
+  /**
+   * Uma linha por item (RFC 4180), com as colunas da venda repetidas, pronta
+   * para planilhas.
+   */
+  private static final class EscritorCsv extends Escritor {
+    private final Writer writer;
+    private final String[] venda = new String[7];
+
+    EscritorCsv(OutputStream saida) throws IOException {
+      this.writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+      escreverCampos(COLUNAS_CSV);
+      writer.write("\r\n");
+    }
+
+    @Override
+    void inicioVenda(ResultSet rs) throws SQLException {
+      venda[0] = rs.getString("venda_id");
+      venda[1] = rs.getObject("data_venda", OffsetDateTime.class).toString();
+      venda[2] = rs.getString("cliente_id");
+      venda[3] = rs.getString("cliente_name");
+      venda[4] = rs.getString("forma_pagamento");
+      venda[5] = rs.getBigDecimal("valor_total").toPlainString();
+      venda[6] = rs.getString("observacoes");
+    }
+
+    @Override
+    void item(ResultSet rs) throws SQLException, IOException {
+      BigDecimal quantidade = rs.getBigDecimal("quantidade");
+      BigDecimal precoUnitario = rs.getBigDecimal("preco_unitario_venda");
+      escreverCampos(venda);
+      writer.write(',');
+      escreverCampos(new String[] {
+          rs.getString("item_id"),
+          rs.getString("product_id"),
+          rs.getString("product_name"),
+          quantidade != null ? quantidade.toPlainString() : null,
+          precoUnitario != null ? precoUnitario.toPlainString() : null,
+          quantidade != null ? valorTotalItem(quantidade, precoUnitario).toPlainString() : null });
+      writer.write("\r\n");
+    }
+
+    @Override
+    void fimVenda() {
+      // Cada item já fecha a própria linha
+    }
+
+    private void escreverCampos(String[] campos) throws IOException {
+      for (int i = 0; i < campos.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        escreverCampo(campos[i]);
+      }
+    }
+
+    private void escreverCampo(String valor) throws IOException {
+      if (valor == null) {
+        return;
+      }
+      if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0
+          && valor.indexOf('\r') < 0) {
+        writer.write(valor);
+        return;
+      }
+      writer.write('"');
+      writer.write(valor.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.flush();
+    }
+  }
+
+  /**
+   * Um objeto por venda em cada linha, no formato de VendaResponseDTO com
+   * cliente e product resumidos a id e name.
+   */
+  private final class EscritorNdjson extends Escritor {
+    private final JsonGenerator json;
+
+    EscritorNdjson(OutputStream saida) throws IOException {
+      this.json = objectMapper.getFactory().createGenerator(saida)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .setPrettyPrinter(new MinimalPrettyPrinter(""));
+    }
+
+    @Override
+    void inicioVenda(ResultSet rs) throws SQLException, IOException {
+      json.writeStartObject();
+      json.writeNumberField("id", rs.getLong("venda_id"));
+      json.writeStringField("dataVenda", rs.getObject("data_venda", OffsetDateTime.class).toString());
+      json.writeFieldName("valorTotal");
+      json.writeNumber(rs.getBigDecimal("valor_total").toPlainString());
+      long clienteId = rs.getLong("cliente_id");
+      if (rs.wasNull()) {
+        json.writeNullField("cliente");
+      } else {
+        json.writeObjectFieldStart("cliente");
+        json.writeNumberField("id", clienteId);
+        json.writeStringField("name", rs.getString("cliente_name"));
+        json.writeEndObject();
+      }
+      json.writeStringField("formaPagamento", rs.getString("forma_pagamento"));
+      json.writeStringField("observacoes", rs.getString("observacoes"));
+      json.writeArrayFieldStart("itens");
+    }
+
+    @Override
+    void item(ResultSet rs) throws SQLException, IOException {
+      long itemId = rs.getLong("item_id");
+      if (rs.wasNull()) {
+        return;
+      }
+      BigDecimal quantidade = rs.getBigDecimal("quantidade");
+      BigDecimal precoUnitario = rs.getBigDecimal("preco_unitario_venda");
+      json.writeStartObject();
+      json.writeNumberField("id", itemId);
+      json.writeObjectFieldStart("product");
+      json.writeNumberField("id", rs.getLong("product_id"));
+      json.writeStringField("name", rs.getString("product_name"));
+      json.writeEndObject();
+      json.writeFieldName("quantidade");
+      json.writeNumber(quantidade.toPlainString());
+      json.writeFieldName("precoUnitarioVenda");
+      json.writeNumber(precoUnitario.toPlainString());
+      json.writeFieldName("valorTotalItem");
+      json.writeNumber(valorTotalItem(quantidade, precoUnitario).toPlainString());
+      json.writeEndObject();
+    }
+
+    @Override
+    void fimVenda() throws IOException {
+      json.writeEndArray();
+      json.writeEndObject();
+      json.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+      json.close();
+    }
+  }
+}
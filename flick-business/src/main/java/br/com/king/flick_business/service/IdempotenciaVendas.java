@@ -0,0 +1,325 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.ChaveIdempotenciaVenda;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoJaCadastrado;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chaves de idempotência do registro de vendas: o caixa envia a mesma chave
+ * (cabeçalho {@value #CABECALHO}) ao repetir um POST cuja resposta se perdeu, e
+ * recebe a venda já registrada em vez de registrar outra.
+ *
+ * <p>
+ * A chave é gravada em chaves_idempotencia_venda na transação da venda, antes
+ * de qualquer alteração de estoque ou saldo: uma repetição concorrente espera
+ * o commit da primeira no INSERT e então devolve a venda dela; se a primeira
+ * falhar, a chave volta a ficar livre. As vendas confirmadas recentemente
+ * ficam também em memória, e a repetição é respondida sem consultar o banco.
+ * Chaves valem por {@code flick.idempotencia.validade}; as vencidas são
+ * apagadas por um agendador próprio a cada {@code flick.idempotencia.limpeza},
+ * em transação própria, fora das vendas.
+ */
+@Slf4j
+@Component
+public class IdempotenciaVendas {
+  public static final String CABECALHO = "Idempotency-Key";
+  static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+  private record Registro(long impressaoDigital, VendaResponseDTO venda) {
+  }
+
+  /**
+   * Registro em lote: venda já registrada com uma chave.
+   *
+   * @param venda Resposta da venda, quando estava em memória; nula se veio do
+   *              banco (ver {@link #carregarRegistrada})
+   */
+  record Registrada(long impressaoDigital, Long vendaId, VendaResponseDTO venda) {
+  }
+
+  private final ChaveIdempotenciaVendaRepository chaveRepository;
+  private final VendaRepository vendaRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transacaoPropria;
+  private final Duration validade;
+  private final Duration limpeza;
+  private final Cache<String, Registro> recentes;
+  private ScheduledExecutorService agendador;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public IdempotenciaVendas(ChaveIdempotenciaVendaRepository chaveRepository, VendaRepository vendaRepository,
+      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+      @Value("${flick.idempotencia.validade:24h}") Duration validade,
+      @Value("${flick.idempotencia.limpeza:1h}") Duration limpeza,
+      @Value("${flick.idempotencia.cache.tamanho-maximo:10000}") long tamanhoMaximo) {
+    this.chaveRepository = chaveRepository;
+    this.vendaRepository = vendaRepository;
+    this.eventPublisher = eventPublisher;
+    this.transacaoPropria = new TransactionTemplate(transactionManager);
+    this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.validade = validade;
+    this.limpeza = limpeza;
+    this.recentes = Caffeine.newBuilder()
+        .maximumSize(tamanhoMaximo)
+        .expireAfterWrite(validade)
+        .build();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void iniciar() {
+    agendador = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("flick-idempotencia-limpeza").daemon().factory());
+    agendador.scheduleWithFixedDelay(this::limparComTratamento, limpeza.toMillis(), limpeza.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void encerrar() {
+    if (agendador != null) {
+      agendador.shutdown();
+    }
+  }
+
+  /**
+   * Reserva {@code chave} para a venda que a transação corrente vai registrar.
+   *
+   * @return A venda já registrada com a chave, ou vazio se a chave ficou
+   *         reservada (chamar {@link #concluir} depois de registrar)
+   * @throws RecursoJaCadastrado se a chave foi usada com outra requisição
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Optional<VendaResponseDTO> reservar(String chave, VendaRequestDTO requestDTO) {
+    Optional<VendaResponseDTO> recente = buscarRecente(chave, requestDTO);
+    if (recente.isPresent()) {
+      return recente;
+    }
+    long impressaoDigital = impressaoDigital(requestDTO);
+
+    ZonedDateTime agora = ZonedDateTime.now();
+    for (int tentativa = 0; tentativa < 2; tentativa++) {
+      if (chaveRepository.reservar(chave, impressaoDigital, agora) == 1) {
+        return Optional.empty();
+      }
+      Optional<ChaveIdempotenciaVenda> existente = chaveRepository.findById(chave);
+      if (existente.isPresent() && !existente.get().getCriadoEm().isBefore(agora.minus(validade))) {
+        Registro registro = new Registro(existente.get().getImpressaoDigital(),
+            carregarVenda(chave, existente.get().getVendaId()));
+        recentes.put(chave, registro);
+        return Optional.of(repetida(chave, registro, impressaoDigital));
+      }
+      // Expirada (ou apagada entre o INSERT e a leitura): tenta de novo
+      chaveRepository.deleteExpirada(chave, agora.minus(validade));
+    }
+    throw new IllegalStateException("Não foi possível reservar a chave de idempotência " + chave);
+  }
+
+  /**
+   * Venda confirmada recentemente com {@code chave}, da memória, sem consultar o
+   * banco nem exigir transação.
+   *
+   * @return A venda, ou vazio se a chave não estiver em memória
+   * @throws RecursoJaCadastrado se a chave foi usada com outra requisição
+   */
+  public Optional<VendaResponseDTO> buscarRecente(String chave, VendaRequestDTO requestDTO) {
+    validar(chave);
+    Registro recente = recentes.getIfPresent(chave);
+    if (recente == null) {
+      return Optional.empty();
+    }
+    return Optional.of(repetida(chave, recente, impressaoDigital(requestDTO)));
+  }
+
+  /**
+   * Associa a chave reservada à venda registrada. A venda passa a ser devolvida
+   * da memória depois do commit.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void concluir(String chave, VendaRequestDTO requestDTO, VendaResponseDTO venda) {
+    chaveRepository.concluir(chave, venda.id());
+    eventPublisher.publishEvent(new VendaIdempotenteRegistrada(chave, impressaoDigital(requestDTO), venda));
+  }
+
+  /**
+   * Registro em lote: vendas já registradas com as chaves de {@code chaves} ainda
+   * válidas, por chave. As confirmadas recentemente vêm da memória, com a
+   * venda; só as demais são consultadas no banco. As vencidas encontradas são
+   * apagadas, para poderem ser gravadas de novo.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Map<String, Registrada> buscarVigentes(Collection<String> chaves) {
+    Map<String, Registrada> vigentes = new HashMap<>();
+    List<String> foraDaMemoria = new ArrayList<>();
+    for (String chave : chaves) {
+      Registro recente = recentes.getIfPresent(chave);
+      if (recente != null) {
+        vigentes.put(chave, new Registrada(recente.impressaoDigital(), recente.venda().id(), recente.venda()));
+      } else {
+        foraDaMemoria.add(chave);
+      }
+    }
+    if (foraDaMemoria.isEmpty()) {
+      return vigentes;
+    }
+    ZonedDateTime limite = ZonedDateTime.now().minus(validade);
+    for (ChaveIdempotenciaVenda existente : chaveRepository.findAllById(foraDaMemoria)) {
+      if (existente.getCriadoEm().isBefore(limite)) {
+        chaveRepository.deleteExpirada(existente.getChave(), limite);
+      } else {
+        vigentes.put(existente.getChave(),
+            new Registrada(existente.getImpressaoDigital(), existente.getVendaId(), null));
+      }
+    }
+    return vigentes;
+  }
+
+  /**
+   * Registro em lote: venda registrada com {@code chave}, lida do banco e
+   * guardada em memória para as próximas repetições.
+   *
+   * @throws RecursoNaoEncontrado se a venda foi removida
+   */
+  public VendaResponseDTO carregarRegistrada(String chave, long impressaoDigital, Long vendaId) {
+    return recentes.get(chave, k -> new Registro(impressaoDigital, carregarVenda(chave, vendaId))).venda();
+  }
+
+  /**
+   * Registro em lote: grava de uma vez (INSERTs em lote) as chaves das vendas já
+   * registradas, sem reserva prévia. Uma chave gravada ao mesmo tempo por outra
+   * transação faz o flush falhar com DataIntegrityViolationException. Como em
+   * {@link #concluir}, as vendas passam a ser devolvidas da memória depois do
+   * commit.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void gravarLote(List<VendaIdempotenteRegistrada> registradas) {
+    ZonedDateTime agora = ZonedDateTime.now();
+    registradas.forEach(registrada -> entityManager.persist(new ChaveIdempotenciaVenda(registrada.chave(),
+        registrada.impressaoDigital(), registrada.venda().id(), agora)));
+    chaveRepository.flush();
+    registradas.forEach(eventPublisher::publishEvent);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoRegistrarVenda(VendaIdempotenteRegistrada evento) {
+    recentes.put(evento.chave(), new Registro(evento.impressaoDigital(), evento.venda()));
+  }
+
+  /**
+   * Hash (SHA-256, 64 bits) do conteúdo da requisição, para recusar a mesma
+   * chave com outra venda. Quantidades iguais em escalas diferentes (2 e 2.0)
+   * geram o mesmo valor.
+   */
+  static long impressaoDigital(VendaRequestDTO requestDTO) {
+    StringBuilder conteudo = new StringBuilder()
+        .append(requestDTO.idCliente()).append('|')
+        .append(requestDTO.formaPagamento()).append('|')
+        .append(requestDTO.observacoes()).append('|');
+    for (ItemVendaRequestDTO item : requestDTO.itens()) {
+      BigDecimal quantidade = item.quantidade();
+      conteudo.append(item.idProduct()).append('=')
+          .append(quantidade != null ? quantidade.stripTrailingZeros().toPlainString() : null).append(';');
+    }
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(conteudo.toString().getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(hash).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  static void validar(String chave) {
+    if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+      throw new BusinessException("O cabeçalho " + CABECALHO + " deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE
+          + " caracteres.");
+    }
+  }
+
+  private static VendaResponseDTO repetida(String chave, Registro registro, long impressaoDigital) {
+    if (registro.impressaoDigital() != impressaoDigital) {
+      throw chaveUsadaEmOutraVenda(chave);
+    }
+    log.info("Venda {} devolvida para a chave de idempotência repetida {}", registro.venda().id(), chave);
+    return registro.venda();
+  }
+
+  static RecursoJaCadastrado chaveUsadaEmOutraVenda(String chave) {
+    return new RecursoJaCadastrado("A chave de idempotência " + chave + " já foi usada em outra venda.");
+  }
+
+  private VendaResponseDTO carregarVenda(String chave, Long vendaId) {
+    if (vendaId == null) {
+      throw new IllegalStateException("Chave de idempotência " + chave + " sem venda associada");
+    }
+    return vendaRepository.findByIdComItensECliente(vendaId)
+        .map(VendaResponseDTO::new)
+        .orElseThrow(() -> new RecursoNaoEncontrado(
+            "A venda " + vendaId + ", registrada com a chave de idempotência " + chave + ", foi removida."));
+  }
+
+  /**
+   * Apaga as chaves vencidas. Chamado pelo agendador; não deve rodar dentro de
+   * outra transação.
+   *
+   * @return Número de chaves apagadas
+   */
+  int limparVencidas() {
+    Integer apagadas = transacaoPropria.execute(
+        status -> chaveRepository.deleteCriadasAntesDe(ZonedDateTime.now().minus(validade)));
+    log.debug("Chaves de idempotência vencidas apagadas: {}", apagadas);
+    return apagadas;
+  }
+
+  // Uma falha não cancela as próximas limpezas agendadas
+  private void limparComTratamento() {
+    try {
+      limparVencidas();
+    } catch (RuntimeException e) {
+      log.error("Falha ao apagar as chaves de idempotência vencidas", e);
+    }
+  }
+}
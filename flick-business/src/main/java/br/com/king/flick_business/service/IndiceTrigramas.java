@@ -0,0 +1,207 @@
+package br.com.king.flick_business.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de names em memória, equivalente ao pg_trgm usado no PostgreSQL
+ * (db/migracao/003_busca_trigramas.sql): names normalizados (minúsculas, sem
+ * acentos), mapa ordenado para prefixo, trigramas do name inteiro para trecho
+ * e trigramas por palavra (com as margens do pg_trgm) para semelhança.
+ *
+ * <p>
+ * A busca devolve, nesta ordem: names que começam com o termo, names que
+ * contêm o termo e names parecidos com o termo (erros de digitação), com
+ * semelhança a partir de {@link #SEMELHANCA_MINIMA}. Não é thread-safe: quem
+ * usa sincroniza.
+ */
+final class IndiceTrigramas {
+
+  // Mesmo limiar do operador <% (pg_trgm.word_similarity_threshold)
+  static final double SEMELHANCA_MINIMA = 0.6;
+
+  private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+  private static final Pattern ESPACOS = Pattern.compile("\\s+");
+  private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int TAMANHO_TRIGRAMA = 3;
+
+  private final Map<Long, String> names = new HashMap<>();
+  private final NavigableMap<String, Long> porName = new TreeMap<>();
+  private final Map<String, Set<Long>> trechos = new HashMap<>();
+  private final Map<String, Set<Long>> palavras = new HashMap<>();
+  private final Comparator<Long> ordemName = Comparator.comparing((Long id) -> names.get(id))
+      .thenComparing(Comparator.naturalOrder());
+
+  void adicionar(Long id, String name) {
+    remover(id);
+    String normalizado = normalizar(name);
+    names.put(id, normalizado);
+    porName.put(chave(normalizado, id), id);
+    indexar(trechos, trigramas(normalizado), id);
+    indexar(palavras, trigramasPorPalavra(normalizado), id);
+  }
+
+  void remover(Long id) {
+    String normalizado = names.remove(id);
+    if (normalizado == null) {
+      return;
+    }
+    porName.remove(chave(normalizado, id));
+    desindexar(trechos, trigramas(normalizado), id);
+    desindexar(palavras, trigramasPorPalavra(normalizado), id);
+  }
+
+  int tamanho() {
+    return names.size();
+  }
+
+  /**
+   * IDs dos names que combinam com {@code termo}: prefixo e trecho em ordem de
+   * name, depois os parecidos da maior para a menor semelhança.
+   */
+  List<Long> buscar(String termo, int limite) {
+    String busca = normalizar(termo);
+    if (busca.isEmpty() || limite < 1) {
+      return List.of();
+    }
+
+    Set<Long> encontrados = new LinkedHashSet<>();
+    for (Long id : porName.subMap(busca, true, busca + Character.MAX_VALUE, false).values()) {
+      if (encontrados.size() >= limite) {
+        return List.copyOf(encontrados);
+      }
+      encontrados.add(id);
+    }
+
+    for (Long id : candidatosPorTrecho(busca)) {
+      if (encontrados.size() >= limite) {
+        return List.copyOf(encontrados);
+      }
+      if (names.get(id).contains(busca)) {
+        encontrados.add(id);
+      }
+    }
+
+    if (busca.length() >= TAMANHO_TRIGRAMA) {
+      for (Long id : semelhantes(busca, encontrados)) {
+        if (encontrados.size() >= limite) {
+          break;
+        }
+        encontrados.add(id);
+      }
+    }
+    return List.copyOf(encontrados);
+  }
+
+  private Collection<Long> candidatosPorTrecho(String busca) {
+    if (busca.length() < TAMANHO_TRIGRAMA) {
+      // Trecho curto demais para trigramas: varre os names em ordem
+      return porName.values();
+    }
+    List<Set<Long>> listas = new ArrayList<>();
+    for (String trigrama : trigramas(busca)) {
+      Set<Long> ids = trechos.get(trigrama);
+      if (ids == null) {
+        return List.of();
+      }
+      listas.add(ids);
+    }
+    // Interseção a partir da menor lista; o contains() final confirma a ordem
+    listas.sort(Comparator.comparingInt(Set::size));
+    Set<Long> candidatos = new HashSet<>(listas.get(0));
+    for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+      candidatos.retainAll(listas.get(i));
+    }
+    List<Long> ordenados = new ArrayList<>(candidatos);
+    ordenados.sort(ordemName);
+    return ordenados;
+  }
+
+  // Aproxima word_similarity(termo, name) pela fração dos trigramas do termo
+  // presentes no name, que é o mesmo filtro que o índice GIN aplica
+  private List<Long> semelhantes(String busca, Set<Long> ignorados) {
+    Set<String> alvo = trigramasPorPalavra(busca);
+    Map<Long, Integer> comuns = new HashMap<>();
+    for (String trigrama : alvo) {
+      Set<Long> ids = palavras.get(trigrama);
+      if (ids != null) {
+        for (Long id : ids) {
+          comuns.merge(id, 1, Integer::sum);
+        }
+      }
+    }
+    double minimo = SEMELHANCA_MINIMA * alvo.size();
+    List<Long> semelhantes = new ArrayList<>();
+    comuns.forEach((id, quantidade) -> {
+      if (quantidade >= minimo && !ignorados.contains(id)) {
+        semelhantes.add(id);
+      }
+    });
+    semelhantes.sort(Comparator.comparing((Long id) -> comuns.get(id)).reversed().thenComparing(ordemName));
+    return semelhantes;
+  }
+
+  private static String chave(String normalizado, Long id) {
+    return normalizado + '\0' + id;
+  }
+
+  private static void indexar(Map<String, Set<Long>> indice, Set<String> trigramas, Long id) {
+    for (String trigrama : trigramas) {
+      indice.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+    }
+  }
+
+  private static void desindexar(Map<String, Set<Long>> indice, Set<String> trigramas, Long id) {
+    for (String trigrama : trigramas) {
+      Set<Long> ids = indice.get(trigrama);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        indice.remove(trigrama);
+      }
+    }
+  }
+
+  private static Set<String> trigramas(String texto) {
+    Set<String> trigramas = new HashSet<>();
+    for (int i = 0; i + TAMANHO_TRIGRAMA <= texto.length(); i++) {
+      trigramas.add(texto.substring(i, i + TAMANHO_TRIGRAMA));
+    }
+    return trigramas;
+  }
+
+  // Como o pg_trgm: cada palavra ganha dois espaços antes e um depois, para que
+  // início e fim de palavra pesem na semelhança
+  private static Set<String> trigramasPorPalavra(String texto) {
+    Set<String> trigramas = new HashSet<>();
+    for (String palavra : SEPARADORES.split(texto)) {
+      if (!palavra.isEmpty()) {
+        trigramas.addAll(trigramas("  " + palavra + " "));
+      }
+    }
+    return trigramas;
+  }
+
+  /**
+   * Minúsculas, sem acentos e com espaços simples; mesma regra da função
+   * {@code flick_normalizar} do PostgreSQL.
+   */
+  static String normalizar(String texto) {
+    if (texto == null) {
+      return "";
+    }
+    String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+    return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+  }
+}
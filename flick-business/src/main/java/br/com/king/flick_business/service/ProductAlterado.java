@@ -0,0 +1,9 @@
+package br.com.king.flick_business.service;
+
+/**
+ * Publicado quando o cadastro de um product (name, barcode, preço, unidade ou
+ * situação) muda na transação corrente. Baixas e estornos de estoque não
+ * publicam este evento.
+ */
+public record ProductAlterado(Long productId) {
+}
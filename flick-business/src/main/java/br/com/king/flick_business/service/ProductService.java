@@ -2,58 +2,76 @@ package br.com.king.flick_business.service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.dto.ProductListagemDTO;
 import br.com.king.flick_business.dto.ProductRequestDTO;
 import br.com.king.flick_business.dto.ProductResponseDTO;
 import br.com.king.flick_business.entity.Category;
 import br.com.king.flick_business.entity.Provider;
+import br.com.king.flick_business.enums.JanelaVendas;
 import br.com.king.flick_business.entity.Product;
 import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.mapper.ProductMapper;
 import br.com.king.flick_business.repository.ProductRepository;
 import br.com.king.flick_business.repository.spec.ProductSpecification;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@Timed("flick.servico")
 public class ProductService {
 
   private final ProductRepository productRepository;
   private final ProductMapper productMapper;
   private final CategoryService categoryService;
   private final ProviderService providerService;
+  private final CatalogoProducts catalogoProducts;
+  private final BuscaTrigramas buscaTrigramas;
+  private final EstoqueService estoqueService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public ProductService(ProductRepository productRepository,
       ProductMapper productMapper,
       CategoryService categoryService,
-      ProviderService providerService) {
+      ProviderService providerService,
+      CatalogoProducts catalogoProducts,
+      BuscaTrigramas buscaTrigramas,
+      EstoqueService estoqueService,
+      ApplicationEventPublisher eventPublisher) {
     this.productRepository = productRepository;
     this.productMapper = productMapper;
     this.categoryService = categoryService;
     this.providerService = providerService;
+    this.catalogoProducts = catalogoProducts;
+    this.buscaTrigramas = buscaTrigramas;
+    this.estoqueService = estoqueService;
+    this.eventPublisher = eventPublisher;
   }
 
   @Transactional
   public ProductResponseDTO salvar(ProductRequestDTO requestDTO) {
-    System.out.println("LOG: ProductService.salvar - categoryId recebido: " + requestDTO.categoryId());
     Category category = categoryService.buscarEntidadePorId(requestDTO.categoryId());
-    System.out
-        .println(
-            "LOG: ProductService.salvar - Category buscada: " + (category != null ? category.getName() : "NULA"));
     Provider provider = null;
     if (requestDTO.providerId() != null) {
       provider = providerService.buscarEntidadePorId(requestDTO.providerId());
     }
     Product product = productMapper.toEntity(requestDTO, category, provider);
-    System.out.println("LOG: ProductService.salvar - Product mapeado par salvar, category do product: "
-        + (product.getCategory() != null ? product.getCategory().getName() : "NULA"));
     Product productSalvo = productRepository.save(product);
-    System.out.println(
-        "LOG: ProductService.salvar - Product salvo, category do productSalvo: "
-            + (productSalvo.getCategory() != null ? productSalvo.getCategory().getName() : "NULA"));
+    estoqueService.registrarEstoqueInicial(productSalvo);
+    eventPublisher.publishEvent(new ProductAlterado(productSalvo.getId()));
+    log.info("Product {} salvo: categoryId={}", productSalvo.getId(), requestDTO.categoryId());
     return productMapper.toResponseDTO(productSalvo);
   }
 
@@ -61,10 +79,7 @@ public class ProductService {
   public ProductResponseDTO atualizar(Long id, ProductRequestDTO requestDTO) {
     Product productExistente = productRepository.findById(id)
         .orElseThrow(() -> new RecursoNaoEncontrado("Product não encontrado com ID: " + id));
-    System.out.println("LOG: ProductService.atualizar - categoryId recebido: " + (requestDTO.categoryId()));
     Category novaCategory = categoryService.buscarEntidadePorId(requestDTO.categoryId());
-    System.out.println("LOG: ProductService.atualizar - category buscada: "
-        + (novaCategory != null ? novaCategory.getName() : "NULA"));
     Provider novoProvider;
     if (requestDTO.providerId() != null) {
       novoProvider = providerService.buscarEntidadePorId(requestDTO.providerId());
@@ -73,25 +88,29 @@ public class ProductService {
     } else {
       novoProvider = null;
     }
+    BigDecimal estoqueAnterior = productExistente.getStockQuantity();
     productMapper.updateEntityFromDTO(requestDTO, productExistente, novaCategory, novoProvider);
+    // A quantidade informada vira ajuste no livro de estoque
+    estoqueService.registrarEdicao(productExistente, estoqueAnterior);
     Product productAtualizado = productRepository.save(productExistente);
+    eventPublisher.publishEvent(new ProductAlterado(id));
 
-    System.out.println("LOG: ProductService.atualizar - productMapper: " + (productMapper));
-    System.out.println("LOG: ProductService.atualizar - product: " + (productAtualizado));
+    log.info("Product {} atualizado: categoryId={}", id, requestDTO.categoryId());
     return productMapper.toResponseDTO(productAtualizado);
   }
 
   @Transactional(readOnly = true)
-  public List<ProductResponseDTO> listProducts(String name, Long categoryId, String orderBy) {
+  public List<ProductListagemDTO> listProducts(String name, Long categoryId, String orderBy,
+      JanelaVendas janelaVendas) {
+    Specification<Product> filtros = ProductSpecification.withFilter(name, categoryId);
     if ("maisVendido".equalsIgnoreCase(orderBy) || "menosVendido".equalsIgnoreCase(orderBy)) {
-      List<Product> products = productRepository.findWithFiltersAndSortByVendas(name, categoryId);
-      return productMapper.toResponseDTOList(products);
-
+      // Quantidades mantidas em ranking_vendas_product; as janelas são recalculadas
+      // pelo agendador do RankingVendasService, fora desta transação
+      Sort.Direction direcao = "menosVendido".equalsIgnoreCase(orderBy) ? Sort.Direction.ASC : Sort.Direction.DESC;
+      return productRepository.findListagemPorVendas(filtros,
+          janelaVendas != null ? janelaVendas : JanelaVendas.TOTAL, direcao);
     }
-    Sort sort = createSort(orderBy);
-    Specification<Product> spec = ProductSpecification.withFilter(name, categoryId);
-    List<Product> products = productRepository.findAll(spec, sort);
-    return productMapper.toResponseDTOList(products);
+    return productRepository.findListagem(filtros, createSort(orderBy));
   }
 
   private Sort createSort(String orderBy) {
@@ -102,10 +121,10 @@ public class ProductService {
     return switch (orderBy) {
       case "nameDesc" -> Sort.by(Sort.Direction.DESC, "name");
       case "nameAsc" -> Sort.by(Sort.Direction.ASC, "name");
-      case "maisBarato" -> Sort.by(Sort.Direction.ASC, "precoVenda");
-      case "maisCaro" -> Sort.by(Sort.Direction.DESC, "precoVenda");
-      case "maisAntigo" -> Sort.by(Sort.Direction.ASC, "criadoEm");
-      case "maisRecente" -> Sort.by(Sort.Direction.DESC, "criadoEm");
+      case "maisBarato" -> Sort.by(Sort.Direction.ASC, "salePrice");
+      case "maisCaro" -> Sort.by(Sort.Direction.DESC, "salePrice");
+      case "maisAntigo" -> Sort.by(Sort.Direction.ASC, "createdAt");
+      case "maisRecente" -> Sort.by(Sort.Direction.DESC, "createdAt");
       default -> Sort.by(Sort.Direction.ASC, "name");
     };
   }
@@ -161,6 +180,7 @@ public class ProductService {
 
     // 5. Salva a nova entidade
     Product productCopiado = productRepository.save(copia);
+    eventPublisher.publishEvent(new ProductAlterado(productCopiado.getId()));
 
     // 6. Retorna o DTO
     return productMapper.toResponseDTO(productCopiado);
@@ -168,11 +188,35 @@ public class ProductService {
 
   @Transactional(readOnly = true)
   public ProductResponseDTO buscarPorId(Long id) {
-    Product product = productRepository.findById(id)
+    Product product = productRepository.findByIdWithCategoryAndProvider(id)
         .orElseThrow(() -> new RecursoNaoEncontrado("Product não encontrado com ID: " + id));
     return productMapper.toResponseDTO(product);
   }
 
+  // Consultas do caixa: barcode sempre pelo catálogo em memória; name pelo
+  // pg_trgm quando disponível (ver BuscaTrigramas), senão também pelo catálogo
+  public ProductCatalogoDTO buscarPorBarcode(String barcode) {
+    return catalogoProducts.buscarPorBarcode(barcode)
+        .orElseThrow(() -> new RecursoNaoEncontrado("Product active não encontrado com código de barras: " + barcode));
+  }
+
+  public List<ProductCatalogoDTO> buscarNoCatalogo(String termo, int limite) {
+    if (!buscaTrigramas.noBanco()) {
+      return catalogoProducts.buscarPorName(termo, limite);
+    }
+    if (termo == null || termo.isBlank() || limite < 1) {
+      return List.of();
+    }
+    List<Long> ids = productRepository.findIdsPorBuscaTrigramas(termo, BuscaTrigramas.padraoLike(termo), limite);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, ProductCatalogoDTO> productsPorId = productRepository.findCatalogoByIdIn(ids).stream()
+        .collect(Collectors.toMap(ProductCatalogoDTO::id, Function.identity()));
+    // O IN não preserva a ordem: reaplica o ranking da busca
+    return ids.stream().map(productsPorId::get).filter(Objects::nonNull).toList();
+  }
+
   @Transactional
   public void deleteLogicamente(Long id) {
     Product product = productRepository.findById(id)
@@ -183,6 +227,7 @@ public class ProductService {
       product.setActive(true);
     }
     productRepository.save(product);
+    eventPublisher.publishEvent(new ProductAlterado(id));
   }
 
   @Transactional
@@ -193,6 +238,7 @@ public class ProductService {
       // venda. Considere Desativalo.
     }
     productRepository.deleteById(id);
+    eventPublisher.publishEvent(new ProductAlterado(id));
   }
 
   // TODO: ProductService.copiarProduct
@@ -5,11 +5,13 @@ import br.com.king.flick_business.entity.Provider;
 import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.mapper.ProviderMapper;
 import br.com.king.flick_business.repository.ProviderRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Service
+@Timed("flick.servico")
 public class ProviderService {
   private final ProviderRepository providerRepository;
 
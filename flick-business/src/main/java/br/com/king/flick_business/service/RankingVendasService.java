@@ -0,0 +1,169 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.king.flick_business.repository.RankingVendasProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém ranking_vendas_product, a quantidade vendida de cada product desde
+ * sempre e nos últimos 30 e 90 dias, usada na listagem por mais/menos vendidos.
+ *
+ * <p>
+ * Cada item de venda registrada ou removida soma (ou subtrai) sua quantidade
+ * com UPDATE relativo, na transação da venda (chamado pelo
+ * {@link ResumoDiarioService}). As janelas de 30 e 90 dias andam com o
+ * calendário: um agendador próprio confere a cada
+ * {@code flick.ranking.verificacao} se o dia virou (ou se houve
+ * {@link ResumoDiarioReconstruido}) e então recria todas as linhas a partir de
+ * resumo_diario_product, em transação própria, fora das requisições. Até lá a
+ * listagem usa as janelas do dia anterior. A recriação também roda na
+ * inicialização, o que corrige bancos em que a tabela ainda não existia quando
+ * as vendas foram registradas.
+ */
+@Slf4j
+@Service
+@Timed("flick.servico")
+public class RankingVendasService {
+  static final int DIAS_JANELA_CURTA = 30;
+  static final int DIAS_JANELA_LONGA = 90;
+
+  // Dia de referência e geração do resumo lidos pela última recriação
+  private record Janelas(LocalDate dia, long geracao) {
+  }
+
+  private final RankingVendasProductRepository rankingRepository;
+  private final TransactionTemplate transacaoPropria;
+  private final Duration verificacao;
+  private final Object reconstrucao = new Object();
+  // Incrementada a cada ResumoDiarioReconstruido: janelas recriadas a partir de
+  // uma geração anterior estão velhas, mesmo que sejam de hoje
+  private final AtomicLong geracao = new AtomicLong();
+  // Janelas gravadas; null = ainda não calculadas
+  private volatile Janelas janelas;
+  private ScheduledExecutorService agendador;
+
+  public RankingVendasService(RankingVendasProductRepository rankingRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${flick.ranking.verificacao:1m}") Duration verificacao) {
+    this.rankingRepository = rankingRepository;
+    this.transacaoPropria = new TransactionTemplate(transactionManager);
+    this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.verificacao = verificacao;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void iniciar() {
+    garantirJanelasComTratamento();
+    agendador = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("flick-ranking-vendas").daemon().factory());
+    agendador.scheduleWithFixedDelay(this::garantirJanelasComTratamento, verificacao.toMillis(),
+        verificacao.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void encerrar() {
+    if (agendador != null) {
+      agendador.shutdown();
+    }
+  }
+
+  /**
+   * Soma {@code quantidade} (negativa no estorno) às vendas do product. Deve
+   * rodar na transação da venda, na ordem de ID do product.
+   */
+  public void somar(LocalDate dia, Long productId, BigDecimal quantidade) {
+    LocalDate hoje = hoje();
+    BigDecimal ultimos30Dias = naJanela(dia, hoje, DIAS_JANELA_CURTA) ? quantidade : BigDecimal.ZERO;
+    BigDecimal ultimos90Dias = naJanela(dia, hoje, DIAS_JANELA_LONGA) ? quantidade : BigDecimal.ZERO;
+    if (rankingRepository.somar(productId, quantidade, ultimos30Dias, ultimos90Dias) == 0) {
+      rankingRepository.garantirLinha(productId);
+      rankingRepository.somar(productId, quantidade, ultimos30Dias, ultimos90Dias);
+    }
+  }
+
+  /**
+   * Recalcula as janelas se ainda não foram calculadas hoje. Chamado pelo
+   * agendador; não deve rodar dentro de outra transação.
+   */
+  public void garantirJanelasDeHoje() {
+    garantirJanelas(hoje());
+  }
+
+  // Janelas contadas a partir de "hoje" (os testes simulam a virada do dia)
+  void garantirJanelas(LocalDate hoje) {
+    if (atualizadas(hoje)) {
+      return;
+    }
+    synchronized (reconstrucao) {
+      if (!atualizadas(hoje)) {
+        // Lida antes da recriação: uma reconstrução do resumo confirmada
+        // durante ela deixa estas janelas velhas, e a próxima verificação as
+        // recria de novo
+        long geracaoLida = geracao.get();
+        transacaoPropria.executeWithoutResult(status -> reconstruir(hoje));
+        janelas = new Janelas(hoje, geracaoLida);
+      }
+    }
+  }
+
+  // Recalculadas na próxima verificação do agendador
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoReconstruirResumo(ResumoDiarioReconstruido evento) {
+    geracao.incrementAndGet();
+  }
+
+  private boolean atualizadas(LocalDate hoje) {
+    Janelas atuais = janelas;
+    return atuais != null && atuais.dia().equals(hoje) && atuais.geracao() == geracao.get();
+  }
+
+  // Uma falha não cancela as próximas verificações agendadas
+  private void garantirJanelasComTratamento() {
+    try {
+      garantirJanelasDeHoje();
+    } catch (RuntimeException e) {
+      log.error("Falha ao recalcular as janelas do ranking de vendas", e);
+    }
+  }
+
+  private void reconstruir(LocalDate hoje) {
+    long inicio = System.nanoTime();
+    rankingRepository.deleteAllInBatch();
+    int products = rankingRepository.inserirDoResumoDiario(inicioJanela(hoje, DIAS_JANELA_CURTA),
+        inicioJanela(hoje, DIAS_JANELA_LONGA));
+    log.info("Ranking de vendas recalculado para {}: {} products em {} ms", hoje, products,
+        (System.nanoTime() - inicio) / 1_000_000);
+  }
+
+  private static boolean naJanela(LocalDate dia, LocalDate hoje, int dias) {
+    return !dia.isBefore(inicioJanela(hoje, dias));
+  }
+
+  private static LocalDate inicioJanela(LocalDate hoje, int dias) {
+    return hoje.minusDays(dias - 1L);
+  }
+
+  private static LocalDate hoje() {
+    return ResumoDiarioService.diaDe(ZonedDateTime.now());
+  }
+}
@@ -0,0 +1,202 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.VendaLoteItemRequestDTO;
+import br.com.king.flick_business.exception.ConsultaExpirada;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Porta de entrada do registro de vendas (POST /api/vendas).
+ *
+ * <p>
+ * No modo {@code IMEDIATO} (padrão) cada venda é registrada pelo
+ * {@link VendaService} na sua própria transação. No modo {@code AGRUPADO}
+ * (group commit) as vendas entram em uma fila e uma thread as grava em grupos,
+ * cada grupo em uma transação (um commit) pelo {@link VendaLoteService}: o grupo
+ * fecha com {@code flick.vendas.registro.grupo-maximo} vendas ou
+ * {@code flick.vendas.registro.espera} depois da primeira. Estoque e limite
+ * fiado continuam conferidos venda a venda, na ordem de chegada, e cada
+ * requisição recebe a própria venda ou a própria exceção, como no modo
+ * imediato. Com a fila cheia, quem chega espera vaga. Quem espera mais que
+ * {@code flick.vendas.registro.timeout} recebe {@link ConsultaExpirada} (503):
+ * se a venda ainda estava na fila ela sai dela e não é registrada; senão o
+ * resultado é incerto e a repetição com a mesma Idempotency-Key o esclarece.
+ * A repetição de uma venda confirmada recentemente é respondida da memória do
+ * {@link IdempotenciaVendas}, sem entrar na fila.
+ */
+@Slf4j
+@Component
+public class RegistroVendasAgrupado {
+  // Quanto a thread ociosa demora a notar o encerramento
+  private static final long ESPERA_ENCERRAMENTO_MS = 200;
+
+  public enum Modo {
+    IMEDIATO, AGRUPADO
+  }
+
+  private record Pedido(VendaLoteItemRequestDTO venda, CompletableFuture<VendaResponseDTO> resposta) {
+  }
+
+  private final VendaService vendaService;
+  private final VendaLoteService vendaLoteService;
+  private final IdempotenciaVendas idempotenciaVendas;
+  private final Modo modo;
+  private final int grupoMaximo;
+  private final Duration espera;
+  private final Duration timeout;
+  private final BlockingQueue<Pedido> fila;
+  private final Thread gravadora;
+  private volatile boolean ativo = true;
+
+  public RegistroVendasAgrupado(VendaService vendaService, VendaLoteService vendaLoteService,
+      IdempotenciaVendas idempotenciaVendas,
+      @Value("${flick.vendas.registro.modo:IMEDIATO}") Modo modo,
+      @Value("${flick.vendas.registro.grupo-maximo:64}") int grupoMaximo,
+      @Value("${flick.vendas.registro.espera:2ms}") Duration espera,
+      @Value("${flick.vendas.registro.timeout:30s}") Duration timeout) {
+    this.vendaService = vendaService;
+    this.vendaLoteService = vendaLoteService;
+    this.idempotenciaVendas = idempotenciaVendas;
+    this.modo = modo;
+    this.grupoMaximo = grupoMaximo;
+    this.espera = espera;
+    this.timeout = timeout;
+    this.fila = new LinkedBlockingQueue<>(grupoMaximo * 16);
+    if (modo == Modo.AGRUPADO) {
+      this.gravadora = Thread.ofPlatform().name("flick-registro-vendas").daemon().start(this::gravar);
+    } else {
+      this.gravadora = null;
+    }
+    log.info("Registro de vendas: modo={} grupoMaximo={} espera={}", modo, grupoMaximo, espera);
+  }
+
+  public Modo getModo() {
+    return modo;
+  }
+
+  /**
+   * Registra a venda, como {@link VendaService#registrarVenda(VendaRequestDTO,
+   * String)}.
+   */
+  public VendaResponseDTO registrar(VendaRequestDTO requestDTO, String chaveIdempotencia) {
+    if (modo == Modo.IMEDIATO) {
+      return vendaService.registrarVenda(requestDTO, chaveIdempotencia);
+    }
+    if (chaveIdempotencia != null) {
+      Optional<VendaResponseDTO> recente = idempotenciaVendas.buscarRecente(chaveIdempotencia, requestDTO);
+      if (recente.isPresent()) {
+        return recente.get();
+      }
+    }
+
+    Pedido pedido = new Pedido(new VendaLoteItemRequestDTO(chaveIdempotencia, null, requestDTO),
+        new CompletableFuture<>());
+    try {
+      if (!ativo) {
+        throw new IllegalStateException("Registro de vendas encerrado");
+      }
+      fila.put(pedido);
+      // Encerrado entre a conferência e o put: a gravadora pode já ter esvaziado
+      // a fila pela última vez. Se o pedido ainda está nela, ninguém o atenderia
+      if (!ativo && fila.remove(pedido)) {
+        throw new IllegalStateException("Registro de vendas encerrado");
+      }
+      return pedido.resposta().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      if (fila.remove(pedido)) {
+        throw new ConsultaExpirada("Venda não registrada: fila de registro parada por " + timeout.toMillis()
+            + " ms", e);
+      }
+      throw new ConsultaExpirada("Registro da venda excedeu " + timeout.toMillis()
+          + " ms; repita com a mesma Idempotency-Key para saber o resultado", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Registro de venda interrompido", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException erro) {
+        throw erro;
+      }
+      throw new IllegalStateException("Falha ao registrar venda", e.getCause());
+    }
+  }
+
+  // Sem interromper a thread: o grupo em gravação termina o commit
+  @PreDestroy
+  void encerrar() throws InterruptedException {
+    ativo = false;
+    if (gravadora != null) {
+      gravadora.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  private void gravar() {
+    List<Pedido> grupo = new ArrayList<>(grupoMaximo);
+    while (ativo) {
+      try {
+        Pedido primeiro = fila.poll(ESPERA_ENCERRAMENTO_MS, TimeUnit.MILLISECONDS);
+        if (primeiro == null) {
+          continue;
+        }
+        grupo.add(primeiro);
+        long prazo = System.nanoTime() + espera.toNanos();
+        while (grupo.size() < grupoMaximo) {
+          fila.drainTo(grupo, grupoMaximo - grupo.size());
+          if (grupo.size() >= grupoMaximo) {
+            break;
+          }
+          Pedido proximo = fila.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (proximo == null) {
+            break;
+          }
+          grupo.add(proximo);
+        }
+      } catch (InterruptedException e) {
+        break;
+      }
+      gravarGrupo(grupo);
+      grupo.clear();
+    }
+    // Também quando a thread foi interrompida: novos pedidos passam a ser recusados
+    ativo = false;
+    // Encerrando: ninguém fica esperando para sempre
+    fila.drainTo(grupo);
+    grupo.forEach(pedido -> pedido.resposta()
+        .completeExceptionally(new IllegalStateException("Registro de vendas encerrado")));
+  }
+
+  private void gravarGrupo(List<Pedido> grupo) {
+    long inicio = System.nanoTime();
+    try {
+      List<VendaLoteService.Desfecho> desfechos = vendaLoteService.registrarAgrupadas(
+          grupo.stream().map(Pedido::venda).toList());
+      for (int i = 0; i < grupo.size(); i++) {
+        VendaLoteService.Desfecho desfecho = desfechos.get(i);
+        if (desfecho.erro() != null) {
+          grupo.get(i).resposta().completeExceptionally(desfecho.erro());
+        } else {
+          grupo.get(i).resposta().complete(desfecho.venda());
+        }
+      }
+      log.debug("Grupo de {} vendas gravado em {} ms", grupo.size(), (System.nanoTime() - inicio) / 1_000_000);
+    } catch (RuntimeException e) {
+      log.error("Falha ao gravar grupo de {} vendas", grupo.size(), e);
+      grupo.forEach(pedido -> pedido.resposta().completeExceptionally(e));
+    }
+  }
+}
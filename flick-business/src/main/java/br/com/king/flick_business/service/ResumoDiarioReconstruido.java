@@ -0,0 +1,10 @@
+package br.com.king.flick_business.service;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado quando o resumo diário dos dias {@code inicio} a {@code fim} é
+ * recalculado por {@link ResumoDiarioService#reconstruir}.
+ */
+public record ResumoDiarioReconstruido(LocalDate inicio, LocalDate fim) {
+}
@@ -0,0 +1,280 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.king.flick_business.entity.Expense;
+import br.com.king.flick_business.entity.ItemVenda;
+import br.com.king.flick_business.entity.ResumoDiario;
+import br.com.king.flick_business.entity.ResumoDiarioPagamento;
+import br.com.king.flick_business.entity.ResumoDiarioProduct;
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.repository.ExpenseRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém o resumo diário (resumo_diario, resumo_diario_pagamento e
+ * resumo_diario_product) usado pelo dashboard.
+ *
+ * Cada venda/expense registrada ou removida soma (ou subtrai) seus valores nas
+ * linhas do dia com UPDATE relativo no banco, dentro da mesma transação da
+ * operação. A linha do dia é criada sob demanda (INSERT ... ON CONFLICT DO
+ * NOTHING), sem corrida entre transações concorrentes. Toda alteração publica
+ * {@link DiasResumoAlterados}, que o {@link DashboardCache} consome após o
+ * commit. As quantidades por product também vão para o ranking de vendas
+ * ({@link RankingVendasService}).
+ */
+@Slf4j
+@Service
+@Timed("flick.servico")
+public class ResumoDiarioService {
+  // Fuso que define a que dia pertence uma venda/expense (o mesmo do
+  // DashboardController)
+  private static final ZoneId ZONA = ZoneId.systemDefault();
+
+  private final ResumoDiarioRepository resumoDiarioRepository;
+  private final ResumoDiarioPagamentoRepository resumoPagamentoRepository;
+  private final ResumoDiarioProductRepository resumoProductRepository;
+  private final VendaRepository vendaRepository;
+  private final ItemVendaRepository itemVendaRepository;
+  private final ExpenseRepository expenseRepository;
+  private final RankingVendasService rankingVendasService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public ResumoDiarioService(ResumoDiarioRepository resumoDiarioRepository,
+      ResumoDiarioPagamentoRepository resumoPagamentoRepository,
+      ResumoDiarioProductRepository resumoProductRepository, VendaRepository vendaRepository,
+      ItemVendaRepository itemVendaRepository, ExpenseRepository expenseRepository,
+      RankingVendasService rankingVendasService, ApplicationEventPublisher eventPublisher) {
+    this.resumoDiarioRepository = resumoDiarioRepository;
+    this.resumoPagamentoRepository = resumoPagamentoRepository;
+    this.resumoProductRepository = resumoProductRepository;
+    this.vendaRepository = vendaRepository;
+    this.itemVendaRepository = itemVendaRepository;
+    this.expenseRepository = expenseRepository;
+    this.rankingVendasService = rankingVendasService;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public static LocalDate diaDe(ZonedDateTime dataHora) {
+    return dataHora.withZoneSameInstant(ZONA).toLocalDate();
+  }
+
+  /**
+   * Indica se o período começa no início de um dia e termina no fim de outro
+   * (como os períodos enviados pelo dashboard), podendo ser atendido pelo resumo
+   * diário.
+   */
+  public static boolean cobreDiasInteiros(ZonedDateTime inicio, ZonedDateTime fim) {
+    ZonedDateTime inicioLocal = inicio.withZoneSameInstant(ZONA);
+    ZonedDateTime fimLocal = fim.withZoneSameInstant(ZONA);
+    return inicioLocal.toLocalTime().equals(LocalTime.MIDNIGHT)
+        && fimLocal.toLocalTime().equals(LocalTime.MAX)
+        && !fimLocal.isBefore(inicioLocal);
+  }
+
+  // -- MANUTENÇÃO INCREMENTAL -- //
+
+  @Transactional
+  public void registrarVenda(Venda venda) {
+    aplicarVendas(List.of(venda), BigDecimal.ONE);
+  }
+
+  /**
+   * Registra várias vendas de uma vez (registro em lote): uma atualização por
+   * dia, por dia e forma de pagamento e por dia e product, com os totais
+   * somados em memória.
+   */
+  @Transactional
+  public void registrarVendas(List<Venda> vendas) {
+    aplicarVendas(vendas, BigDecimal.ONE);
+  }
+
+  @Transactional
+  public void estornarVenda(Venda venda) {
+    aplicarVendas(List.of(venda), BigDecimal.ONE.negate());
+  }
+
+  @Transactional
+  public void registrarExpense(Expense expense) {
+    somarExpenses(diaDe(expense.getDataExpense()), expense.getValor());
+  }
+
+  @Transactional
+  public void estornarExpense(Expense expense) {
+    somarExpenses(diaDe(expense.getDataExpense()), expense.getValor().negate());
+  }
+
+  private void aplicarVendas(List<Venda> vendas, BigDecimal sinal) {
+    if (vendas.isEmpty()) {
+      return;
+    }
+    // Totais em memória, em mapas ordenados: as linhas são travadas sempre na
+    // mesma ordem (dias; pagamentos por dia; products por ID e dia), a mesma de
+    // uma venda isolada, e não há deadlock entre transações concorrentes
+    TreeMap<LocalDate, BigDecimal[]> dias = new TreeMap<>();
+    Map<LocalDate, Map<FormaPagamento, BigDecimal>> pagamentos = new TreeMap<>();
+    Map<Long, Map<LocalDate, BigDecimal[]>> products = new TreeMap<>();
+    for (Venda venda : vendas) {
+      LocalDate dia = diaDe(venda.getDataVenda());
+      BigDecimal valor = venda.getValorTotal().multiply(sinal);
+      dias.merge(dia, new BigDecimal[] { valor, sinal }, ResumoDiarioService::somarTotais);
+      pagamentos.computeIfAbsent(dia, d -> new TreeMap<>())
+          .merge(venda.getFormaPagamento(), valor, BigDecimal::add);
+      for (ItemVenda item : venda.getItens()) {
+        if (item.getProduct() == null) {
+          continue;
+        }
+        products.computeIfAbsent(item.getProduct().getId(), id -> new TreeMap<>())
+            .merge(dia, new BigDecimal[] { item.getQuantidade().multiply(sinal),
+                item.getValorTotalItem().multiply(sinal) }, ResumoDiarioService::somarTotais);
+      }
+    }
+    eventPublisher.publishEvent(new DiasResumoAlterados(dias.firstKey(), dias.lastKey()));
+
+    dias.forEach((dia, totais) -> {
+      long quantidade = totais[1].longValue();
+      if (resumoDiarioRepository.somarVendas(dia, totais[0], quantidade) == 0) {
+        resumoDiarioRepository.garantirDia(dia);
+        resumoDiarioRepository.somarVendas(dia, totais[0], quantidade);
+      }
+    });
+
+    pagamentos.forEach((dia, porForma) -> porForma.forEach((forma, valor) -> {
+      if (resumoPagamentoRepository.somar(dia, forma, valor) == 0) {
+        resumoPagamentoRepository.garantirLinha(dia, forma.name());
+        resumoPagamentoRepository.somar(dia, forma, valor);
+      }
+    }));
+
+    products.forEach((productId, porDia) -> {
+      porDia.forEach((dia, totais) -> {
+        if (resumoProductRepository.somar(dia, productId, totais[0], totais[1]) == 0) {
+          resumoProductRepository.garantirLinha(dia, productId);
+          resumoProductRepository.somar(dia, productId, totais[0], totais[1]);
+        }
+      });
+      // Ranking do product depois de todas as linhas dele no resumo
+      porDia.forEach((dia, totais) -> rankingVendasService.somar(dia, productId, totais[0]));
+    });
+  }
+
+  private static BigDecimal[] somarTotais(BigDecimal[] atual, BigDecimal[] novo) {
+    return new BigDecimal[] { atual[0].add(novo[0]), atual[1].add(novo[1]) };
+  }
+
+  private void somarExpenses(LocalDate dia, BigDecimal valor) {
+    eventPublisher.publishEvent(new DiasResumoAlterados(dia, dia));
+    if (resumoDiarioRepository.somarExpenses(dia, valor) == 0) {
+      resumoDiarioRepository.garantirDia(dia);
+      resumoDiarioRepository.somarExpenses(dia, valor);
+    }
+  }
+
+  // -- RECONSTRUÇÃO -- //
+
+  /**
+   * Recalcula o resumo diário do período a partir das vendas e expenses, mês a
+   * mês. Usado para popular bancos existentes ou corrigir divergências; vendas
+   * registradas durante a reconstrução do mesmo mês podem precisar de uma nova
+   * execução.
+   *
+   * @param inicio Primeiro dia (inclusive)
+   * @param fim    Último dia (inclusive)
+   */
+  @Transactional
+  public void reconstruir(LocalDate inicio, LocalDate fim) {
+    if (inicio == null || fim == null || fim.isBefore(inicio)) {
+      throw new BusinessException("Período inválido para reconstrução do resumo diário.");
+    }
+    eventPublisher.publishEvent(new DiasResumoAlterados(inicio, fim));
+    eventPublisher.publishEvent(new ResumoDiarioReconstruido(inicio, fim));
+
+    int diasReconstruidos = 0;
+    LocalDate inicioBloco = inicio;
+    while (!inicioBloco.isAfter(fim)) {
+      LocalDate fimBloco = inicioBloco.withDayOfMonth(inicioBloco.lengthOfMonth());
+      if (fimBloco.isAfter(fim)) {
+        fimBloco = fim;
+      }
+      diasReconstruidos += reconstruirBloco(inicioBloco, fimBloco);
+      inicioBloco = fimBloco.plusDays(1);
+    }
+    log.info("Resumo diário reconstruído de {} a {}: {} dias com movimento", inicio, fim, diasReconstruidos);
+  }
+
+  private int reconstruirBloco(LocalDate inicio, LocalDate fim) {
+    resumoProductRepository.deleteByDiaBetween(inicio, fim);
+    resumoPagamentoRepository.deleteByDiaBetween(inicio, fim);
+    resumoDiarioRepository.deleteByDiaBetween(inicio, fim);
+
+    ZonedDateTime de = inicio.atStartOfDay(ZONA);
+    ZonedDateTime ate = fim.atTime(LocalTime.MAX).atZone(ZONA);
+
+    Map<LocalDate, ResumoDiario> dias = new TreeMap<>();
+    Map<ResumoDiarioPagamento.Chave, BigDecimal> pagamentos = new HashMap<>();
+    Map<ResumoDiarioProduct.Chave, BigDecimal[]> products = new HashMap<>();
+
+    for (Object[] row : vendaRepository.findDadosResumoBetween(de, ate)) {
+      LocalDate dia = diaDe((ZonedDateTime) row[0]);
+      BigDecimal valor = (BigDecimal) row[2];
+      ResumoDiario resumo = dias.computeIfAbsent(dia, ResumoDiarioService::resumoZerado);
+      resumo.setTotalVendas(resumo.getTotalVendas().add(valor));
+      resumo.setQuantidadeVendas(resumo.getQuantidadeVendas() + 1);
+      pagamentos.merge(new ResumoDiarioPagamento.Chave(dia, (FormaPagamento) row[1]), valor, BigDecimal::add);
+    }
+
+    for (Object[] row : itemVendaRepository.findDadosResumoBetween(de, ate)) {
+      LocalDate dia = diaDe((ZonedDateTime) row[0]);
+      BigDecimal quantidade = (BigDecimal) row[2];
+      BigDecimal valor = quantidade.multiply((BigDecimal) row[3]).setScale(2, RoundingMode.HALF_UP);
+      products.merge(new ResumoDiarioProduct.Chave(dia, (Long) row[1]), new BigDecimal[] { quantidade, valor },
+          (atual, novo) -> new BigDecimal[] { atual[0].add(novo[0]), atual[1].add(novo[1]) });
+    }
+
+    for (Object[] row : expenseRepository.findDadosResumoBetween(de, ate)) {
+      ResumoDiario resumo = dias.computeIfAbsent(diaDe((ZonedDateTime) row[0]), ResumoDiarioService::resumoZerado);
+      resumo.setTotalExpenses(resumo.getTotalExpenses().add((BigDecimal) row[1]));
+    }
+
+    // As linhas do bloco acabaram de ser apagadas: persist direto, em lote
+    dias.values().forEach(entityManager::persist);
+    pagamentos.forEach((chave, total) -> entityManager.persist(
+        new ResumoDiarioPagamento(chave.getDia(), chave.getFormaPagamento(), total)));
+    products.forEach((chave, totais) -> entityManager.persist(
+        new ResumoDiarioProduct(chave.getDia(), chave.getProductId(), totais[0], totais[1])));
+    entityManager.flush();
+    entityManager.clear();
+
+    return dias.size();
+  }
+
+  private static ResumoDiario resumoZerado(LocalDate dia) {
+    return new ResumoDiario(dia, BigDecimal.ZERO, 0L, BigDecimal.ZERO);
+  }
+}
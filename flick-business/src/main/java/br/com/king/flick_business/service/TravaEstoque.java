@@ -0,0 +1,82 @@
+package br.com.king.flick_business.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ponto de serialização por product das baixas do modo {@code LIVRO} do
+ * {@link EstoqueService}: quem trava o product confere o estoque do livro já
+ * com as baixas confirmadas de quem travou antes, então vendas simultâneas
+ * nunca levam as mesmas últimas unidades.
+ *
+ * <p>
+ * No PostgreSQL é um advisory lock de transação ({@code pg_advisory_xact_lock})
+ * de duas chaves, {@link #ESPACO} e o ID do product, para não colidir com
+ * outros advisory locks do banco: a linha do product não é travada, e leituras,
+ * edições do cadastro e a compactação seguem sem esperar pelas vendas. Nos
+ * demais bancos (H2 nos testes), {@code SELECT ... FOR UPDATE} na linha do
+ * product. Nos dois casos a trava vale até o fim da transação atual.
+ *
+ * <p>
+ * Vendas do mesmo product continuam uma de cada vez, como no modo
+ * {@code COLUNA}: a trava só troca a disputa pela linha por uma disputa pela
+ * chave.
+ */
+@Slf4j
+@Component
+public class TravaEstoque {
+  // Primeira chave dos advisory locks das baixas ("FLK" em ASCII)
+  static final int ESPACO = 0x464C4B;
+
+  private final DataSource dataSource;
+  private final MovimentoEstoqueRepository movimentoRepository;
+  private final ProductRepository productRepository;
+  private volatile Boolean postgres;
+
+  public TravaEstoque(DataSource dataSource, MovimentoEstoqueRepository movimentoRepository,
+      ProductRepository productRepository) {
+    this.dataSource = dataSource;
+    this.movimentoRepository = movimentoRepository;
+    this.productRepository = productRepository;
+  }
+
+  /**
+   * Trava os products em ordem de ID (transações concorrentes nunca esperam
+   * uma pela outra em ordem inversa). Deve ser chamado dentro de uma transação.
+   *
+   * @param productIds IDs dos products a baixar
+   */
+  public void travar(Collection<Long> productIds) {
+    boolean advisory = postgres();
+    productIds.stream().distinct().sorted().forEach(productId -> {
+      if (advisory) {
+        movimentoRepository.travarProduct(ESPACO, productId);
+      } else {
+        productRepository.travarLinha(productId);
+      }
+    });
+  }
+
+  private boolean postgres() {
+    Boolean atual = postgres;
+    if (atual == null) {
+      try (Connection conexao = dataSource.getConnection()) {
+        atual = "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName());
+      } catch (SQLException e) {
+        log.warn("Não foi possível identificar o banco; baixas do modo LIVRO travam a linha do product", e);
+        atual = false;
+      }
+      postgres = atual;
+    }
+    return atual;
+  }
+}
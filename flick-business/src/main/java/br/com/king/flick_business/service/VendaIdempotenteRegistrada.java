@@ -0,0 +1,10 @@
+package br.com.king.flick_business.service;
+
+import br.com.king.flick_business.dto.VendaResponseDTO;
+
+/**
+ * Publicado quando uma venda é registrada com chave de idempotência na
+ * transação corrente.
+ */
+public record VendaIdempotenteRegistrada(String chave, long impressaoDigital, VendaResponseDTO venda) {
+}
@@ -0,0 +1,436 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.request.VendaLoteItemRequestDTO;
+import br.com.king.flick_business.dto.response.ResultadoVendaLoteDTO;
+import br.com.king.flick_business.dto.response.VendaLoteResponseDTO;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.ItemVenda;
+import br.com.king.flick_business.entity.MovimentoEstoque;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoJaCadastrado;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro em lote das vendas que um caixa fez sem conexão. Cada venda é aceita
+ * ou recusada sozinha, com as mesmas regras e mensagens de
+ * {@link VendaService#registrarVenda}, e o resultado vem por venda.
+ *
+ * <p>
+ * As vendas aceitas são gravadas juntas, em uma transação: clientes e products
+ * do lote inteiro são lidos em uma consulta cada, estoque e saldo devedor são
+ * conferidos em memória (venda a venda, na ordem do lote), as vendas e as
+ * chaves de idempotência vão em INSERTs em lote, e estoque, saldo dos clientes
+ * e resumo diário recebem uma atualização por product, cliente e dia, com os
+ * totais somados. Os clientes com fiado são travados depois dos products, em
+ * ordem de ID, e o limite é conferido de novo contra o saldo travado. Se outra
+ * transação mudar o estoque, levar um cliente além do limite ou gravar uma das
+ * chaves nesse meio tempo, a transação conjunta é desfeita e as vendas são
+ * registradas uma a uma pelo {@link VendaService}.
+ */
+@Slf4j
+@Service
+@Timed("flick.servico")
+public class VendaLoteService {
+  private final VendaService vendaService;
+  private final VendaRepository vendaRepository;
+  private final ClienteRepository clienteRepository;
+  private final EstoqueService estoqueService;
+  private final ResumoDiarioService resumoDiarioService;
+  private final IdempotenciaVendas idempotenciaVendas;
+  private final Validator validator;
+  private final TransactionTemplate transacao;
+  private final int tamanhoMaximo;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Desfecho de uma venda gravada com as outras: a venda registrada (ou já
+   * registrada com a mesma chave) ou a exceção que a recusou, a mesma que
+   * {@link VendaService#registrarVenda} lançaria.
+   *
+   * @param venda Resposta da venda; nula se recusada ou não montada
+   */
+  record Desfecho(Long vendaId, VendaResponseDTO venda, RuntimeException erro) {
+
+    static Desfecho registrada(Long vendaId, VendaResponseDTO venda) {
+      return new Desfecho(vendaId, venda, null);
+    }
+
+    static Desfecho recusada(RuntimeException erro) {
+      return new Desfecho(null, null, erro);
+    }
+  }
+
+  public VendaLoteService(VendaService vendaService, VendaRepository vendaRepository,
+      ClienteRepository clienteRepository, EstoqueService estoqueService, ResumoDiarioService resumoDiarioService,
+      IdempotenciaVendas idempotenciaVendas, Validator validator,
+      PlatformTransactionManager transactionManager,
+      @Value("${flick.vendas.lote.tamanho-maximo:500}") int tamanhoMaximo) {
+    this.vendaService = vendaService;
+    this.vendaRepository = vendaRepository;
+    this.clienteRepository = clienteRepository;
+    this.estoqueService = estoqueService;
+    this.resumoDiarioService = resumoDiarioService;
+    this.idempotenciaVendas = idempotenciaVendas;
+    this.validator = validator;
+    this.transacao = new TransactionTemplate(transactionManager);
+    this.tamanhoMaximo = tamanhoMaximo;
+  }
+
+  /**
+   * Registra as vendas do lote.
+   *
+   * @param vendas Vendas na ordem em que foram feitas
+   * @return Resultado de cada venda, na mesma ordem
+   * @throws BusinessException se o lote passar de
+   *                           {@code flick.vendas.lote.tamanho-maximo}
+   */
+  public VendaLoteResponseDTO registrarLote(List<VendaLoteItemRequestDTO> vendas) {
+    if (vendas.size() > tamanhoMaximo) {
+      throw new BusinessException("O lote deve ter no máximo " + tamanhoMaximo + " vendas.");
+    }
+    long inicio = System.nanoTime();
+    Desfecho[] desfechos = new Desfecho[vendas.size()];
+    List<Integer> validas = validar(vendas, desfechos);
+
+    boolean umaAUma = false;
+    try {
+      Desfecho[] conjuntos = transacao.execute(status -> registrarJuntas(vendas, validas, false));
+      validas.forEach(i -> desfechos[i] = conjuntos[i]);
+    } catch (RecursoNaoEncontrado | BusinessException | DataIntegrityViolationException e) {
+      log.info("Lote de {} vendas alterado por outra transação ({}); registrando uma a uma", validas.size(),
+          e.getMessage());
+      umaAUma = true;
+      registrarUmaAUma(vendas, validas, desfechos);
+    }
+
+    List<ResultadoVendaLoteDTO> resultados = new ArrayList<>(vendas.size());
+    for (int i = 0; i < vendas.size(); i++) {
+      Desfecho desfecho = desfechos[i];
+      resultados.add(desfecho.erro() == null
+          ? ResultadoVendaLoteDTO.registrada(i, chave(vendas.get(i)), desfecho.vendaId())
+          : ResultadoVendaLoteDTO.recusada(i, chave(vendas.get(i)), desfecho.erro().getMessage()));
+    }
+    VendaLoteResponseDTO resposta = new VendaLoteResponseDTO(resultados);
+    log.info("Lote de {} vendas{}: {} registradas, {} recusadas em {} ms", vendas.size(),
+        umaAUma ? " (uma a uma)" : "", resposta.registradas(), resposta.recusadas(),
+        (System.nanoTime() - inicio) / 1_000_000);
+    return resposta;
+  }
+
+  /**
+   * Registra juntas, em uma transação, vendas enviadas separadamente ao
+   * {@link RegistroVendasAgrupado}, com o mesmo resultado que cada uma teria em
+   * {@link VendaService#registrarVenda}.
+   *
+   * @return Desfecho de cada venda, na mesma ordem, sempre com a resposta
+   */
+  List<Desfecho> registrarAgrupadas(List<VendaLoteItemRequestDTO> vendas) {
+    Desfecho[] desfechos = new Desfecho[vendas.size()];
+    List<Integer> validas = validar(vendas, desfechos);
+
+    try {
+      Desfecho[] conjuntos = transacao.execute(status -> registrarJuntas(vendas, validas, true));
+      for (int i : validas) {
+        Desfecho desfecho = conjuntos[i];
+        if (desfecho.erro() == null && desfecho.venda() == null) {
+          // Chave já registrada antes e fora da memória: lê a venda original
+          // (e a guarda para as próximas repetições)
+          VendaLoteItemRequestDTO item = vendas.get(i);
+          try {
+            desfecho = Desfecho.registrada(desfecho.vendaId(), idempotenciaVendas.carregarRegistrada(
+                item.chaveIdempotencia(), IdempotenciaVendas.impressaoDigital(item.venda()), desfecho.vendaId()));
+          } catch (RecursoNaoEncontrado erro) {
+            desfecho = Desfecho.recusada(erro);
+          }
+        }
+        desfechos[i] = desfecho;
+      }
+    } catch (RecursoNaoEncontrado | BusinessException | DataIntegrityViolationException e) {
+      log.info("Grupo de {} vendas alterado por outra transação ({}); registrando uma a uma", validas.size(),
+          e.getMessage());
+      registrarUmaAUma(vendas, validas, desfechos);
+    }
+    return Arrays.asList(desfechos);
+  }
+
+  // Recusa as vendas inválidas e devolve os índices das válidas
+  private List<Integer> validar(List<VendaLoteItemRequestDTO> vendas, Desfecho[] desfechos) {
+    List<Integer> validas = new ArrayList<>();
+    for (int i = 0; i < vendas.size(); i++) {
+      String erro = validar(vendas.get(i));
+      if (erro != null) {
+        desfechos[i] = Desfecho.recusada(new BusinessException(erro));
+      } else {
+        validas.add(i);
+      }
+    }
+    return validas;
+  }
+
+  // comRespostas: monta a resposta de cada venda registrada (sem ela, só o ID)
+  private Desfecho[] registrarJuntas(List<VendaLoteItemRequestDTO> vendas, List<Integer> indices,
+      boolean comRespostas) {
+    Desfecho[] resultados = new Desfecho[vendas.size()];
+
+    // Chaves: já registradas antes do lote (da memória, se recentes) ou
+    // repetidas dentro dele
+    Map<String, IdempotenciaVendas.Registrada> existentes = idempotenciaVendas.buscarVigentes(indices.stream()
+        .map(i -> chave(vendas.get(i)))
+        .filter(chave -> chave != null)
+        .collect(Collectors.toSet()));
+    Map<String, Integer> primeiraComChave = new HashMap<>();
+    Map<Integer, Integer> repeticoes = new TreeMap<>();
+    List<Integer> novas = new ArrayList<>();
+    for (int i : indices) {
+      VendaLoteItemRequestDTO item = vendas.get(i);
+      String chave = item.chaveIdempotencia();
+      if (chave == null) {
+        novas.add(i);
+        continue;
+      }
+      long impressaoDigital = IdempotenciaVendas.impressaoDigital(item.venda());
+      IdempotenciaVendas.Registrada existente = existentes.get(chave);
+      Integer primeira = primeiraComChave.putIfAbsent(chave, i);
+      if (existente != null) {
+        resultados[i] = existente.impressaoDigital() == impressaoDigital
+            ? Desfecho.registrada(existente.vendaId(), existente.venda())
+            : Desfecho.recusada(IdempotenciaVendas.chaveUsadaEmOutraVenda(chave));
+      } else if (primeira == null) {
+        novas.add(i);
+      } else if (IdempotenciaVendas.impressaoDigital(vendas.get(primeira).venda()) == impressaoDigital) {
+        repeticoes.put(i, primeira);
+      } else {
+        resultados[i] = Desfecho.recusada(IdempotenciaVendas.chaveUsadaEmOutraVenda(chave));
+      }
+    }
+
+    // Clientes e products do lote inteiro, uma consulta cada
+    Set<Long> clienteIds = new HashSet<>();
+    Set<Long> productIds = new HashSet<>();
+    for (int i : novas) {
+      VendaRequestDTO venda = vendas.get(i).venda();
+      if (venda.idCliente() != null) {
+        clienteIds.add(venda.idCliente());
+      }
+      venda.itens().forEach(item -> productIds.add(item.idProduct()));
+    }
+    Map<Long, Cliente> clientesPorId = clienteRepository.findAllById(clienteIds).stream()
+        .collect(Collectors.toMap(Cliente::getId, cliente -> cliente));
+    Map<Long, Product> productsPorId = vendaService.buscarProductsPorId(productIds);
+    Map<Long, BigDecimal> estoques = estoqueService.estoquesAtuais(productsPorId.keySet());
+
+    // Estoque e saldo devedor conferidos em memória, venda a venda
+    Map<Long, BigDecimal> estoqueRestante = new HashMap<>();
+    List<Map<Long, BigDecimal>> baixasAceitas = new ArrayList<>();
+    Map<Long, BigDecimal> saldosDevedores = new HashMap<>();
+    Map<Long, BigDecimal> acrescimosSaldo = new TreeMap<>();
+    Map<Long, ZonedDateTime> ultimasComprasFiado = new HashMap<>();
+    List<Venda> aceitas = new ArrayList<>();
+    List<Integer> indicesAceitas = new ArrayList<>();
+    for (int i : novas) {
+      VendaLoteItemRequestDTO item = vendas.get(i);
+      VendaRequestDTO requestDTO = item.venda();
+      try {
+        Cliente cliente = null;
+        if (requestDTO.idCliente() != null) {
+          cliente = clientesPorId.get(requestDTO.idCliente());
+          if (cliente == null) {
+            throw new RecursoNaoEncontrado("Cliente não encontrado com ID: " + requestDTO.idCliente());
+          }
+        }
+        VendaService.validarCliente(requestDTO, cliente);
+        Venda venda = vendaService.montarVenda(requestDTO, cliente, productsPorId, estoques);
+
+        Map<Long, BigDecimal> baixasDaVenda = baixasDaVenda(venda, estoqueRestante, estoques);
+        BigDecimal novoSaldoDevedor = null;
+        if (venda.getFormaPagamento() == FormaPagamento.FIADO) {
+          novoSaldoDevedor = saldosDevedores.getOrDefault(cliente.getId(), cliente.getSaldoDevedor())
+              .add(venda.getValorTotal());
+          VendaService.validarLimiteFiado(cliente, novoSaldoDevedor);
+        }
+
+        venda.setDataVenda(item.dataVenda() != null ? item.dataVenda() : ZonedDateTime.now());
+        baixasDaVenda.forEach((productId, quantidade) -> estoqueRestante.compute(productId,
+            (id, restante) -> (restante != null
+                ? restante
+                : EstoqueService.estoqueAtual(productsPorId.get(id), estoques)).subtract(quantidade)));
+        if (novoSaldoDevedor != null) {
+          saldosDevedores.put(cliente.getId(), novoSaldoDevedor);
+          acrescimosSaldo.merge(cliente.getId(), venda.getValorTotal(), BigDecimal::add);
+          ultimasComprasFiado.merge(cliente.getId(), venda.getDataVenda(),
+              (atual, nova) -> nova.isAfter(atual) ? nova : atual);
+        }
+        aceitas.add(venda);
+        indicesAceitas.add(i);
+        baixasAceitas.add(baixasDaVenda);
+      } catch (RecursoNaoEncontrado | BusinessException e) {
+        resultados[i] = Desfecho.recusada(e);
+      }
+    }
+
+    // Gravação: vendas e chaves em INSERTs em lote, depois uma atualização por
+    // product, cliente e dia (na ordem de travas de uma venda isolada)
+    vendaRepository.saveAll(aceitas);
+    vendaRepository.flush();
+    // Vendas com chave sempre têm a resposta montada: ela vai para a memória
+    // das repetições depois do commit
+    List<VendaIdempotenteRegistrada> chaves = new ArrayList<>();
+    List<MovimentoEstoque> baixas = new ArrayList<>();
+    for (int a = 0; a < aceitas.size(); a++) {
+      int i = indicesAceitas.get(a);
+      String chave = vendas.get(i).chaveIdempotencia();
+      Venda venda = aceitas.get(a);
+      baixasAceitas.get(a).forEach((productId, quantidade) -> baixas.add(
+          EstoqueService.baixaDaVenda(venda, productId, quantidade)));
+      VendaResponseDTO resposta = comRespostas || chave != null ? new VendaResponseDTO(venda) : null;
+      resultados[i] = Desfecho.registrada(venda.getId(), comRespostas ? resposta : null);
+      if (chave != null) {
+        chaves.add(new VendaIdempotenteRegistrada(chave,
+            IdempotenciaVendas.impressaoDigital(vendas.get(i).venda()), resposta));
+      }
+    }
+    idempotenciaVendas.gravarLote(chaves);
+    // Tira vendas, itens e products do contexto: cada UPDATE a seguir faria o
+    // Hibernate conferir todos eles antes de rodar
+    entityManager.clear();
+
+    estoqueService.registrarBaixas(baixas);
+    // Clientes travados em ordem de ID depois dos products, como em uma venda
+    // isolada. O saldo lido no início do lote não vale mais: o acréscimo vai
+    // sobre o saldo travado, e o limite é conferido de novo contra ele
+    Map<Long, BigDecimal> saldosTravados = new HashMap<>();
+    acrescimosSaldo.keySet()
+        .forEach(clienteId -> saldosTravados.put(clienteId, clienteRepository.travarSaldoDevedor(clienteId)));
+    Map<Long, Cliente> clientesAtuais = clienteRepository.findAllById(acrescimosSaldo.keySet()).stream()
+        .collect(Collectors.toMap(Cliente::getId, cliente -> cliente));
+    acrescimosSaldo.forEach((clienteId, acrescimo) -> {
+      Cliente cliente = clientesAtuais.get(clienteId);
+      BigDecimal novoSaldoDevedor = saldosTravados.get(clienteId).add(acrescimo);
+      VendaService.validarLimiteFiado(cliente, novoSaldoDevedor);
+      cliente.setSaldoDevedor(novoSaldoDevedor);
+      ZonedDateTime ultimaCompra = ultimasComprasFiado.get(clienteId);
+      if (cliente.getDataUltimaCompraFiado() == null || ultimaCompra.isAfter(cliente.getDataUltimaCompraFiado())) {
+        cliente.setDataUltimaCompraFiado(ultimaCompra);
+      }
+    });
+    clienteRepository.saveAllAndFlush(clientesAtuais.values());
+    resumoDiarioService.registrarVendas(aceitas);
+
+    // Repetições da mesma chave no lote têm o resultado da primeira
+    repeticoes.forEach((i, primeira) -> resultados[i] = resultados[primeira]);
+    return resultados;
+  }
+
+  /**
+   * Quantidades que a venda baixa de cada product, conferidas contra o estoque
+   * que sobrou das vendas anteriores do lote. Como em uma venda isolada, product
+   * sem estoque (ou que zerou no lote) é vendido sem baixa.
+   */
+  private static Map<Long, BigDecimal> baixasDaVenda(Venda venda, Map<Long, BigDecimal> estoqueRestante,
+      Map<Long, BigDecimal> estoques) {
+    Map<Long, BigDecimal> baixasDaVenda = new HashMap<>();
+    for (ItemVenda itemVenda : venda.getItens()) {
+      Product product = itemVenda.getProduct();
+      BigDecimal restante = estoqueRestante.get(product.getId());
+      if (restante == null) {
+        restante = EstoqueService.estoqueAtual(product, estoques);
+      }
+      if (restante == null || restante.compareTo(BigDecimal.ZERO) <= 0) {
+        continue;
+      }
+      if (restante.compareTo(itemVenda.getQuantidade()) < 0) {
+        throw new RecursoNaoEncontrado("Estoque insuficiente para o product: " + product.getName() +
+            ". Em estoque: " + restante + ", Solicitado: " + itemVenda.getQuantidade());
+      }
+      baixasDaVenda.put(product.getId(), itemVenda.getQuantidade());
+    }
+    return baixasDaVenda;
+  }
+
+  // Cada venda na sua transação: o erro de uma, qualquer que seja, fica no seu
+  // resultado e não esconde as que já foram registradas
+  private void registrarUmaAUma(List<VendaLoteItemRequestDTO> vendas, List<Integer> indices,
+      Desfecho[] desfechos) {
+    for (int i : indices) {
+      try {
+        desfechos[i] = registrarSozinha(vendas.get(i));
+      } catch (RuntimeException erro) {
+        if (!(erro instanceof RecursoNaoEncontrado || erro instanceof RecursoJaCadastrado
+            || erro instanceof BusinessException)) {
+          log.warn("Venda {} do lote recusada por erro inesperado", i, erro);
+        }
+        desfechos[i] = Desfecho.recusada(erro);
+      }
+    }
+  }
+
+  private Desfecho registrarSozinha(VendaLoteItemRequestDTO item) {
+    VendaResponseDTO venda = vendaService.registrarVenda(item.venda(), item.chaveIdempotencia(), item.dataVenda());
+    return Desfecho.registrada(venda.id(), venda);
+  }
+
+  // Validação de cada venda (a mesma do POST de uma venda), sem recusar o lote
+  private String validar(VendaLoteItemRequestDTO item) {
+    if (item == null) {
+      return "A venda não pode ser nula";
+    }
+    Set<ConstraintViolation<VendaLoteItemRequestDTO>> violacoes = validator.validate(item);
+    if (!violacoes.isEmpty()) {
+      return violacoes.stream()
+          .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+          .sorted()
+          .collect(Collectors.joining("; "));
+    }
+    for (ItemVendaRequestDTO itemVenda : item.venda().itens()) {
+      if (itemVenda == null) {
+        return "venda.itens: O item não pode ser nulo";
+      }
+    }
+    if (item.chaveIdempotencia() != null) {
+      try {
+        IdempotenciaVendas.validar(item.chaveIdempotencia());
+      } catch (BusinessException e) {
+        return e.getMessage();
+      }
+    }
+    return null;
+  }
+
+  private static String chave(VendaLoteItemRequestDTO item) {
+    return item != null ? item.chaveIdempotencia() : null;
+  }
+}
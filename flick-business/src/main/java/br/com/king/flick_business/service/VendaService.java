@@ -3,9 +3,13 @@ package br.com.king.flick_business.service;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -13,13 +17,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.king.flick_business.dto.response.TotalPorFormaPagamentoDTO;
+import br.com.king.flick_business.dto.VendaCursor;
 import br.com.king.flick_business.dto.VendaRequestDTO;
 import br.com.king.flick_business.dto.VendaResponseDTO;
 import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.response.CursorResponse;
 import br.com.king.flick_business.dto.response.GroupsummaryDTO;
 import br.com.king.flick_business.dto.response.PageResponse;
 import br.com.king.flick_business.entity.Cliente;
@@ -33,23 +40,36 @@ import br.com.king.flick_business.exception.RecursoNaoEncontrado;
 import br.com.king.flick_business.repository.ClienteRepository;
 import br.com.king.flick_business.repository.ProductRepository;
 import br.com.king.flick_business.repository.VendaRepository;
+import br.com.king.flick_business.repository.spec.VendaSpecification;
 import br.com.king.flick_business.mapper.VendaMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
+@Timed("flick.servico")
 public class VendaService {
   // Repositórios e serviços necessários para operações de venda
   private final VendaRepository vendaRepository;
   private final ClienteRepository clienteRepository;
   private final ProductRepository productRepository;
   private final ConfiguracaoGeralService configuracaoService;
+  private final EstoqueService estoqueService;
+  private final ResumoDiarioService resumoDiarioService;
+  private final IdempotenciaVendas idempotenciaVendas;
 
   // Construtor para injeção de dependências
   public VendaService(VendaRepository vendaRepository, ClienteRepository clienteRepository,
-      ProductRepository productRepository, ConfiguracaoGeralService configuracaoService) {
+      ProductRepository productRepository, ConfiguracaoGeralService configuracaoService,
+      EstoqueService estoqueService, ResumoDiarioService resumoDiarioService,
+      IdempotenciaVendas idempotenciaVendas) {
     this.vendaRepository = vendaRepository;
     this.clienteRepository = clienteRepository;
     this.productRepository = productRepository;
     this.configuracaoService = configuracaoService;
+    this.estoqueService = estoqueService;
+    this.resumoDiarioService = resumoDiarioService;
+    this.idempotenciaVendas = idempotenciaVendas;
   }
 
   /**
@@ -61,71 +81,145 @@ public class VendaService {
    */
   @Transactional
   public VendaResponseDTO registrarVenda(VendaRequestDTO requestDTO) {
-    System.out
-        .println("LOG: VendaService.registrarVenda - Iniciando registro de venda. Dados recebidos: " + requestDTO);
+    return registrarVenda(requestDTO, null);
+  }
 
-    Venda novaVenda = new Venda();
-    novaVenda.setFormaPagamento(requestDTO.formaPagamento());
-    novaVenda.setObservacoes(requestDTO.observacoes());
-    novaVenda.setDataVenda(ZonedDateTime.now());
+  /**
+   * Como {@link #registrarVenda(VendaRequestDTO)}, mas uma nova tentativa com a
+   * mesma {@code chaveIdempotencia} devolve a venda já registrada, sem alterar
+   * estoque nem saldo de novo (ver {@link IdempotenciaVendas}).
+   * 
+   * @param requestDTO        Dados da venda a ser registrada
+   * @param chaveIdempotencia Chave gerada pelo caixa para a venda (opcional)
+   * @return VendaResponseDTO com os dados da venda registrada
+   */
+  @Transactional
+  public VendaResponseDTO registrarVenda(VendaRequestDTO requestDTO, String chaveIdempotencia) {
+    return registrarVenda(requestDTO, chaveIdempotencia, null);
+  }
+
+  /**
+   * Como {@link #registrarVenda(VendaRequestDTO, String)}, com a data em que a
+   * venda foi feita (ex.: caixa que registrou a venda sem conexão).
+   * 
+   * @param dataVenda Data/hora da venda; nula para o momento atual
+   */
+  @Transactional
+  public VendaResponseDTO registrarVenda(VendaRequestDTO requestDTO, String chaveIdempotencia,
+      ZonedDateTime dataVenda) {
+    if (chaveIdempotencia != null) {
+      Optional<VendaResponseDTO> jaRegistrada = idempotenciaVendas.reservar(chaveIdempotencia, requestDTO);
+      if (jaRegistrada.isPresent()) {
+        return jaRegistrada.get();
+      }
+    }
+
+    log.debug("Iniciando registro de venda: clienteId={}, formaPagamento={}, itens={}",
+        requestDTO.idCliente(), requestDTO.formaPagamento(), requestDTO.itens().size());
 
     // Setando Cliente
     Cliente cliente = null;
     if (requestDTO.idCliente() != null) {
-      System.out.println("LOG: VendaService.registrarVenda - idCliente fornecido: " + requestDTO.idCliente()
-          + ". Buscando cliente...");
       cliente = clienteRepository.findById(requestDTO.idCliente())
           .orElseThrow(() -> new RecursoNaoEncontrado("Cliente não encontrado com ID: " + requestDTO.idCliente()));
+    }
+    validarCliente(requestDTO, cliente);
 
-      if (!cliente.getActive()) {
-        System.out.println("LOG: VendaService.registrarVenda - Cliente selecionado está inactive." + cliente.getName());
-        // TODO: adicionar reativação rapida a partir desse momento com modal
-        throw new RecursoNaoEncontrado("Não é possível registrar venda para cliente inactive.");
-      }
-      novaVenda.setCliente(cliente);
-      System.out.println("LOG: VendaService.registrarVenda - Cliente associado a venda: " + cliente.getName());
+    // Resolve todos os products da venda em uma consulta
+    Map<Long, Product> productsPorId = buscarProductsPorId(consolidarItens(requestDTO.itens()).keySet());
+    Map<Long, BigDecimal> estoques = estoqueService.estoquesAtuais(productsPorId.keySet());
+
+    Venda novaVenda = montarVenda(requestDTO, cliente, productsPorId, estoques);
+    novaVenda.setDataVenda(dataVenda != null ? dataVenda : ZonedDateTime.now());
+
+    Venda vendaSalva = vendaRepository.save(novaVenda);
+
+    // Baixa atômica do estoque dos products (UPDATE condicional no banco)
+    estoqueService.baixarEstoque(vendaSalva.getItens());
+
+    // Atualiza saldo devedor do cliente em caso de venda fiado
+    if (vendaSalva.getFormaPagamento() == FormaPagamento.FIADO && cliente != null) {
+      // Saldo relido com a linha do cliente travada: fiados simultâneos do
+      // mesmo cliente (isolados ou em lote) não se sobrescrevem
+      BigDecimal saldoAtual = clienteRepository.travarSaldoDevedor(cliente.getId());
+      BigDecimal novoSaldoDevedor = saldoAtual.add(vendaSalva.getValorTotal());
+
+      // Busca configurações globais para cálculo de prazo e juros
+      Optional<ConfiguracaoGeral> configOpt = configuracaoService.buscarEntidadeConfiguracao();
+      Integer prazoGlobal = configOpt.map(ConfiguracaoGeral::getPrazoPagamentoFiado).orElse(null);
+      BigDecimal taxaGlobal = configOpt.map(ConfiguracaoGeral::getTaxaJurosAtraso).orElse(null);
+
+      log.debug("Fiado do cliente {}: prazo={}, taxa={}, saldo atual={}, venda={}, novo saldo={}",
+          cliente.getId(), prazoGlobal, taxaGlobal, saldoAtual, vendaSalva.getValorTotal(),
+          novoSaldoDevedor);
+
+      validarLimiteFiado(cliente, novoSaldoDevedor);
+      cliente.setSaldoDevedor(novoSaldoDevedor);
+      cliente.setDataUltimaCompraFiado(vendaSalva.getDataVenda());
+      clienteRepository.save(cliente);
     }
 
-    // Validação para vendas a prazo (fiado)
-    if (requestDTO.formaPagamento() == FormaPagamento.FIADO) {
-      System.out.println("LOG: VendaService.registrarVenda - Venda FIADO detectada.");
-      if (cliente == null) {
-        // Se idCliente não foi fornecido mas é FIADO
-        System.out.println("LOG: VendaService.registrarVenda - Falha - ID do Cliente não informado para venda FIADO.");
-        throw new RecursoNaoEncontrado("ID do Cliente é obrigatório para vendas FIADO.");
-      }
-      // Validação se o cliente PODE comprar fiado
-      if (cliente.getControleFiado() != null && !cliente.getControleFiado()) {
-        System.out
-            .println("LOG: VendaService.registrarVenda - Cliente não habilitado para fiado: " + cliente.getName());
-        throw new RecursoNaoEncontrado("Este cliente não está habilitado para compras fiado.");
-      }
-      System.out.println("LOG: VendaService.registrarVenda - Cliente validado para venda FIADO: " + cliente.getName());
+    // Por último: a linha do dia no resumo fica travada só até o commit
+    resumoDiarioService.registrarVenda(vendaSalva);
+
+    log.info("Venda {} registrada: valorTotal={}, formaPagamento={}, itens={}", vendaSalva.getId(),
+        vendaSalva.getValorTotal(), vendaSalva.getFormaPagamento(), vendaSalva.getItens().size());
+    VendaResponseDTO resposta = new VendaResponseDTO(vendaSalva);
+    if (chaveIdempotencia != null) {
+      idempotenciaVendas.concluir(chaveIdempotencia, requestDTO, resposta);
+    }
+    return resposta;
+  }
+
+  /**
+   * Valida a venda contra o cliente e os products já carregados e monta a
+   * entidade (itens consolidados por product e valor total), sem data e sem
+   * gravar nada. O cliente já deve ter passado por {@link #validarCliente}.
+   * Também usada pelo registro em lote ({@link VendaLoteService}).
+   *
+   * @param requestDTO    Dados da venda
+   * @param cliente       Cliente da venda, ou nulo se não informado
+   * @param productsPorId Products referenciados pela venda (faltantes = não
+   *                      encontrados)
+   * @param estoques      Estoque atual dos products, de
+   *                      {@link EstoqueService#estoquesAtuais}
+   * @return Venda ainda não gravada
+   * @throws RecursoNaoEncontrado se algum dado da venda for recusado
+   */
+  Venda montarVenda(VendaRequestDTO requestDTO, Cliente cliente, Map<Long, Product> productsPorId,
+      Map<Long, BigDecimal> estoques) {
+    Venda novaVenda = new Venda();
+    novaVenda.setFormaPagamento(requestDTO.formaPagamento());
+    novaVenda.setObservacoes(requestDTO.observacoes());
+
+    if (cliente != null) {
+      novaVenda.setCliente(cliente);
     }
 
     BigDecimal valorTotalCalculado = BigDecimal.ZERO;
-    List<Product> productsParaAtualizarEstoque = new ArrayList<>();
+
+    // Consolida linhas repetidas do mesmo product
+    Map<Long, BigDecimal> quantidadesPorProduct = consolidarItens(requestDTO.itens());
 
     // Processa cada item da venda, valida estoque e calcula valor total
-    for (ItemVendaRequestDTO itemDTO : requestDTO.itens()) {
-      System.out.println("LOG: VendaService.registrarVenda - Processando item da venda: " + itemDTO);
-      Product product = productRepository.findById(itemDTO.idProduct())
-          .orElseThrow(() -> {
-            System.out
-                .println("LOG: VendaService.registrarVenda - Product não encontrado com ID: " + itemDTO.idProduct());
-            return new RecursoNaoEncontrado("Product não encontrado com ID: " + itemDTO.idProduct());
-          });
+    for (Map.Entry<Long, BigDecimal> itemConsolidado : quantidadesPorProduct.entrySet()) {
+      Long idProduct = itemConsolidado.getKey();
+      Product product = productsPorId.get(idProduct);
+      if (product == null) {
+        log.debug("Venda recusada: product {} não encontrado", idProduct);
+        throw new RecursoNaoEncontrado("Product não encontrado com ID: " + idProduct);
+      }
 
       if (!product.isActive()) {
-        System.out.println("LOG: VendaService.registrarVenda - Product inactive: " + product.getName());
+        log.debug("Venda recusada: product {} inactive", idProduct);
         throw new RecursoNaoEncontrado("Product inactive: " + product.getName());
       }
 
-      BigDecimal quantidade = itemDTO.quantidade();
+      BigDecimal quantidade = itemConsolidado.getValue();
       BigDecimal precoUnitarioAtual = product.getSalePrice();
 
       if (precoUnitarioAtual == null || precoUnitarioAtual.compareTo(BigDecimal.ZERO) <= 0) {
-        System.out.println("LOG: VendaService.registrarVenda - Preço inválido para product: " + product.getName());
+        log.debug("Venda recusada: product {} sem preço válido", idProduct);
         throw new RecursoNaoEncontrado("Preço inválido ou não definido para o product: " + product.getName());
       }
 
@@ -138,78 +232,97 @@ public class VendaService {
       novaVenda.adicionarItem(itemVenda);
 
       valorTotalCalculado = valorTotalCalculado.add(itemVenda.getValorTotalItem());
-      System.out.println("LOG: VendaService.registrarVenda - Item adicionado. Product: " + product.getName()
-          + ", Quantidade: " + quantidade
-          + ", Preço: " + precoUnitarioAtual + ", Valor total acumulado: " + valorTotalCalculado);
+      log.trace("Item adicionado: product={}, quantidade={}, preco={}, acumulado={}",
+          idProduct, quantidade, precoUnitarioAtual, valorTotalCalculado);
 
-      // Atualiza estoque do product
-      BigDecimal estoqueAtual = product.getStockQuantity();
-      if (estoqueAtual != null && estoqueAtual.compareTo(BigDecimal.ZERO) > 0) {
+      // Pré-validação do estoque lido (a baixa definitiva é feita pelo
+      // EstoqueService)
+      BigDecimal estoqueAtual = EstoqueService.estoqueAtual(product, estoques);
+      if (EstoqueService.possuiEstoqueControlado(estoqueAtual)) {
         if (estoqueAtual.compareTo(quantidade) < 0) {
-          System.out.println("LOG: VendaService.registrarVenda - Estoque insuficiente para product: "
-              + product.getName() + ". Em estoque: "
-              + estoqueAtual + ", Solicitado: " + quantidade);
+          log.debug("Venda recusada: estoque insuficiente para product {} (em estoque={}, solicitado={})",
+              idProduct, estoqueAtual, quantidade);
           throw new RecursoNaoEncontrado("Estoque insuficiente para o product: " + product.getName() +
               ". Em estoque: " + estoqueAtual + ", Solicitado: " + quantidade);
         }
-        product.setStockQuantity(estoqueAtual.subtract(quantidade));
-        productsParaAtualizarEstoque.add(product);
-        System.out.println("LOG: VendaService.registrarVenda - Estoque atualizado para product: " + product.getName()
-            + ". Novo estoque: "
-            + product.getStockQuantity());
-      } else {
-        System.out.println("LOG: VendaService.registrarVenda - Product sem estoque controlado ou estoque zerado: "
-            + product.getName());
       }
     }
 
     novaVenda.setValorTotal(valorTotalCalculado);
-    System.out.println("LOG: VendaService.registrarVenda - Valor total da venda calculado: " + valorTotalCalculado);
-
-    Venda vendaSalva = vendaRepository.save(novaVenda);
-    System.out.println("LOG: VendaService.registrarVenda - Venda salva com ID: " + vendaSalva.getId());
+    return novaVenda;
+  }
 
-    // Salva atualização de estoque dos products
-    if (!productsParaAtualizarEstoque.isEmpty()) {
-      productRepository.saveAll(productsParaAtualizarEstoque);
-      System.out.println("LOG: VendaService.registrarVenda - Estoque dos products atualizado no banco de dados.");
+  /**
+   * Recusa venda para cliente inactive e venda FIADO sem cliente ou para cliente
+   * não habilitado.
+   *
+   * @param cliente Cliente da venda, ou nulo se não informado
+   * @throws RecursoNaoEncontrado se o cliente não puder fazer a venda
+   */
+  static void validarCliente(VendaRequestDTO requestDTO, Cliente cliente) {
+    if (cliente != null) {
+      if (!cliente.getActive()) {
+        log.debug("Venda recusada: cliente {} está inactive", cliente.getId());
+        // TODO: adicionar reativação rapida a partir desse momento com modal
+        throw new RecursoNaoEncontrado("Não é possível registrar venda para cliente inactive.");
+      }
     }
 
-    // Atualiza saldo devedor do cliente em caso de venda fiado
-    if (vendaSalva.getFormaPagamento() == FormaPagamento.FIADO && cliente != null) {
-      System.out
-          .println("LOG: VendaService.registrarVenda - Iniciando atualização de saldo devedor para cliente FIADO: "
-              + cliente.getName());
-      BigDecimal novoSaldoDevedor = cliente.getSaldoDevedor().add(vendaSalva.getValorTotal());
+    // Validação para vendas a prazo (fiado)
+    if (requestDTO.formaPagamento() == FormaPagamento.FIADO) {
+      if (cliente == null) {
+        // Se idCliente não foi fornecido mas é FIADO
+        log.debug("Venda FIADO recusada: cliente não informado");
+        throw new RecursoNaoEncontrado("ID do Cliente é obrigatório para vendas FIADO.");
+      }
+      // Validação se o cliente PODE comprar fiado
+      if (cliente.getControleFiado() != null && !cliente.getControleFiado()) {
+        log.debug("Venda FIADO recusada: cliente {} não habilitado para fiado", cliente.getId());
+        throw new RecursoNaoEncontrado("Este cliente não está habilitado para compras fiado.");
+      }
+    }
+  }
 
-      // Busca configurações globais para cálculo de prazo e juros
-      Optional<ConfiguracaoGeral> configOpt = configuracaoService.buscarEntidadeConfiguracao();
-      Integer prazoGlobal = configOpt.map(ConfiguracaoGeral::getPrazoPagamentoFiado).orElse(null);
-      BigDecimal taxaGlobal = configOpt.map(ConfiguracaoGeral::getTaxaJurosAtraso).orElse(null);
+  /**
+   * @throws BusinessException se {@code novoSaldoDevedor} passar do limite fiado
+   *                           do cliente
+   */
+  static void validarLimiteFiado(Cliente cliente, BigDecimal novoSaldoDevedor) {
+    if (cliente.getLimiteFiado() != null && novoSaldoDevedor.compareTo(cliente.getLimiteFiado()) > 0) {
+      log.debug("Venda FIADO recusada: limite excedido para cliente {} (limite={}, saldo após venda={})",
+          cliente.getId(), cliente.getLimiteFiado(), novoSaldoDevedor);
+      throw new BusinessException("Limite fiado excedido para o cliente: " + cliente.getName() +
+          ". Limite: " + cliente.getLimiteFiado() + ", Saldo após venda: " + novoSaldoDevedor);
+    }
+  }
 
-      System.out.println("LOG: VendaService.registrarVenda - Configurações globais - Prazo: " + prazoGlobal
-          + ", Taxa de Juros: " + taxaGlobal);
-      System.out.println(
-          "LOG: VendaService.registrarVenda - Saldo devedor atual: " + cliente.getSaldoDevedor() + ", Valor da venda: "
-              + vendaSalva.getValorTotal() + ", Novo saldo: " + novoSaldoDevedor);
-
-      if (cliente.getLimiteFiado() != null && novoSaldoDevedor.compareTo(cliente.getLimiteFiado()) > 0) {
-        System.out.println(
-            "LOG: VendaService.registrarVenda - Limite fiado excedido para cliente: " + cliente.getName() + ". Limite: "
-                + cliente.getLimiteFiado() + ", Saldo após venda: " + novoSaldoDevedor);
-        throw new BusinessException("Limite fiado excedido para o cliente: " + cliente.getName() +
-            ". Limite: " + cliente.getLimiteFiado() + ", Saldo após venda: " + novoSaldoDevedor);
-      }
-      cliente.setSaldoDevedor(novoSaldoDevedor);
-      cliente.setDataUltimaCompraFiado(vendaSalva.getDataVenda());
-      System.out.println("LOG: VendaService.registrarVenda - Cliente devedor atualizado: " + cliente);
-      clienteRepository.save(cliente);
-      System.out.println("LOG: VendaService.registrarVenda - Cliente salvo com novo saldo devedor.");
+  /**
+   * Agrupa os itens da requisição por product, somando as quantidades de linhas
+   * repetidas. Mantém a ordem da primeira ocorrência de cada product.
+   *
+   * @param itens Itens recebidos na requisição de venda
+   * @return Mapa idProduct -> quantidade total solicitada
+   */
+  static Map<Long, BigDecimal> consolidarItens(List<ItemVendaRequestDTO> itens) {
+    Map<Long, BigDecimal> quantidadesPorProduct = new LinkedHashMap<>();
+    for (ItemVendaRequestDTO itemDTO : itens) {
+      quantidadesPorProduct.merge(itemDTO.idProduct(), itemDTO.quantidade(), BigDecimal::add);
     }
+    return quantidadesPorProduct;
+  }
 
-    System.out.println(
-        "LOG: VendaService.registrarVenda - Registro de venda finalizado com sucesso. Venda ID: " + vendaSalva.getId());
-    return new VendaResponseDTO(vendaSalva);
+  /**
+   * Busca todos os products da venda em uma única consulta.
+   *
+   * @param ids IDs dos products referenciados na venda
+   * @return Mapa idProduct -> Product encontrado (IDs inexistentes ficam de fora)
+   */
+  Map<Long, Product> buscarProductsPorId(Collection<Long> ids) {
+    Map<Long, Product> productsPorId = new HashMap<>();
+    for (Product product : productRepository.findAllById(ids)) {
+      productsPorId.put(product.getId(), product);
+    }
+    return productsPorId;
   }
 
   /**
@@ -232,9 +345,6 @@ public class VendaService {
       String orderBy,
       int page,
       int size) {
-    System.out.println("LOG: VendaService.listVendas - inicio: " + inicio + ", fim: " + fim
-        + ", clienteId: " + clienteId + ", formaPagamentoString: " + formaPagamentoString);
-
     // Extrai lógica de conversão e datas padrão
     FormaPagamento formaPagamentoFilter = VendaMapper.parseFormaPagamento(formaPagamentoString);
     ZonedDateTime[] range = VendaMapper.buildDataRange(inicio, fim);
@@ -242,10 +352,8 @@ public class VendaService {
     Sort sort = VendaMapper.buildSort(orderBy);
     Pageable pageable = PageRequest.of(page, size, sort);
 
-    System.out.println("SERVICE: VendaService.listVendas - Usando sort: " + sort);
-    System.out.println("SERVICE: Query - Inicio: " + range[0] + ", Fim: " + range[1]
-        + ", ClienteId: " + clienteId + ", FormaPagamento: " + formaPagamentoFilter
-        + ", Product: " + productId);
+    log.debug("Listando vendas: inicio={}, fim={}, clienteId={}, formaPagamento={}, productId={}, sort={}",
+        range[0], range[1], clienteId, formaPagamentoFilter, productId, sort);
 
     Page<Venda> vendasPage = vendaRepository.findVendasComFilters(
         range[0],
@@ -256,10 +364,61 @@ public class VendaService {
         pageable);
 
     Page<VendaResponseDTO> dtoPage = vendasPage.map(VendaResponseDTO::new);
-    System.out.println("LOG: VendaService.listVendas - Vendas encontradas: " + vendasPage.getTotalElements());
     return new PageResponse<>(dtoPage);
   }
 
+  /**
+   * Lista vendas por cursor (keyset): cada página continua a partir da chave de
+   * ordenação e do ID da última venda da página anterior, sem OFFSET e sem
+   * contagem, então o custo não cresce com a profundidade da rolagem.
+   *
+   * @param orderBy Mesma ordenação aceita por {@link #listVendas}
+   * @param cursor  Token {@code nextCursor} da página anterior (nulo na primeira)
+   * @param size    Quantidade de vendas por página
+   * @return Vendas da página e o cursor da próxima, se houver
+   * @throws BusinessException se o cursor for inválido ou de outra ordenação
+   */
+  @Transactional(readOnly = true)
+  public CursorResponse<VendaResponseDTO> scrollVendas(
+      ZonedDateTime inicio,
+      ZonedDateTime fim,
+      Long clienteId,
+      String formaPagamentoString,
+      Long productId,
+      String orderBy,
+      String cursor,
+      int size) {
+    if (size < 1) {
+      throw new BusinessException("O tamanho da página deve ser maior que zero.");
+    }
+    FormaPagamento formaPagamentoFilter = VendaMapper.parseFormaPagamento(formaPagamentoString);
+    Sort.Order ordem = VendaMapper.buildSort(orderBy).iterator().next();
+
+    Specification<Venda> spec = VendaSpecification.withFilter(inicio, fim, clienteId, formaPagamentoFilter,
+        productId);
+    if (cursor != null && !cursor.isBlank()) {
+      spec = spec.and(VendaSpecification.aposCursor(VendaCursor.decode(cursor, ordem)));
+    }
+
+    List<Venda> vendas;
+    boolean hasNext;
+    do {
+      // Um ID a mais indica se existe próxima página
+      List<Long> ids = vendaRepository.findIdsVendas(spec, ordem, size + 1);
+      hasNext = ids.size() > size;
+      List<Long> idsPagina = hasNext ? ids.subList(0, size) : ids;
+
+      Map<Long, Venda> vendasPorId = vendaRepository.findAllComClienteEItensByIdIn(idsPagina).stream()
+          .collect(Collectors.toMap(Venda::getId, venda -> venda));
+      // Uma venda removida entre as duas leituras fica de fora; o cursor parte da
+      // última presente. Se a página inteira sumiu, lê de novo
+      vendas = idsPagina.stream().map(vendasPorId::get).filter(Objects::nonNull).toList();
+    } while (vendas.isEmpty() && hasNext);
+
+    String nextCursor = hasNext ? VendaCursor.apos(vendas.get(vendas.size() - 1), ordem).encode() : null;
+    return new CursorResponse<>(vendas.stream().map(VendaResponseDTO::new).toList(), size, nextCursor, hasNext);
+  }
+
   public static FormaPagamento parseFormaPagamento(String formaPagamentoString) {
     if (formaPagamentoString == null || formaPagamentoString.isEmpty()) {
       return null;
@@ -317,86 +476,43 @@ public class VendaService {
    */
   @Transactional
   public void deleteVendaFisicamente(Long vendaId) {
-    System.out
-        .println("DELETE_START: VendaService.deleteVendaFisicamente - Buscando venda para deleção... - " + vendaId);
-
     Venda vendaParaDelete = vendaRepository.findByIdComItensECliente(vendaId)
-        .orElseThrow(() -> {
-          System.err.println("ERROR: VendaService.deleteVendaFisicamente - Venda não encontrada: " + vendaId);
-          return new RecursoNaoEncontrado("Venda não encontrada: " + vendaId);
-        });
-
-    System.out.println("DELETE_LOG_01: VendaService.deleteVendaFisicamente - Venda " + vendaId + " encontrada.");
-    System.out.println("DELETE_LOG_02: VendaService.deleteVendaFisicamente - Estornando itens ao estoque... ");
-    List<Product> productsParaAtualizarEstoque = new ArrayList<>();
+        .orElseThrow(() -> new RecursoNaoEncontrado("Venda não encontrada: " + vendaId));
+
     if (vendaParaDelete.getItens() != null) {
-      for (ItemVenda item : vendaParaDelete.getItens()) {
-        Product productDoItem = item.getProduct();
-        if (productDoItem != null) {
-          Product productParaEstornar = productRepository.findById(productDoItem.getId())
-              .orElseThrow(() -> new RecursoNaoEncontrado(
-                  "Produo associado ao item da venda não encontrado: ID " + productDoItem.getId()));
-          if (productParaEstornar.getStockQuantity() != null) {
-            System.out.println("DELETE_LOG_03: VendaService.deleteVendaFisicamente - Processando estoque do item "
-                + productParaEstornar.getName() + " de ID " + productParaEstornar.getId()
-                + ". Quantia a ser processada: " + item.getQuantidade());
-            BigDecimal novoEstoque = productParaEstornar.getStockQuantity().add(item.getQuantidade());
-            productParaEstornar.setStockQuantity(novoEstoque);
-            productsParaAtualizarEstoque.add(productParaEstornar);
-            System.out.println("DELETE_LOG_04: VendaService.deleteVendaFisicamente. SUCESSO ao PROCESSAR ESTOQUE de "
-                + productDoItem.getName() + ". Novo Estoque: " + novoEstoque);
-          } else {
-            System.out.println("DELETE_LOG_03_S/ESTOQUE - VendaService.deleteVendaFisicamente - Product "
-                + productParaEstornar.getName() + "de ID: " + productParaEstornar.getId()
-                + ", não possui controle de estoque. SUCESSO AO PROCESSAR.");
-          }
-        }
-      }
-    }
-    if (!productsParaAtualizarEstoque.isEmpty()) {
-      productRepository.saveAll(productsParaAtualizarEstoque);
-      System.out.println("DELETE_LOG: VendaService.deleteVendaFisicamente. SUCESSO ao PROCESSAR ESTOQUE");
+      // Estorno atômico (UPDATE relativo), sem sobrescrever baixas concorrentes
+      estoqueService.estornarEstoque(vendaParaDelete.getItens());
     }
 
     if (vendaParaDelete.getFormaPagamento() == FormaPagamento.FIADO && vendaParaDelete.getCliente() != null) {
       Cliente clienteDaVenda = clienteRepository.findById(vendaParaDelete.getCliente().getId())
           .orElse(null);
-      System.out
-          .println("DELETE_LOG_FIADO: VendaService.deleteVendaFisicamente. Estornando crédito de fiado ao cliente"
-              + clienteDaVenda.getName() + "...");
       BigDecimal saldoAtual = clienteDaVenda.getSaldoDevedor();
       BigDecimal valorVenda = vendaParaDelete.getValorTotal();
 
       if (clienteDaVenda != null) {
         clienteDaVenda.setSaldoDevedor(saldoAtual.subtract(valorVenda));
 
-        System.out.println("DELETE_LOG_FIADO: SUCESSO ao estornar R$" + valorVenda + " para o cliente "
-            + clienteDaVenda.getName() + " totalizando no SALDO ATUAL: R$" + clienteDaVenda.getSaldoDevedor());
-
         if (clienteDaVenda.getSaldoDevedor().compareTo(BigDecimal.ZERO) <= 0
             && vendaParaDelete.getDataVenda().equals(clienteDaVenda.getDataUltimaCompraFiado())) {
-          System.out.println(
-              "LOG: VendaService.deleteVendaFisicamente - Saldo do cliente zerado ou negactive. Data da última compra fiado pode precisar de reavaliação.");
+          log.debug("Saldo do cliente {} zerado ou negativo; data da última compra fiado pode precisar de reavaliação",
+              clienteDaVenda.getId());
         }
         clienteRepository.save(clienteDaVenda);
-        System.out.println("LOG: VendaService.deleteVendaFisicamente - Saldo devedor do cliente ID " +
-            clienteDaVenda.getId() + " estornado. Novo saldo: " + clienteDaVenda.getSaldoDevedor());
+        log.debug("Fiado estornado: cliente={}, valor={}, novo saldo={}", clienteDaVenda.getId(), valorVenda,
+            clienteDaVenda.getSaldoDevedor());
       }
     }
-    System.out.println("DELETE_LOG: Deletando Venda...");
+    resumoDiarioService.estornarVenda(vendaParaDelete);
     vendaRepository.delete(vendaParaDelete);
-    System.out
-        .println("LOG: VendaService.deleteVendaFisicamente - Venda ID " + vendaId + " deletada permanentemente.");
-    System.out.println("DELETE_LOG: VENDA DELETADA COM SUCESSO");
+    log.info("Venda {} deletada permanentemente", vendaId);
   }
 
   public List<GroupsummaryDTO> getVendassummary(
       ZonedDateTime inicio, ZonedDateTime fim, Long clienteId,
       String formaPagamentoString, Long productId, String groupBy) {
-    System.out.println("LOG: VendaService.getVendassummary - Iniciando resumo de vendas com filtros: "
-        + "Inicio: " + inicio + ", Fim: " + fim + ", ClienteId: " + clienteId
-        + ", FormaPagamento: " + formaPagamentoString + ", ProductId: " + productId
-        + ", GroupBy: " + groupBy);
+    log.debug("Resumo de vendas: inicio={}, fim={}, clienteId={}, formaPagamento={}, productId={}, groupBy={}",
+        inicio, fim, clienteId, formaPagamentoString, productId, groupBy);
 
     FormaPagamento formaPagamentoFilter = VendaMapper.parseFormaPagamento(formaPagamentoString);
     ZonedDateTime incioQuery = (inicio != null) ? inicio
@@ -0,0 +1,29 @@
+-- Migração de bancos existentes (PostgreSQL): IDs por IDENTITY -> SEQUENCE.
+--
+-- As entidades passaram a usar @SequenceGenerator com allocationSize = 50 e o
+-- otimizador "pooled" do Hibernate: cada nextval reserva um bloco de 50 IDs e o
+-- valor retornado é o topo do bloco. Por isso cada sequence é criada com
+-- INCREMENT BY 50 e posicionada acima do maior ID já existente.
+--
+-- Necessário apenas quando o schema NÃO é recriado pelo Hibernate
+-- (spring.jpa.hibernate.ddl-auto diferente de create/create-drop).
+-- Executar uma única vez, com a aplicação parada:
+--   psql -d sgvs_db -f 001_identity_para_sequence.sql
+
+BEGIN;
+
+DO $$
+DECLARE
+  tabela TEXT;
+BEGIN
+  FOREACH tabela IN ARRAY ARRAY['categorys', 'clientes', 'expenses', 'itens_venda', 'products', 'providers', 'vendas']
+  LOOP
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS public.%I START WITH 1 INCREMENT BY 50', tabela || '_seq');
+    EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM public.%I), 0) + 50)',
+        'public.' || tabela || '_seq', tabela);
+    -- Os IDs passam a ser gerados pela aplicação; a coluna deixa de ser IDENTITY
+    EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id DROP IDENTITY IF EXISTS', tabela);
+  END LOOP;
+END $$;
+
+COMMIT;
@@ -0,0 +1,4 @@
+-- Índices da listagem de vendas por cursor (GET /api/vendas/scroll), para
+-- bancos cujo schema não é recriado pelo Hibernate.
+CREATE INDEX IF NOT EXISTS idx_vendas_data_venda_id ON public.vendas (data_venda, id);
+CREATE INDEX IF NOT EXISTS idx_vendas_valor_total_id ON public.vendas (valor_total, id);
@@ -0,0 +1,24 @@
+-- Busca por name de products e clientes (GET /api/products/catalogo,
+-- GET /api/clientes/busca) com pg_trgm: sem diferenciar maiúsculas e acentos,
+-- por prefixo, trecho ou semelhança (erros de digitação), usando índices GIN
+-- em vez de varrer a tabela com LOWER(name) LIKE '%...%'.
+--
+-- Aplicado pela aplicação na inicialização, depois do schema do Hibernate
+-- (flick.busca.modo=AUTO ou BANCO); todas as instruções são idempotentes.
+-- Requer permissão para CREATE EXTENSION (extensões "trusted" a partir do
+-- PostgreSQL 13: basta ser dono do banco). Para aplicar manualmente:
+--   psql -d sgvs_db -f 003_busca_trigramas.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Mesma regra de IndiceTrigramas.normalizar: minúsculas, sem acentos e com
+-- espaços simples. unaccent() é STABLE; com o dicionário explícito o wrapper
+-- pode ser IMMUTABLE e entrar na expressão dos índices
+CREATE OR REPLACE FUNCTION public.flick_normalizar(texto TEXT) RETURNS TEXT
+  LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+  AS 'SELECT btrim(regexp_replace(lower(public.unaccent(''public.unaccent''::regdictionary, texto)), ''\s+'', '' '', ''g''))';
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+  ON public.products USING gin (public.flick_normalizar(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_name_trgm
+  ON public.clientes USING gin (public.flick_normalizar(name) gin_trgm_ops);
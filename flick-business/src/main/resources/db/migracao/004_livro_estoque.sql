@@ -0,0 +1,21 @@
+-- Livro de estoque (movimentos_estoque), para bancos cujo schema não é
+-- recriado pelo Hibernate. Products existentes começam sem movimentos: a
+-- quantidade_estoque atual vale como estoque inicial.
+CREATE SEQUENCE IF NOT EXISTS public.movimentos_estoque_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS public.movimentos_estoque (
+  id BIGINT PRIMARY KEY,
+  product_id BIGINT NOT NULL,
+  tipo VARCHAR(20) NOT NULL,
+  quantidade NUMERIC(14, 3) NOT NULL,
+  data_movimento TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  venda_id BIGINT,
+  observacao VARCHAR(200),
+  compactado BOOLEAN NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_movimentos_estoque_product_data
+  ON public.movimentos_estoque (product_id, data_movimento);
+-- Só os pendentes: a compactação os mantém poucos
+CREATE INDEX IF NOT EXISTS idx_movimentos_estoque_pendentes
+  ON public.movimentos_estoque (product_id) WHERE NOT compactado;
@@ -0,0 +1,62 @@
+package br.com.king.flick_business.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Lê o corpus de {@code fixtures/}: um diretório por dia com arquivos vazios
+ * nomeados {@code AAAA-MM-DD_HH-MM-SS_(n)}, cada um marcando {@code n} vendas
+ * registradas naquele instante.
+ */
+final class CorpusFixtures {
+
+  private static final Pattern NOME = Pattern
+      .compile("(\\d{4})-(\\d{2})-(\\d{2})_(\\d{2})-(\\d{2})-(\\d{2})_\\((\\d+)\\)");
+
+  record Evento(LocalDateTime instante, int vendas) {
+  }
+
+  private CorpusFixtures() {
+  }
+
+  /**
+   * @param diretorio Raiz do corpus
+   * @param de        Primeiro dia (inclusive), ou null para o início do corpus
+   * @param ate       Último dia (inclusive), ou null para o fim do corpus
+   * @return Eventos em ordem cronológica
+   */
+  static List<Evento> carregar(Path diretorio, LocalDate de, LocalDate ate) {
+    try (Stream<Path> arquivos = Files.walk(diretorio, 2)) {
+      return arquivos
+          .filter(Files::isRegularFile)
+          .map(arquivo -> NOME.matcher(arquivo.getFileName().toString()))
+          .filter(Matcher::matches)
+          .map(CorpusFixtures::evento)
+          .filter(evento -> de == null || !evento.instante().toLocalDate().isBefore(de))
+          .filter(evento -> ate == null || !evento.instante().toLocalDate().isAfter(ate))
+          .sorted(Comparator.comparing(Evento::instante))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Não foi possível ler o corpus em " + diretorio, e);
+    }
+  }
+
+  private static Evento evento(Matcher nome) {
+    LocalDateTime instante = LocalDateTime.of(grupo(nome, 1), grupo(nome, 2), grupo(nome, 3), grupo(nome, 4),
+        grupo(nome, 5), grupo(nome, 6));
+    return new Evento(instante, grupo(nome, 7));
+  }
+
+  private static int grupo(Matcher nome, int grupo) {
+    return Integer.parseInt(nome.group(grupo));
+  }
+}
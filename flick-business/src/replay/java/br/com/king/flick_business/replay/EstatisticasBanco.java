@@ -0,0 +1,66 @@
+package br.com.king.flick_business.replay;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Diferença dos contadores de {@code pg_stat_database} do banco da aplicação
+ * entre o início e o fim do replay.
+ */
+final class EstatisticasBanco {
+
+  private static final String[] CONTADORES = { "xact_commit", "xact_rollback", "blks_read", "blks_hit",
+      "tup_returned", "tup_fetched", "tup_inserted", "tup_updated", "tup_deleted", "deadlocks", "temp_bytes" };
+
+  private final String url;
+  private final String usuario;
+  private final String senha;
+  private Map<String, Long> inicio;
+
+  EstatisticasBanco(String url, String usuario, String senha) {
+    this.url = url;
+    this.usuario = usuario;
+    this.senha = senha;
+  }
+
+  void iniciar() throws SQLException {
+    inicio = ler();
+  }
+
+  void imprimir(PrintStream saida) throws SQLException {
+    Map<String, Long> fim = ler();
+    StringBuilder linha = new StringBuilder("Banco (pg_stat_database):");
+    for (String contador : CONTADORES) {
+      linha.append(' ').append(contador).append('=').append(fim.get(contador) - inicio.get(contador));
+    }
+    saida.println(linha);
+
+    long lidos = fim.get("blks_read") - inicio.get("blks_read");
+    long emCache = fim.get("blks_hit") - inicio.get("blks_hit");
+    if (lidos + emCache > 0) {
+      saida.printf("Blocos em cache: %.2f%%%n", 100.0 * emCache / (lidos + emCache));
+    }
+  }
+
+  private Map<String, Long> ler() throws SQLException {
+    try (Connection conexao = DriverManager.getConnection(url, usuario, senha);
+        Statement statement = conexao.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT " + String.join(", ", CONTADORES)
+            + " FROM pg_stat_database WHERE datname = current_database()")) {
+      if (!rs.next()) {
+        throw new SQLException("pg_stat_database sem linha para o banco atual");
+      }
+      Map<String, Long> valores = new LinkedHashMap<>();
+      for (String contador : CONTADORES) {
+        valores.put(contador, rs.getLong(contador));
+      }
+      return valores;
+    }
+  }
+}
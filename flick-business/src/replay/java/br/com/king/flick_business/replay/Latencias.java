@@ -0,0 +1,76 @@
+package br.com.king.flick_business.replay;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e status das requisições do replay.
+ *
+ * Cada requisição tem dois tempos: o de serviço (envio até resposta) e o de
+ * resposta, contado a partir do instante em que o corpus mandava enviá-la.
+ * Quando o servidor (ou o próprio replay) atrasa, só o segundo mostra a fila
+ * que o cliente real teria enfrentado.
+ */
+final class Latencias {
+
+  private static final double[] PERCENTIS = { 50, 90, 95, 99, 99.9 };
+
+  private long[] servico = new long[1024];
+  private long[] resposta = new long[1024];
+  private int total;
+  private final Map<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+  // Requisições concluídas por segundo de relógio, para achar o pico
+  private final Map<Long, LongAdder> porSegundo = new ConcurrentHashMap<>();
+
+  /**
+   * @param status        Status HTTP, ou 0 para falha sem resposta
+   * @param servicoNanos  Envio até a resposta
+   * @param respostaNanos Instante planejado até a resposta
+   */
+  void registrar(int status, long servicoNanos, long respostaNanos) {
+    porStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+    porSegundo.computeIfAbsent(System.currentTimeMillis() / 1000, s -> new LongAdder()).increment();
+    synchronized (this) {
+      if (total == servico.length) {
+        servico = Arrays.copyOf(servico, total * 2);
+        resposta = Arrays.copyOf(resposta, total * 2);
+      }
+      servico[total] = servicoNanos;
+      resposta[total] = respostaNanos;
+      total++;
+    }
+  }
+
+  synchronized void imprimir(PrintStream saida, double segundos) {
+    long erros = porStatus.entrySet().stream()
+        .filter(status -> status.getKey() == 0 || status.getKey() >= 400)
+        .mapToLong(status -> status.getValue().sum())
+        .sum();
+    long pico = porSegundo.values().stream().mapToLong(LongAdder::sum).max().orElse(0);
+
+    saida.printf("Requisições: %d em %.1f s (%.1f/s, pico de %d/s)%n", total, segundos, total / segundos, pico);
+    saida.printf("Erros: %d (%.2f%%)%n", erros, total == 0 ? 0.0 : 100.0 * erros / total);
+    saida.println("Por status (0 = sem resposta): " + new TreeMap<>(porStatus));
+    imprimir(saida, "Serviço ", Arrays.copyOf(servico, total));
+    imprimir(saida, "Resposta", Arrays.copyOf(resposta, total));
+  }
+
+  private static void imprimir(PrintStream saida, String nome, long[] nanos) {
+    if (nanos.length == 0) {
+      return;
+    }
+    Arrays.sort(nanos);
+    StringBuilder linha = new StringBuilder(nome).append(" (ms):");
+    for (double percentil : PERCENTIS) {
+      int indice = (int) Math.ceil(percentil / 100.0 * nanos.length) - 1;
+      linha.append(String.format(" p%s=%.1f", percentil % 1 == 0 ? String.valueOf((int) percentil) : percentil,
+          nanos[Math.max(indice, 0)] / 1e6));
+    }
+    linha.append(String.format(" max=%.1f", nanos[nanos.length - 1] / 1e6));
+    saida.println(linha);
+  }
+}
@@ -0,0 +1,200 @@
+package br.com.king.flick_business.replay;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.com.king.flick_business.replay.CorpusFixtures.Evento;
+
+/**
+ * Reproduz o corpus de {@code fixtures/} contra uma aplicação em execução,
+ * enviando cada venda como {@code POST /api/vendas} no instante correspondente,
+ * com o tempo comprimido por {@code --acelerar}. Assim os picos do dia real
+ * (almoço, fim da tarde) chegam ao servidor na mesma proporção.
+ *
+ * <pre>
+ * ./mvnw -Preplay test-compile exec:exec \
+ *     -Dreplay.args="--de=2023-03-01 --ate=2023-03-31 --acelerar=7200"
+ * </pre>
+ *
+ * Opções ({@code --nome=valor}):
+ * <ul>
+ * <li>{@code fixtures}: diretório do corpus (padrão {@code ../fixtures});</li>
+ * <li>{@code url}: endereço da aplicação (padrão
+ * {@code http://localhost:8080});</li>
+ * <li>{@code de}, {@code ate}: dias do corpus reproduzidos (padrão:
+ * todos);</li>
+ * <li>{@code acelerar}: segundos do corpus por segundo de relógio (padrão
+ * 3600);</li>
+ * <li>{@code ocioso-maximo}: maior pausa entre eventos depois da compressão,
+ * para não esperar noites e fins de semana (padrão PT2S);</li>
+ * <li>{@code timeout}: tempo máximo de cada requisição (padrão PT10S);</li>
+ * <li>{@code semente}: semente das cestas (padrão 42);</li>
+ * <li>{@code jdbc-url}, {@code jdbc-usuario}, {@code jdbc-senha}: banco
+ * PostgreSQL da aplicação, para reportar a diferença de
+ * {@code pg_stat_database} (opcional).</li>
+ * </ul>
+ *
+ * As cestas usam products ativos com estoque, lidos de {@code GET
+ * /api/products} no início; vendas recusadas por falta de estoque aparecem
+ * como erros 4xx no relatório.
+ */
+public final class ReplayVendas {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+  private static final String[] FORMAS = { "PIX", "DINHEIRO", "DEBITO", "CREDITO" };
+
+  private ReplayVendas() {
+  }
+
+  private record ProductReplay(long id, boolean porPeso) {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> opcoes = opcoes(args);
+    Path fixtures = Path.of(opcoes.getOrDefault("fixtures", "../fixtures"));
+    String url = opcoes.getOrDefault("url", "http://localhost:8080");
+    LocalDate de = opcoes.containsKey("de") ? LocalDate.parse(opcoes.get("de")) : null;
+    LocalDate ate = opcoes.containsKey("ate") ? LocalDate.parse(opcoes.get("ate")) : null;
+    double acelerar = Double.parseDouble(opcoes.getOrDefault("acelerar", "3600"));
+    Duration ociosoMaximo = Duration.parse(opcoes.getOrDefault("ocioso-maximo", "PT2S"));
+    Duration timeout = Duration.parse(opcoes.getOrDefault("timeout", "PT10S"));
+    SplittableRandom random = new SplittableRandom(Long.parseLong(opcoes.getOrDefault("semente", "42")));
+
+    List<Evento> eventos = CorpusFixtures.carregar(fixtures, de, ate);
+    if (eventos.isEmpty()) {
+      throw new IllegalArgumentException("Nenhum evento no corpus " + fixtures.toAbsolutePath() + " para o período");
+    }
+    long totalVendas = eventos.stream().mapToLong(Evento::vendas).sum();
+
+    HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(timeout).build();
+    List<ProductReplay> products = products(http, url, timeout);
+    if (products.isEmpty()) {
+      throw new IllegalStateException("Nenhum product ativo com estoque em " + url);
+    }
+
+    EstatisticasBanco banco = null;
+    if (opcoes.containsKey("jdbc-url")) {
+      banco = new EstatisticasBanco(opcoes.get("jdbc-url"), opcoes.get("jdbc-usuario"), opcoes.get("jdbc-senha"));
+      banco.iniciar();
+    }
+
+    System.out.printf("Replay de %d eventos (%d vendas) de %s a %s, %.0fx, %d products%n", eventos.size(),
+        totalVendas, eventos.get(0).instante(), eventos.get(eventos.size() - 1).instante(), acelerar,
+        products.size());
+
+    Latencias latencias = new Latencias();
+    long inicio = System.nanoTime();
+    long alvo = inicio;
+    Evento anterior = null;
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (Evento evento : eventos) {
+        if (anterior != null) {
+          long intervalo = (long) (Duration.between(anterior.instante(), evento.instante()).toNanos() / acelerar);
+          alvo += Math.min(intervalo, ociosoMaximo.toNanos());
+        }
+        anterior = evento;
+        esperarAte(alvo);
+
+        for (int i = 0; i < evento.vendas(); i++) {
+          String corpo = venda(random, products);
+          long planejado = alvo;
+          executor.submit(() -> enviar(http, url, corpo, timeout, planejado, latencias));
+        }
+      }
+      // close() aguarda as requisições em andamento
+    }
+    double segundos = (System.nanoTime() - inicio) / 1e9;
+
+    latencias.imprimir(System.out, segundos);
+    if (banco != null) {
+      // pg_stat_database é atualizado em intervalos de até um segundo
+      Thread.sleep(1_000);
+      banco.imprimir(System.out);
+    }
+  }
+
+  private static void enviar(HttpClient http, String url, String corpo, Duration timeout, long planejado,
+      Latencias latencias) {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/vendas"))
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+        .build();
+    long envio = System.nanoTime();
+    int status;
+    try {
+      status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    } catch (Exception e) {
+      status = 0;
+    }
+    long fim = System.nanoTime();
+    latencias.registrar(status, fim - envio, fim - planejado);
+  }
+
+  private static String venda(SplittableRandom random, List<ProductReplay> products) {
+    ObjectNode venda = JSON.createObjectNode();
+    ArrayNode itens = venda.putArray("itens");
+    int tamanhoCesta = 1 + random.nextInt(4);
+    for (int i = 0; i < tamanhoCesta; i++) {
+      ProductReplay product = products.get(random.nextInt(products.size()));
+      itens.addObject()
+          .put("idProduct", product.id())
+          .put("quantidade", product.porPeso() ? new BigDecimal("0.250") : BigDecimal.ONE);
+    }
+    venda.put("formaPagamento", FORMAS[random.nextInt(FORMAS.length)]);
+    return venda.toString();
+  }
+
+  private static List<ProductReplay> products(HttpClient http, String url, Duration timeout) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/products")).timeout(timeout).GET().build();
+    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("GET /api/products respondeu " + response.statusCode());
+    }
+    List<ProductReplay> products = new ArrayList<>();
+    for (JsonNode product : JSON.readTree(response.body())) {
+      if (product.path("active").asBoolean() && product.path("stockQuantity").asDouble() > 0) {
+        products.add(new ProductReplay(product.path("id").asLong(),
+            "PESO".equals(product.path("unitOfSale").asText())));
+      }
+    }
+    return products;
+  }
+
+  private static void esperarAte(long nanos) {
+    long restante;
+    while ((restante = nanos - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(restante);
+    }
+  }
+
+  private static Map<String, String> opcoes(String[] args) {
+    Map<String, String> opcoes = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+      }
+      opcoes.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+    }
+    return opcoes;
+  }
+}
@@ -0,0 +1,55 @@
+package br.com.king.flick_business.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConsultasPorRequisicaoFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ConsultasPorRequisicaoFilter filter;
+    private ContadorConsultas contador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ConsultasPorRequisicaoFilter(registry, 50);
+        contador = new ContadorConsultas();
+    }
+
+    @Test
+    @DisplayName("Deve registrar as instruções SQL da requisição com o padrão da URI")
+    void doFilter_DeveRegistrarConsultasPorRequisicao() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/vendas/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/vendas/{id}");
+            contador.inspect("select * from vendas where id=?");
+            contador.inspect("select * from itens_venda where venda_id=?");
+        });
+
+        DistributionSummary consultas = registry.get(ConsultasPorRequisicaoFilter.METRICA)
+                .tag("uri", "/api/vendas/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertEquals(1, consultas.count());
+        assertEquals(2, consultas.totalAmount());
+        assertNull(ContadorConsultas.atual());
+    }
+
+    @Test
+    @DisplayName("Não deve contar instruções fora de uma requisição")
+    void inspect_SemRequisicao_NaoDeveContar() {
+        assertEquals("select 1", contador.inspect("select 1"));
+        assertNull(ContadorConsultas.atual());
+    }
+}
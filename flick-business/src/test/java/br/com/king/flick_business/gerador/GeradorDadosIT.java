@@ -0,0 +1,90 @@
+package br.com.king.flick_business.gerador;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// Banco próprio: o gerador apaga as tabelas antes de popular
+@SpringBootTest(properties = {
+                "flick.gerador.periodo=60d",
+                "flick.gerador.vendas-por-dia=30",
+                "flick.gerador.products=80",
+                "flick.gerador.categorys=4",
+                "flick.gerador.clientes=15",
+                "flick.gerador.fiado=0.2",
+                "flick.gerador.lote=100",
+                "flick.gerador.limpar=true",
+                "spring.datasource.url=jdbc:h2:mem:flickdb_gerador;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@ActiveProfiles("test")
+class GeradorDadosIT {
+
+        @Autowired
+        private GeradorDados geradorDados;
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        @Test
+        @DisplayName("Deve gravar as quantidades informadas no resultado, com totais coerentes")
+        void gerar_DeveGravarDadosConsistentes() {
+                GeradorDados.Resultado resultado = geradorDados.gerar();
+
+                assertEquals(80, contar("products"));
+                assertEquals(15, contar("clientes"));
+                assertEquals(resultado.vendas(), contar("vendas"));
+                assertEquals(resultado.itens(), contar("itens_venda"));
+                assertEquals(resultado.expenses(), contar("expenses"));
+                assertTrue(resultado.vendas() > 60 * 15, "Vendas: " + resultado.vendas());
+
+                // valor_total de cada venda é a soma dos seus itens
+                assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM vendas v WHERE v.valor_total <> "
+                                + "(SELECT ROUND(SUM(i.quantidade * i.preco_unitario_venda), 2) FROM itens_venda i "
+                                + "WHERE i.venda_id = v.id)", Long.class));
+                assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM vendas WHERE forma_pagamento = 'FIADO' "
+                                + "AND id_cliente IS NULL", Long.class));
+                assertTrue(jdbc.queryForObject("SELECT COUNT(*) FROM clientes WHERE saldo_devedor > 0", Long.class) > 0);
+
+                // Resumo diário reconstruído a partir das vendas geradas
+                assertEquals(0, jdbc.queryForObject("SELECT SUM(valor_total) FROM vendas", BigDecimal.class)
+                                .compareTo(jdbc.queryForObject("SELECT SUM(total_vendas) FROM resumo_diario",
+                                                BigDecimal.class)));
+
+                // Sequences reposicionadas além dos ids gerados
+                assertTrue(jdbc.queryForObject("SELECT nextval('vendas_seq')", Long.class) > resultado.vendas());
+        }
+
+        @Test
+        @DisplayName("Deve gerar os mesmos dados com a mesma semente")
+        void gerar_DeveSerDeterministico() {
+                geradorDados.gerar();
+                BigDecimal primeiraCarga = jdbc.queryForObject("SELECT SUM(valor_total) FROM vendas", BigDecimal.class);
+                long primeirosItens = contar("itens_venda");
+
+                geradorDados.gerar();
+
+                assertEquals(primeiraCarga, jdbc.queryForObject("SELECT SUM(valor_total) FROM vendas", BigDecimal.class));
+                assertEquals(primeirosItens, contar("itens_venda"));
+        }
+
+        @Test
+        @DisplayName("Deve apagar o livro de estoque antigo: seus movimentos não valem para os products gerados")
+        void gerar_DeveLimparLivroDeEstoque() {
+                geradorDados.gerar();
+                jdbc.update("INSERT INTO movimentos_estoque (id, product_id, tipo, quantidade, data_movimento, "
+                                + "compactado) VALUES (1, 1, 'AJUSTE', -5, NOW(), FALSE)");
+
+                geradorDados.gerar();
+
+                assertEquals(0, contar("movimentos_estoque"));
+        }
+
+        private long contar(String tabela) {
+                return jdbc.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+        }
+}
@@ -0,0 +1,37 @@
+package br.com.king.flick_business.repository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import br.com.king.flick_business.entity.Venda;
+
+class VendaRepositoryTest {
+
+    @Test
+    @DisplayName("Venda removida entre a página de IDs e a busca fica de fora, sem null na página")
+    void findVendasComFilters_VendaRemovidaEntreAsFases_DeveFicarDeFora() {
+        VendaRepository repository = mock(VendaRepository.class);
+        Pageable pageable = PageRequest.of(0, 3);
+        when(repository.findVendasComFilters(any(), any(), any(), any(), any(), any())).thenCallRealMethod();
+        when(repository.findIdsVendasComFilters(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(3L, 1L, 2L), pageable, 3));
+        // A venda 1 foi removida depois da primeira fase
+        when(repository.findAllComClienteEItensByIdIn(any()))
+                .thenReturn(List.of(Venda.builder().id(2L).build(), Venda.builder().id(3L).build()));
+
+        Page<Venda> pagina = repository.findVendasComFilters(null, null, null, null, null, pageable);
+
+        assertEquals(List.of(3L, 2L), pagina.getContent().stream().map(Venda::getId).toList());
+        assertEquals(3, pagina.getTotalElements());
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.king.flick_business.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.request.ClienteRequestDTO;
+import br.com.king.flick_business.dto.response.ClienteResponseDTO;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoClientesIT {
+
+        @Autowired
+        private ClienteService clienteService;
+        @Autowired
+        private CatalogoClientes catalogoClientes;
+        @Autowired
+        private BuscaTrigramas buscaTrigramas;
+        @Autowired
+        private ClienteRepository clienteRepository;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                clienteRepository.deleteAll();
+                // Outros testes do contexto apagam clientes direto no repositório
+                catalogoClientes.recarregar();
+        }
+
+        private ClienteResponseDTO salvar(String name) {
+                return clienteService.salvar(new ClienteRequestDTO(name, null, null, null, false, null, true));
+        }
+
+        private List<Long> buscar(String termo) {
+                return clienteService.buscarPorName(termo, 10).stream().map(ClienteResponseDTO::id).toList();
+        }
+
+        @Test
+        @DisplayName("H2 usa o índice em memória: prefixo, trecho e erro de digitação, sem diferenciar acentos")
+        void buscaPorName() {
+                ClienteResponseDTO jose = salvar("José da Conceição");
+                ClienteResponseDTO joao = salvar("João Conceição Filho");
+                ClienteResponseDTO maria = salvar("Maria José Araújo");
+
+                assertFalse(buscaTrigramas.noBanco());
+                assertEquals(List.of(jose.id(), maria.id()), buscar("jose"));
+                assertEquals(List.of(joao.id(), jose.id()), buscar("CONCEICAO"));
+                assertEquals(List.of(joao.id(), jose.id()), buscar("conceisao"));
+                assertTrue(buscar("pereira").isEmpty());
+        }
+
+        @Test
+        @DisplayName("atualizar/delete refletem na busca depois do commit")
+        void alteracoesRefletemNaBusca() {
+                ClienteResponseDTO ana = salvar("Ana Paula");
+                assertEquals(List.of(ana.id()), buscar("paula"));
+
+                clienteService.atualizar(ana.id(),
+                                new ClienteRequestDTO("Ana Beatriz", null, null, null, false, null, true));
+                assertTrue(buscar("paula").isEmpty());
+                assertEquals(List.of(ana.id()), buscar("beatriz"));
+
+                clienteService.delete(ana.id());
+                assertTrue(buscar("beatriz").isEmpty());
+
+                clienteService.ativarInativar(ana.id(), true);
+                assertEquals(List.of(ana.id()), buscar("beatriz"));
+        }
+}
@@ -0,0 +1,109 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.dto.ProductRequestDTO;
+import br.com.king.flick_business.dto.ProductResponseDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoProductsIT {
+
+        @Autowired
+        private ProductService productService;
+        @Autowired
+        private CatalogoProducts catalogoProducts;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+
+        private Category mercearia;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                // Outros testes do contexto apagam products direto no repositório
+                catalogoProducts.recarregar();
+
+                mercearia = categoryRepository.save(Category.builder().name("Mercearia").build());
+        }
+
+        private ProductRequestDTO request(String name, String barcode, String preco, boolean active) {
+                return new ProductRequestDTO(name, null, barcode, new BigDecimal("10"), new BigDecimal(preco), null,
+                                UnitOfSale.UNIDADE, active, mercearia.getId(), null);
+        }
+
+        @Test
+        @DisplayName("salvar/atualizar/deleteLogicamente refletem no catálogo depois do commit")
+        void alteracoesRefletemNoCatalogo() {
+                ProductResponseDTO arroz = productService.salvar(request("Arroz Tipo 1", "7891000100103", "25.00", true));
+
+                ProductCatalogoDTO encontrado = productService.buscarPorBarcode("7891000100103");
+                assertEquals(arroz.id(), encontrado.id());
+                assertEquals(0, new BigDecimal("25.00").compareTo(encontrado.salePrice()));
+                assertEquals(List.of(arroz.id()),
+                                productService.buscarNoCatalogo("tipo", 10).stream().map(ProductCatalogoDTO::id).toList());
+
+                productService.atualizar(arroz.id(), request("Arroz Agulhinha", "7891000100110", "27.90", true));
+
+                assertThrows(RecursoNaoEncontrado.class, () -> productService.buscarPorBarcode("7891000100103"));
+                assertEquals(0, new BigDecimal("27.90")
+                                .compareTo(productService.buscarPorBarcode("7891000100110").salePrice()));
+                assertTrue(productService.buscarNoCatalogo("tipo", 10).isEmpty());
+
+                productService.deleteLogicamente(arroz.id());
+                assertThrows(RecursoNaoEncontrado.class, () -> productService.buscarPorBarcode("7891000100110"));
+
+                // Reativado: volta ao catálogo
+                productService.deleteLogicamente(arroz.id());
+                assertEquals(arroz.id(), productService.buscarPorBarcode("7891000100110").id());
+        }
+
+        @Test
+        @DisplayName("Products inativos não entram no catálogo")
+        void inativosForaDoCatalogo() {
+                productService.salvar(request("Sabão em Pó", "7891000200100", "15.00", false));
+
+                assertThrows(RecursoNaoEncontrado.class, () -> productService.buscarPorBarcode("7891000200100"));
+                assertTrue(productService.buscarNoCatalogo("sabao", 10).isEmpty());
+        }
+}
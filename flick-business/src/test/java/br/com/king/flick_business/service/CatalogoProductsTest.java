@@ -0,0 +1,117 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogoProductsTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CatalogoProducts catalogo;
+    private final List<ProductCatalogoDTO> ativos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ativos.add(product(1L, "Arroz Branco 5kg", "7890000000017"));
+        ativos.add(product(2L, "Feijão Carioca", "7890000000024"));
+        ativos.add(product(3L, "Pão Francês", null));
+        ativos.add(product(4L, "Açúcar Refinado", "7890000000031"));
+        ativos.add(product(5L, "Arroz Integral", "7890000000048"));
+        when(productRepository.findCatalogo()).thenReturn(ativos);
+        catalogo = new CatalogoProducts(productRepository, Duration.ofMinutes(10));
+    }
+
+    private ProductCatalogoDTO product(Long id, String name, String barcode) {
+        return new ProductCatalogoDTO(id, name, barcode, BigDecimal.TEN, UnitOfSale.UNIDADE);
+    }
+
+    private List<Long> ids(List<ProductCatalogoDTO> products) {
+        return products.stream().map(ProductCatalogoDTO::id).toList();
+    }
+
+    @Test
+    @DisplayName("Busca por barcode usa o índice carregado uma única vez")
+    void buscarPorBarcode() {
+        assertEquals(2L, catalogo.buscarPorBarcode("7890000000024").orElseThrow().id());
+        assertTrue(catalogo.buscarPorBarcode("0000").isEmpty());
+        assertEquals(5, catalogo.tamanho());
+        verify(productRepository, times(1)).findCatalogo();
+    }
+
+    @Test
+    @DisplayName("Busca por name: prefixo antes de trecho, sem diferenciar maiúsculas e acentos")
+    void buscarPorName() {
+        assertEquals(List.of(1L, 5L), ids(catalogo.buscarPorName("arroz", 10)));
+        assertEquals(List.of(3L), ids(catalogo.buscarPorName("PAO", 10)));
+        assertEquals(List.of(4L), ids(catalogo.buscarPorName("acucar", 10)));
+        // Trecho (trigramas): "integral" não é prefixo de nenhum name
+        assertEquals(List.of(5L), ids(catalogo.buscarPorName("integral", 10)));
+        // Prefixo "a" (Açúcar, Arroz...) vem antes dos names que só contêm "a"
+        List<Long> comA = ids(catalogo.buscarPorName("a", 10));
+        assertEquals(List.of(4L, 1L, 5L), comA.subList(0, 3));
+        assertEquals(5, comA.size());
+        assertEquals(2, catalogo.buscarPorName("a", 2).size());
+        assertTrue(catalogo.buscarPorName("rroz br", 10).stream().allMatch(p -> p.id() == 1L));
+        assertTrue(catalogo.buscarPorName("xyz", 10).isEmpty());
+        assertTrue(catalogo.buscarPorName("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("ProductAlterado relê só o product: atualiza índices ou remove quando inactive")
+    void aoAlterarProduct() {
+        catalogo.tamanho();
+
+        when(productRepository.findCatalogoById(1L))
+                .thenReturn(Optional.of(product(1L, "Arroz Parboilizado 5kg", "7890000000099")));
+        catalogo.aoAlterarProduct(new ProductAlterado(1L));
+
+        assertTrue(catalogo.buscarPorBarcode("7890000000017").isEmpty());
+        assertEquals(1L, catalogo.buscarPorBarcode("7890000000099").orElseThrow().id());
+        assertEquals(List.of(1L), ids(catalogo.buscarPorName("parboil", 10)));
+        assertTrue(catalogo.buscarPorName("branco", 10).isEmpty());
+
+        // Desativado (ou apagado): sai do catálogo
+        when(productRepository.findCatalogoById(2L)).thenReturn(Optional.empty());
+        catalogo.aoAlterarProduct(new ProductAlterado(2L));
+        assertTrue(catalogo.buscarPorBarcode("7890000000024").isEmpty());
+        assertTrue(catalogo.buscarPorName("feijao", 10).isEmpty());
+        assertEquals(4, catalogo.tamanho());
+
+        // Novo product
+        when(productRepository.findCatalogoById(6L))
+                .thenReturn(Optional.of(product(6L, "Café Torrado", "7890000000055")));
+        catalogo.aoAlterarProduct(new ProductAlterado(6L));
+        assertEquals(6L, catalogo.buscarPorBarcode("7890000000055").orElseThrow().id());
+        verify(productRepository, times(1)).findCatalogo();
+    }
+
+    @Test
+    @DisplayName("ProductAlterado antes da primeira carga não consulta o banco")
+    void aoAlterarProduct_antesDaCarga() {
+        catalogo.aoAlterarProduct(new ProductAlterado(1L));
+
+        verify(productRepository, times(0)).findCatalogoById(1L);
+        assertEquals(5, catalogo.tamanho());
+    }
+}
@@ -22,9 +22,14 @@ import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 
 import br.com.king.flick_business.dto.request.ClienteRequestDTO;
@@ -38,6 +43,12 @@ class ClienteServiceTest {
 
   @Mock
   private ClienteRepository clienteRepositoryMock;
+  @Mock
+  private CatalogoClientes catalogoClientesMock;
+  @Mock
+  private BuscaTrigramas buscaTrigramasMock;
+  @Mock
+  private ApplicationEventPublisher eventPublisherMock;
 
   @InjectMocks
   private ClienteService clienteService;
@@ -251,4 +262,39 @@ class ClienteServiceTest {
         isNull(),
         any(Sort.class));
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("buscarPorName: Sem pg_trgm, deve usar o índice em memória e manter a ordem do ranking")
+  void buscarPorName_emMemoria_mantemOrdemDoRanking() {
+    Cliente joana = Cliente.builder().id(2L).name("Joana Conceição").build();
+    when(buscaTrigramasMock.noBanco()).thenReturn(false);
+    when(catalogoClientesMock.buscarPorName("jo", 5)).thenReturn(List.of(2L, idExistente));
+    when(clienteRepositoryMock.findAllById(List.of(2L, idExistente))).thenReturn(List.of(clienteExistente, joana));
+
+    List<ClienteResponseDTO> resultado = clienteService.buscarPorName("jo", 5);
+
+    assertEquals(List.of(2L, idExistente), resultado.stream().map(ClienteResponseDTO::id).toList());
+    verify(clienteRepositoryMock, never()).findIdsPorBuscaTrigramas(any(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("buscarPorName: Termo vazio não consulta índice nem banco")
+  void buscarPorName_termoVazio_retornaListaVazia() {
+    assertTrue(clienteService.buscarPorName("  ", 5).isEmpty());
+    verifyNoInteractions(catalogoClientesMock, clienteRepositoryMock);
+  }
+
+  @Test
+  @DisplayName("salvar/delete: Devem publicar ClienteAlterado para o índice de busca")
+  void salvarEDelete_publicamClienteAlterado() {
+    when(clienteRepositoryMock.findByCpf(clienteRequestDTO.cpf())).thenReturn(Optional.empty());
+    when(clienteRepositoryMock.save(any(Cliente.class))).thenReturn(clienteExistente);
+    clienteService.salvar(clienteRequestDTO);
+
+    clienteExistente.setSaldoDevedor(BigDecimal.ZERO);
+    when(clienteRepositoryMock.findById(idExistente)).thenReturn(Optional.of(clienteExistente));
+    clienteService.delete(idExistente);
+
+    verify(eventPublisherMock, times(2)).publishEvent(new ClienteAlterado(idExistente));
+  }
+}
@@ -0,0 +1,199 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Expense;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Provider;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.TipoExpense;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ExpenseRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ProviderRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import br.com.king.flick_business.support.ContadorSql;
+
+// Máximo de instruções SQL por chamada de listagem/detalhe. Os limites não
+// dependem da quantidade de linhas: qualquer N+1 (ex.: category/provider
+// carregados product a product) estoura o limite e a falha lista as instruções.
+// Banco próprio: o DataSource deste contexto é envolvido pelo ContadorSql
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:flickdb_consultas;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(ContadorSql.Configuracao.class)
+class ConsultasPorChamadaIT {
+
+        private static final ZoneId ZONA = ZoneId.systemDefault();
+        private static final int PRODUCTS = 12;
+        private static final int VENDAS = 15;
+
+        @Autowired
+        private MockMvc mockMvc;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private CatalogoProducts catalogoProducts;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ProviderRepository providerRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+        @Autowired
+        private ExpenseRepository expenseRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+
+        private final List<Product> products = new ArrayList<>();
+        private Cliente cliente;
+        private Long vendaId;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                providerRepository.deleteAll();
+                clienteRepository.deleteAll();
+                expenseRepository.deleteAll();
+                products.clear();
+
+                // Cada product com category e provider próprios: um N+1 nessas
+                // associações gera uma consulta por product
+                for (int i = 0; i < PRODUCTS; i++) {
+                        Category category = categoryRepository.save(Category.builder().name("Categoria " + i).build());
+                        Provider provider = providerRepository.save(Provider.builder().name("Provider " + i).build());
+                        products.add(productRepository.save(Product.builder().name("Product " + i)
+                                        .barcode(String.format("789%010d", i)).category(category)
+                                        .provider(provider).salePrice(new BigDecimal("10.00"))
+                                        .stockQuantity(new BigDecimal("1000")).unitOfSale(UnitOfSale.UNIDADE)
+                                        .active(true).build()));
+                }
+                for (int i = 0; i < 5; i++) {
+                        Cliente novo = clienteRepository.save(Cliente.builder().name("Cliente " + i)
+                                        .cpf(String.format("%011d", i)).controleFiado(true)
+                                        .limiteFiado(new BigDecimal("100000")).build());
+                        cliente = cliente == null ? novo : cliente;
+                }
+                for (int i = 0; i < VENDAS; i++) {
+                        List<ItemVendaRequestDTO> itens = List.of(
+                                        new ItemVendaRequestDTO(products.get(i % PRODUCTS).getId(), BigDecimal.ONE),
+                                        new ItemVendaRequestDTO(products.get((i + 1) % PRODUCTS).getId(), BigDecimal.ONE),
+                                        new ItemVendaRequestDTO(products.get((i + 2) % PRODUCTS).getId(), BigDecimal.ONE));
+                        VendaResponseDTO venda = vendaService.registrarVenda(new VendaRequestDTO(
+                                        i % 3 == 0 ? cliente.getId() : null, itens,
+                                        i % 3 == 0 ? FormaPagamento.FIADO : FormaPagamento.PIX, null));
+                        vendaId = venda.id();
+                }
+                for (int i = 0; i < 5; i++) {
+                        expenseRepository.save(Expense.builder().name("Expense " + i).valor(new BigDecimal("50.00"))
+                                        .dataExpense(ZonedDateTime.now(ZONA)).tipoExpense(TipoExpense.EMPRESARIAL)
+                                        .build());
+                }
+        }
+
+        @Test
+        @DisplayName("Vendas: listagem paginada, scroll e detalhe com número fixo de consultas")
+        void vendas() {
+                // IDs da página, contagem e vendas com cliente/itens/products
+                ContadorSql.assertMaximo(3, () -> get("/api/vendas?size=8"));
+                ContadorSql.assertMaximo(2, () -> get("/api/vendas/scroll?size=8"));
+                ContadorSql.assertMaximo(1, () -> get("/api/vendas/" + vendaId));
+                ContadorSql.assertMaximo(1, () -> get("/api/vendas/summary-by-group?groupBy=dataVenda"));
+        }
+
+        @Test
+        @DisplayName("Products: listagens (inclusive ranking de vendas) e detalhe sem N+1 em category/provider")
+        void products() {
+                ContadorSql.assertMaximo(1, () -> get("/api/products"));
+                ContadorSql.assertMaximo(1, () -> get("/api/products?orderBy=maisCaro"));
+                ContadorSql.assertMaximo(1, () -> get("/api/products?categoryId=" + products.get(0).getCategory().getId()));
+                // Ranking: um SELECT com ranking_vendas_product (as janelas são recalculadas
+                // pelo agendador, nunca na requisição)
+                ContadorSql.assertMaximo(1, () -> get("/api/products?orderBy=maisVendido"));
+                ContadorSql.assertMaximo(1, () -> get("/api/products?orderBy=menosVendido&janelaVendas=ULTIMOS_30_DIAS"));
+                ContadorSql.assertMaximo(1, () -> get("/api/products/" + products.get(0).getId()));
+        }
+
+        @Test
+        @DisplayName("Caixa: consultas por barcode e name atendidas pelo catálogo, sem SQL")
+        void catalogo() {
+                // setUp grava direto no repositório (sem ProductAlterado): recarrega
+                catalogoProducts.recarregar();
+
+                ContadorSql.assertMaximo(0, () -> get("/api/products/barcode/" + products.get(3).getBarcode()));
+                ContadorSql.assertMaximo(0, () -> get("/api/products/catalogo?q=product 1"));
+        }
+
+        @Test
+        @DisplayName("Cadastros: clientes, expenses, categorias e providers em uma consulta")
+        void cadastros() {
+                ContadorSql.assertMaximo(1, () -> get("/api/clientes"));
+                ContadorSql.assertMaximo(1, () -> get("/api/clientes/" + cliente.getId()));
+                ContadorSql.assertMaximo(1, () -> get("/api/expenses"));
+                ContadorSql.assertMaximo(1, () -> get("/api/categorys"));
+                ContadorSql.assertMaximo(1, () -> get("/api/categorys/" + products.get(0).getCategory().getId()));
+                ContadorSql.assertMaximo(1, () -> get("/api/providers"));
+                ContadorSql.assertMaximo(1, () -> get("/api/providers/" + products.get(0).getProvider().getId()));
+        }
+
+        @Test
+        @DisplayName("Dashboard: resumo lido das tabelas de rollup")
+        void dashboard() {
+                LocalDate hoje = LocalDate.now(ZONA);
+                ContadorSql.assertMaximo(3,
+                                () -> get("/api/dashboard/summary?startDate=" + hoje.minusDays(6) + "&endDate=" + hoje));
+        }
+
+        private MvcResult get(String url) {
+                try {
+                        return mockMvc.perform(MockMvcRequestBuilders.get(url)).andExpect(status().isOk()).andReturn();
+                } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                }
+        }
+}
@@ -0,0 +1,100 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.king.flick_business.dto.DashboardCacheEstatisticasDTO;
+import br.com.king.flick_business.dto.DashboardSummaryDTO;
+
+class DashboardCacheTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 18);
+
+    private DashboardCache dashboardCache;
+    private AtomicInteger calculos;
+
+    @BeforeEach
+    void setUp() {
+        dashboardCache = new DashboardCache(true, 100, Duration.ofMinutes(10));
+        calculos = new AtomicInteger();
+    }
+
+    private DashboardSummaryDTO calcular() {
+        calculos.incrementAndGet();
+        return new DashboardSummaryDTO(BigDecimal.TEN, Map.of(), BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.TEN,
+                1L, null, List.of());
+    }
+
+    private DashboardCache.Chave chave(LocalDate inicio, LocalDate fim) {
+        return new DashboardCache.Chave(inicio, fim, ZONA);
+    }
+
+    @Test
+    @DisplayName("Deve calcular uma vez e servir as chamadas seguintes do cache")
+    void obter_MesmaChave_DeveCalcularUmaVez() {
+        DashboardSummaryDTO primeiro = dashboardCache.obter(chave(HOJE, HOJE), this::calcular);
+        DashboardSummaryDTO segundo = dashboardCache.obter(chave(HOJE, HOJE), this::calcular);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+        DashboardCacheEstatisticasDTO estatisticas = dashboardCache.estatisticas();
+        assertEquals(1, estatisticas.acertos());
+        assertEquals(1, estatisticas.falhas());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar apenas os períodos que cobrem o dia alterado")
+    void aoAlterarDias_DeveInvalidarSomentePeriodosAfetados() {
+        DashboardCache.Chave hoje = chave(HOJE, HOJE);
+        DashboardCache.Chave semana = chave(HOJE.minusDays(6), HOJE);
+        DashboardCache.Chave ontem = chave(HOJE.minusDays(1), HOJE.minusDays(1));
+        dashboardCache.obter(hoje, this::calcular);
+        dashboardCache.obter(semana, this::calcular);
+        dashboardCache.obter(ontem, this::calcular);
+
+        dashboardCache.aoAlterarDias(new DiasResumoAlterados(HOJE, HOJE));
+
+        dashboardCache.obter(hoje, this::calcular);
+        dashboardCache.obter(semana, this::calcular);
+        dashboardCache.obter(ontem, this::calcular);
+        assertEquals(5, calculos.get());
+        assertEquals(2, dashboardCache.estatisticas().invalidacoes());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar resumo calculado enquanto uma alteração era confirmada")
+    void obter_InvalidacaoDuranteCalculo_NaoDeveGuardarResultado() {
+        dashboardCache.obter(chave(HOJE, HOJE), () -> {
+            // Commit de uma venda de hoje enquanto o resumo antigo era calculado
+            dashboardCache.aoAlterarDias(new DiasResumoAlterados(HOJE, HOJE));
+            return calcular();
+        });
+        assertEquals(0, dashboardCache.estatisticas().tamanho());
+
+        dashboardCache.obter(chave(HOJE, HOJE), this::calcular);
+        assertEquals(2, calculos.get());
+    }
+
+    @Test
+    @DisplayName("Cache desabilitado deve sempre calcular")
+    void obter_Desabilitado_DeveSempreCalcular() {
+        dashboardCache = new DashboardCache(false, 100, Duration.ofMinutes(10));
+
+        dashboardCache.obter(chave(HOJE, HOJE), this::calcular);
+        dashboardCache.obter(chave(HOJE, HOJE), this::calcular);
+
+        assertEquals(2, calculos.get());
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.ConsultaExpirada;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardConsultaExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private DashboardConsultaExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.encerrar();
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Modo paralelo não deve ocupar mais conexões do que o limite configurado")
+    void executar_Paralelo_DeveRespeitarLimiteDeConsultasSimultaneas() {
+        executor = new DashboardConsultaExecutor(transactionManagerMock, DashboardConsultaExecutor.Modo.PARALELO, 2,
+                Duration.ofSeconds(5));
+        AtomicInteger emExecucao = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        Map<String, Duration> tempos = new LinkedHashMap<>();
+
+        int soma = executor.executar(tempos, lote -> {
+            Future<?>[] consultas = new Future<?>[6];
+            for (int i = 0; i < consultas.length; i++) {
+                int valor = i;
+                consultas[i] = lote.submeter("consulta_" + i, () -> {
+                    pico.accumulateAndGet(emExecucao.incrementAndGet(), Math::max);
+                    dormir(30);
+                    emExecucao.decrementAndGet();
+                    return valor;
+                });
+            }
+            lote.aguardar();
+            int total = 0;
+            for (Future<?> consulta : consultas) {
+                total += (Integer) consulta.resultNow();
+            }
+            return total;
+        });
+
+        assertEquals(15, soma);
+        assertEquals(6, tempos.size());
+        assertTrue(pico.get() <= 2, "pico de consultas simultâneas: " + pico.get());
+    }
+
+    @Test
+    @DisplayName("Deve lançar ConsultaExpirada quando o lote excede o timeout")
+    void executar_Paralelo_DeveExpirarConsultasLentas() {
+        executor = new DashboardConsultaExecutor(transactionManagerMock, DashboardConsultaExecutor.Modo.PARALELO, 4,
+                Duration.ofMillis(50));
+
+        assertThrows(ConsultaExpirada.class, () -> executor.executar(new LinkedHashMap<>(), lote -> {
+            lote.submeter("lenta", () -> {
+                dormir(2_000);
+                return 1;
+            });
+            lote.aguardar();
+            return null;
+        }));
+    }
+
+    @Test
+    @DisplayName("Deve propagar a exceção da consulta que falhou")
+    void executar_Paralelo_DevePropagarFalhaDaConsulta() {
+        executor = new DashboardConsultaExecutor(transactionManagerMock, DashboardConsultaExecutor.Modo.PARALELO, 4,
+                Duration.ofSeconds(5));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> executor.executar(new LinkedHashMap<>(), lote -> {
+                    lote.submeter("ok", () -> 1);
+                    lote.submeter("falha", () -> {
+                        throw new BusinessException("falhou");
+                    });
+                    lote.aguardar();
+                    return null;
+                }));
+        assertEquals("falhou", ex.getMessage());
+    }
+}
@@ -5,7 +5,12 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.LocalTime; // Importar todas as entidades
 import java.time.ZoneId;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse; // Importar todos os repositórios
@@ -15,6 +20,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test; // Para usar application-test.properties
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -30,12 +39,16 @@ import br.com.king.flick_business.entity.Product;
 import br.com.king.flick_business.entity.Venda;
 import br.com.king.flick_business.enums.FormaPagamento;
 import br.com.king.flick_business.enums.TipoExpense;
+import br.com.king.flick_business.enums.UnitOfSale;
 import br.com.king.flick_business.repository.CategoryRepository;
 import br.com.king.flick_business.repository.ClienteRepository;
 import br.com.king.flick_business.repository.ExpenseRepository;
 import br.com.king.flick_business.repository.ProviderRepository;
 import br.com.king.flick_business.repository.ItemVendaRepository;
 import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
 import br.com.king.flick_business.repository.VendaRepository;
 
 @SpringBootTest // Carrega o contexto completo da aplicação Spring Boot
@@ -60,6 +73,18 @@ class DashboardServiceIT {
         private ProviderRepository providerRepository;
         @Autowired
         private ExpenseRepository expenseRepository;
+        @Autowired
+        private ResumoDiarioService resumoDiarioService;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+        @Autowired
+        private DashboardConsultaExecutor dashboardConsultaExecutor;
+        @Autowired
+        private DashboardCache dashboardCache;
 
         // Dados de referência
         private Cliente cliente1;
@@ -81,6 +106,13 @@ class DashboardServiceIT {
                 // Datas de referência
                 LocalDate hoje = LocalDate.now();
                 hojeMeioDia = hoje.atTime(LocalTime.NOON).atZone(java.time.ZoneId.systemDefault());
+                // Antes do meio-dia a venda de "hoje" seria futura (recusada): fica um pouco antes de agora
+                ZonedDateTime agora = ZonedDateTime.now();
+                if (hojeMeioDia.isAfter(agora)) {
+                        hojeMeioDia = agora.minusSeconds(1).isBefore(hoje.atStartOfDay(ZoneId.systemDefault()))
+                                        ? hoje.atStartOfDay(ZoneId.systemDefault())
+                                        : agora.minusSeconds(1);
+                }
                 ontemMeioDia = hoje.minusDays(1).atTime(LocalTime.NOON).atZone(java.time.ZoneId.systemDefault());
                 inicioMesPassado = hoje.minusMonths(1).withDayOfMonth(1).atStartOfDay()
                                 .atZone(java.time.ZoneId.systemDefault());
@@ -103,19 +135,19 @@ class DashboardServiceIT {
                                 .save(Product.builder().name("Product A").category(categoryEletronicos)
                                                 .provider(providerX)
                                                 .salePrice(new BigDecimal("100.00"))
-                                                .stockQuantity(new BigDecimal("10")).active(true)
+                                                .stockQuantity(new BigDecimal("10")).unitOfSale(UnitOfSale.UNIDADE).active(true)
                                                 .build());
                 productB = productRepository
                                 .save(Product.builder().name("Product B").category(categoryEletronicos)
                                                 .provider(providerX)
                                                 .salePrice(new BigDecimal("50.00"))
-                                                .stockQuantity(new BigDecimal("5")).active(true)
+                                                .stockQuantity(new BigDecimal("5")).unitOfSale(UnitOfSale.UNIDADE).active(true)
                                                 .build());
                 productC = productRepository
                                 .save(Product.builder().name("Product C").category(categoryEletronicos)
                                                 .provider(providerX)
                                                 .salePrice(new BigDecimal("20.00"))
-                                                .stockQuantity(new BigDecimal("20")).active(true)
+                                                .stockQuantity(new BigDecimal("20")).unitOfSale(UnitOfSale.UNIDADE).active(true)
                                                 .build());
 
                 // --- VENDAS ---
@@ -162,6 +194,11 @@ class DashboardServiceIT {
                 expenseRepository.save(Expense.builder().name("Marketing").valor(new BigDecimal("30.00"))
                                 .tipoExpense(TipoExpense.INVESTIMENTO).dataExpense(inicioMesPassado.plusDays(10))
                                 .build());
+
+                // Os dados acima foram gravados direto nos repositórios: popula o resumo
+                // diário que atende os períodos de dias inteiros
+                resumoDiarioService.reconstruir(inicioMesPassado.toLocalDate().minusDays(1),
+                                LocalDate.now().plusYears(1).plusDays(1));
         }
 
         @Test
@@ -296,4 +333,105 @@ class DashboardServiceIT {
                         assertEquals(0, BigDecimal.ZERO.compareTo(valor), "Valor para " + forma + " deveria ser zero.");
                 });
         }
-}
\ No newline at end of file
+
+        // Serviço igual ao do contexto, com a agregação informada
+        private DashboardService comAgregacao(DashboardService.Agregacao agregacao) {
+                return new DashboardService(vendaRepository, expenseRepository, itemVendaRepository,
+                                resumoDiarioRepository, resumoDiarioPagamentoRepository, resumoDiarioProductRepository,
+                                dashboardConsultaExecutor, agregacao, dashboardCache);
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @EnumSource(DashboardService.Agregacao.class)
+        @DisplayName("getDashboardSummary: Cada agregação dá os totais esperados da massa nas tabelas brutas")
+        void getDashboardSummary_porAgregacao_deveRetornarTotaisDaMassa(DashboardService.Agregacao agregacao) {
+                // Fim ao meio-dia de amanhã: não cobre dias inteiros, então não usa o resumo diário
+                ZonedDateTime inicio = inicioMesPassado.minusDays(1);
+                ZonedDateTime fim = hojeMeioDia.toLocalDate().plusDays(1).atTime(LocalTime.NOON)
+                                .atZone(ZoneId.systemDefault());
+                Map<String, Duration> tempos = new LinkedHashMap<>();
+
+                DashboardSummaryDTO summary = comAgregacao(agregacao).getDashboardSummary(inicio, fim, tempos);
+
+                assertEquals(agregacao == DashboardService.Agregacao.PASSADA_UNICA
+                                ? Set.of("agregados_passada_unica")
+                                : Set.of("vendas_total", "vendas_quantidade", "vendas_por_forma_pagamento",
+                                                "expenses_total", "product_mais_vendido", "vendas_diarias"),
+                                tempos.keySet());
+                assertEquals(0, new BigDecimal("500.00").compareTo(summary.totalVendasBruto()));
+                assertEquals(3L, summary.quantidadeVendas());
+                assertEquals(0, new BigDecimal("166.67").compareTo(summary.ticketMedio()));
+                assertEquals(0, new BigDecimal("100.00").compareTo(summary.totalExpenses()));
+                assertEquals(0, new BigDecimal("400.00").compareTo(summary.lucroBrutoEstimado()));
+                assertEquals(0, new BigDecimal("250.00")
+                                .compareTo(summary.totalVendasPorFormaPagamento().get(FormaPagamento.PIX)));
+                assertEquals(0, new BigDecimal("150.00")
+                                .compareTo(summary.totalVendasPorFormaPagamento().get(FormaPagamento.FIADO)));
+                assertEquals(0, new BigDecimal("100.00")
+                                .compareTo(summary.totalVendasPorFormaPagamento().get(FormaPagamento.DINHEIRO)));
+                // Mais vendido por quantidade: 5 unidades de C contra 4 de B
+                assertEquals(productC.getId(), summary.productMaisVendido().productId());
+                assertEquals(0, new BigDecimal("100.00")
+                                .compareTo(summary.productMaisVendido().valorTotalVendidoProduct()));
+                assertEquals(List.of(inicioMesPassado.plusDays(5).toLocalDate(), ontemMeioDia.toLocalDate(),
+                                hojeMeioDia.toLocalDate()),
+                                summary.graficoVendasDiarias().stream().map(DataPointDTO::data).toList());
+        }
+
+        static Stream<Arguments> periodosBrutos() {
+                ZoneId zona = ZoneId.systemDefault();
+                LocalDate hoje = LocalDate.now();
+                return Stream.of(
+                                Arguments.of("todo o período", hoje.minusMonths(1).withDayOfMonth(1).minusDays(1)
+                                                .atStartOfDay(zona), hoje.plusDays(1).atTime(LocalTime.NOON).atZone(zona)),
+                                Arguments.of("manhã de hoje", hoje.atStartOfDay(zona),
+                                                hoje.atTime(LocalTime.NOON).plusMinutes(1).atZone(zona)),
+                                Arguments.of("ontem e hoje parciais", hoje.minusDays(1).atTime(6, 0).atZone(zona),
+                                                hoje.atTime(18, 0).atZone(zona)),
+                                Arguments.of("sem dados", hoje.plusYears(1).atStartOfDay(zona),
+                                                hoje.plusYears(1).atTime(LocalTime.NOON).atZone(zona)));
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("periodosBrutos")
+        @DisplayName("getDashboardSummary: Passada única deve coincidir com as consultas separadas")
+        void getDashboardSummary_passadaUnica_deveCoincidirComConsultasSeparadas(String descricao,
+                        ZonedDateTime inicio, ZonedDateTime fim) {
+                Map<String, Duration> temposSeparadas = new LinkedHashMap<>();
+                Map<String, Duration> tempos = new LinkedHashMap<>();
+
+                DashboardSummaryDTO esperado = comAgregacao(DashboardService.Agregacao.CONSULTAS_SEPARADAS)
+                                .getDashboardSummary(inicio, fim, temposSeparadas);
+                DashboardSummaryDTO summary = comAgregacao(DashboardService.Agregacao.PASSADA_UNICA)
+                                .getDashboardSummary(inicio, fim, tempos);
+
+                // Cada lado passou pela sua agregação (nenhum pelo resumo diário)
+                assertEquals(6, temposSeparadas.size());
+                assertEquals(List.of("agregados_passada_unica"), List.copyOf(tempos.keySet()));
+                assertEquals(0, esperado.totalVendasBruto().compareTo(summary.totalVendasBruto()));
+                assertEquals(esperado.quantidadeVendas(), summary.quantidadeVendas());
+                assertEquals(0, esperado.ticketMedio().compareTo(summary.ticketMedio()));
+                assertEquals(0, esperado.totalExpenses().compareTo(summary.totalExpenses()));
+                assertEquals(0, esperado.lucroBrutoEstimado().compareTo(summary.lucroBrutoEstimado()));
+                esperado.totalVendasPorFormaPagamento().forEach((forma, valor) -> assertEquals(0,
+                                valor.compareTo(summary.totalVendasPorFormaPagamento().get(forma)), forma.name()));
+                if (esperado.productMaisVendido() == null) {
+                        assertNull(summary.productMaisVendido());
+                } else {
+                        assertEquals(esperado.productMaisVendido().productId(), summary.productMaisVendido().productId());
+                        assertEquals(esperado.productMaisVendido().nameProduct(),
+                                        summary.productMaisVendido().nameProduct());
+                        assertEquals(0, esperado.productMaisVendido().quantidadeTotalVendida()
+                                        .compareTo(summary.productMaisVendido().quantidadeTotalVendida()));
+                        assertEquals(0, esperado.productMaisVendido().valorTotalVendidoProduct()
+                                        .compareTo(summary.productMaisVendido().valorTotalVendidoProduct()));
+                }
+                assertEquals(esperado.graficoVendasDiarias().size(), summary.graficoVendasDiarias().size());
+                for (int i = 0; i < esperado.graficoVendasDiarias().size(); i++) {
+                        assertEquals(esperado.graficoVendasDiarias().get(i).data(),
+                                        summary.graficoVendasDiarias().get(i).data());
+                        assertEquals(0, esperado.graficoVendasDiarias().get(i).valor()
+                                        .compareTo(summary.graficoVendasDiarias().get(i).valor()));
+                }
+        }
+}
@@ -0,0 +1,137 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.DashboardSummaryDTO;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+// Banco próprio: o contexto com modo PARALELO não pode recriar o schema do
+// contexto padrão, que continua em cache entre as classes de teste
+@SpringBootTest(properties = {
+                "flick.dashboard.modo=PARALELO",
+                "flick.dashboard.max-consultas-simultaneas=2",
+                "spring.datasource.url=jdbc:h2:mem:flickdb_paralelo;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@ActiveProfiles("test")
+class DashboardServiceParaleloIT {
+
+        @Autowired
+        private DashboardService dashboardService;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+
+        private Product pao;
+        private Product leite;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = criarProduct(category, "Pão", "0.50");
+                leite = criarProduct(category, "Leite", "4.00");
+
+                vender(FormaPagamento.DINHEIRO, new ItemVendaRequestDTO(pao.getId(), new BigDecimal("10")));
+                vender(FormaPagamento.PIX, new ItemVendaRequestDTO(pao.getId(), new BigDecimal("2")),
+                                new ItemVendaRequestDTO(leite.getId(), new BigDecimal("1")));
+        }
+
+        private Product criarProduct(Category category, String name, String preco) {
+                return productRepository.save(Product.builder().name(name).category(category)
+                                .salePrice(new BigDecimal(preco)).stockQuantity(new BigDecimal("1000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+        }
+
+        private void vender(FormaPagamento formaPagamento, ItemVendaRequestDTO... itens) {
+                vendaService.registrarVenda(new VendaRequestDTO(null, List.of(itens), formaPagamento, null));
+        }
+
+        @Test
+        @DisplayName("Modo paralelo deve montar o resumo bruto com as seis consultas e seus tempos")
+        void getDashboardSummary_Paralelo_PeriodoParcial_DeveUsarSeisConsultas() {
+                ZonedDateTime agora = ZonedDateTime.now();
+                Map<String, Duration> tempos = new LinkedHashMap<>();
+
+                DashboardSummaryDTO summary = dashboardService.getDashboardSummary(agora.minusHours(1),
+                                agora.plusMinutes(1), tempos);
+
+                assertEquals(0, new BigDecimal("10.00").compareTo(summary.totalVendasBruto()));
+                assertEquals(2L, summary.quantidadeVendas());
+                assertEquals(0, new BigDecimal("5.00").compareTo(summary.ticketMedio()));
+                assertEquals(0, new BigDecimal("5.00")
+                                .compareTo(summary.totalVendasPorFormaPagamento().get(FormaPagamento.PIX)));
+                assertEquals(pao.getId(), summary.productMaisVendido().productId());
+                assertEquals(1, summary.graficoVendasDiarias().size());
+                assertEquals(Set.of("vendas_total", "vendas_quantidade", "vendas_por_forma_pagamento",
+                                "expenses_total", "product_mais_vendido", "vendas_diarias"), tempos.keySet());
+        }
+
+        @Test
+        @DisplayName("Modo paralelo deve ler dias inteiros do resumo diário com o mesmo resultado")
+        void getDashboardSummary_Paralelo_DiasInteiros_DeveCoincidirComBruto() {
+                LocalDate hoje = LocalDate.now();
+                ZoneId zona = ZoneId.systemDefault();
+                Map<String, Duration> tempos = new LinkedHashMap<>();
+
+                DashboardSummaryDTO resumo = dashboardService.getDashboardSummary(hoje.atStartOfDay(zona),
+                                ZonedDateTime.of(hoje, LocalTime.MAX, zona), tempos);
+                DashboardSummaryDTO bruto = dashboardService.getDashboardSummary(hoje.atStartOfDay(zona),
+                                ZonedDateTime.of(hoje, LocalTime.MAX.minusSeconds(1), zona));
+
+                assertEquals(Set.of("resumo_dias", "resumo_por_forma_pagamento", "resumo_product_mais_vendido"),
+                                tempos.keySet());
+                assertEquals(0, bruto.totalVendasBruto().compareTo(resumo.totalVendasBruto()));
+                assertEquals(bruto.quantidadeVendas(), resumo.quantidadeVendas());
+                assertEquals(bruto.productMaisVendido().productId(), resumo.productMaisVendido().productId());
+                assertEquals(0, bruto.productMaisVendido().quantidadeTotalVendida()
+                                .compareTo(resumo.productMaisVendido().quantidadeTotalVendida()));
+        }
+}
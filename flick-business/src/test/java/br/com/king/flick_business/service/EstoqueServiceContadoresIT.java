@@ -0,0 +1,195 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+// Os contadores em memória duram o contexto: cada teste usa o próprio product
+@SpringBootTest(properties = { "flick.estoque.modo=CONTADORES", "flick.estoque.compactacao.intervalo=1h",
+                "flick.estoque.contadores.products=900001,900002,900003" })
+@ActiveProfiles("test")
+class EstoqueServiceContadoresIT {
+
+        @Autowired
+        private EstoqueService estoqueService;
+        @Autowired
+        private CompactacaoEstoque compactacaoEstoque;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private MovimentoEstoqueRepository movimentoRepository;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        private Category category;
+        private long pao;
+
+        @BeforeEach
+        void setUp() {
+                movimentoRepository.deleteAll();
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                category = categoryRepository.save(Category.builder().name("Padaria").build());
+        }
+
+        // ID fixo: um dos configurados em flick.estoque.contadores.products
+        private void cadastrarPao(long id) {
+                pao = id;
+                jdbc.update("INSERT INTO products (id, name, quantidade_estoque, preco_venda, tipo_unidade_venda, "
+                                + "active, category_id, criado_em, atualizado_em) "
+                                + "VALUES (?, 'Pão', 10, 1.00, 'UNIDADE', TRUE, ?, NOW(), NOW())",
+                                id, category.getId());
+        }
+
+        private VendaRequestDTO venda(String quantidade) {
+                return new VendaRequestDTO(null, List.of(new ItemVendaRequestDTO(pao, new BigDecimal(quantidade))),
+                                FormaPagamento.PIX, null);
+        }
+
+        private BigDecimal contador() {
+                return estoqueService.estoquesAtuais(List.of(pao)).get(pao);
+        }
+
+        private BigDecimal coluna() {
+                return productRepository.findById(pao).orElseThrow().getStockQuantity();
+        }
+
+        private static void assertQuantidade(String esperada, BigDecimal quantidade) {
+                assertEquals(0, new BigDecimal(esperada).compareTo(quantidade),
+                                () -> "esperado " + esperada + ", obtido " + quantidade);
+        }
+
+        @Test
+        @DisplayName("Vendas simultâneas conferem o estoque em memória sem oversell; a compactação o leva à coluna")
+        void contadores_VendasSimultaneas() throws Exception {
+                cadastrarPao(900001L);
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(6);
+                List<Future<VendaResponseDTO>> futuros = new ArrayList<>();
+                try {
+                        for (int i = 0; i < 6; i++) {
+                                Callable<VendaResponseDTO> chamada = () -> {
+                                        largada.await();
+                                        return vendaService.registrarVenda(venda("3"));
+                                };
+                                futuros.add(executor.submit(chamada));
+                        }
+                        largada.countDown();
+                        for (Future<VendaResponseDTO> futuro : futuros) {
+                                try {
+                                        futuro.get(1, TimeUnit.MINUTES);
+                                } catch (ExecutionException e) {
+                                        assertInstanceOf(RecursoNaoEncontrado.class, e.getCause());
+                                }
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                // 10 pães: três vendas de 3; a linha do product não foi tocada
+                assertEquals(3, futuros.stream().filter(f -> f.state() == Future.State.SUCCESS).count());
+                assertQuantidade("1", contador());
+                assertQuantidade("10", coluna());
+                assertQuantidade("1", estoqueService.consultarEstoque(pao, null).quantidade());
+
+                assertEquals(3, compactacaoEstoque.compactar());
+                assertQuantidade("1", coluna());
+                assertQuantidade("1", contador());
+        }
+
+        @Test
+        @DisplayName("Baixa desfeita volta ao contador; entrada desfeita nunca chega a ele")
+        void contadores_TransacaoDesfeita() {
+                cadastrarPao(900002L);
+                assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                        estoqueService.movimentar(pao, TipoMovimentoEstoque.AJUSTE, new BigDecimal("-4"), "Quebra");
+                        assertQuantidade("6", contador());
+                        throw new IllegalStateException("Falha depois da baixa");
+                }));
+                assertQuantidade("10", contador());
+
+                assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                        estoqueService.movimentar(pao, TipoMovimentoEstoque.REPOSICAO, new BigDecimal("5"), null);
+                        assertQuantidade("10", contador());
+                        throw new IllegalStateException("Falha depois da reposição");
+                }));
+                assertQuantidade("10", contador());
+                assertEquals(0, movimentoRepository.count());
+
+                assertThrows(BusinessException.class, () -> estoqueService.movimentar(pao, TipoMovimentoEstoque.AJUSTE,
+                                new BigDecimal("-11"), "Contagem"));
+                estoqueService.movimentar(pao, TipoMovimentoEstoque.REPOSICAO, new BigDecimal("5"), null);
+                assertQuantidade("15", contador());
+        }
+
+        @Test
+        @DisplayName("Após uma queda, o estoque em memória volta exato do livro gravado com as vendas")
+        void contadores_RecuperacaoNaInicializacao() {
+                cadastrarPao(900003L);
+                VendaResponseDTO primeira = vendaService.registrarVenda(venda("2"));
+                vendaService.registrarVenda(venda("3"));
+                vendaService.deleteVendaFisicamente(primeira.id());
+                assertQuantidade("7", contador());
+
+                // Processo novo, antes de qualquer compactação
+                ContadoresEstoque reiniciado = new ContadoresEstoque(movimentoRepository, Set.of(pao));
+                assertEquals(1, reiniciado.carregar());
+                assertQuantidade("7", reiniciado.estoque(pao));
+                assertQuantidade("10", coluna());
+
+                compactacaoEstoque.compactar();
+                assertQuantidade("7", new ContadoresEstoque(movimentoRepository, Set.of(pao)).estoque(pao));
+                assertQuantidade("7", coluna());
+        }
+}
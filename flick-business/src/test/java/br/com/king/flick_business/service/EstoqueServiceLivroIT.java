@@ -0,0 +1,223 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.ProductRequestDTO;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.request.VendaLoteItemRequestDTO;
+import br.com.king.flick_business.dto.response.MovimentoEstoqueResponseDTO;
+import br.com.king.flick_business.dto.response.VendaLoteResponseDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.MovimentoEstoque;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest(properties = { "flick.estoque.modo=LIVRO", "flick.estoque.compactacao.intervalo=1h" })
+@ActiveProfiles("test")
+class EstoqueServiceLivroIT {
+
+        @Autowired
+        private EstoqueService estoqueService;
+        @Autowired
+        private CompactacaoEstoque compactacaoEstoque;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaLoteService vendaLoteService;
+        @Autowired
+        private ProductService productService;
+        @Autowired
+        private MovimentoEstoqueRepository movimentoRepository;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+
+        private Category category;
+        private Product pao;
+
+        @BeforeEach
+        void setUp() {
+                movimentoRepository.deleteAll();
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão").category(category)
+                                .salePrice(new BigDecimal("1.00")).stockQuantity(new BigDecimal("10.000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+        }
+
+        private VendaRequestDTO venda(String quantidade) {
+                return new VendaRequestDTO(null, List.of(new ItemVendaRequestDTO(pao.getId(),
+                                new BigDecimal(quantidade))), FormaPagamento.PIX, null);
+        }
+
+        private BigDecimal coluna() {
+                return productRepository.findById(pao.getId()).orElseThrow().getStockQuantity();
+        }
+
+        private BigDecimal estoque() {
+                return estoqueService.consultarEstoque(pao.getId(), null).quantidade();
+        }
+
+        private static void assertQuantidade(String esperada, BigDecimal quantidade) {
+                assertEquals(0, new BigDecimal(esperada).compareTo(quantidade),
+                                () -> "esperado " + esperada + ", obtido " + quantidade);
+        }
+
+        @Test
+        @DisplayName("Vendas simultâneas das últimas unidades não deixam o estoque do livro negativo")
+        void livro_VendasSimultaneas_SemOversell() throws Exception {
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(6);
+                List<Future<VendaResponseDTO>> futuros = new ArrayList<>();
+                try {
+                        for (int i = 0; i < 6; i++) {
+                                Callable<VendaResponseDTO> chamada = () -> {
+                                        largada.await();
+                                        return vendaService.registrarVenda(venda("3"));
+                                };
+                                futuros.add(executor.submit(chamada));
+                        }
+                        largada.countDown();
+                        for (Future<VendaResponseDTO> futuro : futuros) {
+                                try {
+                                        futuro.get(1, TimeUnit.MINUTES);
+                                } catch (ExecutionException e) {
+                                        assertInstanceOf(RecursoNaoEncontrado.class, e.getCause());
+                                }
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                // 10 pães: só três vendas de 3 cabem
+                assertEquals(3, futuros.stream().filter(f -> f.state() == Future.State.SUCCESS).count());
+                assertQuantidade("1", estoque());
+                assertQuantidade("10", coluna());
+        }
+
+        @Test
+        @DisplayName("Vendas, estornos e ajustes só acrescentam movimentos; a compactação os soma na coluna")
+        void livro_MovimentosECompactacao() {
+                VendaResponseDTO primeira = vendaService.registrarVenda(venda("3"));
+                vendaService.registrarVenda(venda("2"));
+                estoqueService.movimentar(pao.getId(), TipoMovimentoEstoque.REPOSICAO, new BigDecimal("4"), "Fornecedor");
+
+                // A linha do product não muda; o estoque atual vem do livro
+                assertQuantidade("10", coluna());
+                assertQuantidade("9", estoque());
+                assertThrows(RecursoNaoEncontrado.class, () -> vendaService.registrarVenda(venda("10")));
+                assertThrows(BusinessException.class, () -> estoqueService.movimentar(pao.getId(),
+                                TipoMovimentoEstoque.AJUSTE, new BigDecimal("-10"), "Quebra"));
+
+                vendaService.deleteVendaFisicamente(primeira.id());
+                assertQuantidade("12", estoque());
+                assertEquals(4, movimentoRepository.count());
+
+                assertEquals(4, compactacaoEstoque.compactar());
+                assertQuantidade("12", coluna());
+                assertQuantidade("12", estoque());
+                assertTrue(movimentoRepository.findAll().stream().allMatch(MovimentoEstoque::isCompactado));
+                assertEquals(0, compactacaoEstoque.compactar());
+        }
+
+        @Test
+        @DisplayName("Estoque em uma data: o atual menos o que entrou e saiu depois")
+        void livro_EstoqueEmData() {
+                ZonedDateTime agora = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                vendaService.registrarVenda(venda("3"), null, agora.minusDays(2));
+                compactacaoEstoque.compactar();
+                estoqueService.movimentar(pao.getId(), TipoMovimentoEstoque.AJUSTE, new BigDecimal("-1"), "Contagem");
+
+                assertQuantidade("10", estoqueService.consultarEstoque(pao.getId(), agora.minusDays(3)).quantidade());
+                assertQuantidade("7", estoqueService.consultarEstoque(pao.getId(), agora.minusDays(1)).quantidade());
+                assertQuantidade("6", estoque());
+
+                List<MovimentoEstoqueResponseDTO> movimentos = estoqueService.listarMovimentos(pao.getId(), 0, 10)
+                                .getContent();
+                assertEquals(List.of(TipoMovimentoEstoque.AJUSTE, TipoMovimentoEstoque.VENDA),
+                                movimentos.stream().map(MovimentoEstoqueResponseDTO::tipo).toList());
+                assertThrows(RecursoNaoEncontrado.class, () -> estoqueService.consultarEstoque(9999L, null));
+        }
+
+        @Test
+        @DisplayName("Registro em lote confere as vendas contra o estoque do livro")
+        void livro_RegistroEmLote() {
+                estoqueService.movimentar(pao.getId(), TipoMovimentoEstoque.AJUSTE, new BigDecimal("-4"), "Contagem");
+
+                VendaLoteResponseDTO resposta = vendaLoteService.registrarLote(List.of(
+                                new VendaLoteItemRequestDTO(null, null, venda("4")),
+                                new VendaLoteItemRequestDTO(null, null, venda("4"))));
+
+                assertEquals(1, resposta.registradas());
+                assertQuantidade("2", estoque());
+                assertQuantidade("10", coluna());
+        }
+
+        @Test
+        @DisplayName("Quantidade editada no cadastro vira ajuste; a mesma da coluna não mexe no estoque")
+        void livro_EdicaoDoCadastro() {
+                vendaService.registrarVenda(venda("3"));
+
+                productService.atualizar(pao.getId(), cadastro("10"));
+                assertQuantidade("7", estoque());
+
+                productService.atualizar(pao.getId(), cadastro("5"));
+                assertQuantidade("5", estoque());
+                assertQuantidade("10", coluna());
+                assertFalse(movimentoRepository.findAll().stream()
+                                .filter(movimento -> movimento.getTipo() == TipoMovimentoEstoque.AJUSTE)
+                                .anyMatch(MovimentoEstoque::isCompactado));
+        }
+
+        private ProductRequestDTO cadastro(String estoque) {
+                return new ProductRequestDTO(pao.getName(), null, null, new BigDecimal(estoque), pao.getSalePrice(),
+                                null, UnitOfSale.UNIDADE, true, category.getId(), null);
+        }
+}
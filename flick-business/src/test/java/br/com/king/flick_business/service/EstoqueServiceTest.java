@@ -0,0 +1,174 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.king.flick_business.entity.ItemVenda;
+import br.com.king.flick_business.entity.MovimentoEstoque;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Venda;
+import br.com.king.flick_business.enums.TipoMovimentoEstoque;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EstoqueServiceTest {
+
+    @Mock
+    private ProductRepository productRepositoryMock;
+    @Mock
+    private MovimentoEstoqueRepository movimentoRepositoryMock;
+    @Mock
+    private TravaEstoque travaMock;
+
+    @Captor
+    private ArgumentCaptor<List<MovimentoEstoque>> movimentosCaptor;
+
+    private EstoqueService estoqueService;
+
+    private Product productA;
+    private Product productB;
+    private Product productSemEstoque;
+
+    @BeforeEach
+    void setUp() {
+        estoqueService = new EstoqueService(productRepositoryMock, movimentoRepositoryMock,
+                new ContadoresEstoque(movimentoRepositoryMock, Set.of()), travaMock,
+                EstoqueService.Modo.COLUNA);
+        productA = Product.builder().id(10L).name("Product A").stockQuantity(new BigDecimal("10.000")).build();
+        productB = Product.builder().id(5L).name("Product B").stockQuantity(new BigDecimal("3.000")).build();
+        productSemEstoque = Product.builder().id(20L).name("Product C").stockQuantity(BigDecimal.ZERO).build();
+    }
+
+    private ItemVenda item(Product product, String quantidade) {
+        Venda venda = Venda.builder().id(1L).dataVenda(ZonedDateTime.now()).build();
+        return ItemVenda.builder().venda(venda).product(product).quantidade(new BigDecimal(quantidade)).build();
+    }
+
+    @Test
+    @DisplayName("Deve baixar estoque em ordem de ID e ignorar products sem estoque controlado")
+    void baixarEstoque_DeveUsarUpdateCondicionalEmOrdemDeId() {
+        when(productRepositoryMock.baixarEstoque(any(), any())).thenReturn(1);
+
+        estoqueService.baixarEstoque(List.of(item(productA, "2.000"), item(productSemEstoque, "1.000"),
+                item(productB, "1.000")));
+
+        InOrder ordem = inOrder(productRepositoryMock);
+        ordem.verify(productRepositoryMock).baixarEstoque(5L, new BigDecimal("1.000"));
+        ordem.verify(productRepositoryMock).baixarEstoque(10L, new BigDecimal("2.000"));
+        verify(productRepositoryMock, never()).baixarEstoque(eq(20L), any());
+        verify(productRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o UPDATE condicional não afetar linhas (estoque consumido por outra venda)")
+    void baixarEstoque_QuandoConcorrenciaEsgotaEstoque_DeveLancarExcecao() {
+        when(productRepositoryMock.baixarEstoque(10L, new BigDecimal("2.000"))).thenReturn(0);
+
+        RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class,
+                () -> estoqueService.baixarEstoque(List.of(item(productA, "2.000"))));
+        assertTrue(exception.getMessage().contains("Estoque insuficiente"));
+    }
+
+    @Test
+    @DisplayName("Modo LIVRO: trava o product, confere o estoque do livro e só acrescenta movimentos, sem UPDATE")
+    void baixarEstoque_ModoLivro_DeveGravarMovimentoPendente() {
+        EstoqueService livro = new EstoqueService(productRepositoryMock, movimentoRepositoryMock,
+                new ContadoresEstoque(movimentoRepositoryMock, Set.of()), travaMock,
+                EstoqueService.Modo.LIVRO);
+        // Coluna com 10, mas 7 já saíram em movimentos pendentes
+        when(movimentoRepositoryMock.findEstoquesAtuais(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, new BigDecimal("3.000") }));
+
+        assertThrows(RecursoNaoEncontrado.class, () -> livro.baixarEstoque(List.of(item(productA, "5.000"))));
+        livro.baixarEstoque(List.of(item(productA, "2.000")));
+
+        verify(productRepositoryMock, never()).baixarEstoque(any(), any());
+        // A conferência usa o estoque lido depois de travar o product
+        InOrder ordem = inOrder(travaMock, movimentoRepositoryMock);
+        ordem.verify(travaMock, atLeastOnce()).travar(List.of(10L));
+        ordem.verify(movimentoRepositoryMock, atLeastOnce()).findEstoquesAtuais(List.of(10L));
+        verify(movimentoRepositoryMock).saveAll(movimentosCaptor.capture());
+        MovimentoEstoque movimento = movimentosCaptor.getValue().get(0);
+        assertEquals(TipoMovimentoEstoque.VENDA, movimento.getTipo());
+        assertEquals(new BigDecimal("-2.000"), movimento.getQuantidade());
+        assertFalse(movimento.isCompactado());
+    }
+
+    @Test
+    @DisplayName("Modo CONTADORES: product contado baixa em memória; os demais, com UPDATE condicional")
+    void baixarEstoque_ModoContadores_DeveBaixarNoContador() {
+        EstoqueService contadores = new EstoqueService(productRepositoryMock, movimentoRepositoryMock,
+                new ContadoresEstoque(movimentoRepositoryMock, Set.of(10L)), travaMock,
+                EstoqueService.Modo.CONTADORES);
+        when(movimentoRepositoryMock.findEstoquesAtuais(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, new BigDecimal("3.000") }));
+        when(productRepositoryMock.baixarEstoque(any(), any())).thenReturn(1);
+
+        contadores.baixarEstoque(List.of(item(productA, "2.500"), item(productB, "1.000")));
+
+        assertThrows(RecursoNaoEncontrado.class, () -> contadores.baixarEstoque(List.of(item(productA, "1.000"))));
+        assertEquals(new BigDecimal("0.500"), contadores.estoquesAtuais(List.of(10L, 5L)).get(10L));
+        verify(productRepositoryMock, never()).baixarEstoque(eq(10L), any());
+        verify(productRepositoryMock).baixarEstoque(5L, new BigDecimal("1.000"));
+        verify(movimentoRepositoryMock).saveAll(movimentosCaptor.capture());
+        // Em ordem de ID: B (coluna, já compactado) e A (pendente no livro)
+        assertTrue(movimentosCaptor.getValue().get(0).isCompactado());
+        assertFalse(movimentosCaptor.getValue().get(1).isCompactado());
+    }
+
+    @Test
+    @DisplayName("Modo CONTADORES: product configurado sem estoque (nulo) ou inexistente segue o modo COLUNA")
+    void baixarEstoque_ModoContadores_ProductSemEstoqueNaoGanhaContador() {
+        ContadoresEstoque contadoresEstoque = new ContadoresEstoque(movimentoRepositoryMock, Set.of(20L, 99L));
+        EstoqueService contadores = new EstoqueService(productRepositoryMock, movimentoRepositoryMock,
+                contadoresEstoque, travaMock, EstoqueService.Modo.CONTADORES);
+        Product semEstoque = Product.builder().id(20L).name("Sacola").build();
+        when(movimentoRepositoryMock.findEstoquesAtuais(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 20L, null }));
+
+        assertEquals(0, contadoresEstoque.carregar());
+        contadores.baixarEstoque(List.of(item(semEstoque, "1.000")));
+        contadores.estornarEstoque(List.of(item(semEstoque, "1.000")));
+
+        assertFalse(contadoresEstoque.controla(20L));
+        assertTrue(contadores.estoquesAtuais(List.of(20L)).isEmpty());
+        verify(productRepositoryMock, never()).baixarEstoque(any(), any());
+        verify(productRepositoryMock).estornarEstoque(20L, new BigDecimal("1.000"));
+        verify(movimentoRepositoryMock).saveAll(movimentosCaptor.capture());
+        assertTrue(movimentosCaptor.getValue().get(0).isCompactado());
+    }
+
+    @Test
+    @DisplayName("Deve estornar estoque com UPDATE relativo")
+    void estornarEstoque_DeveSomarQuantidadeNoBanco() {
+        estoqueService.estornarEstoque(List.of(item(productA, "2.000")));
+
+        verify(productRepositoryMock).estornarEstoque(10L, new BigDecimal("2.000"));
+        verify(productRepositoryMock, never()).save(any());
+    }
+}
@@ -40,6 +40,9 @@ class ExpenseServiceTest {
   @Mock
   private ExpenseRepository expenseRepository;
 
+  @Mock
+  private ResumoDiarioService resumoDiarioService;
+
   @InjectMocks
   private ExpenseService expenseService;
 
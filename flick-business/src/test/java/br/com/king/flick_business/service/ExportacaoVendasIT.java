@@ -0,0 +1,147 @@
+package br.com.king.flick_business.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.FormatoExportacao;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoVendasIT {
+
+        @Autowired
+        private ExportacaoVendasService exportacaoVendasService;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private ObjectMapper objectMapper;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+
+        private Product pao;
+        private Product leite;
+        private Cliente ana;
+        private VendaResponseDTO semCliente;
+        private VendaResponseDTO daAna;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                clienteRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão, francês").category(category)
+                                .salePrice(new BigDecimal("0.75")).stockQuantity(new BigDecimal("1000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                leite = productRepository.save(Product.builder().name("Leite").category(category)
+                                .salePrice(new BigDecimal("4.50")).stockQuantity(new BigDecimal("1000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                ana = clienteRepository.save(Cliente.builder().name("Ana").cpf("12345678901").active(true)
+                                .controleFiado(false).saldoDevedor(BigDecimal.ZERO).build());
+
+                semCliente = vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(pao.getId(), new BigDecimal("3")),
+                                                new ItemVendaRequestDTO(leite.getId(), BigDecimal.ONE)),
+                                FormaPagamento.DINHEIRO, "Troco em \"moedas\""));
+                daAna = vendaService.registrarVenda(new VendaRequestDTO(ana.getId(),
+                                List.of(new ItemVendaRequestDTO(pao.getId(), new BigDecimal("2"))),
+                                FormaPagamento.PIX, null));
+        }
+
+        private String exportar(FormatoExportacao formato, Long clienteId, String formaPagamento, Long productId) {
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                exportacaoVendasService.exportar(null, null, clienteId, formaPagamento, productId, formato, saida);
+                return saida.toString(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        @DisplayName("CSV: cabeçalho e uma linha por item, com os dados da venda repetidos e campos escapados")
+        void exportar_csv() {
+                String[] linhas = exportar(FormatoExportacao.CSV, null, null, null).split("\r\n");
+
+                assertEquals(4, linhas.length);
+                assertEquals(String.join(",", ExportacaoVendasService.COLUNAS_CSV), linhas[0]);
+                assertTrue(linhas[1].startsWith(semCliente.id() + ","), linhas[1]);
+                assertTrue(linhas[1].endsWith(",,DINHEIRO,6.75,\"Troco em \"\"moedas\"\"\","
+                                + semCliente.itens().get(0).id() + "," + pao.getId() + ",\"Pão, francês\",3.000,0.75,2.25"),
+                                linhas[1]);
+                assertTrue(linhas[2].endsWith("," + leite.getId() + ",Leite,1.000,4.50,4.50"), linhas[2]);
+                assertTrue(linhas[3].startsWith(daAna.id() + ","), linhas[3]);
+                assertTrue(linhas[3].contains("," + ana.getId() + ",Ana,PIX,1.50,,"), linhas[3]);
+        }
+
+        @Test
+        @DisplayName("NDJSON: um objeto por venda, com os itens aninhados")
+        void exportar_ndjson() throws Exception {
+                String[] linhas = exportar(FormatoExportacao.NDJSON, null, null, null).split("\n");
+
+                assertEquals(2, linhas.length);
+                JsonNode primeira = objectMapper.readTree(linhas[0]);
+                assertEquals(semCliente.id(), primeira.get("id").asLong());
+                assertTrue(primeira.get("cliente").isNull());
+                assertEquals("Troco em \"moedas\"", primeira.get("observacoes").asText());
+                assertEquals(0, new BigDecimal("6.75").compareTo(primeira.get("valorTotal").decimalValue()));
+                assertEquals(2, primeira.get("itens").size());
+                assertEquals("Pão, francês", primeira.get("itens").get(0).get("product").get("name").asText());
+                assertEquals(0, new BigDecimal("2.25")
+                                .compareTo(primeira.get("itens").get(0).get("valorTotalItem").decimalValue()));
+
+                JsonNode segunda = objectMapper.readTree(linhas[1]);
+                assertEquals(daAna.id(), segunda.get("id").asLong());
+                assertEquals("Ana", segunda.get("cliente").get("name").asText());
+                assertEquals("PIX", segunda.get("formaPagamento").asText());
+                assertEquals(1, segunda.get("itens").size());
+        }
+
+        @Test
+        @DisplayName("Filtros iguais aos da listagem; filtro de product traz a venda com todos os itens")
+        void exportar_filtros() throws Exception {
+                String porProduct = exportar(FormatoExportacao.NDJSON, null, null, leite.getId());
+                assertEquals(1, porProduct.lines().count());
+                assertEquals(2, objectMapper.readTree(porProduct).get("itens").size());
+
+                assertEquals(daAna.id(), objectMapper.readTree(exportar(FormatoExportacao.NDJSON, ana.getId(),
+                                null, null)).get("id").asLong());
+                assertEquals(daAna.id(), objectMapper.readTree(exportar(FormatoExportacao.NDJSON, null, "pix",
+                                null)).get("id").asLong());
+                assertEquals(1, exportar(FormatoExportacao.CSV, null, "CREDITO", null).split("\r\n").length);
+        }
+}
@@ -0,0 +1,172 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.ChaveIdempotenciaVenda;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoJaCadastrado;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotenciaVendasIT {
+
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+        @Autowired
+        private IdempotenciaVendas idempotenciaVendas;
+
+        private Product pao;
+
+        @BeforeEach
+        void setUp() {
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão Francês").category(category)
+                                .salePrice(new BigDecimal("0.50")).stockQuantity(new BigDecimal("100.000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+        }
+
+        private VendaRequestDTO venda(String quantidade) {
+                return new VendaRequestDTO(null, List.of(new ItemVendaRequestDTO(pao.getId(),
+                                new BigDecimal(quantidade))), FormaPagamento.DINHEIRO, null);
+        }
+
+        private BigDecimal estoque() {
+                return productRepository.findById(pao.getId()).orElseThrow().getStockQuantity();
+        }
+
+        @Test
+        @DisplayName("Repetição com a mesma chave devolve a venda original sem baixar estoque de novo")
+        void registrarVenda_ChaveRepetida_DevolveVendaOriginal() {
+                String chave = UUID.randomUUID().toString();
+
+                VendaResponseDTO primeira = vendaService.registrarVenda(venda("3"), chave);
+                // Mesma quantidade em outra escala: mesma requisição
+                VendaResponseDTO repetida = vendaService.registrarVenda(venda("3.000"), chave);
+                VendaResponseDTO outra = vendaService.registrarVenda(venda("3"), UUID.randomUUID().toString());
+
+                assertEquals(primeira, repetida);
+                assertEquals(2, vendaRepository.count());
+                assertEquals(0, new BigDecimal("94").compareTo(estoque()));
+                assertEquals(primeira.id(), chaveRepository.findById(chave).orElseThrow().getVendaId());
+                assertEquals(2, chaveRepository.count());
+                assertEquals(0, new BigDecimal("1.50").compareTo(outra.valorTotal()));
+        }
+
+        @Test
+        @DisplayName("Chave usada com outra venda ou fora do formato é recusada")
+        void registrarVenda_ChaveInvalida_DeveRecusar() {
+                String chave = UUID.randomUUID().toString();
+                vendaService.registrarVenda(venda("1"), chave);
+
+                assertThrows(RecursoJaCadastrado.class, () -> vendaService.registrarVenda(venda("2"), chave));
+                assertThrows(BusinessException.class, () -> vendaService.registrarVenda(venda("1"), " "));
+                assertThrows(BusinessException.class, () -> vendaService.registrarVenda(venda("1"),
+                                "x".repeat(IdempotenciaVendas.TAMANHO_MAXIMO_CHAVE + 1)));
+                assertEquals(1, vendaRepository.count());
+        }
+
+        @Test
+        @DisplayName("Venda recusada não consome a chave: a nova tentativa registra normalmente")
+        void registrarVenda_FalhaLiberaChave() {
+                String chave = UUID.randomUUID().toString();
+
+                assertThrows(RecursoNaoEncontrado.class, () -> vendaService.registrarVenda(venda("150"), chave));
+                assertEquals(0, chaveRepository.count());
+
+                pao.setStockQuantity(new BigDecimal("200.000"));
+                productRepository.save(pao);
+                VendaResponseDTO venda = vendaService.registrarVenda(venda("150"), chave);
+
+                assertEquals(venda.id(), chaveRepository.findById(chave).orElseThrow().getVendaId());
+                assertEquals(0, new BigDecimal("50").compareTo(estoque()));
+        }
+
+        @Test
+        @DisplayName("Repetições concorrentes da mesma chave registram uma única venda")
+        void registrarVenda_RepeticoesConcorrentes_UmaVenda() throws Exception {
+                String chave = UUID.randomUUID().toString();
+                int tentativas = 6;
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(tentativas);
+                List<VendaResponseDTO> respostas = new ArrayList<>();
+                try {
+                        List<Future<VendaResponseDTO>> tarefas = new ArrayList<>();
+                        for (int t = 0; t < tentativas; t++) {
+                                tarefas.add(executor.submit(() -> {
+                                        largada.await();
+                                        return vendaService.registrarVenda(venda("2"), chave);
+                                }));
+                        }
+                        largada.countDown();
+                        for (Future<VendaResponseDTO> tarefa : tarefas) {
+                                respostas.add(tarefa.get(1, TimeUnit.MINUTES));
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertEquals(1, vendaRepository.count());
+                assertEquals(1, respostas.stream().map(VendaResponseDTO::id).distinct().count());
+                assertEquals(0, new BigDecimal("98").compareTo(estoque()));
+        }
+
+        @Test
+        @DisplayName("A limpeza agendada apaga só as chaves vencidas, fora da transação das vendas")
+        void limparVencidas_ApagaSoAsVencidas() {
+                String chave = UUID.randomUUID().toString();
+                vendaService.registrarVenda(venda("1"), chave);
+                chaveRepository.save(new ChaveIdempotenciaVenda("vencida", 1L, null,
+                                ZonedDateTime.now().minusHours(25)));
+
+                assertEquals(1, idempotenciaVendas.limparVencidas());
+
+                assertEquals(List.of(chave), chaveRepository.findAll().stream()
+                                .map(ChaveIdempotenciaVenda::getChave).toList());
+        }
+}
@@ -0,0 +1,64 @@
+package br.com.king.flick_business.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IndiceTrigramasTest {
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigramas();
+        indice.adicionar(1L, "José da Conceição");
+        indice.adicionar(2L, "Maria José Araújo");
+        indice.adicionar(3L, "João Conceição Filho");
+        indice.adicionar(4L, "Antônio Ribeiro");
+        indice.adicionar(5L, "Joana  Ferreira");
+    }
+
+    @Test
+    @DisplayName("Normaliza como flick_normalizar: minúsculas, sem acentos, espaços simples")
+    void normalizar() {
+        assertEquals("joana ferreira", IndiceTrigramas.normalizar("  JOANA \t Ferreira "));
+        assertEquals("acai coracao", IndiceTrigramas.normalizar("Açaí Coração"));
+        assertEquals("", IndiceTrigramas.normalizar(null));
+    }
+
+    @Test
+    @DisplayName("Prefixo antes de trecho, cada grupo em ordem de name, sem diferenciar acentos")
+    void buscar_prefixoAntesDeTrecho() {
+        assertEquals(List.of(1L, 2L), indice.buscar("JOSE", 10));
+        assertEquals(List.of(3L, 1L), indice.buscar("conceicao", 10));
+        assertEquals(List.of(5L), indice.buscar("joana ferr", 10));
+        // Curto demais para trigramas: varredura em ordem de name
+        assertEquals(List.of(5L, 3L, 1L, 2L), indice.buscar("jo", 10));
+        assertEquals(List.of(5L, 3L), indice.buscar("jo", 2));
+    }
+
+    @Test
+    @DisplayName("Names parecidos (erro de digitação) vêm depois, pela semelhança")
+    void buscar_semelhantes() {
+        assertEquals(List.of(4L), indice.buscar("antonio ribero", 10));
+        // Empate na semelhança: ordem de name
+        assertEquals(List.of(3L, 1L), indice.buscar("conceisao", 10));
+        assertTrue(indice.buscar("xyz", 10).isEmpty());
+        assertTrue(indice.buscar("   ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Adicionar de novo substitui o name; remover tira de todos os índices")
+    void adicionarERemover() {
+        indice.adicionar(4L, "Antônia Ribeiro Santos");
+        assertEquals(List.of(4L), indice.buscar("santos", 10));
+
+        indice.remover(4L);
+        assertTrue(indice.buscar("ribeiro", 10).isEmpty());
+        assertEquals(4, indice.tamanho());
+    }
+}
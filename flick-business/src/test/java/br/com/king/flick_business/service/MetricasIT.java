@@ -0,0 +1,120 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.config.ContadorConsultas;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MetricasIT {
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private ProductService productService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+
+        private Product product;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Mercearia").build());
+                product = productRepository.save(Product.builder()
+                                .name("Arroz")
+                                .salePrice(new BigDecimal("25.00"))
+                                .stockQuantity(new BigDecimal("100"))
+                                .unitOfSale(UnitOfSale.UNIDADE)
+                                .active(true)
+                                .category(category)
+                                .build());
+        }
+
+        @AfterEach
+        void tearDown() {
+                ContadorConsultas.usar(null);
+        }
+
+        @Test
+        @DisplayName("Deve cronometrar os métodos dos services em flick.servico")
+        void registrarVenda_DeveRegistrarTimerDoServico() {
+                vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(product.getId(), BigDecimal.ONE)),
+                                FormaPagamento.PIX, null));
+
+                Timer timer = meterRegistry.get("flick.servico")
+                                .tag("class", VendaService.class.getName())
+                                .tag("method", "registrarVenda")
+                                .timer();
+                assertTrue(timer.count() >= 1);
+        }
+
+        @Test
+        @DisplayName("Deve contar as instruções SQL executadas pelo Hibernate na thread")
+        void contadorConsultas_DeveContarInstrucoesDoHibernate() {
+                AtomicInteger consultas = ContadorConsultas.iniciar();
+
+                productService.listProducts(null, null, null, null);
+
+                assertTrue(consultas.get() >= 1, "Consultas: " + consultas.get());
+        }
+
+        @Test
+        @DisplayName("Deve publicar estatísticas do Hibernate e do pool de conexões")
+        void deveRegistrarMetricasDoHibernateEDoPool() {
+                productService.listProducts(null, null, null, null);
+
+                assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+                assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+                assertNotNull(meterRegistry.find("cache.gets").tag("cache", "dashboard").functionCounter());
+        }
+}
@@ -0,0 +1,307 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.king.flick_business.dto.ProductListagemDTO;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.Provider;
+import br.com.king.flick_business.entity.RankingVendasProduct;
+import br.com.king.flick_business.entity.ResumoDiarioProduct;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.JanelaVendas;
+import br.com.king.flick_business.enums.TipoPessoa;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ProviderRepository;
+import br.com.king.flick_business.repository.RankingVendasProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+// Agendador do ranking parado: cada teste recalcula as janelas quando precisa
+@SpringBootTest(properties = "flick.ranking.verificacao=1h")
+@ActiveProfiles("test")
+class ProductServiceListagemIT {
+
+        @Autowired
+        private ProductService productService;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ProviderRepository providerRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+        @Autowired
+        private RankingVendasProductRepository rankingVendasProductRepository;
+        @Autowired
+        private RankingVendasService rankingVendasService;
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        private Category mercearia;
+        private Category bebidas;
+        private Provider distribuidora;
+        private Product arroz;
+        private Product feijao;
+        private Product suco;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+                rankingVendasProductRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                providerRepository.deleteAll();
+
+                mercearia = categoryRepository.save(Category.builder().name("Mercearia").build());
+                bebidas = categoryRepository.save(Category.builder().name("Bebidas").build());
+                distribuidora = providerRepository.save(Provider.builder().name("Distribuidora Central")
+                                .tipoPessoa(TipoPessoa.JURIDICA).cnpjCpf("12345678000199")
+                                .email("contato@distribuidora.com").build());
+
+                arroz = productRepository.save(product("Arroz", "25.00", mercearia, distribuidora));
+                feijao = productRepository.save(product("Feijão", "8.50", mercearia, null));
+                suco = productRepository.save(product("Suco de Uva", "12.00", bebidas, distribuidora));
+        }
+
+        private Product product(String name, String preco, Category category, Provider provider) {
+                return Product.builder()
+                                .name(name)
+                                .salePrice(new BigDecimal(preco))
+                                .stockQuantity(new BigDecimal("100"))
+                                .unitOfSale(UnitOfSale.UNIDADE)
+                                .active(true)
+                                .category(category)
+                                .provider(provider)
+                                .build();
+        }
+
+        // Vendas de suco há 200 dias, de arroz há 60 e de feijão há 5, já no resumo
+        private LocalDate resumoComTresJanelas() {
+                LocalDate hoje = ResumoDiarioService.diaDe(ZonedDateTime.now());
+                resumoDiarioProductRepository.save(new ResumoDiarioProduct(hoje.minusDays(200), suco.getId(),
+                                new BigDecimal("50"), new BigDecimal("600.00")));
+                resumoDiarioProductRepository.save(new ResumoDiarioProduct(hoje.minusDays(60), arroz.getId(),
+                                new BigDecimal("10"), new BigDecimal("250.00")));
+                resumoDiarioProductRepository.save(new ResumoDiarioProduct(hoje.minusDays(5), feijao.getId(),
+                                new BigDecimal("2"), new BigDecimal("17.00")));
+                // Como depois de ResumoDiarioService.reconstruir, na próxima verificação do agendador
+                rankingVendasService.aoReconstruirResumo(new ResumoDiarioReconstruido(hoje, hoje));
+                rankingVendasService.garantirJanelasDeHoje();
+                return hoje;
+        }
+
+        private static void assertQuantidade(String esperada, BigDecimal quantidade) {
+                assertEquals(0, new BigDecimal(esperada).compareTo(quantidade),
+                                () -> "esperado " + esperada + ", obtido " + quantidade);
+        }
+
+        private List<Long> ids(List<ProductListagemDTO> products) {
+                return products.stream().map(ProductListagemDTO::id).toList();
+        }
+
+        @Test
+        @DisplayName("listProducts: projeta category e provider com todos os campos, em ordem alfabética")
+        void listProducts_projetaCategoryEProvider() {
+                List<ProductListagemDTO> products = productService.listProducts(null, null, null, null);
+
+                assertEquals(List.of(arroz.getId(), feijao.getId(), suco.getId()), ids(products));
+                ProductListagemDTO primeiro = products.get(0);
+                assertEquals("Arroz", primeiro.name());
+                assertEquals(0, new BigDecimal("25.00").compareTo(primeiro.salePrice()));
+                assertEquals(mercearia.getId(), primeiro.category().id());
+                assertEquals("Mercearia", primeiro.category().name());
+                assertEquals(distribuidora.getId(), primeiro.provider().id());
+                assertEquals("Distribuidora Central", primeiro.provider().name());
+                assertEquals(TipoPessoa.JURIDICA, primeiro.provider().tipoPessoa());
+                assertEquals("contato@distribuidora.com", primeiro.provider().email());
+                // Product sem provider: LEFT JOIN, referência nula
+                assertNull(products.get(1).provider());
+        }
+
+        @Test
+        @DisplayName("listProducts: o JSON de cada linha é o mesmo do detalhe do product")
+        void listProducts_mesmoJsonDoDetalhe() {
+                for (ProductListagemDTO linha : productService.listProducts(null, null, null, null)) {
+                        assertEquals(objectMapper.valueToTree(productService.buscarPorId(linha.id())),
+                                        objectMapper.valueToTree(linha), linha.name());
+                }
+        }
+
+        @Test
+        @DisplayName("listProducts: filtra por trecho do name (sem diferenciar maiúsculas) e por categoria")
+        void listProducts_filtros() {
+                assertEquals(List.of(suco.getId()), ids(productService.listProducts("UVA", null, null, null)));
+                assertEquals(List.of(arroz.getId(), feijao.getId()),
+                                ids(productService.listProducts(null, mercearia.getId(), null, null)));
+                assertEquals(List.of(feijao.getId()),
+                                ids(productService.listProducts("fei", mercearia.getId(), null, null)));
+                // Name em branco não filtra
+                assertEquals(3, productService.listProducts("  ", null, null, null).size());
+        }
+
+        @Test
+        @DisplayName("listProducts: ordena por preço e por data de cadastro")
+        void listProducts_ordenacoes() {
+                assertEquals(List.of(feijao.getId(), suco.getId(), arroz.getId()),
+                                ids(productService.listProducts(null, null, "maisBarato", null)));
+                assertEquals(List.of(arroz.getId(), suco.getId(), feijao.getId()),
+                                ids(productService.listProducts(null, null, "maisCaro", null)));
+                assertEquals(List.of(suco.getId(), feijao.getId(), arroz.getId()),
+                                ids(productService.listProducts(null, null, "nameDesc", null)));
+                assertEquals(3, productService.listProducts(null, null, "maisRecente", null).size());
+        }
+
+        @Test
+        @DisplayName("listProducts: maisVendido ordena pela quantidade vendida, mantendo category e provider")
+        void listProducts_maisVendido() {
+                vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(suco.getId(), new BigDecimal("3")),
+                                                new ItemVendaRequestDTO(feijao.getId(), BigDecimal.ONE)),
+                                FormaPagamento.PIX, null));
+
+                List<ProductListagemDTO> products = productService.listProducts(null, null, "maisVendido", null);
+
+                assertEquals(List.of(suco.getId(), feijao.getId(), arroz.getId()), ids(products));
+                assertEquals("Bebidas", products.get(0).category().name());
+                assertEquals("Distribuidora Central", products.get(0).provider().name());
+                assertEquals(List.of(feijao.getId(), arroz.getId()),
+                                ids(productService.listProducts(null, mercearia.getId(), "maisVendido", null)));
+        }
+
+        @Test
+        @DisplayName("listProducts: menosVendido inverte a ordem, com os products sem venda primeiro")
+        void listProducts_menosVendido() {
+                vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(suco.getId(), new BigDecimal("3")),
+                                                new ItemVendaRequestDTO(feijao.getId(), BigDecimal.ONE)),
+                                FormaPagamento.PIX, null));
+
+                assertEquals(List.of(arroz.getId(), feijao.getId(), suco.getId()),
+                                ids(productService.listProducts(null, null, "menosVendido", null)));
+
+                // Venda apagada: o estorno volta a quantidade
+                vendaService.deleteVendaFisicamente(vendaRepository.findAll().get(0).getId());
+                assertEquals(List.of(arroz.getId(), feijao.getId(), suco.getId()),
+                                ids(productService.listProducts(null, null, "maisVendido", null)));
+        }
+
+        @Test
+        @DisplayName("listProducts: janelas de 30 e 90 dias recalculadas a partir do resumo diário")
+        void listProducts_porJanela() {
+                resumoComTresJanelas();
+
+                assertEquals(List.of(suco.getId(), arroz.getId(), feijao.getId()),
+                                ids(productService.listProducts(null, null, "maisVendido", JanelaVendas.TOTAL)));
+                assertEquals(List.of(arroz.getId(), feijao.getId(), suco.getId()), ids(productService
+                                .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_90_DIAS)));
+                assertEquals(List.of(feijao.getId(), arroz.getId(), suco.getId()), ids(productService
+                                .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_30_DIAS)));
+
+                // Venda de hoje entra nas três janelas na hora
+                vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(suco.getId(), new BigDecimal("20"))),
+                                FormaPagamento.PIX, null));
+                assertEquals(List.of(suco.getId(), arroz.getId(), feijao.getId()), ids(productService
+                                .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_90_DIAS)));
+                assertEquals(List.of(suco.getId(), feijao.getId(), arroz.getId()), ids(productService
+                                .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_30_DIAS)));
+        }
+
+        @Test
+        @DisplayName("Ranking: venda registrada soma nas três quantidades; venda apagada subtrai")
+        void ranking_registroERemocaoAtualizamQuantidades() {
+                vendaService.registrarVenda(new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(suco.getId(), new BigDecimal("3"))),
+                                FormaPagamento.PIX, null));
+                RankingVendasProduct depoisDaVenda = rankingVendasProductRepository.findById(suco.getId()).orElseThrow();
+                assertQuantidade("3", depoisDaVenda.getQuantidadeTotal());
+                assertQuantidade("3", depoisDaVenda.getQuantidade30Dias());
+                assertQuantidade("3", depoisDaVenda.getQuantidade90Dias());
+
+                vendaService.deleteVendaFisicamente(vendaRepository.findAll().get(0).getId());
+                RankingVendasProduct depoisDoEstorno = rankingVendasProductRepository.findById(suco.getId())
+                                .orElseThrow();
+                assertQuantidade("0", depoisDoEstorno.getQuantidadeTotal());
+                assertQuantidade("0", depoisDoEstorno.getQuantidade30Dias());
+                assertQuantidade("0", depoisDoEstorno.getQuantidade90Dias());
+        }
+
+        @Test
+        @DisplayName("Ranking: na virada do dia as vendas antigas saem das janelas de 30 e 90 dias")
+        void ranking_janelasAndamComOCalendario() {
+                LocalDate hoje = resumoComTresJanelas();
+                try {
+                        // 31 dias depois: feijão (há 36 dias) só nos 90; arroz (há 91) só no total
+                        rankingVendasService.garantirJanelas(hoje.plusDays(31));
+
+                        RankingVendasProduct feijaoNoRanking = rankingVendasProductRepository.findById(feijao.getId())
+                                        .orElseThrow();
+                        assertQuantidade("0", feijaoNoRanking.getQuantidade30Dias());
+                        assertQuantidade("2", feijaoNoRanking.getQuantidade90Dias());
+                        RankingVendasProduct arrozNoRanking = rankingVendasProductRepository.findById(arroz.getId())
+                                        .orElseThrow();
+                        assertQuantidade("0", arrozNoRanking.getQuantidade90Dias());
+                        assertQuantidade("10", arrozNoRanking.getQuantidadeTotal());
+
+                        assertEquals(List.of(feijao.getId(), arroz.getId(), suco.getId()), ids(productService
+                                        .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_90_DIAS)));
+                        // Empate em zero: por name
+                        assertEquals(List.of(arroz.getId(), feijao.getId(), suco.getId()), ids(productService
+                                        .listProducts(null, null, "maisVendido", JanelaVendas.ULTIMOS_30_DIAS)));
+                } finally {
+                        rankingVendasService.garantirJanelasDeHoje();
+                }
+                assertQuantidade("2", rankingVendasProductRepository.findById(feijao.getId()).orElseThrow()
+                                .getQuantidade30Dias());
+        }
+
+        @Test
+        @DisplayName("Ranking: menosVendido ordena cada janela do menor para o maior, empates por name")
+        void ranking_menosVendidoPorJanela() {
+                resumoComTresJanelas();
+
+                assertEquals(List.of(feijao.getId(), arroz.getId(), suco.getId()),
+                                ids(productService.listProducts(null, null, "menosVendido", JanelaVendas.TOTAL)));
+                assertEquals(List.of(suco.getId(), feijao.getId(), arroz.getId()), ids(productService
+                                .listProducts(null, null, "menosVendido", JanelaVendas.ULTIMOS_90_DIAS)));
+                assertEquals(List.of(arroz.getId(), suco.getId(), feijao.getId()), ids(productService
+                                .listProducts(null, null, "menosVendido", JanelaVendas.ULTIMOS_30_DIAS)));
+        }
+}
@@ -26,9 +26,12 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import br.com.king.flick_business.dto.ProductCatalogoDTO;
 import br.com.king.flick_business.dto.ProductRequestDTO;
 import br.com.king.flick_business.dto.ProductResponseDTO;
 import br.com.king.flick_business.entity.Category;
@@ -50,6 +53,14 @@ class ProductServiceTest {
   private CategoryService categoryServiceMock;
   @Mock
   private ProviderService providerServiceMock;
+  @Mock
+  private CatalogoProducts catalogoProductsMock;
+  @Mock
+  private BuscaTrigramas buscaTrigramasMock;
+  @Mock
+  private EstoqueService estoqueServiceMock;
+  @Mock
+  private ApplicationEventPublisher eventPublisherMock;
 
   @InjectMocks
   private ProductService productService;
@@ -110,7 +121,7 @@ class ProductServiceTest {
   @Test
   @DisplayName("buscarPorId: Deve retornar ProductResponseDTO quando ID existe")
   void buscarPorId_quandoIdExiste_deveRetornarProductResponseDTO() {
-    when(productRepositoryMock.findById(existingId)).thenReturn(Optional.of(mockProduct));
+    when(productRepositoryMock.findByIdWithCategoryAndProvider(existingId)).thenReturn(Optional.of(mockProduct));
     when(productMapperMock.toResponseDTO(mockProduct)).thenReturn(mockResponseDTO);
 
     ProductResponseDTO resultado = productService.buscarPorId(existingId);
@@ -127,18 +138,18 @@ class ProductServiceTest {
     // assertEquals(mockResponseDTO, resultado); // Pode ser problemático se os
     // objetos aninhados não tiverem equals/hashCode adequados
 
-    verify(productRepositoryMock).findById(existingId);
+    verify(productRepositoryMock).findByIdWithCategoryAndProvider(existingId);
     verify(productMapperMock).toResponseDTO(mockProduct);
   }
 
   @Test
   @DisplayName("buscarPorId: Deve lançar RecursoNaoEncontrado quando ID não existe")
   void buscarPorId_quandoIdNaoExiste_deveLancarRecursoNaoEncontrado() {
-    when(productRepositoryMock.findById(nonExistingId)).thenReturn(Optional.empty());
+    when(productRepositoryMock.findByIdWithCategoryAndProvider(nonExistingId)).thenReturn(Optional.empty());
     RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class,
         () -> productService.buscarPorId(nonExistingId));
     assertEquals("Product não encontrado com ID: " + nonExistingId, exception.getMessage());
-    verify(productRepositoryMock).findById(nonExistingId);
+    verify(productRepositoryMock).findByIdWithCategoryAndProvider(nonExistingId);
     verify(productMapperMock, never()).toResponseDTO(any());
   }
 
@@ -183,6 +194,7 @@ class ProductServiceTest {
     verify(productMapperMock).toEntity(mockRequestDTO, mockCategory, mockProvider);
     verify(productRepositoryMock).save(productParaSalvar);
     verify(productMapperMock).toResponseDTO(productSalvoComId);
+    verify(eventPublisherMock).publishEvent(new ProductAlterado(2L));
   }
 
   // ... (Testes para salvar com category/provider não encontrado permanecem os
@@ -276,6 +288,7 @@ class ProductServiceTest {
     assertTrue(productCaptor.getValue().isActive(), "Product deveria ser ativado");
 
     verify(productRepositoryMock, times(2)).findById(existingId);
+    verify(eventPublisherMock, times(2)).publishEvent(new ProductAlterado(existingId));
   }
 
   // ... (Teste para deleteLogicamente com ID inexistente permanece o mesmo) ...
@@ -291,6 +304,35 @@ class ProductServiceTest {
 
     verify(productRepositoryMock).existsById(existingId);
     verify(productRepositoryMock).deleteById(existingId);
+    verify(eventPublisherMock).publishEvent(new ProductAlterado(existingId));
+  }
+
+  @Test
+  @DisplayName("buscarPorBarcode: Deve consultar o catálogo e lançar RecursoNaoEncontrado se não houver product")
+  void buscarPorBarcode_consultaCatalogo() {
+    ProductCatalogoDTO arroz = new ProductCatalogoDTO(existingId, "Arroz", "7890000000017", new BigDecimal("25.00"),
+        UnitOfSale.UNIDADE);
+    when(catalogoProductsMock.buscarPorBarcode("7890000000017")).thenReturn(Optional.of(arroz));
+    when(catalogoProductsMock.buscarPorBarcode("000")).thenReturn(Optional.empty());
+
+    assertEquals(arroz, productService.buscarPorBarcode("7890000000017"));
+    assertThrows(RecursoNaoEncontrado.class, () -> productService.buscarPorBarcode("000"));
+    verifyNoInteractions(productRepositoryMock);
+  }
+
+  @Test
+  @DisplayName("buscarNoCatalogo: Com pg_trgm, deve buscar os IDs no banco e manter a ordem do ranking")
+  void buscarNoCatalogo_noBanco_mantemOrdemDoRanking() {
+    ProductCatalogoDTO arroz = new ProductCatalogoDTO(1L, "Arroz", "7890000000017", BigDecimal.TEN,
+        UnitOfSale.UNIDADE);
+    ProductCatalogoDTO arrozIntegral = new ProductCatalogoDTO(2L, "Arroz Integral", null, BigDecimal.TEN,
+        UnitOfSale.UNIDADE);
+    when(buscaTrigramasMock.noBanco()).thenReturn(true);
+    when(productRepositoryMock.findIdsPorBuscaTrigramas("arroz_%", "arroz\\_\\%", 10)).thenReturn(List.of(2L, 1L));
+    when(productRepositoryMock.findCatalogoByIdIn(List.of(2L, 1L))).thenReturn(List.of(arroz, arrozIntegral));
+
+    assertEquals(List.of(arrozIntegral, arroz), productService.buscarNoCatalogo("arroz_%", 10));
+    verifyNoInteractions(catalogoProductsMock);
   }
 
   @Test
@@ -0,0 +1,69 @@
+package br.com.king.flick_business.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.king.flick_business.repository.RankingVendasProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RankingVendasServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 18);
+
+    @Mock
+    private RankingVendasProductRepository rankingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RankingVendasService rankingVendasService;
+
+    @BeforeEach
+    void setUp() {
+        rankingVendasService = new RankingVendasService(rankingRepository, transactionManager, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve recriar só uma vez por dia e de novo após reconstrução do resumo")
+    void garantirJanelas_MesmoDia_DeveRecriarSoAposReconstrucao() {
+        rankingVendasService.garantirJanelas(HOJE);
+        rankingVendasService.garantirJanelas(HOJE);
+        verify(rankingRepository, times(1)).inserirDoResumoDiario(any(), any());
+
+        rankingVendasService.aoReconstruirResumo(new ResumoDiarioReconstruido(HOJE, HOJE));
+        rankingVendasService.garantirJanelas(HOJE);
+        verify(rankingRepository, times(2)).inserirDoResumoDiario(any(), any());
+    }
+
+    @Test
+    @DisplayName("Reconstrução do resumo durante a recriação deve descartar as janelas recriadas")
+    void garantirJanelas_ResumoReconstruidoDuranteRecriacao_DeveRecriarDeNovo() {
+        AtomicBoolean primeira = new AtomicBoolean(true);
+        // Simula o evento confirmado por outra thread depois que a recriação já
+        // leu o resumo antigo
+        doAnswer(invocation -> {
+            if (primeira.getAndSet(false)) {
+                rankingVendasService.aoReconstruirResumo(new ResumoDiarioReconstruido(HOJE, HOJE));
+            }
+            return 0;
+        }).when(rankingRepository).inserirDoResumoDiario(any(), any());
+
+        rankingVendasService.garantirJanelas(HOJE);
+        rankingVendasService.garantirJanelas(HOJE);
+        rankingVendasService.garantirJanelas(HOJE);
+
+        verify(rankingRepository, times(2)).inserirDoResumoDiario(any(), any());
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.exception.RecursoJaCadastrado;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+import br.com.king.flick_business.support.ContadorSql;
+
+// Banco próprio: o DataSource deste contexto é envolvido pelo ContadorSql
+@SpringBootTest(properties = { "flick.vendas.registro.modo=AGRUPADO", "flick.vendas.registro.espera=20ms",
+                "spring.datasource.url=jdbc:h2:mem:flickdb_agrupado;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@ActiveProfiles("test")
+@Import(ContadorSql.Configuracao.class)
+class RegistroVendasAgrupadoIT {
+
+        @Autowired
+        private RegistroVendasAgrupado registroVendas;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+
+        private Product pao;
+        private Product leite;
+        private Cliente ana;
+
+        @BeforeEach
+        void setUp() {
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                clienteRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão").category(category)
+                                .salePrice(new BigDecimal("1.00")).stockQuantity(new BigDecimal("10"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                // Estoque zerado: vendido sem baixa
+                leite = productRepository.save(Product.builder().name("Leite").category(category)
+                                .salePrice(new BigDecimal("4.00")).stockQuantity(BigDecimal.ZERO).unitOfSale(UnitOfSale.UNIDADE).active(true)
+                                .build());
+                ana = clienteRepository.save(Cliente.builder().name("Ana").cpf("12345678901").active(true)
+                                .controleFiado(true).limiteFiado(new BigDecimal("10.00"))
+                                .saldoDevedor(BigDecimal.ZERO).build());
+        }
+
+        private static VendaRequestDTO venda(Long clienteId, FormaPagamento formaPagamento, Product product,
+                        String quantidade) {
+                return new VendaRequestDTO(clienteId, List.of(new ItemVendaRequestDTO(product.getId(),
+                                new BigDecimal(quantidade))), formaPagamento, null);
+        }
+
+        // Dispara as chamadas juntas e devolve o desfecho de cada uma
+        private List<Future<VendaResponseDTO>> simultaneas(List<Callable<VendaResponseDTO>> chamadas)
+                        throws Exception {
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(chamadas.size());
+                try {
+                        List<Future<VendaResponseDTO>> futuros = new ArrayList<>();
+                        for (Callable<VendaResponseDTO> chamada : chamadas) {
+                                futuros.add(executor.submit(() -> {
+                                        largada.await();
+                                        return chamada.call();
+                                }));
+                        }
+                        largada.countDown();
+                        for (Future<VendaResponseDTO> futuro : futuros) {
+                                try {
+                                        futuro.get(1, TimeUnit.MINUTES);
+                                } catch (ExecutionException e) {
+                                        // Conferido por quem chamou
+                                }
+                        }
+                        return futuros;
+                } finally {
+                        executor.shutdownNow();
+                }
+        }
+
+        private static Throwable erro(Future<VendaResponseDTO> futuro) {
+                return assertThrows(ExecutionException.class, futuro::get).getCause();
+        }
+
+        @Test
+        @DisplayName("Vendas simultâneas gravadas em grupo conferem estoque e limite fiado venda a venda")
+        void registrar_GrupoConfereEstoqueELimite() throws Exception {
+                List<Callable<VendaResponseDTO>> chamadas = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                        chamadas.add(() -> registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "3"), null));
+                }
+                for (int i = 0; i < 4; i++) {
+                        chamadas.add(() -> registroVendas.registrar(
+                                        venda(ana.getId(), FormaPagamento.FIADO, leite, "1"), null));
+                }
+                List<Future<VendaResponseDTO>> futuros = simultaneas(chamadas);
+
+                // 10 pães: três vendas de 3; o pão que sobra ainda é estoque controlado
+                assertEquals(3, futuros.subList(0, 6).stream().filter(f -> f.state() == Future.State.SUCCESS).count());
+                futuros.subList(0, 6).stream().filter(f -> f.state() == Future.State.FAILED)
+                                .forEach(f -> assertInstanceOf(RecursoNaoEncontrado.class, erro(f)));
+                // Limite fiado de 10,00: duas vendas de 4,00
+                assertEquals(2, futuros.subList(6, 10).stream().filter(f -> f.state() == Future.State.SUCCESS).count());
+                futuros.subList(6, 10).stream().filter(f -> f.state() == Future.State.FAILED)
+                                .forEach(f -> assertInstanceOf(BusinessException.class, erro(f)));
+
+                assertEquals(5, vendaRepository.count());
+                assertEquals(0, BigDecimal.ONE.compareTo(
+                                productRepository.findById(pao.getId()).orElseThrow().getStockQuantity()));
+                assertEquals(0, new BigDecimal("8.00").compareTo(
+                                clienteRepository.findById(ana.getId()).orElseThrow().getSaldoDevedor()));
+        }
+
+        @Test
+        @DisplayName("Cada chamada recebe a própria exceção, a mesma do registro imediato")
+        void registrar_ErrosPorChamada() throws Exception {
+                ana.setLimiteFiado(new BigDecimal("1.00"));
+                clienteRepository.save(ana);
+                List<Future<VendaResponseDTO>> futuros = simultaneas(List.of(
+                                () -> registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "1"), "chave-1"),
+                                () -> registroVendas.registrar(venda(ana.getId(), FormaPagamento.FIADO, pao, "2"), null),
+                                () -> registroVendas.registrar(venda(9999L, FormaPagamento.PIX, pao, "1"), null),
+                                () -> registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "1"), " ")));
+
+                assertEquals(0, new BigDecimal("1.00").compareTo(futuros.get(0).get().valorTotal()));
+                assertInstanceOf(BusinessException.class, erro(futuros.get(1)));
+                assertInstanceOf(RecursoNaoEncontrado.class, erro(futuros.get(2)));
+                assertInstanceOf(BusinessException.class, erro(futuros.get(3)));
+                assertEquals(1, vendaRepository.count());
+
+                // Repetição com a mesma chave devolve a venda; com outro conteúdo, recusa
+                assertEquals(futuros.get(0).get().id(),
+                                registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "1"), "chave-1").id());
+                assertThrows(RecursoJaCadastrado.class,
+                                () -> registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "2"), "chave-1"));
+                assertEquals(1, vendaRepository.count());
+        }
+
+        @Test
+        @DisplayName("Repetição de venda gravada em grupo é respondida da memória, sem SQL")
+        void registrar_ChaveRepetida_RespondidaDaMemoria() throws Exception {
+                VendaRequestDTO venda = venda(null, FormaPagamento.PIX, pao, "1");
+                List<Future<VendaResponseDTO>> futuros = simultaneas(List.of(
+                                () -> registroVendas.registrar(venda, "chave-grupo"),
+                                () -> registroVendas.registrar(venda(null, FormaPagamento.PIX, pao, "2"), null)));
+                VendaResponseDTO registrada = futuros.get(0).get();
+
+                ContadorSql.Medicao repeticao = ContadorSql.medir(
+                                () -> assertEquals(registrada, registroVendas.registrar(venda, "chave-grupo")));
+
+                assertEquals(0, repeticao.total(), repeticao::toString);
+                assertEquals(2, vendaRepository.count());
+        }
+}
@@ -0,0 +1,109 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.exception.ConsultaExpirada;
+
+@ExtendWith(MockitoExtension.class)
+class RegistroVendasAgrupadoTest {
+
+    @Mock
+    private VendaService vendaServiceMock;
+    @Mock
+    private VendaLoteService vendaLoteServiceMock;
+    @Mock
+    private IdempotenciaVendas idempotenciaVendasMock;
+
+    private RegistroVendasAgrupado registro;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (registro != null) {
+            registro.encerrar();
+        }
+    }
+
+    private RegistroVendasAgrupado agrupado(Duration timeout) {
+        return new RegistroVendasAgrupado(vendaServiceMock, vendaLoteServiceMock, idempotenciaVendasMock,
+                RegistroVendasAgrupado.Modo.AGRUPADO, 1, Duration.ofMillis(1), timeout);
+    }
+
+    private static VendaRequestDTO venda() {
+        return new VendaRequestDTO(null, List.of(new ItemVendaRequestDTO(1L, BigDecimal.ONE)), FormaPagamento.PIX,
+                null);
+    }
+
+    @Test
+    @DisplayName("Depois do encerramento, a venda é recusada em vez de esperar para sempre")
+    void registrar_AposEncerramento_DeveRecusar() throws InterruptedException {
+        registro = agrupado(Duration.ofSeconds(5));
+        registro.encerrar();
+
+        assertThrows(IllegalStateException.class, () -> registro.registrar(venda(), null));
+        verifyNoInteractions(vendaLoteServiceMock);
+    }
+
+    @Test
+    @DisplayName("Quem espera além do timeout recebe ConsultaExpirada; o pedido ainda na fila sai dela")
+    void registrar_GravacaoParada_DeveExpirarERetirarDaFila() throws Exception {
+        registro = agrupado(Duration.ofMillis(200));
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(vendaLoteServiceMock.registrarAgrupadas(anyList())).thenAnswer(invocacao -> {
+            gravando.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            throw new IllegalStateException("Banco indisponível");
+        });
+
+        // O primeiro grupo (de uma venda) prende a gravadora
+        CompletableFuture<Throwable> primeira = CompletableFuture.supplyAsync(
+                () -> assertThrows(RuntimeException.class, () -> registro.registrar(venda(), null)));
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+
+        ConsultaExpirada erro = assertThrows(ConsultaExpirada.class, () -> registro.registrar(venda(), null));
+        assertTrue(erro.getMessage().startsWith("Venda não registrada"));
+
+        liberar.countDown();
+        assertTrue(primeira.get(5, TimeUnit.SECONDS) instanceof ConsultaExpirada);
+        // A segunda venda saiu da fila: nunca chegou a ser gravada
+        verify(vendaLoteServiceMock, times(1)).registrarAgrupadas(anyList());
+    }
+
+    @Test
+    @DisplayName("Repetição de venda confirmada recentemente é respondida da memória, sem entrar na fila")
+    void registrar_ChaveRecente_NaoEntraNaFila() {
+        registro = agrupado(Duration.ofSeconds(5));
+        VendaRequestDTO venda = venda();
+        VendaResponseDTO registrada = new VendaResponseDTO(7L, null, BigDecimal.ONE, null, List.of(),
+                FormaPagamento.PIX, null);
+        when(idempotenciaVendasMock.buscarRecente("chave-1", venda)).thenReturn(Optional.of(registrada));
+
+        assertEquals(registrada, registro.registrar(venda, "chave-1"));
+        verifyNoInteractions(vendaLoteServiceMock);
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.DashboardSummaryDTO;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ExpenseRequestDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.response.ExpenseResponseDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.TipoExpense;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ExpenseRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumoDiarioServiceIT {
+
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private ExpenseService expenseService;
+        @Autowired
+        private DashboardService dashboardService;
+        @Autowired
+        private ResumoDiarioService resumoDiarioService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ExpenseRepository expenseRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+        @Autowired
+        private DashboardCache dashboardCache;
+
+        private Product pao;
+        private Product leite;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                expenseRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+                dashboardCache.limpar();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = criarProduct(category, "Pão", "0.50");
+                leite = criarProduct(category, "Leite", "4.00");
+        }
+
+        private Product criarProduct(Category category, String name, String preco) {
+                return productRepository.save(Product.builder().name(name).category(category)
+                                .salePrice(new BigDecimal(preco)).stockQuantity(new BigDecimal("1000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+        }
+
+        private VendaResponseDTO vender(FormaPagamento formaPagamento, ItemVendaRequestDTO... itens) {
+                return vendaService.registrarVenda(new VendaRequestDTO(null, List.of(itens), formaPagamento, null));
+        }
+
+        private DashboardSummaryDTO resumoDeHoje() {
+                LocalDate hoje = LocalDate.now(ZoneId.systemDefault());
+                return dashboardService.getDashboardSummary(hoje.atStartOfDay(ZoneId.systemDefault()),
+                                ZonedDateTime.of(hoje, LocalTime.MAX, ZoneId.systemDefault()));
+        }
+
+        @Test
+        @DisplayName("Manutenção incremental deve coincidir com a reconstrução a partir das tabelas brutas")
+        void manutencaoIncremental_DeveCoincidirComReconstrucao() {
+                vender(FormaPagamento.DINHEIRO, new ItemVendaRequestDTO(pao.getId(), new BigDecimal("10")));
+                vender(FormaPagamento.PIX, new ItemVendaRequestDTO(pao.getId(), new BigDecimal("2")),
+                                new ItemVendaRequestDTO(leite.getId(), new BigDecimal("1")));
+                VendaResponseDTO estornada = vender(FormaPagamento.PIX,
+                                new ItemVendaRequestDTO(leite.getId(), new BigDecimal("5")));
+                vendaService.deleteVendaFisicamente(estornada.id());
+
+                ExpenseResponseDTO expense = expenseService.salvarExpense(new ExpenseRequestDTO("Aluguel",
+                                new BigDecimal("30.00"), ZonedDateTime.now().minusMinutes(1),
+                                TipoExpense.EMPRESARIAL, null));
+                expenseService.atualizarExpense(expense.id(), new ExpenseRequestDTO("Aluguel",
+                                new BigDecimal("12.50"), ZonedDateTime.now().minusMinutes(1),
+                                TipoExpense.EMPRESARIAL, null));
+
+                DashboardSummaryDTO incremental = resumoDeHoje();
+
+                assertEquals(0, new BigDecimal("10.00").compareTo(incremental.totalVendasBruto()));
+                assertEquals(2L, incremental.quantidadeVendas());
+                assertEquals(0, new BigDecimal("12.50").compareTo(incremental.totalExpenses()));
+                assertEquals(0, new BigDecimal("5.00")
+                                .compareTo(incremental.totalVendasPorFormaPagamento().get(FormaPagamento.DINHEIRO)));
+                assertEquals(0, new BigDecimal("5.00")
+                                .compareTo(incremental.totalVendasPorFormaPagamento().get(FormaPagamento.PIX)));
+                assertNotNull(incremental.productMaisVendido());
+                assertEquals(pao.getId(), incremental.productMaisVendido().productId());
+
+                LocalDate hoje = LocalDate.now(ZoneId.systemDefault());
+                resumoDiarioService.reconstruir(hoje, hoje);
+                DashboardSummaryDTO reconstruido = resumoDeHoje();
+
+                assertEquals(0, incremental.totalVendasBruto().compareTo(reconstruido.totalVendasBruto()));
+                assertEquals(incremental.quantidadeVendas(), reconstruido.quantidadeVendas());
+                assertEquals(0, incremental.totalExpenses().compareTo(reconstruido.totalExpenses()));
+                assertEquals(incremental.productMaisVendido().productId(),
+                                reconstruido.productMaisVendido().productId());
+                assertEquals(0, incremental.productMaisVendido().quantidadeTotalVendida()
+                                .compareTo(reconstruido.productMaisVendido().quantidadeTotalVendida()));
+        }
+
+        @Test
+        @DisplayName("Resumo em cache deve ser invalidado após o commit de uma venda do dia")
+        void cacheDoDashboard_DeveSerInvalidadoAposCommitDeVenda() {
+                vender(FormaPagamento.DINHEIRO, new ItemVendaRequestDTO(pao.getId(), new BigDecimal("10")));
+                DashboardSummaryDTO antes = resumoDeHoje();
+                long acertosAntes = dashboardCache.estatisticas().acertos();
+
+                assertSame(antes, resumoDeHoje());
+                assertEquals(acertosAntes + 1, dashboardCache.estatisticas().acertos());
+
+                vender(FormaPagamento.PIX, new ItemVendaRequestDTO(leite.getId(), new BigDecimal("1")));
+                DashboardSummaryDTO depois = resumoDeHoje();
+
+                assertEquals(1L, antes.quantidadeVendas());
+                assertEquals(2L, depois.quantidadeVendas());
+                assertEquals(0, new BigDecimal("9.00").compareTo(depois.totalVendasBruto()));
+        }
+}
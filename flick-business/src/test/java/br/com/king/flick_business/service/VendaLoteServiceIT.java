@@ -0,0 +1,287 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.request.VendaLoteItemRequestDTO;
+import br.com.king.flick_business.dto.response.ResultadoVendaLoteDTO;
+import br.com.king.flick_business.dto.response.VendaLoteResponseDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.entity.ResumoDiario;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioPagamentoRepository;
+import br.com.king.flick_business.repository.ResumoDiarioProductRepository;
+import br.com.king.flick_business.repository.ResumoDiarioRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VendaLoteServiceIT {
+
+        @Autowired
+        private VendaLoteService vendaLoteService;
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private ResumoDiarioService resumoDiarioService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+        @Autowired
+        private ResumoDiarioRepository resumoDiarioRepository;
+        @Autowired
+        private ResumoDiarioPagamentoRepository resumoDiarioPagamentoRepository;
+        @Autowired
+        private ResumoDiarioProductRepository resumoDiarioProductRepository;
+        @Value("${flick.vendas.lote.tamanho-maximo}")
+        private int tamanhoMaximo;
+
+        private Product pao;
+        private Product leite;
+        private Cliente ana;
+
+        @BeforeEach
+        void setUp() {
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                clienteRepository.deleteAll();
+                categoryRepository.deleteAll();
+                resumoDiarioPagamentoRepository.deleteAll();
+                resumoDiarioProductRepository.deleteAll();
+                resumoDiarioRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão").category(category)
+                                .salePrice(new BigDecimal("0.50")).stockQuantity(new BigDecimal("10"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                leite = productRepository.save(Product.builder().name("Leite").category(category)
+                                .salePrice(new BigDecimal("4.00")).stockQuantity(new BigDecimal("100"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                ana = clienteRepository.save(Cliente.builder().name("Ana").cpf("12345678901").active(true)
+                                .controleFiado(true).limiteFiado(new BigDecimal("10.00"))
+                                .saldoDevedor(BigDecimal.ZERO).build());
+        }
+
+        private static VendaLoteItemRequestDTO item(String chave, ZonedDateTime dataVenda, Long clienteId,
+                        FormaPagamento formaPagamento, ItemVendaRequestDTO... itens) {
+                return new VendaLoteItemRequestDTO(chave, dataVenda,
+                                new VendaRequestDTO(clienteId, List.of(itens), formaPagamento, null));
+        }
+
+        private static ItemVendaRequestDTO de(Product product, String quantidade) {
+                return new ItemVendaRequestDTO(product.getId(), new BigDecimal(quantidade));
+        }
+
+        private BigDecimal estoque(Product product) {
+                return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+        }
+
+        @Test
+        @DisplayName("Lote registra as vendas válidas e recusa as outras, com as regras de uma venda isolada")
+        void registrarLote_ResultadoPorVenda() {
+                ZonedDateTime ontem = ZonedDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+                VendaLoteResponseDTO resposta = vendaLoteService.registrarLote(List.of(
+                                item("a", ontem, null, FormaPagamento.DINHEIRO, de(pao, "6"), de(leite, "1")),
+                                // Sobraram só 4 pães
+                                item("b", ontem, null, FormaPagamento.PIX, de(pao, "5")),
+                                item("c", null, ana.getId(), FormaPagamento.FIADO, de(leite, "2")),
+                                // Passaria do limite fiado (8 + 4 > 10)
+                                item("d", null, ana.getId(), FormaPagamento.FIADO, de(leite, "1")),
+                                item("e", null, null, FormaPagamento.PIX, de(pao, "0")),
+                                item(null, null, 9999L, FormaPagamento.DINHEIRO, de(pao, "1")),
+                                item(null, null, null, FormaPagamento.DINHEIRO, de(pao, "4"))));
+
+                List<ResultadoVendaLoteDTO> resultados = resposta.resultados();
+                assertEquals(7, resultados.size());
+                assertEquals(3, resposta.registradas());
+                assertEquals(4, resposta.recusadas());
+                assertTrue(resultados.get(0).registrada());
+                assertFalse(resultados.get(1).registrada());
+                assertTrue(resultados.get(1).erro().startsWith("Estoque insuficiente para o product: Pão"),
+                                resultados.get(1).erro());
+                assertTrue(resultados.get(2).registrada());
+                assertFalse(resultados.get(3).registrada());
+                assertTrue(resultados.get(3).erro().startsWith("Limite fiado excedido"), resultados.get(3).erro());
+                assertFalse(resultados.get(4).registrada());
+                assertTrue(resultados.get(4).erro().contains("maior que 0"), resultados.get(4).erro());
+                assertEquals("Cliente não encontrado com ID: 9999", resultados.get(5).erro());
+                assertTrue(resultados.get(6).registrada());
+                assertNull(resultados.get(6).erro());
+
+                assertEquals(3, vendaRepository.count());
+                // Os 4 pães restantes foram para a última venda: estoque zerado
+                assertEquals(0, BigDecimal.ZERO.compareTo(estoque(pao)));
+                assertEquals(0, new BigDecimal("97").compareTo(estoque(leite)));
+                Cliente anaDepois = clienteRepository.findById(ana.getId()).orElseThrow();
+                assertEquals(0, new BigDecimal("8.00").compareTo(anaDepois.getSaldoDevedor()));
+                assertEquals(resultados.get(0).vendaId(), chaveRepository.findById("a").orElseThrow().getVendaId());
+                assertEquals(2, chaveRepository.count());
+                assertEquals(ontem.toInstant(), vendaRepository.findById(resultados.get(0).vendaId()).orElseThrow()
+                                .getDataVenda().toInstant());
+        }
+
+        @Test
+        @DisplayName("Chave já registrada ou repetida no lote devolve a mesma venda; com outro conteúdo, recusa")
+        void registrarLote_ChavesRepetidas() {
+                String chave = UUID.randomUUID().toString();
+                VendaResponseDTO online = vendaService.registrarVenda(
+                                new VendaRequestDTO(null, List.of(de(leite, "1")), FormaPagamento.PIX, null), chave);
+
+                VendaLoteResponseDTO resposta = vendaLoteService.registrarLote(List.of(
+                                item(chave, null, null, FormaPagamento.PIX, de(leite, "1.000")),
+                                item("x", null, null, FormaPagamento.PIX, de(pao, "1")),
+                                item("x", null, null, FormaPagamento.PIX, de(pao, "1")),
+                                item("x", null, null, FormaPagamento.PIX, de(pao, "2")),
+                                item(chave, null, null, FormaPagamento.PIX, de(leite, "3"))));
+
+                List<ResultadoVendaLoteDTO> resultados = resposta.resultados();
+                assertEquals(online.id(), resultados.get(0).vendaId());
+                assertTrue(resultados.get(1).registrada());
+                assertEquals(resultados.get(1).vendaId(), resultados.get(2).vendaId());
+                assertEquals(2, resultados.get(2).indice());
+                assertFalse(resultados.get(3).registrada());
+                assertFalse(resultados.get(4).registrada());
+                assertEquals(2, vendaRepository.count());
+                assertEquals(0, new BigDecimal("9").compareTo(estoque(pao)));
+                assertEquals(0, new BigDecimal("99").compareTo(estoque(leite)));
+        }
+
+        @Test
+        @DisplayName("Resumo diário do lote deve coincidir com a reconstrução a partir das vendas")
+        void registrarLote_ResumoDiarioCoincideComReconstrucao() {
+                ZonedDateTime ontem = ZonedDateTime.now().minusDays(1);
+                vendaLoteService.registrarLote(List.of(
+                                item(null, ontem, null, FormaPagamento.DINHEIRO, de(pao, "2"), de(leite, "1")),
+                                item(null, ontem, null, FormaPagamento.DINHEIRO, de(leite, "3")),
+                                item(null, null, null, FormaPagamento.PIX, de(pao, "1")),
+                                item(null, null, ana.getId(), FormaPagamento.FIADO, de(leite, "2"))));
+
+                LocalDate diaOntem = ResumoDiarioService.diaDe(ontem);
+                LocalDate hoje = ResumoDiarioService.diaDe(ZonedDateTime.now());
+                List<ResumoDiario> incremental = new ArrayList<>(resumoDiarioRepository.findAll());
+                long pagamentos = resumoDiarioPagamentoRepository.count();
+                long products = resumoDiarioProductRepository.count();
+                ResumoDiario deOntem = resumoDiarioRepository.findById(diaOntem).orElseThrow();
+                assertEquals(2L, deOntem.getQuantidadeVendas());
+                assertEquals(0, new BigDecimal("17.00").compareTo(deOntem.getTotalVendas()));
+
+                resumoDiarioService.reconstruir(diaOntem, hoje);
+
+                List<ResumoDiario> reconstruido = resumoDiarioRepository.findAll();
+                assertEquals(incremental.size(), reconstruido.size());
+                for (ResumoDiario resumo : reconstruido) {
+                        ResumoDiario antes = incremental.stream().filter(r -> r.getDia().equals(resumo.getDia()))
+                                        .findFirst().orElseThrow();
+                        assertEquals(0, antes.getTotalVendas().compareTo(resumo.getTotalVendas()));
+                        assertEquals(antes.getQuantidadeVendas(), resumo.getQuantidadeVendas());
+                }
+                assertEquals(pagamentos, resumoDiarioPagamentoRepository.count());
+                assertEquals(products, resumoDiarioProductRepository.count());
+        }
+
+        @Test
+        @DisplayName("Lotes e vendas isoladas fiado do mesmo cliente, ao mesmo tempo: nenhum acréscimo perdido nem limite furado")
+        void registrarLote_FiadoConcorrente_NaoPerdeSaldoNemPassaDoLimite() throws Exception {
+                // Limite para 10 vendas de um leite (4.00); 4 lotes de 3 e 6 vendas isoladas tentam 18
+                Cliente bruno = clienteRepository.save(Cliente.builder().name("Bruno").cpf("10987654321").active(true)
+                                .controleFiado(true).limiteFiado(new BigDecimal("40.00"))
+                                .saldoDevedor(BigDecimal.ZERO).build());
+                VendaLoteItemRequestDTO fiado = item(null, null, bruno.getId(), FormaPagamento.FIADO, de(leite, "1"));
+                AtomicInteger registradas = new AtomicInteger();
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(10);
+                try {
+                        List<Future<?>> tarefas = new ArrayList<>();
+                        for (int t = 0; t < 4; t++) {
+                                tarefas.add(executor.submit(() -> {
+                                        largada.await();
+                                        registradas.addAndGet(vendaLoteService
+                                                        .registrarLote(List.of(fiado, fiado, fiado)).registradas());
+                                        return null;
+                                }));
+                        }
+                        for (int t = 0; t < 6; t++) {
+                                tarefas.add(executor.submit(() -> {
+                                        largada.await();
+                                        try {
+                                                vendaService.registrarVenda(fiado.venda());
+                                                registradas.incrementAndGet();
+                                        } catch (BusinessException limiteExcedido) {
+                                                // Esperado depois da décima venda
+                                        }
+                                        return null;
+                                }));
+                        }
+                        largada.countDown();
+                        for (Future<?> tarefa : tarefas) {
+                                tarefa.get(2, TimeUnit.MINUTES);
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                Cliente brunoDepois = clienteRepository.findById(bruno.getId()).orElseThrow();
+                assertEquals(10, registradas.get());
+                assertEquals(10, vendaRepository.count());
+                assertEquals(0, new BigDecimal("40.00").compareTo(brunoDepois.getSaldoDevedor()));
+                assertEquals(0, new BigDecimal("90").compareTo(estoque(leite)));
+        }
+
+        @Test
+        @DisplayName("Lote acima do tamanho máximo é recusado inteiro")
+        void registrarLote_AcimaDoMaximo_DeveRecusar() {
+                List<VendaLoteItemRequestDTO> vendas = Collections.nCopies(tamanhoMaximo + 1,
+                                item(null, null, null, FormaPagamento.PIX, de(pao, "1")));
+
+                assertThrows(BusinessException.class, () -> vendaLoteService.registrarLote(vendas));
+                assertEquals(0, vendaRepository.count());
+        }
+}
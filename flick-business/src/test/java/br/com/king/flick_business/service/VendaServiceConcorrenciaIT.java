@@ -0,0 +1,135 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.RecursoNaoEncontrado;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VendaServiceConcorrenciaIT {
+
+        private static final int THREADS = 8;
+
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+
+        private Category category;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                categoryRepository.deleteAll();
+                category = categoryRepository.save(Category.builder().name("Padaria").build());
+        }
+
+        private Product criarProduct(String name, String estoque) {
+                return productRepository.save(Product.builder().name(name).category(category)
+                                .salePrice(new BigDecimal("1.00")).stockQuantity(new BigDecimal(estoque))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+        }
+
+        /**
+         * Dispara {@code vendasPorThread} vendas de {@code quantidade} unidades do
+         * product em cada uma das {@link #THREADS} threads, todas liberadas ao mesmo
+         * tempo. Retorna o número de vendas registradas com sucesso.
+         */
+        private int martelarProduct(Long productId, int vendasPorThread, String quantidade) throws Exception {
+                VendaRequestDTO venda = new VendaRequestDTO(null,
+                                List.of(new ItemVendaRequestDTO(productId, new BigDecimal(quantidade))),
+                                FormaPagamento.DINHEIRO, null);
+                AtomicInteger sucessos = new AtomicInteger();
+                CountDownLatch largada = new CountDownLatch(1);
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                try {
+                        List<Future<?>> tarefas = new ArrayList<>();
+                        for (int t = 0; t < THREADS; t++) {
+                                tarefas.add(executor.submit(() -> {
+                                        largada.await();
+                                        for (int i = 0; i < vendasPorThread; i++) {
+                                                try {
+                                                        vendaService.registrarVenda(venda);
+                                                        sucessos.incrementAndGet();
+                                                } catch (RecursoNaoEncontrado estoqueInsuficiente) {
+                                                        // Esperado quando o estoque acaba
+                                                }
+                                        }
+                                        return null;
+                                }));
+                        }
+                        largada.countDown();
+                        for (Future<?> tarefa : tarefas) {
+                                tarefa.get(2, TimeUnit.MINUTES);
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+                return sucessos.get();
+        }
+
+        @Test
+        @DisplayName("registrarVenda concorrente: nenhuma baixa de estoque deve ser perdida")
+        void registrarVenda_Concorrente_NaoDevePerderBaixas() throws Exception {
+                Product pao = criarProduct("Pão Francês", "1000.000");
+
+                int sucessos = martelarProduct(pao.getId(), 50, "1");
+
+                assertEquals(THREADS * 50, sucessos);
+                assertEquals(THREADS * 50, vendaRepository.count());
+                BigDecimal estoqueFinal = productRepository.findById(pao.getId()).orElseThrow().getStockQuantity();
+                // 1000 - (8 threads * 50 vendas * 1 unidade) = 600
+                assertEquals(0, new BigDecimal("600").compareTo(estoqueFinal), "Estoque final: " + estoqueFinal);
+        }
+
+        @Test
+        @DisplayName("registrarVenda concorrente: estoque nunca deve ficar negativo (sem overselling)")
+        void registrarVenda_Concorrente_NaoDeveVenderAlemDoEstoque() throws Exception {
+                Product refrigerante = criarProduct("Refrigerante 2L", "10.000");
+
+                // 40 tentativas de 3 unidades disputando 10 unidades: só 3 vendas cabem
+                int sucessos = martelarProduct(refrigerante.getId(), 5, "3");
+
+                BigDecimal estoqueFinal = productRepository.findById(refrigerante.getId()).orElseThrow()
+                                .getStockQuantity();
+                assertEquals(3, sucessos);
+                assertEquals(3, vendaRepository.count());
+                assertEquals(0, BigDecimal.ONE.compareTo(estoqueFinal), "Estoque final: " + estoqueFinal);
+                assertTrue(estoqueFinal.signum() >= 0);
+        }
+}
@@ -0,0 +1,185 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaCursor;
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.response.CursorResponse;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ChaveIdempotenciaVendaRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.MovimentoEstoqueRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+// Massa pensada para o keyset: chaves repetidas (desempate pelo id), vendas sem
+// cliente, name com o separador do token e valores com centavos
+@SpringBootTest
+@ActiveProfiles("test")
+class VendaServiceCursorIT {
+
+        private static final int PAGINA = 3;
+
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private MovimentoEstoqueRepository movimentoRepository;
+        @Autowired
+        private ChaveIdempotenciaVendaRepository chaveRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        private final List<Long> vendas = new ArrayList<>();
+
+        @BeforeEach
+        void setUp() {
+                movimentoRepository.deleteAll();
+                chaveRepository.deleteAll();
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                clienteRepository.deleteAll();
+                categoryRepository.deleteAll();
+                vendas.clear();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                Product pao = productRepository.save(Product.builder().name("Pão").category(category)
+                                .salePrice(new BigDecimal("1.25")).stockQuantity(new BigDecimal("100000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                Cliente ana = clienteRepository.save(Cliente.builder().name("Ana").cpf("12345678901").active(true)
+                                .controleFiado(false).saldoDevedor(BigDecimal.ZERO).build());
+                Cliente bruno = clienteRepository.save(Cliente.builder().name("Bruno|Filho").cpf("10987654321")
+                                .active(true).controleFiado(false).saldoDevedor(BigDecimal.ZERO).build());
+                Long[] clientes = { null, ana.getId(), bruno.getId() };
+
+                // 13 vendas: só 3 valores (1.25, 2.50, 3.75), 3 clientes (um deles nenhum)
+                // e 4 datas, de modo que toda página de 3 corta no meio de um empate
+                ZonedDateTime base = ZonedDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+                for (int k = 0; k < 13; k++) {
+                        VendaResponseDTO venda = vendaService.registrarVenda(new VendaRequestDTO(clientes[k % 3],
+                                        List.of(new ItemVendaRequestDTO(pao.getId(), new BigDecimal(k % 3 + 1))),
+                                        FormaPagamento.DINHEIRO, null));
+                        vendas.add(venda.id());
+                        jdbc.update("UPDATE vendas SET data_venda = ? WHERE id = ?",
+                                        base.plusMinutes(k % 4).toOffsetDateTime(), venda.id());
+                }
+        }
+
+        private List<Long> percorrerPorCursor(String orderBy) {
+                List<Long> ids = new ArrayList<>();
+                String cursor = null;
+                do {
+                        CursorResponse<VendaResponseDTO> pagina = vendaService.scrollVendas(null, null, null, null,
+                                        null, orderBy, cursor, PAGINA);
+                        assertTrue(pagina.content().size() <= PAGINA);
+                        assertEquals(pagina.hasNext(), pagina.nextCursor() != null);
+                        pagina.content().forEach(venda -> ids.add(venda.id()));
+                        cursor = pagina.nextCursor();
+                } while (cursor != null);
+                return ids;
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "dataVenda,asc", "dataVenda,desc", "valorTotal,asc", "valorTotal,desc",
+                        "cliente.name,asc", "cliente.name,desc" })
+        @DisplayName("A união das páginas por cursor é a listagem por offset, sem repetições nem lacunas")
+        void scrollVendas_ComEmpates_DeveCoincidirComListagemPorOffset(String orderBy) {
+                List<Long> porCursor = percorrerPorCursor(orderBy);
+                List<Long> porOffset = vendaService.listVendas(null, null, null, null, null, orderBy, 0, 100)
+                                .getContent().stream().map(VendaResponseDTO::id).toList();
+
+                assertEquals(vendas.size(), new HashSet<>(porCursor).size());
+                assertEquals(new HashSet<>(vendas), new HashSet<>(porCursor));
+                assertEquals(porOffset, porCursor);
+        }
+
+        @Test
+        @DisplayName("Vendas sem cliente entram por cliente.name como name vazio: primeiro na ordem crescente")
+        void scrollVendas_PorCliente_VendasSemClienteComoNameVazio() {
+                List<Long> semCliente = new ArrayList<>();
+                for (int k = 0; k < vendas.size(); k += 3) {
+                        semCliente.add(vendas.get(k));
+                }
+
+                List<Long> crescente = percorrerPorCursor("cliente.name,asc");
+                List<Long> decrescente = percorrerPorCursor("cliente.name,desc");
+
+                // Empate no name vazio: desempate pelo id na direção da ordenação
+                assertEquals(semCliente, crescente.subList(0, semCliente.size()));
+                assertEquals(semCliente.reversed(),
+                                decrescente.subList(decrescente.size() - semCliente.size(), decrescente.size()));
+        }
+
+        @Test
+        @DisplayName("O cursor de valorTotal volta do token com o mesmo BigDecimal e continua do ponto exato")
+        void scrollVendas_CursorDeValorTotal_DeveSobreviverAoToken() {
+                Sort.Order ordem = Sort.Order.asc("valorTotal");
+                CursorResponse<VendaResponseDTO> primeira = vendaService.scrollVendas(null, null, null, null, null,
+                                "valorTotal,asc", null, PAGINA);
+                VendaResponseDTO ultima = primeira.content().get(PAGINA - 1);
+
+                VendaCursor cursor = VendaCursor.decode(primeira.nextCursor(), ordem);
+                assertEquals(ultima.valorTotal(), cursor.valor());
+                assertEquals(ultima.id(), cursor.id());
+                assertEquals(primeira.nextCursor(), cursor.encode());
+
+                // As 5 vendas de 1.25 se dividem entre a primeira e a segunda página
+                CursorResponse<VendaResponseDTO> segunda = vendaService.scrollVendas(null, null, null, null, null,
+                                "valorTotal,asc", primeira.nextCursor(), PAGINA);
+                assertEquals(0, new BigDecimal("1.25").compareTo(segunda.content().get(0).valorTotal()));
+                assertTrue(segunda.content().get(0).id() > ultima.id());
+        }
+
+        @Test
+        @DisplayName("Cursor gerado para outro campo ou outra direção é recusado")
+        void scrollVendas_CursorDeOutraOrdenacao_DeveSerRecusado() {
+                String cursor = vendaService.scrollVendas(null, null, null, null, null, "cliente.name,asc", null,
+                                PAGINA).nextCursor();
+
+                BusinessException outroCampo = assertThrows(BusinessException.class, () -> vendaService
+                                .scrollVendas(null, null, null, null, null, "valorTotal,asc", cursor, PAGINA));
+                assertTrue(outroCampo.getMessage().contains("outra ordenação"));
+                assertThrows(BusinessException.class, () -> vendaService.scrollVendas(null, null, null, null, null,
+                                "cliente.name,desc", cursor, PAGINA));
+                assertEquals(PAGINA, vendaService.scrollVendas(null, null, null, null, null, "cliente.name,asc",
+                                cursor, PAGINA).content().size());
+        }
+}
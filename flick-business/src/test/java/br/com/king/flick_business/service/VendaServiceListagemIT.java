@@ -0,0 +1,195 @@
+package br.com.king.flick_business.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.com.king.flick_business.dto.VendaRequestDTO;
+import br.com.king.flick_business.dto.VendaResponseDTO;
+import br.com.king.flick_business.dto.request.ItemVendaRequestDTO;
+import br.com.king.flick_business.dto.response.CursorResponse;
+import br.com.king.flick_business.dto.response.PageResponse;
+import br.com.king.flick_business.entity.Category;
+import br.com.king.flick_business.entity.Cliente;
+import br.com.king.flick_business.entity.Product;
+import br.com.king.flick_business.enums.FormaPagamento;
+import br.com.king.flick_business.enums.UnitOfSale;
+import br.com.king.flick_business.exception.BusinessException;
+import br.com.king.flick_business.repository.CategoryRepository;
+import br.com.king.flick_business.repository.ClienteRepository;
+import br.com.king.flick_business.repository.ItemVendaRepository;
+import br.com.king.flick_business.repository.ProductRepository;
+import br.com.king.flick_business.repository.VendaRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VendaServiceListagemIT {
+
+        private static final int TOTAL_VENDAS = 20;
+
+        @Autowired
+        private VendaService vendaService;
+        @Autowired
+        private VendaRepository vendaRepository;
+        @Autowired
+        private ItemVendaRepository itemVendaRepository;
+        @Autowired
+        private ProductRepository productRepository;
+        @Autowired
+        private CategoryRepository categoryRepository;
+        @Autowired
+        private ClienteRepository clienteRepository;
+
+        private Product pao;
+        private Product leite;
+
+        @BeforeEach
+        void setUp() {
+                itemVendaRepository.deleteAll();
+                vendaRepository.deleteAll();
+                productRepository.deleteAll();
+                clienteRepository.deleteAll();
+                categoryRepository.deleteAll();
+
+                Category category = categoryRepository.save(Category.builder().name("Padaria").build());
+                pao = productRepository.save(Product.builder().name("Pão").category(category)
+                                .salePrice(new BigDecimal("1.00")).stockQuantity(new BigDecimal("100000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                leite = productRepository.save(Product.builder().name("Leite").category(category)
+                                .salePrice(new BigDecimal("2.00")).stockQuantity(new BigDecimal("100000"))
+                                .unitOfSale(UnitOfSale.UNIDADE).active(true).build());
+                Cliente ana = clienteRepository.save(Cliente.builder().name("Ana").cpf("12345678901").active(true)
+                                .controleFiado(false).saldoDevedor(BigDecimal.ZERO).build());
+
+                // Venda k: k pães (+ 1 leite quando k é par); um terço das vendas com
+                // cliente. Os valores totais são todos distintos.
+                for (int k = 1; k <= TOTAL_VENDAS; k++) {
+                        List<ItemVendaRequestDTO> itens = k % 2 == 0
+                                        ? List.of(new ItemVendaRequestDTO(pao.getId(), new BigDecimal(k)),
+                                                        new ItemVendaRequestDTO(leite.getId(), BigDecimal.ONE))
+                                        : List.of(new ItemVendaRequestDTO(pao.getId(), new BigDecimal(k)));
+                        vendaService.registrarVenda(new VendaRequestDTO(k % 3 == 0 ? ana.getId() : null, itens,
+                                        FormaPagamento.DINHEIRO, null));
+                }
+        }
+
+        @Test
+        @DisplayName("listVendas deve paginar no banco, respeitando ordenação e total")
+        void listVendas_DevePaginarComOrdenacaoETotal() {
+                PageResponse<VendaResponseDTO> pagina = vendaService.listVendas(null, null, null, null, null,
+                                "valorTotal,desc", 0, 8);
+
+                assertEquals(8, pagina.getContent().size());
+                assertEquals(TOTAL_VENDAS, pagina.getTotalElements());
+                assertEquals(3, pagina.getTotalPages());
+                assertTrue(pagina.isFirst());
+                for (int i = 1; i < pagina.getContent().size(); i++) {
+                        BigDecimal anterior = pagina.getContent().get(i - 1).valorTotal();
+                        BigDecimal atual = pagina.getContent().get(i).valorTotal();
+                        assertTrue(anterior.compareTo(atual) > 0, "Ordem da página não preservada");
+                }
+                // Maior venda: 20 pães + 1 leite
+                assertEquals(0, new BigDecimal("22.00").compareTo(pagina.getContent().get(0).valorTotal()));
+                assertEquals(2, pagina.getContent().get(0).itens().size());
+
+                PageResponse<VendaResponseDTO> ultima = vendaService.listVendas(null, null, null, null, null,
+                                "valorTotal,desc", 2, 8);
+                assertEquals(4, ultima.getContent().size());
+                assertTrue(ultima.isLast());
+        }
+
+        @Test
+        @DisplayName("listVendas com filtro de product deve trazer a venda com todos os itens")
+        void listVendas_FiltroPorProduct_DeveTrazerTodosOsItensDaVenda() {
+                PageResponse<VendaResponseDTO> pagina = vendaService.listVendas(null, null, null, null, leite.getId(),
+                                "valorTotal,asc", 0, 8);
+
+                assertEquals(TOTAL_VENDAS / 2, pagina.getTotalElements());
+                assertEquals(8, pagina.getContent().size());
+                pagina.getContent().forEach(venda -> assertEquals(2, venda.itens().size()));
+        }
+
+        @Test
+        @DisplayName("listVendas ordenada por cliente deve incluir vendas sem cliente")
+        void listVendas_OrdenadaPorCliente_DeveIncluirVendasSemCliente() {
+                Set<Long> ids = new HashSet<>();
+                for (int page = 0; page < 3; page++) {
+                        vendaService.listVendas(null, null, null, null, null, "cliente.name,asc", page, 8)
+                                        .getContent().forEach(venda -> ids.add(venda.id()));
+                }
+
+                assertEquals(TOTAL_VENDAS, ids.size());
+        }
+
+        private List<Long> percorrerPorCursor(String orderBy, Long productId) {
+                List<Long> ids = new ArrayList<>();
+                String cursor = null;
+                do {
+                        CursorResponse<VendaResponseDTO> pagina = vendaService.scrollVendas(null, null, null, null,
+                                        productId, orderBy, cursor, 8);
+                        pagina.content().forEach(venda -> ids.add(venda.id()));
+                        assertEquals(pagina.hasNext(), pagina.nextCursor() != null);
+                        cursor = pagina.nextCursor();
+                } while (cursor != null);
+                return ids;
+        }
+
+        private List<Long> percorrerPorPagina(String orderBy, Long productId) {
+                List<Long> ids = new ArrayList<>();
+                for (int page = 0; page < 3; page++) {
+                        vendaService.listVendas(null, null, null, null, productId, orderBy, page, 8)
+                                        .getContent().forEach(venda -> ids.add(venda.id()));
+                }
+                return ids;
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "dataVenda,desc", "valorTotal,asc", "valorTotal,desc", "cliente.name,asc",
+                        "cliente.name,desc" })
+        @DisplayName("scrollVendas deve percorrer todas as vendas na mesma ordem da listagem paginada")
+        void scrollVendas_DevePercorrerTudoNaMesmaOrdem(String orderBy) {
+                List<Long> porCursor = percorrerPorCursor(orderBy, null);
+
+                assertEquals(TOTAL_VENDAS, porCursor.size());
+                assertEquals(TOTAL_VENDAS, new HashSet<>(porCursor).size());
+                assertEquals(percorrerPorPagina(orderBy, null), porCursor);
+        }
+
+        @Test
+        @DisplayName("scrollVendas deve aplicar filtros e trazer a venda com todos os itens")
+        void scrollVendas_FiltroPorProduct_DeveAplicarFiltro() {
+                CursorResponse<VendaResponseDTO> pagina = vendaService.scrollVendas(null, null, null, null,
+                                leite.getId(), "valorTotal,asc", null, 8);
+
+                assertEquals(8, pagina.content().size());
+                assertTrue(pagina.hasNext());
+                pagina.content().forEach(venda -> assertEquals(2, venda.itens().size()));
+                assertEquals(TOTAL_VENDAS / 2, percorrerPorCursor("valorTotal,asc", leite.getId()).size());
+        }
+
+        @Test
+        @DisplayName("scrollVendas deve recusar cursor inválido ou de outra ordenação")
+        void scrollVendas_CursorInvalido_DeveLancarExcecao() {
+                String cursor = vendaService.scrollVendas(null, null, null, null, null, "valorTotal,asc", null, 8)
+                                .nextCursor();
+
+                assertThrows(BusinessException.class, () -> vendaService.scrollVendas(null, null, null, null, null,
+                                "dataVenda,desc", cursor, 8));
+                assertThrows(BusinessException.class, () -> vendaService.scrollVendas(null, null, null, null, null,
+                                "valorTotal,asc", "nao-e-um-cursor", 8));
+        }
+}
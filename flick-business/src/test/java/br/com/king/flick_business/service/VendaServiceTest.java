@@ -4,6 +4,7 @@ import java.math.BigDecimal; // Importar DTOs
 import java.time.ZonedDateTime; // Importar Entidades
 import java.util.List; // Importar Enum
 import java.util.Optional; // Importar Exceções
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyList; // Usar @Captor para simplificar
 import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.Captor;
@@ -58,6 +60,12 @@ class VendaServiceTest {
     private ProductRepository productRepositoryMock; // Mock do repositório agora
     @Mock
     private ConfiguracaoGeralService configuracaoServiceMock;
+    @Mock
+    private EstoqueService estoqueServiceMock;
+    @Mock
+    private ResumoDiarioService resumoDiarioServiceMock;
+    @Mock
+    private IdempotenciaVendas idempotenciaVendasMock;
 
     @InjectMocks
     private VendaService vendaService;
@@ -66,7 +74,7 @@ class VendaServiceTest {
     @Captor
     private ArgumentCaptor<Venda> vendaCaptor;
     @Captor
-    private ArgumentCaptor<List<Product>> productsListCaptor;
+    private ArgumentCaptor<List<ItemVenda>> itensCaptor;
     @Captor
     private ArgumentCaptor<Cliente> clienteCaptor;
 
@@ -151,8 +159,8 @@ class VendaServiceTest {
     void registrarVenda_DinheiroOk_DeveSalvarVendaEAtualizarEstoque() {
         // Arrange
         // Mock products (são buscados no loop)
-        when(productRepositoryMock.findById(productComEstoque.getId())).thenReturn(Optional.of(productComEstoque));
-        when(productRepositoryMock.findById(productSemEstoque.getId())).thenReturn(Optional.of(productSemEstoque));
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId(), productSemEstoque.getId())))
+                .thenReturn(List.of(productComEstoque, productSemEstoque));
         // Mock save da venda (precisa retornar a venda com ID)
         when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> {
             Venda v = invocation.getArgument(0);
@@ -183,26 +191,93 @@ class VendaServiceTest {
         assertEquals(0, new BigDecimal("61.00").compareTo(vendaSalva.getValorTotal()));
         assertNull(vendaSalva.getCliente());
 
-        // Verifica atualização de estoque
-        verify(productRepositoryMock).saveAll(productsListCaptor.capture());
-        List<Product> productsAtualizados = productsListCaptor.getValue();
-        assertEquals(1, productsAtualizados.size()); // Apenas o product COM estoque foi atualizado
-        assertEquals(productComEstoque.getId(), productsAtualizados.get(0).getId());
-        // Estoque inicial 10.000 - vendido 2.000 = 8.000
-        assertEquals(0, new BigDecimal("8.000").compareTo(productsAtualizados.get(0).getStockQuantity()));
+        // Verifica baixa de estoque delegada ao EstoqueService (sem read-modify-write)
+        verify(estoqueServiceMock).baixarEstoque(itensCaptor.capture());
+        List<ItemVenda> itensBaixados = itensCaptor.getValue();
+        assertEquals(2, itensBaixados.size()); // O EstoqueService filtra os products sem estoque controlado
+        assertEquals(productComEstoque.getId(), itensBaixados.get(0).getProduct().getId());
+        assertEquals(0, new BigDecimal("2.000").compareTo(itensBaixados.get(0).getQuantidade()));
+        verify(productRepositoryMock, never()).saveAll(anyList());
 
         // Verifica que cliente não foi buscado nem salvo
         verify(clienteRepositoryMock, never()).findById(any());
         verify(clienteRepositoryMock, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Deve consolidar linhas repetidas do mesmo product e buscar products em uma única consulta")
+    void registrarVenda_ItensRepetidos_DeveConsolidarEBuscarUmaVez() {
+        // Arrange
+        VendaRequestDTO vendaComItensRepetidosDTO = new VendaRequestDTO(null,
+                List.of(new ItemVendaRequestDTO(productComEstoque.getId(), new BigDecimal("1.000")),
+                        new ItemVendaRequestDTO(productSemEstoque.getId(), new BigDecimal("1.000")),
+                        new ItemVendaRequestDTO(productComEstoque.getId(), new BigDecimal("2.000"))),
+                FormaPagamento.DINHEIRO, "");
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId(), productSemEstoque.getId())))
+                .thenReturn(List.of(productSemEstoque, productComEstoque));
+        when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        VendaResponseDTO response = vendaService.registrarVenda(vendaComItensRepetidosDTO);
+
+        // Assert
+        assertEquals(2, response.itens().size()); // Linhas do Product A foram unidas
+        assertEquals(productComEstoque.getId(), response.itens().get(0).product().id());
+        assertEquals(0, new BigDecimal("3.000").compareTo(response.itens().get(0).quantidade()));
+        // Valor Total = (3 * 25.50) + (1 * 10.00) = 86.50
+        assertEquals(0, new BigDecimal("86.50").compareTo(response.valorTotal()));
+        verify(productRepositoryMock).findAllById(anyIterable());
+        verify(productRepositoryMock, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Chave de idempotência nova deve registrar a venda e associá-la à chave")
+    void registrarVenda_ChaveNova_DeveRegistrarEConcluirChave() {
+        // Arrange
+        when(idempotenciaVendasMock.reservar("caixa-1-0001", vendaDinheiroRequestDTO)).thenReturn(Optional.empty());
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId(), productSemEstoque.getId())))
+                .thenReturn(List.of(productComEstoque, productSemEstoque));
+        when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> {
+            Venda v = invocation.getArgument(0);
+            v.setId(100L);
+            return v;
+        });
+
+        // Act
+        VendaResponseDTO response = vendaService.registrarVenda(vendaDinheiroRequestDTO, "caixa-1-0001");
+
+        // Assert
+        assertEquals(100L, response.id());
+        verify(idempotenciaVendasMock).concluir("caixa-1-0001", vendaDinheiroRequestDTO, response);
+    }
+
+    @Test
+    @DisplayName("Chave de idempotência repetida deve devolver a venda anterior sem registrar outra")
+    void registrarVenda_ChaveRepetida_DeveDevolverVendaAnterior() {
+        // Arrange
+        VendaResponseDTO anterior = new VendaResponseDTO(100L, ZonedDateTime.now(), new BigDecimal("61.00"), null,
+                List.of(), FormaPagamento.DINHEIRO, "Obs Dinheiro");
+        when(idempotenciaVendasMock.reservar("caixa-1-0001", vendaDinheiroRequestDTO))
+                .thenReturn(Optional.of(anterior));
+
+        // Act
+        VendaResponseDTO response = vendaService.registrarVenda(vendaDinheiroRequestDTO, "caixa-1-0001");
+
+        // Assert
+        assertEquals(anterior, response);
+        verifyNoInteractions(productRepositoryMock, vendaRepositoryMock, estoqueServiceMock,
+                resumoDiarioServiceMock);
+        verify(idempotenciaVendasMock, never()).concluir(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Deve registrar venda FIADO com sucesso, atualizar estoque e saldo do cliente")
     void registrarVenda_FiadoOk_DeveSalvarTudoEAtualizarSaldo() {
         // Arrange
         when(clienteRepositoryMock.findById(clienteActiveFiadoPermitido.getId()))
                 .thenReturn(Optional.of(clienteActiveFiadoPermitido));
-        when(productRepositoryMock.findById(productComEstoque.getId())).thenReturn(Optional.of(productComEstoque));
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId())))
+                .thenReturn(List.of(productComEstoque));
         when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> {
             Venda v = invocation.getArgument(0);
             v.setId(101L);
@@ -211,6 +286,9 @@ class VendaServiceTest {
             v.setCliente(clienteActiveFiadoPermitido);
             return v;
         });
+        // Saldo lido com a linha do cliente travada
+        when(clienteRepositoryMock.travarSaldoDevedor(clienteActiveFiadoPermitido.getId()))
+                .thenReturn(new BigDecimal("10.00"));
         // Mock save do cliente (retorna o próprio cliente modificado)
         when(clienteRepositoryMock.save(any(Cliente.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -233,11 +311,11 @@ class VendaServiceTest {
         assertEquals(clienteActiveFiadoPermitido, vendaCaptor.getValue().getCliente());
         assertEquals(0, new BigDecimal("51.00").compareTo(vendaCaptor.getValue().getValorTotal()));
 
-        // Verifica atualização de estoque
-        verify(productRepositoryMock).saveAll(productsListCaptor.capture());
-        assertEquals(1, productsListCaptor.getValue().size());
-        assertEquals(productComEstoque.getId(), productsListCaptor.getValue().get(0).getId());
-        assertEquals(0, new BigDecimal("8.000").compareTo(productsListCaptor.getValue().get(0).getStockQuantity()));
+        // Verifica baixa de estoque
+        verify(estoqueServiceMock).baixarEstoque(itensCaptor.capture());
+        assertEquals(1, itensCaptor.getValue().size());
+        assertEquals(productComEstoque.getId(), itensCaptor.getValue().get(0).getProduct().getId());
+        assertEquals(0, new BigDecimal("2.000").compareTo(itensCaptor.getValue().get(0).getQuantidade()));
 
         // Verifica atualização do Cliente
         verify(clienteRepositoryMock).save(clienteCaptor.capture());
@@ -304,48 +382,50 @@ class VendaServiceTest {
     @DisplayName("Deve falhar ao registrar venda se product não for encontrado")
     void registrarVenda_ProductNaoEncontrado_DeveLancarExcecao() {
         // Arrange
-        when(productRepositoryMock.findById(productComEstoque.getId())).thenReturn(Optional.empty());
+        when(productRepositoryMock.findAllById(anyIterable())).thenReturn(List.of(productSemEstoque));
 
         // Act & Assert
         RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class, () -> {
             vendaService.registrarVenda(vendaDinheiroRequestDTO); // Usando venda dinheiro (não precisa cliente)
         });
         assertNotNull(exception); // Optionally, assert that the exception is not null
-        verify(productRepositoryMock).findById(productComEstoque.getId());
+        verify(productRepositoryMock).findAllById(anyIterable());
         verifyNoInteractions(vendaRepositoryMock, clienteRepositoryMock); // Venda e cliente não devem ser salvos
-        verify(productRepositoryMock, never()).saveAll(anyList()); // Estoque não atualizado
+        verify(estoqueServiceMock, never()).baixarEstoque(any()); // Estoque não atualizado
     }
 
     @Test
     @DisplayName("Deve falhar ao registrar venda se product estiver inactive")
     void registrarVenda_ProductInactive_DeveLancarExcecao() {
         // Arrange
-        when(productRepositoryMock.findById(productInactive.getId())).thenReturn(Optional.of(productInactive));
+        when(productRepositoryMock.findAllById(Set.of(productInactive.getId())))
+                .thenReturn(List.of(productInactive));
 
         // Act & Assert
         RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class, () -> {
             vendaService.registrarVenda(vendaComItemInactiveDTO);
         });
         assertNotNull(exception); // Optionally, assert that the exception is not null
-        verify(productRepositoryMock).findById(productInactive.getId());
+        verify(productRepositoryMock).findAllById(Set.of(productInactive.getId()));
         verifyNoInteractions(vendaRepositoryMock, clienteRepositoryMock);
-        verify(productRepositoryMock, never()).saveAll(anyList());
+        verify(estoqueServiceMock, never()).baixarEstoque(any());
     }
 
     @Test
     @DisplayName("Deve falhar ao registrar venda se product estiver sem preço")
     void registrarVenda_ProductSemPreco_DeveLancarExcecao() {
         // Arrange
-        when(productRepositoryMock.findById(productSemPreco.getId())).thenReturn(Optional.of(productSemPreco));
+        when(productRepositoryMock.findAllById(Set.of(productSemPreco.getId())))
+                .thenReturn(List.of(productSemPreco));
 
         // Act & Assert
         RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class, () -> {
             vendaService.registrarVenda(vendaComItemSemPrecoDTO);
         });
         assertNotNull(exception); // Optionally, assert that the exception is not null
-        verify(productRepositoryMock).findById(productSemPreco.getId());
+        verify(productRepositoryMock).findAllById(Set.of(productSemPreco.getId()));
         verifyNoInteractions(vendaRepositoryMock, clienteRepositoryMock);
-        verify(productRepositoryMock, never()).saveAll(anyList());
+        verify(estoqueServiceMock, never()).baixarEstoque(any());
     }
 
     @Test
@@ -353,16 +433,17 @@ class VendaServiceTest {
     void registrarVenda_EstoqueInsuficiente_DeveLancarExcecao() {
         // Arrange
         // O productComEstoque tem 10.000, o DTO pede 15.000
-        when(productRepositoryMock.findById(productComEstoque.getId())).thenReturn(Optional.of(productComEstoque));
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId())))
+                .thenReturn(List.of(productComEstoque));
 
         // Act & Assert
         RecursoNaoEncontrado exception = assertThrows(RecursoNaoEncontrado.class, () -> {
             vendaService.registrarVenda(vendaComItemSemEstoqueDTO);
         });
         assertNotNull(exception);
-        verify(productRepositoryMock).findById(productComEstoque.getId());
+        verify(productRepositoryMock).findAllById(Set.of(productComEstoque.getId()));
         verifyNoInteractions(vendaRepositoryMock, clienteRepositoryMock);
-        verify(productRepositoryMock, never()).saveAll(anyList());
+        verify(estoqueServiceMock, never()).baixarEstoque(any());
     }
 
     @Test
@@ -371,7 +452,8 @@ class VendaServiceTest {
         // Arrange
         when(clienteRepositoryMock.findById(clienteActiveFiadoPermitido.getId()))
                 .thenReturn(Optional.of(clienteActiveFiadoPermitido));
-        when(productRepositoryMock.findById(productComEstoque.getId())).thenReturn(Optional.of(productComEstoque));
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId())))
+                .thenReturn(List.of(productComEstoque));
         // Simula save da venda (acontece ANTES da validação do limite)
         when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> {
             Venda v = invocation.getArgument(0);
@@ -384,6 +466,8 @@ class VendaServiceTest {
             v.setValorTotal(new BigDecimal("102.00"));
             return v;
         });
+        when(clienteRepositoryMock.travarSaldoDevedor(clienteActiveFiadoPermitido.getId()))
+                .thenReturn(new BigDecimal("10.00"));
 
         when(configuracaoServiceMock.buscarEntidadeConfiguracao()).thenReturn(Optional.empty());
 
@@ -396,7 +480,7 @@ class VendaServiceTest {
         // Verifica que a Venda chegou a ser salva (antes da exceção)
         verify(vendaRepositoryMock).save(any(Venda.class));
         // Verifica que o Estoque chegou a ser atualizado (antes da exceção)
-        verify(productRepositoryMock).saveAll(anyList());
+        verify(estoqueServiceMock).baixarEstoque(anyList());
         // Verifica que o Cliente NÃO foi salvo (a exceção ocorreu antes disso)
         verify(clienteRepositoryMock, never()).save(any(Cliente.class));
         // IMPORTANTE: Em um teste de integração real com @Transactional, o rollback
@@ -406,6 +490,26 @@ class VendaServiceTest {
         verify(configuracaoServiceMock).buscarEntidadeConfiguracao();
     }
 
+    @Test
+    @DisplayName("Deve conferir o limite fiado contra o saldo travado, não o lido no início da venda")
+    void registrarVenda_FiadoComSaldoAlteradoPorOutraVenda_DeveUsarSaldoTravado() {
+        // Entidade lida com saldo 10.00; outra venda fiado já levou o saldo a 60.00
+        when(clienteRepositoryMock.findById(clienteActiveFiadoPermitido.getId()))
+                .thenReturn(Optional.of(clienteActiveFiadoPermitido));
+        when(productRepositoryMock.findAllById(Set.of(productComEstoque.getId())))
+                .thenReturn(List.of(productComEstoque));
+        when(vendaRepositoryMock.save(any(Venda.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(clienteRepositoryMock.travarSaldoDevedor(clienteActiveFiadoPermitido.getId()))
+                .thenReturn(new BigDecimal("60.00"));
+        when(configuracaoServiceMock.buscarEntidadeConfiguracao()).thenReturn(Optional.empty());
+
+        // 60.00 + 51.00 = 111.00 > limite 100.00
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> vendaService.registrarVenda(vendaFiadoRequestDTO));
+        assertTrue(exception.getMessage().contains("Saldo após venda: 111.00"));
+        verify(clienteRepositoryMock, never()).save(any(Cliente.class));
+    }
+
     // --- Testes listVendas e buscarVendaPorId ---
     // (São mais simples, focam em verificar se o repo é chamado e o DTO é
     // retornado)
@@ -0,0 +1,182 @@
+package br.com.king.flick_business.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Conta as instruções SQL que chegam ao banco pelo {@link DataSource} da
+ * aplicação, para testes afirmarem o máximo de consultas de uma chamada (e
+ * pegarem N+1). Cada {@code execute*} conta uma ida ao banco; um
+ * {@code executeBatch} conta uma só.
+ *
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;Import(ContadorSql.Configuracao.class)
+ * ...
+ * ContadorSql.assertMaximo(2, () -> vendaService.listVendas(...));
+ * </pre>
+ *
+ * A contagem é global (inclui as threads do dashboard paralelo); os testes
+ * que a usam não podem rodar em paralelo entre si.
+ */
+public final class ContadorSql {
+
+  private static volatile List<String> instrucoes;
+
+  private ContadorSql() {
+  }
+
+  /**
+   * Instruções executadas por uma chamada.
+   */
+  public record Medicao(List<String> instrucoes) {
+
+    public int total() {
+      return instrucoes.size();
+    }
+
+    public long selects() {
+      return instrucoes.stream().filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")
+          || sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("with")).count();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder texto = new StringBuilder(total() + " instruções:");
+      for (int i = 0; i < instrucoes.size(); i++) {
+        texto.append(System.lineSeparator()).append(i + 1).append(". ")
+            .append(instrucoes.get(i).replaceAll("\\s+", " ").strip());
+      }
+      return texto.toString();
+    }
+  }
+
+  public static synchronized <T> Medicao medir(Supplier<T> chamada) {
+    List<String> executadas = Collections.synchronizedList(new ArrayList<>());
+    instrucoes = executadas;
+    try {
+      chamada.get();
+    } finally {
+      instrucoes = null;
+    }
+    return new Medicao(List.copyOf(executadas));
+  }
+
+  public static Medicao medir(Runnable chamada) {
+    return medir(() -> {
+      chamada.run();
+      return null;
+    });
+  }
+
+  /**
+   * Falha (listando as instruções) se a chamada executar mais de
+   * {@code maximo} instruções.
+   */
+  public static <T> Medicao assertMaximo(int maximo, Supplier<T> chamada) {
+    Medicao medicao = medir(chamada);
+    assertTrue(medicao.total() <= maximo, () -> "Esperado no máximo " + maximo + ", executou " + medicao);
+    return medicao;
+  }
+
+  private static void registrar(String sql) {
+    List<String> ativa = instrucoes;
+    if (ativa != null) {
+      ativa.add(sql);
+    }
+  }
+
+  /**
+   * Envolve o {@link DataSource} da aplicação no contador.
+   */
+  @TestConfiguration(proxyBeanMethods = false)
+  public static class Configuracao {
+
+    @Bean
+    static BeanPostProcessor contadorSqlDataSource() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContador)) {
+            return new DataSourceContador(dataSource);
+          }
+          return bean;
+        }
+      };
+    }
+  }
+
+  private static final class DataSourceContador extends DelegatingDataSource {
+
+    private DataSourceContador(DataSource alvo) {
+      super(alvo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return conexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return conexao(super.getConnection(username, password));
+    }
+  }
+
+  private static Connection conexao(Connection alvo) {
+    return proxy(Connection.class, alvo, (proxy, metodo, args) -> {
+      Object resultado = invocar(alvo, metodo, args);
+      return switch (metodo.getName()) {
+        case "prepareStatement" -> instrucao(PreparedStatement.class, (Statement) resultado, (String) args[0]);
+        case "prepareCall" -> instrucao(CallableStatement.class, (Statement) resultado, (String) args[0]);
+        case "createStatement" -> instrucao(Statement.class, (Statement) resultado, null);
+        default -> resultado;
+      };
+    });
+  }
+
+  private static <S extends Statement> S instrucao(Class<S> tipo, Statement alvo, String sqlPreparado) {
+    return proxy(tipo, alvo, (proxy, metodo, args) -> {
+      String nome = metodo.getName();
+      if (nome.equals("executeBatch") || nome.equals("executeLargeBatch")) {
+        registrar(sqlPreparado != null ? sqlPreparado : "<batch>");
+      } else if (nome.startsWith("execute")) {
+        registrar(args != null && args.length > 0 && args[0] instanceof String sql ? sql : sqlPreparado);
+      }
+      return invocar(alvo, metodo, args);
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> tipo, Object alvo, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(ContadorSql.class.getClassLoader(), new Class<?>[] { tipo }, handler);
+  }
+
+  private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+    try {
+      return metodo.invoke(alvo, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}